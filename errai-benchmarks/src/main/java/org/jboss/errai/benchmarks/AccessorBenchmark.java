@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.errai.benchmarks.res.Customer;
+import org.jboss.errai.common.server.util.MemberAccessors;
+import org.jboss.errai.common.server.util.MemberAccessors.MethodAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the ways the dynamic server marshallers can call the getter and setter of a mapped property: looking the
+ * method up on every call, invoking a cached {@link Method}, and invoking an accessor generated by
+ * {@link MemberAccessors}. A direct call is included as the lower bound.
+ * <p/>
+ * On Java 9 and later, accessor classes can only be generated with <tt>java.lang</tt> opened to the benchmarks
+ * (<tt>-jvmArgsAppend --add-opens=java.base/java.lang=ALL-UNNAMED</tt>); without it, the setup fails rather than
+ * measuring the reflective fallback.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+  private static final Object[] NO_ARGS = new Object[0];
+
+  private Customer customer;
+  private Object[] setterArgs;
+
+  private Method getter;
+  private Method setter;
+  private MethodAccessor getterAccessor;
+  private MethodAccessor setterAccessor;
+
+  @Setup
+  public void setup() throws Exception {
+    customer = new Customer(1, "name", "name@example.com");
+    setterArgs = new Object[]{"other"};
+
+    getter = Customer.class.getDeclaredMethod("getName");
+    getter.setAccessible(true);
+    setter = Customer.class.getDeclaredMethod("setName", String.class);
+    setter.setAccessible(true);
+
+    getterAccessor = MemberAccessors.forMethod(getter);
+    setterAccessor = MemberAccessors.forMethod(setter);
+
+    if (!MemberAccessors.isGenerated(getterAccessor) || !MemberAccessors.isGenerated(setterAccessor)) {
+      throw new IllegalStateException("accessor classes could not be generated on this JVM");
+    }
+  }
+
+  @Benchmark
+  public Object readDirect() {
+    return customer.getName();
+  }
+
+  @Benchmark
+  public Object readLookup() throws Exception {
+    final Method method = Customer.class.getDeclaredMethod("getName");
+    method.setAccessible(true);
+    return method.invoke(customer);
+  }
+
+  @Benchmark
+  public Object readReflection() throws Exception {
+    return getter.invoke(customer);
+  }
+
+  @Benchmark
+  public Object readAccessor() throws Exception {
+    return getterAccessor.invoke(customer, NO_ARGS);
+  }
+
+  @Benchmark
+  public void writeDirect() {
+    customer.setName((String) setterArgs[0]);
+  }
+
+  @Benchmark
+  public void writeLookup() throws Exception {
+    final Method method = Customer.class.getDeclaredMethod("setName", String.class);
+    method.setAccessible(true);
+    method.invoke(customer, setterArgs);
+  }
+
+  @Benchmark
+  public void writeReflection() throws Exception {
+    setter.invoke(customer, setterArgs);
+  }
+
+  @Benchmark
+  public void writeAccessor() throws Exception {
+    setterAccessor.invoke(customer, setterArgs);
+  }
+}
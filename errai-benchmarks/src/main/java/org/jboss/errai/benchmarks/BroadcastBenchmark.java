@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.errai.benchmarks.support.BenchmarkErraiService;
+import org.jboss.errai.benchmarks.support.BenchmarkQueueSession;
+import org.jboss.errai.benchmarks.support.BenchmarkServiceConfigurator;
+import org.jboss.errai.bus.client.api.RoutingFlag;
+import org.jboss.errai.bus.client.api.base.CommandMessage;
+import org.jboss.errai.bus.client.api.base.MessageBuilder;
+import org.jboss.errai.bus.client.protocols.BusCommand;
+import org.jboss.errai.bus.server.ServerMessageBusImpl;
+import org.jboss.errai.common.client.protocols.MessageParts;
+import org.jboss.errai.common.client.protocols.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the fan-out of a message to remote subscribers through the bus'
+ * {@link ServerMessageBusImpl.RemoteMessageCallback}. With <tt>broadcast</tt> delivery every queue on the bus is
+ * subscribed, so the message is written once to the all-buffers color; with <tt>perQueue</tt> delivery one more queue
+ * exists which isn't subscribed, so the message is written to the color of each subscribed queue.
+ * <p/>
+ * Nothing reads from the queues, so the measurement includes encoding the message and writing it to the buffer, but
+ * not transmitting it.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+  private static final String SUBJECT = "BenchmarkBroadcast";
+
+  @Param({"1", "16", "256"})
+  public int queues;
+
+  @Param({"broadcast", "perQueue"})
+  public String delivery;
+
+  private ServerMessageBusImpl bus;
+  private String[] sessionIds;
+
+  @Setup
+  public void setup() {
+    bus = new ServerMessageBusImpl(new BenchmarkErraiService<Object>(), new BenchmarkServiceConfigurator());
+
+    sessionIds = new String[queues];
+    for (int i = 0; i < queues; i++) {
+      sessionIds[i] = "session-" + i;
+      associate(sessionIds[i], SUBJECT);
+    }
+
+    if ("perQueue".equals(delivery)) {
+      associate("session-unsubscribed", "BenchmarkOther");
+    }
+  }
+
+  private void associate(final String sessionId, final String remoteServices) {
+    bus.sendGlobal(CommandMessage.create()
+        .toSubject("ServerBus")
+        .command(BusCommand.Associate)
+        .set(MessageParts.RemoteServices, remoteServices)
+        .set(MessageParts.PriorityProcessing, "1")
+        .setResource(Resources.Session.name(), new BenchmarkQueueSession(sessionId))
+        .setFlag(RoutingFlag.FromRemote));
+  }
+
+  /**
+   * The queues are never polled, so keep them from being expired during long runs.
+   */
+  @Setup(Level.Iteration)
+  public void keepAlive() {
+    for (final String sessionId : sessionIds) {
+      bus.getQueueBySession(sessionId).heartBeat();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    bus.stop();
+  }
+
+  @Benchmark
+  public void fanOut() {
+    MessageBuilder.createMessage()
+        .toSubject(SUBJECT)
+        .signalling()
+        .with("Value", "Hello There!")
+        .noErrorHandling().sendNowWith(bus);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.errai.benchmarks.support.BenchmarkErraiService;
+import org.jboss.errai.benchmarks.support.BenchmarkServiceConfigurator;
+import org.jboss.errai.bus.client.api.base.MessageBuilder;
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.bus.client.api.messaging.MessageCallback;
+import org.jboss.errai.bus.server.ServerMessageBusImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ServerMessageBusImpl#send(Message)} of a message to a local subscriber, including building the
+ * message.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusBenchmark {
+  private static final String SUBJECT = "BenchmarkService";
+
+  private ServerMessageBusImpl bus;
+  private volatile long received;
+
+  @Setup
+  public void setup() {
+    bus = new ServerMessageBusImpl(new BenchmarkErraiService<Object>(), new BenchmarkServiceConfigurator());
+    bus.subscribe(SUBJECT, new MessageCallback() {
+      @Override
+      public void callback(final Message message) {
+        received++;
+      }
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    bus.stop();
+  }
+
+  @Benchmark
+  public void localSend() {
+    MessageBuilder.createMessage()
+        .toSubject(SUBJECT)
+        .done().sendNowWith(bus);
+  }
+}
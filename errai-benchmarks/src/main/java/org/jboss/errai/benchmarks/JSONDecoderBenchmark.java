@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.errai.benchmarks.support.Payloads;
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.server.JSONByteDecoder;
+import org.jboss.errai.marshalling.server.JSONStreamDecoder;
+import org.jboss.errai.marshalling.server.ServerMarshalling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing the JSON of each payload shape in {@link Payloads}, without demarshalling it. The
+ * {@link JSONByteDecoder} only decodes values when they are read, so it is measured both on its own and with every
+ * value read, which is the work the {@link JSONStreamDecoder} always does.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONDecoderBenchmark {
+  @Param({Payloads.MESSAGE, Payloads.ENTITY, Payloads.GRAPH, Payloads.SERIES})
+  public String shape;
+
+  private byte[] json;
+
+  @Setup
+  public void setup() throws IOException {
+    json = ServerMarshalling.toJSON(Payloads.create(shape)).getBytes("UTF-8");
+  }
+
+  @Benchmark
+  public Object streamDecoder() throws IOException {
+    return JSONStreamDecoder.decode(new ByteArrayInputStream(json)).getRawValue();
+  }
+
+  @Benchmark
+  public EJValue byteDecoder() {
+    return JSONByteDecoder.decode(json);
+  }
+
+  @Benchmark
+  public Object byteDecoderReadAll() {
+    return JSONByteDecoder.decode(json).getRawValue();
+  }
+}
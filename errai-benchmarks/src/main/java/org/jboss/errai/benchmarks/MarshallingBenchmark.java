@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.errai.benchmarks.support.Payloads;
+import org.jboss.errai.marshalling.server.ServerMarshalling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ServerMarshalling#toJSON(Object)} and {@link ServerMarshalling#fromJSON(String)} across the payload
+ * shapes in {@link Payloads}, with both the generated server marshallers and the dynamic (reflective) ones.
+ * <p/>
+ * The choice of marshallers is made once per JVM, when the mapping context is first used, so every combination of
+ * parameters has to run in its own fork.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallingBenchmark {
+  @Param({Payloads.MESSAGE, Payloads.ENTITY, Payloads.GRAPH, Payloads.SERIES})
+  public String shape;
+
+  @Param({"static", "dynamic"})
+  public String marshallers;
+
+  private Object value;
+  private String json;
+
+  @Setup
+  public void setup() {
+    System.setProperty("errai.marshalling.use_static_marshallers", String.valueOf("static".equals(marshallers)));
+
+    value = Payloads.create(shape);
+    json = ServerMarshalling.toJSON(value);
+  }
+
+  @Benchmark
+  public String toJSON() {
+    return ServerMarshalling.toJSON(value);
+  }
+
+  @Benchmark
+  public Object fromJSON() {
+    return ServerMarshalling.fromJSON(json);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.errai.bus.server.async.scheduling.PooledExecutorService;
+import org.jboss.errai.bus.server.async.scheduling.TimerWheelExecutorService;
+import org.jboss.errai.common.client.api.tasks.AsyncTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures scheduling a timer and cancelling it before it is due, which is what per-session timeouts and RPC timers
+ * amount to, on the {@link PooledExecutorService} and the {@link TimerWheelExecutorService}. The deadlines are spread
+ * over five minutes, so no timer fires during a run.
+ * <p/>
+ * Cancelling a task in the PooledExecutorService only flags it, and the task stays in the priority queue until it
+ * comes due. Each iteration therefore schedules a fixed batch of timers on a fresh executor, and reports the time the
+ * whole batch took.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = 200000)
+@Measurement(iterations = 10, batchSize = 200000)
+@Fork(1)
+public class SchedulerBenchmark {
+  private static final Runnable NOOP = new Runnable() {
+    @Override
+    public void run() {
+    }
+  };
+
+  @Param({"pooled", "wheel"})
+  public String executor;
+
+  private PooledExecutorService pooled;
+  private TimerWheelExecutorService wheel;
+  private int timers;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    if ("wheel".equals(executor)) {
+      wheel = new TimerWheelExecutorService(100);
+      wheel.start();
+    }
+    else {
+      pooled = new PooledExecutorService(100);
+      pooled.start();
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    if (wheel != null) {
+      wheel.requestStop();
+      wheel = null;
+    }
+    if (pooled != null) {
+      pooled.requestStop();
+      pooled = null;
+    }
+  }
+
+  @Benchmark
+  public AsyncTask scheduleAndCancel() {
+    final long delay = 30 + (timers++ % 300);
+
+    final AsyncTask task;
+    if (wheel != null) {
+      task = wheel.schedule(NOOP, org.jboss.errai.common.client.util.TimeUnit.SECONDS, delay);
+    }
+    else {
+      task = pooled.schedule(NOOP, org.jboss.errai.common.client.util.TimeUnit.SECONDS, delay);
+    }
+
+    task.cancel(false);
+    return task;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.errai.benchmarks.support.CountingWriteAdapter;
+import org.jboss.errai.bus.server.io.buffers.BufferColor;
+import org.jboss.errai.bus.server.io.buffers.TransmissionBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writes to and reads from a shared {@link TransmissionBuffer}. Each benchmark thread is assigned one of
+ * {@link #colors} colors round-robin, so running with more threads than colors (<tt>-t</tt>) measures contention on
+ * a color, and with as many threads as colors measures contention on the buffer alone.
+ * <p/>
+ * {@link #write(Client)} copies the message in bulk, while {@link #writeStream(Client)} writes the same message
+ * through the {@link java.io.InputStream} path.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransmissionBufferBenchmark {
+  @Param({"1", "16"})
+  public int colors;
+
+  @Param({"128", "4096"})
+  public int messageSize;
+
+  @Param({"heap", "direct"})
+  public String allocation;
+
+  private TransmissionBuffer buffer;
+  private BufferColor[] bufferColors;
+  private byte[] message;
+  private final AtomicInteger nextColor = new AtomicInteger();
+
+  @Setup
+  public void setup() {
+    buffer = "direct".equals(allocation) ? TransmissionBuffer.createDirect() : TransmissionBuffer.create();
+
+    bufferColors = new BufferColor[colors];
+    for (int i = 0; i < colors; i++) {
+      bufferColors[i] = BufferColor.getNewColor();
+    }
+
+    message = new byte[messageSize];
+    Arrays.fill(message, (byte) 'x');
+  }
+
+  @State(Scope.Thread)
+  public static class Client {
+    private BufferColor color;
+    private final CountingWriteAdapter out = new CountingWriteAdapter();
+    private ByteArrayInputStream in;
+
+    @Setup
+    public void setup(final TransmissionBufferBenchmark benchmark) {
+      color = benchmark.bufferColors[benchmark.nextColor.getAndIncrement() % benchmark.colors];
+      in = new ByteArrayInputStream(benchmark.message);
+    }
+  }
+
+  @Benchmark
+  public void write(final Client client) throws IOException {
+    buffer.write(message, 0, message.length, client.color);
+  }
+
+  @Benchmark
+  public void writeStream(final Client client) throws IOException {
+    client.in.reset();
+    buffer.write(message.length, client.in, client.color);
+  }
+
+  @Benchmark
+  public long writeAndRead(final Client client) throws IOException {
+    buffer.write(message, 0, message.length, client.color);
+    buffer.read(client.out, client.color);
+    return client.out.getCount();
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks.res;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * @author agent
+ */
+@Portable
+public class LineItem {
+  private String sku;
+  private int quantity;
+  private double price;
+
+  public LineItem() {
+  }
+
+  public LineItem(final String sku, final int quantity, final double price) {
+    this.sku = sku;
+    this.quantity = quantity;
+    this.price = price;
+  }
+
+  public String getSku() {
+    return sku;
+  }
+
+  public void setSku(final String sku) {
+    this.sku = sku;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(final int quantity) {
+    this.quantity = quantity;
+  }
+
+  public double getPrice() {
+    return price;
+  }
+
+  public void setPrice(final double price) {
+    this.price = price;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks.res;
+
+import java.util.Date;
+import java.util.List;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * @author agent
+ */
+@Portable
+public class Order {
+  private long id;
+  private Date placed;
+  private Customer customer;
+  private List<LineItem> items;
+  private OrderStatus status;
+
+  public long getId() {
+    return id;
+  }
+
+  public void setId(final long id) {
+    this.id = id;
+  }
+
+  public Date getPlaced() {
+    return placed;
+  }
+
+  public void setPlaced(final Date placed) {
+    this.placed = placed;
+  }
+
+  public Customer getCustomer() {
+    return customer;
+  }
+
+  public void setCustomer(final Customer customer) {
+    this.customer = customer;
+  }
+
+  public List<LineItem> getItems() {
+    return items;
+  }
+
+  public void setItems(final List<LineItem> items) {
+    this.items = items;
+  }
+
+  public OrderStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(final OrderStatus status) {
+    this.status = status;
+  }
+}
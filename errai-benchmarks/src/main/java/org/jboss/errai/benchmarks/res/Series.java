@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks.res;
+
+import java.util.List;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * A numeric time series, the shape of typical analytics payloads.
+ *
+ * @author agent
+ */
+@Portable
+public class Series {
+  private String name;
+  private long[] timestamps;
+  private double[] values;
+  private List<Integer> flags;
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(final String name) {
+    this.name = name;
+  }
+
+  public long[] getTimestamps() {
+    return timestamps;
+  }
+
+  public void setTimestamps(final long[] timestamps) {
+    this.timestamps = timestamps;
+  }
+
+  public double[] getValues() {
+    return values;
+  }
+
+  public void setValues(final double[] values) {
+    this.values = values;
+  }
+
+  public List<Integer> getFlags() {
+    return flags;
+  }
+
+  public void setFlags(final List<Integer> flags) {
+    this.flags = flags;
+  }
+}
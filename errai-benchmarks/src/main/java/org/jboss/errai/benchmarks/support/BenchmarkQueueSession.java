@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks.support;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.jboss.errai.bus.client.api.QueueSession;
+import org.jboss.errai.bus.client.api.SessionEndListener;
+
+/**
+ * A session for a simulated remote client.
+ *
+ * @author agent
+ */
+public class BenchmarkQueueSession implements QueueSession {
+  private final String sessionId;
+
+  public BenchmarkQueueSession(final String sessionId) {
+    this.sessionId = sessionId;
+  }
+
+  @Override
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  @Override
+  public String getParentSessionId() {
+    return sessionId;
+  }
+
+  @Override
+  public boolean endSession() {
+    return false;
+  }
+
+  @Override
+  public void setAttribute(final String attribute, final Object value) {
+  }
+
+  @Override
+  public <T> T getAttribute(final Class<T> type, final String attribute) {
+    return null;
+  }
+
+  @Override
+  public Collection<String> getAttributeNames() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean hasAttribute(final String attribute) {
+    return false;
+  }
+
+  @Override
+  public Object removeAttribute(final String attribute) {
+    return null;
+  }
+
+  @Override
+  public void addSessionEndListener(final SessionEndListener listener) {
+  }
+
+  @Override
+  public boolean isValid() {
+    return true;
+  }
+}
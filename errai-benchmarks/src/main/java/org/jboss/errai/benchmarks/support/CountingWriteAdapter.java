@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks.support;
+
+import java.io.IOException;
+
+import org.jboss.errai.bus.server.io.AbstractByteWriteAdapter;
+
+/**
+ * Discards everything written to it, keeping only the number of bytes, so reads from a buffer can be measured without
+ * the cost of a real output stream.
+ *
+ * @author agent
+ */
+public class CountingWriteAdapter extends AbstractByteWriteAdapter {
+  private long count;
+
+  @Override
+  public void write(final byte b) throws IOException {
+    count++;
+  }
+
+  @Override
+  public void write(final byte[] b) throws IOException {
+    count += b.length;
+  }
+
+  @Override
+  public void flush() throws IOException {
+  }
+
+  public long getCount() {
+    return count;
+  }
+}
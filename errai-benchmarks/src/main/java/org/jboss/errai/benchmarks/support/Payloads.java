@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.benchmarks.support;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.jboss.errai.benchmarks.res.Customer;
+import org.jboss.errai.benchmarks.res.LineItem;
+import org.jboss.errai.benchmarks.res.Order;
+import org.jboss.errai.benchmarks.res.OrderStatus;
+import org.jboss.errai.benchmarks.res.Series;
+
+/**
+ * The object graph shapes the marshalling and parsing benchmarks are run against. All values are derived from a fixed
+ * seed, so every run marshals the same payloads.
+ *
+ * @author agent
+ */
+public final class Payloads {
+  /**
+   * A bus message of a few string parts.
+   */
+  public static final String MESSAGE = "message";
+
+  /**
+   * A single portable entity with nested entities, a collection, a date and an enum.
+   */
+  public static final String ENTITY = "entity";
+
+  /**
+   * A list of entities which share references to a small set of nested entities.
+   */
+  public static final String GRAPH = "graph";
+
+  /**
+   * A portable entity holding large primitive arrays and a numeric collection.
+   */
+  public static final String SERIES = "series";
+
+  private Payloads() {
+  }
+
+  public static Object create(final String shape) {
+    final Random random = new Random(42);
+
+    if (MESSAGE.equals(shape)) {
+      final Map<String, Object> message = new HashMap<String, Object>();
+      message.put("CommandType", "ConnectToQueue");
+      message.put("ToSubject", "ServerBus");
+      message.put("Extra", "Hello There!");
+      return message;
+    }
+    else if (ENTITY.equals(shape)) {
+      return order(random, 1, new Customer(1, "customer1", "customer1@example.com"));
+    }
+    else if (GRAPH.equals(shape)) {
+      final List<Customer> customers = new ArrayList<Customer>();
+      for (int i = 0; i < 10; i++) {
+        customers.add(new Customer(i, "customer" + i, "customer" + i + "@example.com"));
+      }
+
+      final List<Order> orders = new ArrayList<Order>();
+      for (int i = 0; i < 100; i++) {
+        orders.add(order(random, i, customers.get(i % customers.size())));
+      }
+      return orders;
+    }
+    else if (SERIES.equals(shape)) {
+      final int size = 1000;
+      final long[] timestamps = new long[size];
+      final double[] values = new double[size];
+      final List<Integer> flags = new ArrayList<Integer>(size);
+      for (int i = 0; i < size; i++) {
+        timestamps[i] = 1380000000000L + i * 1000L;
+        values[i] = random.nextGaussian() * 100;
+        flags.add(random.nextInt(4));
+      }
+
+      final Series series = new Series();
+      series.setName("cpu.load");
+      series.setTimestamps(timestamps);
+      series.setValues(values);
+      series.setFlags(flags);
+      return series;
+    }
+
+    throw new IllegalArgumentException("unknown payload shape: " + shape);
+  }
+
+  private static Order order(final Random random, final long id, final Customer customer) {
+    final List<LineItem> items = new ArrayList<LineItem>();
+    for (int i = 0; i < 10; i++) {
+      items.add(new LineItem("SKU-" + random.nextInt(100000), 1 + random.nextInt(10), random.nextInt(10000) / 100d));
+    }
+
+    final Order order = new Order();
+    order.setId(id);
+    order.setPlaced(new Date(1380000000000L + id));
+    order.setCustomer(customer);
+    order.setItems(items);
+    order.setStatus(OrderStatus.values()[random.nextInt(OrderStatus.values().length)]);
+    return order;
+  }
+}
@@ -21,11 +21,15 @@ import org.jboss.as.websockets.frame.TextFrame;
 import org.jboss.errai.bus.server.io.QueueChannel;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 /**
 * @author Mike Brock
 */
 public class SimpleEventChannelWrapped implements QueueChannel {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
   private final WebSocket socket;
 
   public SimpleEventChannelWrapped(final WebSocket socket) {
@@ -42,6 +46,12 @@ public class SimpleEventChannelWrapped implements QueueChannel {
     socket.writeFrame(TextFrame.from(data));
   }
 
+  @Override
+  public void write(final ByteBuffer data) throws IOException {
+    // the text frames of this web socket implementation are only created from strings.
+    write(UTF_8.decode(data).toString());
+  }
+
   @Override
   public String getId() {
     return socket.getSocketID();
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server.servlet;
+
+import static org.jboss.errai.bus.server.io.MessageFactory.createCommandMessage;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.jboss.errai.bus.client.api.QueueSession;
+import org.jboss.errai.bus.server.QueueUnavailableException;
+import org.jboss.errai.bus.server.api.MessageQueue;
+import org.jboss.errai.bus.server.api.QueueActivationCallback;
+import org.jboss.errai.bus.server.io.ByteWriteAdapter;
+import org.jboss.errai.marshalling.server.util.UnwrappedByteArrayOutputStream;
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link AbstractErraiServlet} leveraging the non-blocking I/O support of Servlet 3.1.
+ * <p/>
+ * Unlike the {@link StandardAsyncServlet}, this servlet never writes to a client on the thread which woke its queue:
+ * the activation only dispatches the delivery to a container thread. There, the messages are read from the queue
+ * into memory, and written to the client only as fast as it accepts them, so a slow client doesn't hold up the
+ * publishing thread, or any container thread.
+ *
+ * @author agent
+ */
+public class NonBlockingAsyncServlet extends AbstractErraiServlet {
+  private static final Logger log = getLogger(NonBlockingAsyncServlet.class);
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws ServletException,
+      IOException {
+
+    final QueueSession session = sessionProvider.createOrGetSession(request.getSession(), getClientId(request));
+    session.setAttribute("NoSSE", Boolean.TRUE);
+
+    final MessageQueue queue = service.getBus().getQueue(session);
+
+    if (queue == null) {
+      switch (getConnectionPhase(request)) {
+        case CONNECTING:
+        case DISCONNECTING:
+          return;
+      }
+      sendDisconnectDueToSessionExpiry(response);
+      return;
+    }
+
+    queue.heartBeat();
+
+    final AsyncContext asyncContext = request.startAsync();
+    asyncContext.setTimeout(60000);
+    queue.setTimeout(65000);
+
+    final Delivery delivery = new Delivery(request, asyncContext, queue);
+    asyncContext.addListener(delivery);
+    response.getOutputStream().setWriteListener(delivery);
+
+    synchronized (queue.getActivationLock()) {
+      if (queue.messagesWaiting()) {
+        delivery.readFromQueue(false);
+        delivery.write();
+        return;
+      }
+
+      queue.setActivationCallback(delivery);
+    }
+  }
+
+  @Override
+  protected void doPost(final HttpServletRequest request, final HttpServletResponse response) throws ServletException,
+      IOException {
+    final QueueSession session = sessionProvider.createOrGetSession(request.getSession(), getClientId(request));
+    session.setAttribute("NoSSE", Boolean.TRUE);
+    try {
+      try {
+        service.store(createCommandMessage(session, request));
+      }
+      catch (QueueUnavailableException e) {
+        sendDisconnectDueToSessionExpiry(response);
+        return;
+      }
+
+      final MessageQueue queue = service.getBus().getQueue(session);
+      if (queue != null) {
+        if (shouldWait(request)) {
+          doGet(request, response);
+        }
+        else {
+          // this is the client's own request thread, so it may block on the client.
+          final ByteWriteAdapter writer = getResponseWriteAdapter(request, response);
+          queue.poll(writer);
+          writer.flush();
+        }
+      }
+    }
+    catch (Exception e) {
+      final String message = e.getMessage();
+      if (message == null) {
+        e.printStackTrace();
+      }
+      else if (!message.contains("expired")) {
+        writeExceptionToOutputStream(response, e);
+      }
+    }
+  }
+
+  /**
+   * The delivery of the messages of one poll request. The messages are read from the queue once it has been
+   * activated, and then written as far as the output stream is ready to accept them. The container calls
+   * {@link #onWritePossible()} to continue writing when the stream becomes ready again.
+   */
+  private class Delivery implements QueueActivationCallback, WriteListener, AsyncListener {
+    private final HttpServletRequest request;
+    private final AsyncContext asyncContext;
+    private final HttpServletResponse response;
+    private final MessageQueue queue;
+
+    private byte[] data;
+    private int length;
+    private int written;
+    private boolean completed;
+
+    private Delivery(final HttpServletRequest request, final AsyncContext asyncContext, final MessageQueue queue) {
+      this.request = request;
+      this.asyncContext = asyncContext;
+      this.response = (HttpServletResponse) asyncContext.getResponse();
+      this.queue = queue;
+    }
+
+    @Override
+    public void activate(final MessageQueue queue) {
+      queue.setActivationCallback(null);
+
+      // called on the thread which woke the queue, so hand off to the container.
+      asyncContext.start(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            readFromQueue(shouldLinger(request));
+            queue.heartBeat();
+            write();
+          }
+          catch (Throwable t) {
+            log.debug("failed to deliver messages to queue: " + queue.getSession().getSessionId(), t);
+            complete();
+          }
+        }
+      });
+    }
+
+    /**
+     * Reads the messages waiting in the queue into memory, encoded as the response to the client. If
+     * <tt>linger</tt> is true, messages arriving within the configured linger time are read into the same response.
+     */
+    private synchronized void readFromQueue(final boolean linger) throws IOException {
+      final UnwrappedByteArrayOutputStream body = new UnwrappedByteArrayOutputStream();
+      final ByteWriteAdapter writer = getResponseWriteAdapter(request, new BufferedResponse(response, body));
+      if (linger) {
+        queue.poll(TimeUnit.MILLISECONDS, 0, getLongPollLingerMs(), getLongPollLingerBytes(), writer);
+      }
+      else {
+        queue.poll(writer);
+      }
+      writer.flush();
+
+      data = body.toByteArray();
+      length = body.size();
+    }
+
+    /**
+     * Writes as much of the response as the output stream accepts, and completes the request once all is written.
+     */
+    private synchronized void write() throws IOException {
+      if (data == null || completed) {
+        return;
+      }
+
+      final ServletOutputStream outputStream = response.getOutputStream();
+      while (written < length) {
+        if (!outputStream.isReady()) {
+          return;
+        }
+        final int chunk = Math.min(length - written, 8192);
+        outputStream.write(data, written, chunk);
+        written += chunk;
+      }
+      complete();
+    }
+
+    private synchronized void complete() {
+      if (!completed) {
+        completed = true;
+        asyncContext.complete();
+      }
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+      write();
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      log.debug("failed to write to client", t);
+      complete();
+    }
+
+    @Override
+    public void onComplete(final AsyncEvent event) throws IOException {
+      detach();
+    }
+
+    @Override
+    public void onTimeout(final AsyncEvent event) throws IOException {
+      detach();
+      complete();
+    }
+
+    @Override
+    public void onError(final AsyncEvent event) throws IOException {
+      detach();
+    }
+
+    @Override
+    public void onStartAsync(final AsyncEvent event) throws IOException {
+    }
+
+    private void detach() {
+      synchronized (queue.getActivationLock()) {
+        if (queue.getActivationCallback() == this) {
+          queue.setActivationCallback(null);
+        }
+      }
+    }
+  }
+
+  /**
+   * Captures the body written to a response in memory, so it can be written to the client without blocking.
+   */
+  private static class BufferedResponse extends HttpServletResponseWrapper {
+    private final ServletOutputStream outputStream;
+
+    private BufferedResponse(final HttpServletResponse response, final UnwrappedByteArrayOutputStream body) {
+      super(response);
+      this.outputStream = new ServletOutputStream() {
+        @Override
+        public void write(final int b) {
+          body.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+          body.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      return outputStream;
+    }
+  }
+}
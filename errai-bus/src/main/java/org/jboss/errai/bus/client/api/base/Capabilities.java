@@ -43,4 +43,18 @@ public enum Capabilities {
    * This message bus can communicate using Server-Sent Events
    */
   SSE,
+
+  /**
+   * This message bus can decode payloads which write the types of the encoded objects as ids into a type table
+   * carried by the payload, rather than repeating the fully qualified class name of every object. Unlike the other
+   * flags, this is advertised by both sides, and each side only uses the compact format if the other one did.
+   */
+  TypeDictionary,
+
+  /**
+   * The server can hold back the response to a long poll for a moment after the first message for it arrived, so
+   * that messages sent shortly after it are delivered in the same response. Like {@link #TypeDictionary}, this is
+   * advertised by both sides, and the client then asks for it on each long poll request.
+   */
+  LongPollLinger,
 }
@@ -417,11 +417,16 @@ public class ClientMessageBusImpl implements ClientMessageBus {
       properties.put("phase", "connection");
       properties.put("wait", "1");
 
+      // until the server says otherwise, assume it doesn't understand type ids.
+      BusToolsCli.setTypeDictionary(false);
+
       transportHandler.transmit(Collections.singletonList(CommandMessage.create()
           .command(BusCommand.Associate)
           .set(ToSubject, "ServerBus")
           .set(PriorityProcessing, "1")
           .set(MessageParts.RemoteServices, getAdvertisableSubjects())
+          .set(MessageParts.CapabilitiesFlags, Capabilities.TypeDictionary.name() + ","
+              + Capabilities.LongPollLinger.name())
           .setResource(TransportHandler.EXTRA_URI_PARMS_RESOURCE, properties)));
 
       transportHandler.start();
@@ -443,6 +448,16 @@ public class ClientMessageBusImpl implements ClientMessageBus {
 
   private void processCapabilities(final Message message) {
     for (final String capability : message.get(String.class, MessageParts.CapabilitiesFlags).split(",")) {
+      if (Capabilities.TypeDictionary.name().equals(capability)) {
+        BusToolsCli.setTypeDictionary(true);
+        continue;
+      }
+
+      if (Capabilities.LongPollLinger.name().equals(capability)) {
+        // read by the long polling handler when it is configured.
+        continue;
+      }
+
       final TransportHandler handler = availableHandlers.get(capability);
       if (handler == null) {
         logger.warn("could not find handler for capability type: " + capability);
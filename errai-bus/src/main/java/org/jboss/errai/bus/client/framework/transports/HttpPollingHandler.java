@@ -17,6 +17,7 @@
 package org.jboss.errai.bus.client.framework.transports;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -27,6 +28,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.jboss.errai.bus.client.api.RetryInfo;
+import org.jboss.errai.bus.client.api.base.Capabilities;
 import org.jboss.errai.bus.client.api.base.DefaultErrorCallback;
 import org.jboss.errai.bus.client.api.base.TransportIOException;
 import org.jboss.errai.bus.client.api.messaging.Message;
@@ -56,6 +58,7 @@ public class HttpPollingHandler implements TransportHandler, TransportStatistics
   private static final Logger logger = LoggerFactory.getLogger(HttpPollingHandler.class);
 
   private boolean configured;
+  private boolean linger;
 
   private final ClientMessageBusImpl messageBus;
 
@@ -138,6 +141,10 @@ public class HttpPollingHandler implements TransportHandler, TransportStatistics
   @Override
   public void configure(final Message capabilitiesMessage) {
     configured = true;
+
+    final String capabilities = capabilitiesMessage.get(String.class, MessageParts.CapabilitiesFlags);
+    linger = capabilities != null
+        && Arrays.asList(capabilities.split(",")).contains(Capabilities.LongPollLinger.name());
   }
 
   @Override
@@ -485,6 +492,9 @@ public class HttpPollingHandler implements TransportHandler, TransportStatistics
     if (!activeWaitChannel && receiveCommCallback.canWait() && !rxActive) {
       parmsMap = new HashMap<String, String>(extraParameters);
       parmsMap.put("wait", "1");
+      if (linger) {
+        parmsMap.put("linger", "1");
+      }
       serviceEntryPoint = messageBus.getInServiceEntryPoint();
       waitChannel = true;
     }
@@ -795,5 +805,6 @@ public class HttpPollingHandler implements TransportHandler, TransportStatistics
   public void close() {
     stop(true);
     configured = false;
+    linger = false;
   }
 }
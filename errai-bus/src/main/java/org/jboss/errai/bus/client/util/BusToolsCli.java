@@ -45,6 +45,7 @@ import com.google.gwt.json.client.JSONValue;
 
 public class BusToolsCli {
   private static boolean autoDemarshall = true;
+  private static boolean typeDictionary = false;
 
   public static boolean decodeToCallback(final String jsonString, final ClientMessageBus bus) {
     //LogUtil.log("[bus] RX: " + jsonString);
@@ -80,10 +81,18 @@ public class BusToolsCli {
       return ((HasEncoded) message).getEncoded();
     }
     else {
-      return ErraiProtocol.encodePayload(message.getParts());
+      return ErraiProtocol.encodePayload(message.getParts(), typeDictionary);
     }
   }
 
+  /**
+   * Sets whether or not outgoing messages write the types of the encoded objects as ids. This must only be enabled
+   * once the server has advertised {@link org.jboss.errai.bus.client.api.base.Capabilities#TypeDictionary}.
+   */
+  public static void setTypeDictionary(final boolean typeDictionary) {
+    BusToolsCli.typeDictionary = typeDictionary;
+  }
+
   public static String encodeMessages(final Collection<Message> messages) {
     final StringBuilder sbuf = new StringBuilder("[");
     boolean first = true;
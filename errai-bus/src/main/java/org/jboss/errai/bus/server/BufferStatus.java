@@ -21,18 +21,24 @@ package org.jboss.errai.bus.server;
 * @author Mike Brock
 */
 class BufferStatus {
+  private final int shard;
   private final int freeBytes;
   private final int tailRange;
   private final int activeTails;
   private final float free;
 
-  BufferStatus(final int freeBytes, final int tailRange, final int activeTails, final float free) {
+  BufferStatus(final int shard, final int freeBytes, final int tailRange, final int activeTails, final float free) {
+    this.shard = shard;
     this.freeBytes = freeBytes;
     this.tailRange = tailRange;
     this.activeTails = activeTails;
     this.free = free;
   }
 
+  public int getShard() {
+    return shard;
+  }
+
   public int getFreeBytes() {
     return freeBytes;
   }
@@ -21,14 +21,14 @@ import org.jboss.errai.common.client.api.tasks.AsyncTask;
 import org.jboss.errai.common.client.api.tasks.HasAsyncTaskRef;
 import org.jboss.errai.common.client.api.tasks.TaskManager;
 import org.jboss.errai.common.client.util.TimeUnit;
-import org.jboss.errai.bus.server.async.scheduling.PooledExecutorService;
+import org.jboss.errai.bus.server.async.scheduling.TimerWheelExecutorService;
 
 public class DefaultTaskManager implements TaskManager {
   private QueueSession session;
   private static final String ACTIVE_TASKS_KEY = DefaultTaskManager.class.getName() + "/ActiveAsyncTasks";
 
   private final static DefaultTaskManager taskManager = new DefaultTaskManager(null);
-  private final static PooledExecutorService service = new PooledExecutorService(2000);
+  private final static TimerWheelExecutorService service = new TimerWheelExecutorService(2000);
 
   static {
     service.start();
@@ -18,7 +18,6 @@ package org.jboss.errai.bus.server;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -48,9 +47,10 @@ public class MessageQueueImpl implements MessageQueue {
   private final QueueSession session;
 
   private boolean initLock = true;
-  private boolean queueRunning = true;
+  private volatile boolean queueRunning = true;
   private volatile long lastTransmission = System.currentTimeMillis();
   private volatile boolean pagedOut = false;
+  private volatile boolean typeDictionary = false;
 
   private volatile MessageDeliveryHandler deliveryHandler = BufferDeliveryHandler.getInstance();
   private volatile QueueActivationCallback activationCallback;
@@ -63,6 +63,8 @@ public class MessageQueueImpl implements MessageQueue {
   private final Object pageLock = new Object();
   private final AtomicInteger messageCount = new AtomicInteger();
 
+  private static final byte[] STOP_ARRAY = new byte[]{-1};
+
   private static final Logger log = getLogger(MessageQueueImpl.class);
 
   public MessageQueueImpl(final TransmissionBuffer buffer, final QueueSession session, final int timeoutSecs) {
@@ -106,6 +108,24 @@ public class MessageQueueImpl implements MessageQueue {
     return false;
   }
 
+  @Override
+  public boolean poll(final java.util.concurrent.TimeUnit timeUnit, final int time, final int lingerMillis,
+                      final int lingerBytes, final ByteWriteAdapter stream) throws IOException {
+    if (!queueRunning) {
+      throw new QueueUnavailableException("queue is not available");
+    }
+
+    if (deliveryHandler instanceof Buffered) {
+      return ((Buffered) deliveryHandler).copyFromBuffer(timeUnit, time, lingerMillis, lingerBytes, this, stream);
+    }
+    else {
+      // this can happen during the hand off to WebSockets.
+      log.debug("call to poll() when DeliveryHandler does not implement Buffered.");
+    }
+
+    return false;
+  }
+
   /**
    * Inserts the specified message into the queue, and returns true if it was successful
    *
@@ -238,12 +258,23 @@ public class MessageQueueImpl implements MessageQueue {
     this.pagedOut = pagedOut;
   }
 
+  @Override
+  public boolean isTypeDictionaryEnabled() {
+    return typeDictionary;
+  }
+
+  @Override
+  public void setTypeDictionaryEnabled(final boolean typeDictionary) {
+    this.typeDictionary = typeDictionary;
+  }
+
   @Override
   public void discard() {
     queueRunning = false;
     if (deliveryHandler instanceof Cleanable) {
       ((Cleanable) deliveryHandler).clean(this);
     }
+    bufferColor.release(buffer);
   }
 
   /**
@@ -258,7 +289,7 @@ public class MessageQueueImpl implements MessageQueue {
        * we write a single byte to the buffer, with the color for this queue. this is to knock any
        * waiting thread loose and return it to the work pool.
        */
-      buffer.write(1, new ByteArrayInputStream(new byte[]{-1}), bufferColor);
+      buffer.write(STOP_ARRAY, 0, STOP_ARRAY.length, bufferColor);
     }
     catch (Exception e) {
       throw new RuntimeException("error trying to stop queue");
@@ -316,6 +347,11 @@ public class MessageQueueImpl implements MessageQueue {
     return lastTransmission;
   }
 
+  @Override
+  public long getTimeout() {
+    return timeout;
+  }
+
   @Override
   public void setTimeout(final long timeout) {
     this.timeout = timeout;
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.jboss.errai.bus.server.api.MessageQueue;
+import org.jboss.errai.bus.server.io.PageUtil;
+
+/**
+ * An index of message queues by the time they next need the attention of the bus housekeeper: the time they may
+ * become eligible for paging out, or may time out. Queues are kept in buckets of one second, so the housekeeper only
+ * has to look at the queues in the buckets which have come due, rather than at every queue on the bus.
+ * <p/>
+ * A queue's activity does not update the index. Instead, when a queue comes due and turns out to have been active in
+ * the meantime, the housekeeper simply files it again under its new check time (see {@link #getNextCheckTime}).
+ *
+ * @author agent
+ */
+public class QueueExpiryIndex {
+  private static final long BUCKET_MILLIS = 1000;
+
+  private final SortedMap<Long, Set<MessageQueue>> buckets = new TreeMap<Long, Set<MessageQueue>>();
+  private final Map<MessageQueue, Long> scheduled = new HashMap<MessageQueue, Long>();
+
+  /**
+   * Adds the specified queue to the index, or moves it if it is already indexed.
+   *
+   * @param queue
+   *     the queue to index.
+   * @param checkTime
+   *     the time (in milliseconds) the queue should next be checked.
+   */
+  public synchronized void schedule(final MessageQueue queue, final long checkTime) {
+    final Long bucket = (checkTime + BUCKET_MILLIS - 1) / BUCKET_MILLIS;
+
+    final Long previous = scheduled.put(queue, bucket);
+    if (previous != null) {
+      if (previous.equals(bucket)) {
+        return;
+      }
+      removeFromBucket(queue, previous);
+    }
+
+    Set<MessageQueue> queues = buckets.get(bucket);
+    if (queues == null) {
+      buckets.put(bucket, queues = new LinkedHashSet<MessageQueue>());
+    }
+    queues.add(queue);
+  }
+
+  /**
+   * Files a queue returned by {@link #pollDue(long)} under a new check time. This has no effect if the queue has been
+   * removed from the index in the meantime.
+   *
+   * @return true if the queue was rescheduled.
+   */
+  public synchronized boolean reschedule(final MessageQueue queue, final long checkTime) {
+    if (!scheduled.containsKey(queue)) {
+      return false;
+    }
+    schedule(queue, checkTime);
+    return true;
+  }
+
+  /**
+   * Removes the specified queue from the index.
+   */
+  public synchronized void remove(final MessageQueue queue) {
+    final Long bucket = scheduled.remove(queue);
+    if (bucket != null) {
+      removeFromBucket(queue, bucket);
+    }
+  }
+
+  /**
+   * Takes all the queues which are due to be checked at the specified time out of their buckets. The queues remain
+   * known to the index, and should be either {@link #reschedule rescheduled} or {@link #remove removed} by the caller.
+   *
+   * @param time
+   *     the current time in milliseconds.
+   *
+   * @return the queues that are due.
+   */
+  public synchronized List<MessageQueue> pollDue(final long time) {
+    final SortedMap<Long, Set<MessageQueue>> due = buckets.headMap(time / BUCKET_MILLIS + 1);
+    if (due.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    final List<MessageQueue> result = new ArrayList<MessageQueue>();
+    final Iterator<Set<MessageQueue>> iterator = due.values().iterator();
+    while (iterator.hasNext()) {
+      result.addAll(iterator.next());
+      iterator.remove();
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of queues in the index.
+   */
+  public synchronized int size() {
+    return scheduled.size();
+  }
+
+  public synchronized void clear() {
+    buckets.clear();
+    scheduled.clear();
+  }
+
+  private void removeFromBucket(final MessageQueue queue, final Long bucket) {
+    final Set<MessageQueue> queues = buckets.get(bucket);
+    if (queues != null && queues.remove(queue) && queues.isEmpty()) {
+      buckets.remove(bucket);
+    }
+  }
+
+  /**
+   * Calculates the next time the specified queue needs to be checked by the housekeeper, based on the time it was
+   * last active: the time it becomes eligible for paging out if it hasn't been paged out yet, or otherwise the time
+   * it times out.
+   *
+   * @param queue
+   *     the queue.
+   * @param now
+   *     the current time in milliseconds.
+   *
+   * @return the next check time in milliseconds.
+   */
+  public static long getNextCheckTime(final MessageQueue queue, final long now) {
+    final long lastActivity = queue.getLastTransmissionTime();
+    final long pageOutThreshold = PageUtil.getPageOutThreshold();
+
+    long checkTime = lastActivity + queue.getTimeout();
+    if (!queue.isPaged()) {
+      checkTime = Math.min(checkTime, lastActivity + pageOutThreshold);
+    }
+
+    if (checkTime <= now) {
+      // the queue has already been checked for this period of inactivity: it had nothing to page out, or it is
+      // connected through a direct channel and doesn't time out.
+      checkTime = now + (queue.isPaged() ? queue.getTimeout() : Math.min(queue.getTimeout(), pageOutThreshold));
+    }
+
+    return checkTime;
+  }
+}
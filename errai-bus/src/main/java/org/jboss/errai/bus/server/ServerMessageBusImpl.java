@@ -26,21 +26,22 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -66,6 +67,7 @@ import org.jboss.errai.bus.server.api.QueueClosedListener;
 import org.jboss.errai.bus.server.api.ServerMessageBus;
 import org.jboss.errai.bus.server.cluster.ClusteringProvider;
 import org.jboss.errai.bus.server.io.BufferHelper;
+import org.jboss.errai.bus.server.io.PageStore;
 import org.jboss.errai.bus.server.io.PageUtil;
 import org.jboss.errai.bus.server.io.buffers.BufferColor;
 import org.jboss.errai.bus.server.io.buffers.TransmissionBuffer;
@@ -94,16 +96,35 @@ import com.google.inject.Singleton;
  */
 @Singleton
 public class ServerMessageBusImpl implements ServerMessageBus {
-  private final TransmissionBuffer transmissionbuffer;
+  private final TransmissionBuffer[] transmissionBuffers;
 
   private final Map<String, DeliveryPlan> subscriptions = new ConcurrentHashMap<String, DeliveryPlan>();
   private final Set<String> globalSubscriptions = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
   private final Map<String, RemoteMessageCallback> remoteSubscriptions = new ConcurrentHashMap<String, RemoteMessageCallback>();
 
-  private final Map<QueueSession, MessageQueue> messageQueues = new ConcurrentHashMap<QueueSession, MessageQueue>();
+  private final ConcurrentMap<QueueSession, MessageQueue> messageQueues
+      = new ConcurrentHashMap<QueueSession, MessageQueue>();
 
   private final Map<MessageQueue, List<Message>> deferredQueue = new ConcurrentHashMap<MessageQueue, List<Message>>();
-  private final Map<String, QueueSession> sessionLookup = new ConcurrentHashMap<String, QueueSession>();
+  private final ConcurrentMap<String, QueueSession> sessionLookup = new ConcurrentHashMap<String, QueueSession>();
+
+  /**
+   * The remote subjects each queue is subscribed to. This is the reverse of {@link RemoteMessageCallback#queues}.
+   */
+  private final ConcurrentMap<MessageQueue, Set<String>> queueSubscriptions
+      = new ConcurrentHashMap<MessageQueue, Set<String>>();
+  private final QueueExpiryIndex expiryIndex = new QueueExpiryIndex();
+
+  /**
+   * Remote subscriptions are updated under the lock of the subject's stripe, rather than under a single lock for the
+   * whole bus.
+   */
+  private static final int SUBSCRIPTION_LOCK_STRIPES = 64;
+  private final Object[] subscriptionLocks = new Object[SUBSCRIPTION_LOCK_STRIPES];
+
+  private final AtomicLong remoteSubscribeCount = new AtomicLong();
+  private final AtomicLong remoteUnsubscribeCount = new AtomicLong();
+
   private final Map<String, ClusterWaitEntry> deadLetter = new ConcurrentHashMap<String, ClusterWaitEntry>();
 
   private final List<SubscribeListener> subscribeListeners = new ArrayList<SubscribeListener>();
@@ -120,6 +141,7 @@ public class ServerMessageBusImpl implements ServerMessageBus {
 
   private final boolean hostedModeTesting;
   private final boolean doLongPolling;
+  private final boolean longPollLinger;
   private final int messageQueueTimeoutSecs;
   private final boolean sseEnabled;
   private final boolean webSocketServlet;
@@ -139,10 +161,15 @@ public class ServerMessageBusImpl implements ServerMessageBus {
   public ServerMessageBusImpl(final ErraiService service, final ErraiServiceConfigurator config) {
     this.hostedModeTesting = ErraiConfigAttribs.HOSTED_MODE_TESTING.getBoolean(config);
     this.doLongPolling = !hostedModeTesting && ErraiConfigAttribs.DO_LONG_POLL.getBoolean(config);
+    this.longPollLinger = doLongPolling && ErraiConfigAttribs.LONG_POLL_LINGER_MS.getInt(config) > 0;
     this.messageQueueTimeoutSecs = ErraiConfigAttribs.MESSAGE_QUEUE_TIMEOUT_SECS.getInt(config);
     this.sseEnabled = ErraiConfigAttribs.ENABLE_SSE_SUPPORT.getBoolean(config);
     this.webSocketServer = ErraiConfigAttribs.ENABLE_WEB_SOCKET_SERVER.getBoolean(config);
 
+    for (int i = 0; i < SUBSCRIPTION_LOCK_STRIPES; i++) {
+      subscriptionLocks[i] = new Object();
+    }
+
     final int webSocketPort;
     final String webSocketPath;
 
@@ -161,6 +188,12 @@ public class ServerMessageBusImpl implements ServerMessageBus {
     Integer segmentSize = ErraiConfigAttribs.BUS_BUFFER_SEGMENT_SIZE.getInt(config);
     Integer segmentCount = ErraiConfigAttribs.BUS_BUFFER_SEGMENT_COUNT.getInt(config);
     final String allocMode = ErraiConfigAttribs.BUS_BUFFER_ALLOCATION_MODE.get(config);
+    final int shardCount = ErraiConfigAttribs.BUS_BUFFER_SHARD_COUNT.getInt(config);
+
+    if (shardCount < 1) {
+      throw new ErraiBootstrapFailure("illegal value for property: "
+          + ErraiConfigAttribs.BUS_BUFFER_SHARD_COUNT.getAttributeName() + " (must be at least 1)");
+    }
 
     if (segmentSize == null) {
       segmentSize = 8 * 1024;
@@ -193,23 +226,16 @@ public class ServerMessageBusImpl implements ServerMessageBus {
       directAlloc = false;
     }
 
-    TransmissionBuffer buffer;
-    if (directAlloc) {
-      try {
-        buffer = TransmissionBuffer.createDirect(segmentSize, segmentCount);
-      }
-      catch (OutOfMemoryError e) {
-        log.warn("could not allocate direct memory buffer. insufficient direct memory. increase the direct memory " +
-            "buffer size with the JVM argument: -XX:MaxDirectMemorySize=<size>");
-        log.warn("falling back to a heap allocated buffer.");
-        buffer = TransmissionBuffer.create(segmentSize, segmentCount);
-      }
-    }
-    else {
-      buffer = TransmissionBuffer.create(segmentSize, segmentCount);
+    final int shardSegmentCount = Math.max(1, segmentCount / shardCount);
+
+    transmissionBuffers = new TransmissionBuffer[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      transmissionBuffers[i] = createBuffer(directAlloc, segmentSize, shardSegmentCount);
     }
 
-    transmissionbuffer = buffer;
+    if (shardCount > 1) {
+      log.info("bus buffer is sharded into " + shardCount + " buffers of " + shardSegmentCount + " segments each");
+    }
 
     /**
      * Define the default ServerBus service used for intrabus communication.
@@ -239,9 +265,41 @@ public class ServerMessageBusImpl implements ServerMessageBus {
     }
   }
 
+  private static TransmissionBuffer createBuffer(final boolean directAlloc,
+                                                final int segmentSize,
+                                                final int segmentCount) {
+    if (directAlloc) {
+      try {
+        return TransmissionBuffer.createDirect(segmentSize, segmentCount);
+      }
+      catch (OutOfMemoryError e) {
+        log.warn("could not allocate direct memory buffer. insufficient direct memory. increase the direct memory " +
+            "buffer size with the JVM argument: -XX:MaxDirectMemorySize=<size>");
+        log.warn("falling back to a heap allocated buffer.");
+      }
+    }
+    return TransmissionBuffer.create(segmentSize, segmentCount);
+  }
+
+  /**
+   * Returns the buffer shard the queue for the specified session is allocated in.
+   *
+   * @param session
+   *     the session to find the buffer for.
+   *
+   * @return the buffer shard for the session.
+   */
+  private TransmissionBuffer getBufferForSession(final QueueSession session) {
+    if (transmissionBuffers.length == 1) {
+      return transmissionBuffers[0];
+    }
+    return transmissionBuffers[(session.getSessionId().hashCode() & Integer.MAX_VALUE) % transmissionBuffers.length];
+  }
+
   private void addQueue(final QueueSession session, final MessageQueue queue) {
     messageQueues.put(session, queue);
     sessionLookup.put(session.getSessionId(), session);
+    expiryIndex.schedule(queue, QueueExpiryIndex.getNextCheckTime(queue, System.currentTimeMillis()));
   }
 
   /**
@@ -510,20 +568,34 @@ public class ServerMessageBusImpl implements ServerMessageBus {
    */
   @Override
   public void closeQueue(final MessageQueue queue) {
-    messageQueues.values().remove(queue);
-    sessionLookup.values().remove(queue.getSession());
-
-    for (Iterator<RemoteMessageCallback> iterator = remoteSubscriptions.values().iterator(); iterator.hasNext(); ) {
-      final RemoteMessageCallback cb = iterator.next();
-      cb.removeQueue(queue);
-      if (cb.getQueueCount() == 0) {
-        iterator.remove();
-      }
+    final QueueSession session = queue.getSession();
+
+    messageQueues.remove(session, queue);
+
+    // the session may have been associated with a new queue in the meantime.
+    if (!messageQueues.containsKey(session)) {
+      sessionLookup.remove(session.getSessionId(), session);
     }
 
+    detachQueue(queue);
+
     fireQueueCloseListeners(new QueueCloseEvent(queue));
   }
 
+  /**
+   * Takes the specified queue out of the expiry index and out of all its remote subscriptions.
+   */
+  private void detachQueue(final MessageQueue queue) {
+    expiryIndex.remove(queue);
+
+    final Set<String> subjects = queueSubscriptions.remove(queue);
+    if (subjects != null) {
+      for (final String subject : subjects) {
+        removeRemoteSubscription(queue, subject);
+      }
+    }
+  }
+
   /**
    * Adds a subscription
    *
@@ -612,21 +684,47 @@ public class ServerMessageBusImpl implements ServerMessageBus {
     if (subject == null) return;
 
     boolean isNew = false;
+    boolean added = false;
 
     RemoteMessageCallback rmc;
-    synchronized (remoteSubscriptions) {
+    synchronized (getSubscriptionLock(subject)) {
       rmc = remoteSubscriptions.get(subject);
       if (rmc == null) {
         rmc = new RemoteMessageCallback(!broadcastExclusionSet.contains(subject), subject);
         rmc.addQueue(queue);
 
-        isNew = true;
+        isNew = added = true;
 
         remoteSubscriptions.put(subject, rmc);
         createOrAddDeliveryPlan(subject, rmc);
       }
       else if (!rmc.contains(queue)) {
         rmc.addQueue(queue);
+        added = true;
+      }
+
+      if (added) {
+        remoteSubscribeCount.incrementAndGet();
+      }
+
+      Set<String> subjects = queueSubscriptions.get(queue);
+      if (subjects == null) {
+        final Set<String> newSubjects = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        if ((subjects = queueSubscriptions.putIfAbsent(queue, newSubjects)) == null) {
+          subjects = newSubjects;
+        }
+      }
+      subjects.add(subject);
+
+      // the queue may have been closed while we subscribed it, and detachQueue() may already have gone past this
+      // subject: undo the subscription, so the closed queue is neither left in the callback nor in the index.
+      if (isClosed(queue)) {
+        removeRemoteSubscription(queue, subject);
+        subjects.remove(subject);
+        if (subjects.isEmpty()) {
+          queueSubscriptions.remove(queue, subjects);
+        }
+        return;
       }
     }
 
@@ -635,6 +733,72 @@ public class ServerMessageBusImpl implements ServerMessageBus {
     );
   }
 
+  /**
+   * Removes the specified queue from the remote subscription for the specified subject, and removes the subscription
+   * from the bus altogether if no queues are left.
+   *
+   * @return the remote subscription, or null if there was no remote subscription for the subject.
+   */
+  private RemoteMessageCallback removeRemoteSubscription(final MessageQueue queue, final String subject) {
+    synchronized (getSubscriptionLock(subject)) {
+      final RemoteMessageCallback rmc = remoteSubscriptions.get(subject);
+      if (rmc == null) {
+        return null;
+      }
+
+      if (rmc.contains(queue)) {
+        rmc.removeQueue(queue);
+        remoteUnsubscribeCount.incrementAndGet();
+      }
+
+      if (rmc.getQueueCount() == 0) {
+        remoteSubscriptions.remove(subject);
+
+        // take the callback out of the delivery plan, so a later remote subscription to the same subject doesn't
+        // leave it behind.
+        final DeliveryPlan plan = subscriptions.get(subject);
+        if (plan != null && plan.getDeliverTo().contains(rmc)) {
+          final DeliveryPlan newPlan = plan.newDeliveryPlanWithOut(rmc);
+          if (newPlan.getTotalReceivers() == 0) {
+            subscriptions.remove(subject);
+          }
+          else {
+            subscriptions.put(subject, newPlan);
+          }
+        }
+      }
+      return rmc;
+    }
+  }
+
+  /**
+   * Returns true if the specified queue has been stopped, or is no longer the queue of its session. Queues are taken
+   * out of {@link #messageQueues} before they are detached from their subscriptions.
+   */
+  private boolean isClosed(final MessageQueue queue) {
+    return queue.isStale() || messageQueues.get(queue.getSession()) != queue;
+  }
+
+  private Object getSubscriptionLock(final String subject) {
+    return subscriptionLocks[(subject.hashCode() & Integer.MAX_VALUE) % SUBSCRIPTION_LOCK_STRIPES];
+  }
+
+  /**
+   * Returns the total number of remote subscriptions (of a single queue to a single subject) made since the bus
+   * started.
+   */
+  public long getRemoteSubscribeCount() {
+    return remoteSubscribeCount.get();
+  }
+
+  /**
+   * Returns the total number of remote subscriptions removed since the bus started, either explicitly or because the
+   * queue was closed.
+   */
+  public long getRemoteUnsubscribeCount() {
+    return remoteUnsubscribeCount.get();
+  }
+
   public class RemoteMessageCallback implements MessageCallback {
 
     private final String svc;
@@ -658,7 +822,7 @@ public class ServerMessageBusImpl implements ServerMessageBus {
         try {
           if (queues.isEmpty()) return;
 
-          BufferHelper.encodeAndWrite(transmissionbuffer, BufferColor.getAllBuffersColor(), message);
+          BufferHelper.encodeAndWrite(transmissionBuffers, BufferColor.getAllBuffersColor(), message);
 
           for (final MessageQueue q : queues) {
             q.wake();
@@ -672,6 +836,19 @@ public class ServerMessageBusImpl implements ServerMessageBus {
           throw new RuntimeException("transmission error", e);
         }
       }
+      else if (queues.size() > 1) {
+        // the message is going to a subset of the queues, each with its own color. encode it once up front,
+        // so every queue's delivery reuses the same encoded payload instead of re-marshalling the message.
+        BufferHelper.encodeOnce(message);
+        try {
+          for (final MessageQueue q : queues) {
+            send(q, message, true);
+          }
+        }
+        finally {
+          BufferHelper.clearEncodedMessage();
+        }
+      }
       else {
         for (final MessageQueue q : queues) {
           send(q, message, true);
@@ -719,12 +896,15 @@ public class ServerMessageBusImpl implements ServerMessageBus {
    *     - the subject to unsubscribe from
    */
   public void remoteUnsubscribe(final QueueSession sessionContext, final MessageQueue queue, final String subject) {
-    if (!remoteSubscriptions.containsKey(subject)) {
+    final RemoteMessageCallback rmc = removeRemoteSubscription(queue, subject);
+    if (rmc == null) {
       return;
     }
 
-    final RemoteMessageCallback rmc = remoteSubscriptions.get(subject);
-    rmc.removeQueue(queue);
+    final Set<String> subjects = queueSubscriptions.get(queue);
+    if (subjects != null) {
+      subjects.remove(subject);
+    }
 
     try {
       fireUnsubscribeListeners(new SubscriptionEvent(true, rmc.getQueueCount() == 0, false, false, rmc.getQueueCount(),
@@ -735,6 +915,26 @@ public class ServerMessageBusImpl implements ServerMessageBus {
     }
   }
 
+  /**
+   * Removes all the remote subscriptions of the specified queue, and fires the unsubscribe listeners for each of them.
+   * Only the subjects the queue actually subscribed to are visited.
+   *
+   * @param sessionContext
+   *     - session context of queue
+   * @param queue
+   *     - the message queue
+   */
+  public void remoteUnsubscribeAll(final QueueSession sessionContext, final MessageQueue queue) {
+    final Set<String> subjects = queueSubscriptions.get(queue);
+    if (subjects == null) {
+      return;
+    }
+
+    for (final String subject : new ArrayList<String>(subjects)) {
+      remoteUnsubscribe(sessionContext, queue, subject);
+    }
+  }
+
   /**
    * Unsubscribe all subscriptions attached to <tt>subject</tt>
    *
@@ -981,11 +1181,16 @@ public class ServerMessageBusImpl implements ServerMessageBus {
 
     scheduler.shutdown();
 
-    transmissionbuffer.clear();
+    for (final TransmissionBuffer buffer : transmissionBuffers) {
+      buffer.clear();
+    }
     subscriptions.clear();
     remoteSubscriptions.clear();
     deferredQueue.clear();
     sessionLookup.clear();
+    queueSubscriptions.clear();
+    expiryIndex.clear();
+    PageStore.getInstance().close();
   }
 
   public void finishInit() {
@@ -1056,20 +1261,25 @@ public class ServerMessageBusImpl implements ServerMessageBus {
             if (queue == null) return;
 
           case Associate: {
+            final boolean typeDictionary = message.hasPart(MessageParts.CapabilitiesFlags) && Arrays.asList(message.get(
+                String.class, MessageParts.CapabilitiesFlags).split(",")).contains(Capabilities.TypeDictionary.name());
+
             List<Message> deferred = null;
+            final MessageQueue replaced;
             synchronized (messageQueues) {
-              if (messageQueues.containsKey(session)) {
-                final MessageQueue q = messageQueues.get(session);
-                synchronized (q) {
-                  if (deferredQueue.containsKey(q)) {
-                    deferred = deferredQueue.remove(q);
+              replaced = messageQueues.get(session);
+              if (replaced != null) {
+                synchronized (replaced) {
+                  if (deferredQueue.containsKey(replaced)) {
+                    deferred = deferredQueue.remove(replaced);
                   }
                 }
 
-                messageQueues.get(session).stopQueue();
+                replaced.stopQueue();
               }
 
-              queue = new MessageQueueImpl(transmissionbuffer, session, messageQueueTimeoutSecs);
+              queue = new MessageQueueImpl(getBufferForSession(session), session, messageQueueTimeoutSecs);
+              queue.setTypeDictionaryEnabled(typeDictionary);
 
               addQueue(session, queue);
 
@@ -1084,6 +1294,13 @@ public class ServerMessageBusImpl implements ServerMessageBus {
               remoteSubscribe(session, queue, svc);
             }
 
+            if (replaced != null) {
+              // only now that the new queue has taken over its subscriptions, so that they are not torn down and
+              // set up again in between.
+              detachQueue(replaced);
+              replaced.discard();
+            }
+
             if (isMonitor()) {
               busMonitor.notifyQueueAttached(session.getSessionId(), queue);
             }
@@ -1143,6 +1360,15 @@ public class ServerMessageBusImpl implements ServerMessageBus {
               capabilitiesBuffer.append(",").append(Capabilities.SSE.name());
             }
 
+            if (typeDictionary) {
+              capabilitiesBuffer.append(",").append(Capabilities.TypeDictionary.name());
+            }
+
+            if (longPollLinger && message.hasPart(MessageParts.CapabilitiesFlags) && Arrays.asList(message.get(
+                String.class, MessageParts.CapabilitiesFlags).split(",")).contains(Capabilities.LongPollLinger.name())) {
+              capabilitiesBuffer.append(",").append(Capabilities.LongPollLinger.name());
+            }
+
             msg.set(MessageParts.CapabilitiesFlags, capabilitiesBuffer.toString());
 
             msg.set(ConnectionSessionKey, queue.getSession().getSessionId());
@@ -1181,7 +1407,15 @@ public class ServerMessageBusImpl implements ServerMessageBus {
     }
   }
 
-  private BufferStatus bufferStatus() {
+  private BufferStatus[] bufferStatus() {
+    final BufferStatus[] status = new BufferStatus[transmissionBuffers.length];
+    for (int i = 0; i < transmissionBuffers.length; i++) {
+      status[i] = bufferStatus(i, transmissionBuffers[i]);
+    }
+    return status;
+  }
+
+  private BufferStatus bufferStatus(final int shard, final TransmissionBuffer transmissionbuffer) {
     final int headBytes = transmissionbuffer.getHeadPositionBytes();
     final int bufSize = transmissionbuffer.getBufferSize();
 
@@ -1195,6 +1429,8 @@ public class ServerMessageBusImpl implements ServerMessageBus {
 
 
     for (final MessageQueue q : messageQueues.values()) {
+      if (q.getBuffer() != transmissionbuffer) continue;
+
       activeTails++;
       final long seq = q.getCurrentBufferSequenceNumber();
       if (lowTail == -1) {
@@ -1224,7 +1460,7 @@ public class ServerMessageBusImpl implements ServerMessageBus {
       free = bufSize;
     }
 
-    return new BufferStatus(free, (int) (highSegBytes - lowSegBytes), activeTails, ((float) free) / bufSize);
+    return new BufferStatus(shard, free, (int) (highSegBytes - lowSegBytes), activeTails, ((float) free) / bufSize);
   }
 
   private class DefaultSubscribeListener implements SubscribeListener {
@@ -1255,6 +1491,10 @@ public class ServerMessageBusImpl implements ServerMessageBus {
     }
   }
 
+  /**
+   * Expires stale sessions, pages out idle queues and expunges timed out dead letters. Only the queues which have
+   * come due in the {@link QueueExpiryIndex} are looked at, rather than every queue on the bus.
+   */
   private class HousekeeeperRunnable implements Runnable {
     int runCount = 0;
     boolean lastWasEmpty = false;
@@ -1262,31 +1502,35 @@ public class ServerMessageBusImpl implements ServerMessageBus {
     @Override
     public void run() {
       runCount++;
-      boolean houseKeepingPerformed = false;
-      final List<MessageQueue> endSessions = new LinkedList<MessageQueue>();
+      final long now = System.currentTimeMillis();
+      final List<MessageQueue> endSessions = new ArrayList<MessageQueue>();
 
       int paged = 0, killed = 0;
 
-      while (!houseKeepingPerformed) {
-        try {
-          final Iterator<MessageQueue> iter = ServerMessageBusImpl.this.messageQueues.values().iterator();
-          MessageQueue q;
-          while (iter.hasNext()) {
-            if ((q = iter.next()).isStale()) {
-              iter.remove();
-              endSessions.add(q);
-              killed++;
-            }
+      for (final MessageQueue q : expiryIndex.pollDue(now)) {
+        if (messageQueues.get(q.getSession()) != q) {
+          // replaced on re-association: the association tears the old queue down, and it must not take the session
+          // down with it.
+          expiryIndex.remove(q);
+          continue;
+        }
 
-            if (PageUtil.pageIfStraddling(q)) {
-              paged++;
+        if (q.isStale()) {
+          expiryIndex.remove(q);
+
+          synchronized (messageQueues) {
+            if (!messageQueues.remove(q.getSession(), q)) {
+              continue;
             }
           }
-
-          houseKeepingPerformed = true;
+          endSessions.add(q);
+          killed++;
         }
-        catch (ConcurrentModificationException cme) {
-          // fall-through and try again.
+        else {
+          if (PageUtil.pageIfStraddling(q)) {
+            paged++;
+          }
+          expiryIndex.reschedule(q, QueueExpiryIndex.getNextCheckTime(q, now));
         }
       }
 
@@ -1295,12 +1539,11 @@ public class ServerMessageBusImpl implements ServerMessageBus {
       }
 
       for (final MessageQueue ref : endSessions) {
-        for (final String subject : new HashSet<String>(ServerMessageBusImpl.this.remoteSubscriptions.keySet())) {
-          ServerMessageBusImpl.this.remoteUnsubscribe(ref.getSession(), ref, subject);
-        }
-
+        ServerMessageBusImpl.this.remoteUnsubscribeAll(ref.getSession(), ref);
         ServerMessageBusImpl.this.closeQueue(ref);
-        ref.getSession().endSession();
+        if (!messageQueues.containsKey(ref.getSession())) {
+          ref.getSession().endSession();
+        }
         deferredQueue.remove(ref);
         ref.discard();
       }
@@ -1320,8 +1563,22 @@ public class ServerMessageBusImpl implements ServerMessageBus {
         }
       }
 
-      final BufferStatus stat = bufferStatus();
-      if (stat.getFree() == 1.0f) {
+      if (!log.isDebugEnabled()) {
+        // the buffer status is only gathered for logging, and requires looking at every queue.
+        return;
+      }
+
+      final BufferStatus[] stats = bufferStatus();
+
+      boolean empty = true;
+      for (final BufferStatus stat : stats) {
+        if (stat.getFree() != 1.0f) {
+          empty = false;
+          break;
+        }
+      }
+
+      if (empty) {
         if (lastWasEmpty) {
           return;
         }
@@ -1333,12 +1590,14 @@ public class ServerMessageBusImpl implements ServerMessageBus {
         lastWasEmpty = false;
       }
 
-      log.debug("[bus] buffer status [freebytes: " + stat.getFreeBytes()
-          + " (" + (stat.getFree() * 100) + "%) tail rng: " + stat.getTailRange() + "; actv tails: "
-          + stat.getActiveTails() + "]");
+      for (final BufferStatus stat : stats) {
+        log.debug("[bus] buffer status [shard: " + stat.getShard() + "; freebytes: " + stat.getFreeBytes()
+            + " (" + (stat.getFree() * 100) + "%) tail rng: " + stat.getTailRange() + "; actv tails: "
+            + stat.getActiveTails() + "]");
 
-      if (stat.getFree() < 0.50f) {
-        log.debug("[bus] high load condition detected!");
+        if (stat.getFree() < 0.50f) {
+          log.debug("[bus] high load condition detected on buffer shard " + stat.getShard() + "!");
+        }
       }
     }
 
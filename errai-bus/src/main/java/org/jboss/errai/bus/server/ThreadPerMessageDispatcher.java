@@ -0,0 +1,330 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.server;
+
+import static org.jboss.errai.bus.client.util.ErrorHelper.handleMessageDeliveryFailure;
+import static org.jboss.errai.bus.client.util.ErrorHelper.sendClientError;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.errai.bus.client.api.RoutingFlag;
+import org.jboss.errai.bus.client.api.base.MessageDeliveryFailure;
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.bus.client.api.messaging.MessageBus;
+import org.jboss.errai.bus.client.api.messaging.RequestDispatcher;
+import org.jboss.errai.bus.server.service.ErraiService;
+import org.jboss.errai.bus.server.service.ErraiServiceConfigurator;
+import org.jboss.errai.common.client.protocols.MessageParts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * An asynchronous dispatcher which delivers every message on its own thread, taken from a large, elastic pool. This
+ * suits services which perform blocking work (JDBC, JPA, remote calls): throughput is not capped by the small, fixed
+ * number of worker threads of the {@link AsyncDispatcher}. Threads are only started when there is work for them, and
+ * die after they have been idle for a while. Their number is bounded (see {@link #CONFIG_MAX_THREADS}); deliveries
+ * beyond that bound wait for a thread to become available.
+ * <p/>
+ * To keep a single busy or slow service from taking all threads, the number of messages processed concurrently for
+ * the same subject is bounded as well (see {@link #CONFIG_SUBJECT_CONCURRENCY}). Messages beyond that bound are queued
+ * for the subject, in dispatch order, and are delivered as soon as one of the running deliveries completes. With a
+ * subject concurrency of 1, messages for a subject are therefore delivered one at a time, in the order they were
+ * dispatched. The number of messages queued for a subject is bounded too (see {@link #CONFIG_SUBJECT_QUEUE_SIZE}): if
+ * the queue is full, the message is rejected with a {@link MessageDeliveryFailure}.
+ * <p/>
+ * To use this dispatcher, set <tt>errai.dispatcher_implementation</tt> to the name of this class. No changes to the
+ * services themselves are required.
+ *
+ * @author agent
+ */
+@Singleton
+public class ThreadPerMessageDispatcher implements RequestDispatcher {
+  private static final int DEFAULT_MAX_THREADS = 256;
+  private static final int DEFAULT_SUBJECT_CONCURRENCY = 64;
+  private static final int DEFAULT_SUBJECT_QUEUE_SIZE = 1000;
+
+  /**
+   * The maximum number of threads delivering messages, across all subjects.
+   */
+  public static final String CONFIG_MAX_THREADS = "errai.async.max_threads";
+
+  /**
+   * The maximum number of messages processed concurrently for a single subject.
+   */
+  public static final String CONFIG_SUBJECT_CONCURRENCY = "errai.async.subject_concurrency";
+
+  /**
+   * The maximum number of messages waiting for delivery for a single subject.
+   */
+  public static final String CONFIG_SUBJECT_QUEUE_SIZE = "errai.async.subject_queue_size";
+
+  /**
+   * The load of a gate which has been removed, and must no longer be used.
+   */
+  private static final int EVICTED = -1;
+
+  private final MessageBus bus;
+  private final ThreadPoolExecutor executor;
+  private final int subjectConcurrency;
+  private final int subjectQueueSize;
+  private final ConcurrentMap<String, SubjectGate> gates = new ConcurrentHashMap<String, SubjectGate>();
+
+  private static final Logger log = LoggerFactory.getLogger(ThreadPerMessageDispatcher.class);
+
+  @Inject
+  public ThreadPerMessageDispatcher(final ErraiService service) {
+    this.bus = service.getBus();
+
+    final ErraiServiceConfigurator cfg = service.getConfiguration();
+
+    int maxThreads = DEFAULT_MAX_THREADS;
+    int concurrency = DEFAULT_SUBJECT_CONCURRENCY;
+    int queueSize = DEFAULT_SUBJECT_QUEUE_SIZE;
+
+    if (cfg.hasProperty(CONFIG_MAX_THREADS)) {
+      maxThreads = Integer.parseInt(cfg.getProperty(CONFIG_MAX_THREADS));
+    }
+
+    if (cfg.hasProperty(CONFIG_SUBJECT_CONCURRENCY)) {
+      concurrency = Integer.parseInt(cfg.getProperty(CONFIG_SUBJECT_CONCURRENCY));
+    }
+
+    if (cfg.hasProperty(CONFIG_SUBJECT_QUEUE_SIZE)) {
+      queueSize = Integer.parseInt(cfg.getProperty(CONFIG_SUBJECT_QUEUE_SIZE));
+    }
+
+    this.subjectConcurrency = concurrency;
+    this.subjectQueueSize = queueSize;
+
+    log.debug("initializing thread-per-message dispatcher (maxThreads: " + maxThreads + "; subjectConcurrency: "
+        + subjectConcurrency + "; subjectQueueSize: " + subjectQueueSize + ")");
+
+    /**
+     * The queue only ever holds deliveries which have a subject permit, so it is bounded by the number of subjects
+     * times their concurrency.
+     */
+    this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+      private final AtomicInteger counter = new AtomicInteger();
+
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "Dispatch Thread-" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    executor.allowCoreThreadTimeOut(true);
+
+    service.addShutdownHook(new Runnable() {
+      @Override
+      public void run() {
+        stop();
+      }
+    });
+  }
+
+  @Override
+  public void dispatchGlobal(final Message message) {
+    if (message.hasPart(MessageParts.PriorityProcessing)) {
+      try {
+        bus.sendGlobal(message);
+      }
+      catch (Throwable t) {
+        if (message.getErrorCallback() != null) {
+          if (!message.getErrorCallback().error(message, t)) {
+            return;
+          }
+        }
+        else {
+          t.printStackTrace();
+        }
+      }
+    }
+    else {
+      submit(message);
+    }
+  }
+
+  @Override
+  public void dispatch(final Message message) {
+    message.setFlag(RoutingFlag.NonGlobalRouting);
+    submit(message);
+  }
+
+  private void submit(final Message message) {
+    final String subject = message.getSubject();
+
+    while (true) {
+      SubjectGate gate = gates.get(subject);
+      if (gate == null) {
+        final SubjectGate newGate = new SubjectGate(subject);
+        if ((gate = gates.putIfAbsent(subject, newGate)) == null) {
+          gate = newGate;
+        }
+      }
+
+      final Boolean accepted = gate.submit(message);
+      if (accepted == null) {
+        // the gate was evicted after we looked it up.
+        gates.remove(subject, gate);
+        continue;
+      }
+      else if (!accepted) {
+        sendDeliveryFailure(message);
+      }
+      return;
+    }
+  }
+
+  private void sendDeliveryFailure(final Message message) {
+    final MessageDeliveryFailure mdf
+        = new MessageDeliveryFailure("could not deliver message because the delivery queue for '"
+        + message.getSubject() + "' is full");
+
+    if (message.getErrorCallback() == null || message.getErrorCallback().error(message, mdf)) {
+      sendClientError(bus, message, mdf.getMessage(), mdf);
+      throw mdf;
+    }
+  }
+
+  /**
+   * The number of subjects there are queued or running deliveries for.
+   */
+  int getActiveSubjectCount() {
+    return gates.size();
+  }
+
+  public void stop() {
+    log.info("stopping thread-per-message dispatcher.");
+    executor.shutdownNow();
+  }
+
+  /**
+   * Bounds the number of concurrent and waiting deliveries for a single subject. A gate removes itself from the
+   * dispatcher as soon as it has no more work, so that the gates of subjects which are no longer in use do not pile
+   * up.
+   */
+  private class SubjectGate {
+    private final String subject;
+    private final Semaphore permits = new Semaphore(subjectConcurrency);
+    private final Queue<Message> pending = new ConcurrentLinkedQueue<Message>();
+
+    /**
+     * The number of queued and running deliveries, or {@link #EVICTED} once the gate has been removed.
+     */
+    private final AtomicInteger load = new AtomicInteger();
+
+    private SubjectGate(final String subject) {
+      this.subject = subject;
+    }
+
+    /**
+     * Queues the specified message for delivery.
+     *
+     * @return true if the message was queued, false if the queue is full, or null if this gate has been evicted and
+     *         must no longer be used.
+     */
+    private Boolean submit(final Message message) {
+      int current;
+      do {
+        current = load.get();
+        if (current == EVICTED) {
+          return null;
+        }
+        else if (current >= subjectConcurrency + subjectQueueSize) {
+          return false;
+        }
+      }
+      while (!load.compareAndSet(current, current + 1));
+
+      pending.offer(message);
+      drain();
+      return true;
+    }
+
+    /**
+     * Starts a delivery for every pending message there is a permit for. Whoever releases a permit or queues a
+     * message drains afterwards, so a pending message is never left behind while a permit is free.
+     */
+    private void drain() {
+      while (!pending.isEmpty() && permits.tryAcquire()) {
+        final Message message = pending.poll();
+        if (message == null) {
+          permits.release();
+          return;
+        }
+
+        try {
+          deliver(message);
+        }
+        catch (RejectedExecutionException e) {
+          // the dispatcher has been stopped.
+          log.debug("dropped message for subject '" + subject + "': dispatcher stopped");
+          release();
+        }
+      }
+    }
+
+    /**
+     * Gives back the permit and the load of a delivery which has finished or could not be started, evicting the gate
+     * if nothing else is queued or running for the subject.
+     */
+    private void release() {
+      permits.release();
+      if (load.decrementAndGet() == 0 && load.compareAndSet(0, EVICTED)) {
+        gates.remove(subject, this);
+      }
+    }
+
+    private void deliver(final Message message) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            Worker.deliverToBus(bus, message);
+          }
+          catch (QueueUnavailableException e) {
+            log.debug("queue not available", e);
+          }
+          catch (Throwable e) {
+            message.setResource("Exception", e.getCause());
+            handleMessageDeliveryFailure(bus,
+                message, "Error calling remote service: " + message.getSubject(), e, false);
+          }
+          finally {
+            release();
+            drain();
+          }
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,440 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.server;
+
+import static java.lang.System.currentTimeMillis;
+import static org.jboss.errai.bus.client.util.ErrorHelper.handleMessageDeliveryFailure;
+import static org.jboss.errai.bus.client.util.ErrorHelper.sendClientError;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.errai.bus.client.api.QueueSession;
+import org.jboss.errai.bus.client.api.RoutingFlag;
+import org.jboss.errai.bus.client.api.base.MessageDeliveryFailure;
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.bus.client.api.messaging.MessageBus;
+import org.jboss.errai.bus.client.api.messaging.RequestDispatcher;
+import org.jboss.errai.bus.server.service.ErraiService;
+import org.jboss.errai.bus.server.service.ErraiServiceConfigurator;
+import org.jboss.errai.common.client.protocols.MessageParts;
+import org.jboss.errai.common.client.protocols.Resources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * An asynchronous dispatcher which gives every worker thread its own bounded delivery queue, instead of having all
+ * workers contend on a single shared queue as the {@link AsyncDispatcher} does. Workers which run out of work steal
+ * from the other workers' queues.
+ * <p/>
+ * The delivery queues are lock-free: the owner and thieves both take messages from the head of a queue with a single
+ * compare-and-set, so a steal is constant time and never blocks the owner. They only contend when they race for the
+ * very same message. Idle workers are parked, and are woken up when a message is dispatched to them, or, when there
+ * is no affinity, when there is a message they can steal.
+ * <p/>
+ * Optionally, messages can be given an <em>affinity</em> (see {@link #CONFIG_ASYNC_AFFINITY}): all messages for the
+ * same subject, or for the same session, are then always processed by the same worker, in the order they were
+ * dispatched. Such messages are never stolen.
+ * <p/>
+ * The dispatcher never blocks the caller. If the delivery queues are full, the message is rejected with a
+ * {@link MessageDeliveryFailure}.
+ * <p/>
+ * To use this dispatcher, set <tt>errai.dispatcher_implementation</tt> to the name of this class.
+ *
+ * @author agent
+ */
+@Singleton
+public class WorkStealingDispatcher implements RequestDispatcher {
+  private static final int DEFAULT_DELIVERY_QUEUE_SIZE = 100;
+  private static final int DEFAULT_THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+  private static final String CONFIG_ASYNC_THREAD_POOL_SIZE = "errai.async.thread_pool_size";
+  private static final String CONFIG_ASYNC_WORKER_TIMEOUT = "errai.async.worker.timeout";
+  private static final String CONFIG_ASYNC_DELIVERY_QUEUE_SIZE = "errai.async.delivery.queue_size";
+
+  /**
+   * The affinity of dispatched messages. One of <tt>none</tt> (the default), <tt>subject</tt> or <tt>session</tt>.
+   */
+  public static final String CONFIG_ASYNC_AFFINITY = "errai.async.affinity";
+
+  private final MessageBus bus;
+  private final StealingWorker[] workers;
+  private final Affinity affinity;
+  private final AtomicInteger nextWorker = new AtomicInteger();
+  private final Queue<StealingWorker> idleWorkers = new ConcurrentLinkedQueue<StealingWorker>();
+
+  private static final Logger log = LoggerFactory.getLogger(WorkStealingDispatcher.class);
+
+  enum Affinity {
+    None, Subject, Session
+  }
+
+  @Inject
+  public WorkStealingDispatcher(final ErraiService service) {
+    this.bus = service.getBus();
+
+    final ErraiServiceConfigurator cfg = service.getConfiguration();
+
+    int poolSize = DEFAULT_THREAD_POOL_SIZE;
+    int deliveryQueueSize = DEFAULT_DELIVERY_QUEUE_SIZE;
+    long workerTimeout = Boolean.getBoolean("org.jboss.errai.debugmode") ? seconds(360) : seconds(30);
+
+    if (cfg.hasProperty(CONFIG_ASYNC_DELIVERY_QUEUE_SIZE)) {
+      deliveryQueueSize = Integer.parseInt(cfg.getProperty(CONFIG_ASYNC_DELIVERY_QUEUE_SIZE));
+    }
+
+    if (cfg.hasProperty(CONFIG_ASYNC_THREAD_POOL_SIZE)) {
+      poolSize = Integer.parseInt(cfg.getProperty(CONFIG_ASYNC_THREAD_POOL_SIZE));
+    }
+
+    if (cfg.hasProperty(CONFIG_ASYNC_WORKER_TIMEOUT)) {
+      workerTimeout = seconds(Integer.parseInt(cfg.getProperty(CONFIG_ASYNC_WORKER_TIMEOUT)));
+    }
+
+    if (cfg.hasProperty(CONFIG_ASYNC_AFFINITY)) {
+      final String affinityName = cfg.getProperty(CONFIG_ASYNC_AFFINITY).trim();
+      if ("subject".equalsIgnoreCase(affinityName)) {
+        affinity = Affinity.Subject;
+      }
+      else if ("session".equalsIgnoreCase(affinityName)) {
+        affinity = Affinity.Session;
+      }
+      else if ("none".equalsIgnoreCase(affinityName)) {
+        affinity = Affinity.None;
+      }
+      else {
+        throw new IllegalArgumentException("unrecognized option for property: " + CONFIG_ASYNC_AFFINITY
+            + " (must be one of: none, subject, session)");
+      }
+    }
+    else {
+      affinity = Affinity.None;
+    }
+
+    log.debug("initializing work stealing dispatcher (poolSize: " + poolSize + "; workerTimeout: " + workerTimeout
+        + "; affinity: " + affinity + ")");
+
+    this.workers = new StealingWorker[poolSize];
+    for (int i = 0; i < poolSize; i++) {
+      workers[i] = new StealingWorker(i, deliveryQueueSize, workerTimeout);
+    }
+
+    if (bus instanceof ServerMessageBusImpl) {
+      /**
+       * Add a housekeeper task to the bus housekeeper to timeout long-running tasks.
+       */
+      ((ServerMessageBusImpl) bus).getScheduler().scheduleAtFixedRate(new Runnable() {
+        @Override
+        public void run() {
+          for (final StealingWorker w : workers) {
+            if (!w.isValid()) {
+              log.warn("Terminating worker.  Process exceeds maximum time to live.");
+              w.timeoutInterrupt();
+            }
+          }
+        }
+
+        @Override
+        public String toString() {
+          return "WorkerTimeout";
+        }
+      }, 1, 1, TimeUnit.SECONDS);
+    }
+
+    for (final StealingWorker worker : workers) {
+      worker.start();
+    }
+
+    service.addShutdownHook(new Runnable() {
+      @Override
+      public void run() {
+        stop();
+      }
+    });
+  }
+
+  @Override
+  public void dispatchGlobal(final Message message) {
+    if (message.hasPart(MessageParts.PriorityProcessing)) {
+      try {
+        bus.sendGlobal(message);
+      }
+      catch (Throwable t) {
+        if (message.getErrorCallback() != null) {
+          if (!message.getErrorCallback().error(message, t)) {
+            return;
+          }
+        }
+        else {
+          t.printStackTrace();
+        }
+      }
+    }
+    else {
+      enqueue(message);
+    }
+  }
+
+  @Override
+  public void dispatch(final Message message) {
+    message.setFlag(RoutingFlag.NonGlobalRouting);
+    enqueue(message);
+  }
+
+  private void enqueue(final Message message) {
+    final Object affinityKey = getAffinityKey(message);
+
+    if (affinityKey != null) {
+      final StealingWorker worker = workers[(affinityKey.hashCode() & Integer.MAX_VALUE) % workers.length];
+      if (worker.offer(message)) {
+        signalWork(worker);
+        return;
+      }
+    }
+    else {
+      final int start = nextWorker.getAndIncrement() & Integer.MAX_VALUE;
+      for (int i = 0; i < workers.length; i++) {
+        final StealingWorker worker = workers[(start + i) % workers.length];
+        if (worker.offer(message)) {
+          signalWork(worker);
+          return;
+        }
+      }
+    }
+
+    sendDeliveryFailure(message);
+  }
+
+  private Object getAffinityKey(final Message message) {
+    switch (affinity) {
+      case Subject:
+        return message.getSubject();
+
+      case Session:
+        final QueueSession session = message.getResource(QueueSession.class, Resources.Session.name());
+        if (session != null) {
+          return session.getSessionId();
+        }
+        else if (message.hasPart(MessageParts.SessionID)) {
+          return message.get(String.class, MessageParts.SessionID);
+        }
+        return message.getSubject();
+
+      default:
+        return null;
+    }
+  }
+
+  private void sendDeliveryFailure(final Message message) {
+    final MessageDeliveryFailure mdf
+        = new MessageDeliveryFailure("could not deliver message because the delivery queues are full");
+
+    if (message.getErrorCallback() == null || message.getErrorCallback().error(message, mdf)) {
+      sendClientError(bus, message, mdf.getMessage(), mdf);
+      throw mdf;
+    }
+  }
+
+  /**
+   * Wakes up a worker for a message just queued for the specified owner: the owner itself if it is idle, otherwise
+   * (if messages may be stolen) any idle worker.
+   */
+  private void signalWork(final StealingWorker owner) {
+    if (owner.idle) {
+      LockSupport.unpark(owner);
+      return;
+    }
+
+    if (affinity == Affinity.None) {
+      StealingWorker worker;
+      while ((worker = idleWorkers.poll()) != null) {
+        worker.listed.set(false);
+        if (worker.idle) {
+          LockSupport.unpark(worker);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Looks for a message to steal from the other workers' queues. Messages are only stolen if there is no affinity.
+   */
+  private Message steal(final StealingWorker thief) {
+    if (affinity != Affinity.None) {
+      return null;
+    }
+
+    for (int i = 1; i < workers.length; i++) {
+      final Message message = workers[(thief.index + i) % workers.length].poll();
+      if (message != null) {
+        return message;
+      }
+    }
+    return null;
+  }
+
+  public void stop() {
+    log.info("stopping work stealing dispatcher.");
+
+    for (final StealingWorker worker : workers) {
+      worker.active = false;
+      worker.interrupt();
+    }
+
+    for (final StealingWorker worker : workers) {
+      try {
+        worker.join();
+      }
+      catch (InterruptedException e) {
+        log.warn("was interrupted waiting to shutdown dispatch workers");
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private static long seconds(final int seconds) {
+    return seconds * 1000;
+  }
+
+  private class StealingWorker extends Thread {
+    private final int index;
+    private final Queue<Message> queue = new ConcurrentLinkedQueue<Message>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final long timeout;
+
+    /**
+     * Whether this worker is on the list of idle workers. Only used if messages may be stolen.
+     */
+    private final AtomicBoolean listed = new AtomicBoolean();
+
+    private volatile boolean active = true;
+    private volatile boolean idle;
+    private volatile long workExpiry;
+    private volatile Message message;
+
+    private StealingWorker(final int index, final int capacity, final long timeout) {
+      super("Dispatch Worker Thread-" + index);
+      this.index = index;
+      this.capacity = capacity;
+      this.timeout = timeout;
+      setPriority(Thread.MIN_PRIORITY);
+      setDaemon(true);
+    }
+
+    private boolean offer(final Message message) {
+      if (size.incrementAndGet() > capacity) {
+        size.decrementAndGet();
+        return false;
+      }
+      queue.offer(message);
+      return true;
+    }
+
+    private Message poll() {
+      final Message next = queue.poll();
+      if (next != null) {
+        size.decrementAndGet();
+      }
+      return next;
+    }
+
+    private boolean isValid() {
+      return workExpiry == 0 || currentTimeMillis() < workExpiry;
+    }
+
+    private void timeoutInterrupt() {
+      interrupt();
+
+      if (!isInterrupted() && workExpiry != 0) {
+        log.warn("failed to interrupt worker:" + this.toString());
+      }
+      else {
+        workExpiry = 0;
+        sendClientError(bus, message,
+            "Request for '" + message.getSubject() + "' timed out.",
+            "The process was terminated because it exceed the maximum timeout.");
+      }
+    }
+
+    private Message nextMessage() {
+      Message next = poll();
+      if (next != null || (next = steal(this)) != null) {
+        return next;
+      }
+
+      // announce that we are idle before looking once more, so that a message dispatched in the meantime either
+      // is found here, or unparks us.
+      idle = true;
+      try {
+        if (affinity == Affinity.None && listed.compareAndSet(false, true)) {
+          idleWorkers.offer(this);
+        }
+
+        if ((next = poll()) != null || (next = steal(this)) != null) {
+          return next;
+        }
+
+        LockSupport.park(this);
+
+        // a timeout interrupt may have been delivered too late to interrupt the last message.
+        Thread.interrupted();
+        return null;
+      }
+      finally {
+        idle = false;
+      }
+    }
+
+    @Override
+    public void run() {
+      while (active) {
+        try {
+          // looping inside a catch block is cheaper than entering and leaving it
+          // every time.
+          while (active) {
+            if ((message = nextMessage()) != null) {
+              workExpiry = currentTimeMillis() + timeout;
+              Worker.deliverToBus(bus, message);
+              workExpiry = 0;
+            }
+          }
+        }
+        catch (QueueUnavailableException e) {
+          log.debug("queue not available", e);
+        }
+        catch (Throwable e) {
+          message.setResource("Exception", e.getCause());
+          handleMessageDeliveryFailure(bus,
+              message, "Error calling remote service: " + message.getSubject(), e, false);
+        }
+        finally {
+          workExpiry = 0;
+        }
+      }
+    }
+  }
+}
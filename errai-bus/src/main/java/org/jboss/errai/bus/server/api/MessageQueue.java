@@ -33,6 +33,14 @@ public interface MessageQueue {
 
   boolean poll(TimeUnit timeUnit, int time, ByteWriteAdapter stream) throws IOException;
 
+  /**
+   * Polls like {@link #poll(TimeUnit, int, ByteWriteAdapter)}, but once messages are available, waits up to
+   * <tt>lingerMillis</tt> for further messages to be written with them, unless <tt>lingerBytes</tt> have already
+   * been written.
+   */
+  boolean poll(TimeUnit timeUnit, int time, int lingerMillis, int lingerBytes, ByteWriteAdapter stream)
+      throws IOException;
+
   boolean offer(Message message) throws IOException;
 
   long getCurrentBufferSequenceNumber();
@@ -55,6 +63,15 @@ public interface MessageQueue {
 
   void setPaged(boolean pageStatus);
 
+  /**
+   * Returns true if the remote bus of this queue has advertised
+   * {@link org.jboss.errai.bus.client.api.base.Capabilities#TypeDictionary}, so that the messages written to it may
+   * carry type ids.
+   */
+  boolean isTypeDictionaryEnabled();
+
+  void setTypeDictionaryEnabled(boolean typeDictionary);
+
   boolean isInitialized();
 
   void heartBeat();
@@ -85,5 +102,7 @@ public interface MessageQueue {
 
   long getLastTransmissionTime();
 
+  long getTimeout();
+
   void setTimeout(long timeout);
 }
@@ -30,6 +30,8 @@ public abstract class TimedTask implements Runnable, Comparable<TimedTask>, Asyn
 
   protected volatile InterruptHandle interruptHook;
   protected volatile Runnable exitHandler;
+  protected volatile Runnable cancelHandler;
+  private boolean exited = false;
 
   /**
    * Gets the period of the task, and when it should be run next
@@ -69,6 +71,10 @@ public abstract class TimedTask implements Runnable, Comparable<TimedTask>, Asyn
       interruptHook.sendInterrupt();
 
     cancelled = true;
+
+    final Runnable handler = cancelHandler;
+    if (handler != null)
+      handler.run();
   }
 
   /**
@@ -112,6 +118,30 @@ public abstract class TimedTask implements Runnable, Comparable<TimedTask>, Asyn
     }
   }
 
+  /**
+   * Sets a callback which is run when the task is cancelled. This is used by schedulers which remove cancelled tasks
+   * eagerly, rather than waiting for them to come due.
+   *
+   * @param runnable the callback to run when {@link #cancel(boolean)} is called.
+   */
+  public void setCancelHandler(Runnable runnable) {
+    this.cancelHandler = runnable;
+  }
+
+  /**
+   * Runs the exit handler, if one is set and it has not been run yet. This is called when the task has run for the
+   * last time, or by a scheduler which removed the task before it could run again.
+   */
+  public void runExitHandler() {
+    final Runnable handler;
+    synchronized (this) {
+      if (exited || (handler = exitHandler) == null)
+        return;
+      exited = true;
+    }
+    handler.run();
+  }
+
   @Override
   public int compareTo(TimedTask o) {
     if (o == this) {
@@ -230,11 +230,11 @@ public class PooledExecutorService implements TaskProvider {
       return null; // It's yet unclear how this happens. See https://jira.jboss.org/browse/ERRAI-104
   }
 
-  private static class SingleFireTask extends TimedTask {
+  static class SingleFireTask extends TimedTask {
     private final Runnable runnable;
     boolean fired = false;
 
-    private SingleFireTask(Runnable runnable) {
+    SingleFireTask(Runnable runnable) {
       period = -1;
       nextRuntime = -1;
       this.runnable = runnable;
@@ -262,12 +262,12 @@ public class PooledExecutorService implements TaskProvider {
     }
   }
 
-  private static final class DelayedTask extends TimedTask {
+  static final class DelayedTask extends TimedTask {
     private final Runnable runnable;
     private boolean fired = false;
     private volatile Thread runningOn;
 
-    private DelayedTask(Runnable runnable, long delayMillis) {
+    DelayedTask(Runnable runnable, long delayMillis) {
       this.interruptHook = new InterruptHandle() {
         @Override
         public void sendInterrupt() {
@@ -310,18 +310,17 @@ public class PooledExecutorService implements TaskProvider {
         }
         finally {
           runningOn = null;
-          if (exitHandler != null)
-            exitHandler.run();
+          runExitHandler();
         }
       }
     }
   }
 
-  private static final class RepeatingTimedTask extends TimedTask {
+  static final class RepeatingTimedTask extends TimedTask {
     private final Runnable runnable;
     private volatile Thread runningOn;
 
-    private RepeatingTimedTask(Runnable runnable, long initialMillis, long intervalMillis) {
+    RepeatingTimedTask(Runnable runnable, long initialMillis, long intervalMillis) {
       this.interruptHook = new InterruptHandle() {
         @Override
         public void sendInterrupt() {
@@ -355,8 +354,8 @@ public class PooledExecutorService implements TaskProvider {
       }
       finally {
         runningOn = null;
-        if ((cancelled || nextRuntime == -1) && exitHandler != null)
-          exitHandler.run();
+        if (cancelled || nextRuntime == -1)
+          runExitHandler();
       }
     }
   }
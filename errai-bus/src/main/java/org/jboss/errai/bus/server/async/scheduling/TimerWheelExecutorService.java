@@ -0,0 +1,459 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.server.async.scheduling;
+
+import static java.lang.System.currentTimeMillis;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.errai.bus.server.async.TimedTask;
+import org.jboss.errai.bus.server.async.scheduling.PooledExecutorService.DelayedTask;
+import org.jboss.errai.bus.server.async.scheduling.PooledExecutorService.RepeatingTimedTask;
+import org.jboss.errai.bus.server.async.scheduling.PooledExecutorService.SaturationPolicy;
+import org.jboss.errai.bus.server.async.scheduling.PooledExecutorService.SingleFireTask;
+import org.jboss.errai.common.client.api.tasks.AsyncTask;
+import org.jboss.errai.common.client.util.TimeUnit;
+
+/**
+ * A drop-in alternative to the {@link PooledExecutorService} which keeps scheduled tasks in a hashed timing wheel
+ * instead of a priority queue.
+ * <p/>
+ * Time is divided into ticks, and the wheel into a fixed number of buckets. A task is put in the bucket of the tick
+ * it is due on, so scheduling and cancelling a task are constant time operations, which only lock the one bucket
+ * involved. On every tick, the scheduler thread takes all the due tasks out of the current bucket at once and hands
+ * them to the worker pool. Tasks which are due more than one revolution of the wheel ahead simply stay in their
+ * bucket until their tick comes around.
+ * <p/>
+ * The scheduler thread does not wake up on ticks without due tasks: it sleeps until the first tick which has tasks in
+ * its bucket, or, if the wheel is empty, until a task is scheduled.
+ * <p/>
+ * Scheduled tasks never run earlier than requested, but they may run up to one tick late. Cancelled tasks are removed
+ * from the wheel immediately.
+ *
+ * @author agent
+ */
+public class TimerWheelExecutorService implements TaskProvider {
+  private static final long DEFAULT_TICK_MILLIS = 10;
+  private static final int DEFAULT_WHEEL_SIZE = 512;
+
+  /**
+   * The number of times workers may wait for a task in vain before the pool is shrunk by one worker.
+   */
+  private static final int IDLE_POLLS_BEFORE_SHRINK = 100;
+
+  private final BlockingQueue<TimedTask> queue;
+  private final ThreadWorkerPool pool;
+  private final int maxQueueSize;
+  private final SaturationPolicy saturationPolicy;
+
+  private final long tickMillis;
+  private final Bucket[] wheel;
+  private final int mask;
+
+  /**
+   * The last tick for which all due tasks were taken out of the wheel. Only ever written by the scheduler thread,
+   * while it holds the lock of the bucket of that tick.
+   */
+  private volatile long processedTick;
+
+  /**
+   * The tick the scheduler thread is going to wake up on, or {@link Long#MAX_VALUE} if it waits for a task to be
+   * scheduled. Scheduling a task due earlier moves it forward, and wakes up the scheduler thread.
+   */
+  private final AtomicLong wakeupTick = new AtomicLong(Long.MAX_VALUE);
+
+  private final AtomicInteger scheduledCount = new AtomicInteger();
+  private final SchedulerThread schedulerThread = new SchedulerThread();
+  private final Object lifecycleLock = new Object();
+
+  private volatile boolean stopped = false;
+
+  /**
+   * The number of times a worker waited for a task in vain since the pool last grew.
+   */
+  private final AtomicInteger idleCount = new AtomicInteger();
+
+  /**
+   * Constructs a new TimerWheelExecutorService with the specified queue size.
+   *
+   * @param queueSize The size of the underlying worker queue.
+   */
+  public TimerWheelExecutorService(int queueSize) {
+    this(queueSize, SaturationPolicy.CallerRuns);
+  }
+
+  public TimerWheelExecutorService(int queueSize, SaturationPolicy saturationPolicy) {
+    this(queueSize, saturationPolicy, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+  }
+
+  /**
+   * Constructs a new TimerWheelExecutorService.
+   *
+   * @param queueSize        The size of the underlying worker queue.
+   * @param saturationPolicy The policy to apply when the worker queue is full.
+   * @param tickMillis       The duration of a tick, in milliseconds. This is the granularity of the scheduler.
+   * @param wheelSize        The number of buckets in the wheel. This is rounded up to the next power of two.
+   */
+  public TimerWheelExecutorService(int queueSize, SaturationPolicy saturationPolicy, long tickMillis, int wheelSize) {
+    if (tickMillis < 1) {
+      throw new IllegalArgumentException("tickMillis must be at least 1");
+    }
+    if (wheelSize < 1) {
+      throw new IllegalArgumentException("wheelSize must be at least 1");
+    }
+
+    this.maxQueueSize = queueSize;
+    this.queue = new ArrayBlockingQueue<TimedTask>(queueSize);
+    this.pool = new ThreadWorkerPool(this);
+    this.saturationPolicy = saturationPolicy;
+
+    int size = 1;
+    while (size < wheelSize) {
+      size <<= 1;
+    }
+
+    this.tickMillis = tickMillis;
+    this.wheel = new Bucket[size];
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      wheel[i] = new Bucket();
+    }
+
+    this.processedTick = currentTimeMillis() / tickMillis;
+  }
+
+  /**
+   * Schedule a task for immediate execution.
+   *
+   * @param runnable Runnable task
+   * @throws InterruptedException thrown if the thread waiting for an empty spot on the execution queue is
+   *                              interrupted.
+   */
+  public void execute(final Runnable runnable) throws InterruptedException {
+    checkLoad();
+    if (!queue.offer(new SingleFireTask(runnable))) {
+      saturationPolicy.dealWith(runnable);
+    }
+  }
+
+  public AsyncTask schedule(final Runnable runnable, TimeUnit unit, long interval) {
+    checkLoad();
+    return add(new DelayedTask(runnable, unit.toMillis(interval)));
+  }
+
+  public AsyncTask scheduleRepeating(final Runnable runnable, final TimeUnit unit, final long initial, final long interval) {
+    checkLoad();
+    return add(new RepeatingTimedTask(runnable, unit.toMillis(initial), unit.toMillis(interval)));
+  }
+
+  public void start() {
+    synchronized (lifecycleLock) {
+      if (stopped) {
+        throw new IllegalStateException("work queue cannot be started after it's been stopped");
+      }
+
+      schedulerThread.start();
+
+      pool.startPool();
+    }
+  }
+
+  public void shutdown() {
+    synchronized (lifecycleLock) {
+      schedulerThread.requestStop();
+      queue.clear();
+      stopped = true;
+    }
+  }
+
+  public void requestStop() {
+    stopped = true;
+    schedulerThread.requestStop();
+    pool.requestStopAll();
+  }
+
+  /**
+   * Returns the number of tasks currently waiting in the wheel.
+   */
+  public int getScheduledTaskCount() {
+    return scheduledCount.get();
+  }
+
+  /**
+   * Returns the next Runnable task that is currently due to run.  This method will block until a task is available.
+   *
+   * @return Runnable task.
+   * @throws InterruptedException thrown if the thread waiting on a ready task is interrupted.
+   */
+  @Override
+  public TimedTask getNextTask() throws InterruptedException {
+    final TimedTask task = queue.poll(1, java.util.concurrent.TimeUnit.SECONDS);
+    if (task == null && idleCount.incrementAndGet() > IDLE_POLLS_BEFORE_SHRINK) {
+      idleCount.set(0);
+      pool.removeWorker();
+    }
+    return task;
+  }
+
+  private TimedTask add(final TimedTask task) {
+    final Entry entry = new Entry(task);
+    task.setCancelHandler(entry);
+    insert(entry);
+    return task;
+  }
+
+  private void insert(final Entry entry) {
+    final long nextRuntime = entry.task.nextRuntime();
+    final long deadline = Math.max((nextRuntime + tickMillis - 1) / tickMillis, processedTick + 1);
+    final Bucket bucket = wheel[(int) (deadline & mask)];
+
+    final boolean due;
+    synchronized (bucket) {
+      // the scheduler thread may have passed the tick since we read it above.
+      if (!(due = deadline <= processedTick)) {
+        entry.deadline = deadline;
+        bucket.link(entry);
+        scheduledCount.incrementAndGet();
+      }
+    }
+
+    if (due) {
+      if (!queue.offer(entry.task)) {
+        saturationPolicy.dealWith(entry.task);
+      }
+      return;
+    }
+
+    long wakeup;
+    while (deadline < (wakeup = wakeupTick.get())) {
+      if (wakeupTick.compareAndSet(wakeup, deadline)) {
+        LockSupport.unpark(schedulerThread);
+        break;
+      }
+    }
+  }
+
+  /**
+   * Returns the first tick after the specified one which has tasks in its bucket, or {@link Long#MAX_VALUE} if the
+   * wheel is empty. The tasks in that bucket may be due on a later revolution of the wheel, in which case the
+   * scheduler simply wakes up once more than necessary.
+   */
+  private long nextOccupiedTick(final long tick) {
+    if (scheduledCount.get() == 0) {
+      return Long.MAX_VALUE;
+    }
+
+    for (int i = 1; i <= wheel.length; i++) {
+      final Bucket bucket = wheel[(int) ((tick + i) & mask)];
+      synchronized (bucket) {
+        if (bucket.head.next != bucket.head) {
+          return tick + i;
+        }
+      }
+    }
+    return tick + wheel.length;
+  }
+
+  /**
+   * Takes all the tasks due on the specified tick out of the wheel, and hands them to the worker pool.
+   */
+  private void expire(final long tick) throws InterruptedException {
+    final Bucket bucket = wheel[(int) (tick & mask)];
+
+    Entry first = null;
+    Entry last = null;
+
+    synchronized (bucket) {
+      Entry entry = bucket.head.next;
+      while (entry != bucket.head) {
+        final Entry next = entry.next;
+        if (entry.deadline <= tick) {
+          bucket.unlink(entry);
+          scheduledCount.decrementAndGet();
+
+          if (last == null) {
+            first = entry;
+          }
+          else {
+            last.nextExpired = entry;
+          }
+          last = entry;
+        }
+        entry = next;
+      }
+      processedTick = tick;
+    }
+
+    Entry entry = first;
+    while (entry != null) {
+      final Entry next = entry.nextExpired;
+      entry.nextExpired = null;
+
+      final TimedTask task = entry.task;
+      if (task.isCancelled()) {
+        task.runExitHandler();
+      }
+      else {
+        if (!queue.offer(task, 5, java.util.concurrent.TimeUnit.SECONDS)) {
+          saturationPolicy.dealWith(task);
+        }
+
+        if (task.calculateNextRuntime()) {
+          insert(entry);
+        }
+      }
+      entry = next;
+    }
+  }
+
+  private void checkLoad() {
+    int queueSize = queue.size();
+
+    if (queueSize == 0) return;
+    else if (queueSize > (0.80d * maxQueueSize)) {
+      idleCount.set(0);
+      pool.addWorker();
+    }
+  }
+
+  /**
+   * A bucket of the wheel: a circular, doubly-linked list of entries with a sentinel head. Guarded by the bucket
+   * itself.
+   */
+  private final class Bucket {
+    private final Entry head = new Entry(null);
+
+    private Bucket() {
+      head.next = head;
+      head.prev = head;
+    }
+
+    private void link(final Entry entry) {
+      entry.prev = head.prev;
+      entry.next = head;
+      head.prev.next = entry;
+      head.prev = entry;
+      entry.bucket = this;
+    }
+
+    private void unlink(final Entry entry) {
+      entry.prev.next = entry.next;
+      entry.next.prev = entry.prev;
+      entry.prev = null;
+      entry.next = null;
+      entry.bucket = null;
+    }
+  }
+
+  /**
+   * The position of a task in the wheel. The entry is also the task's cancel handler, so that cancelling the task
+   * removes it from its bucket straight away.
+   */
+  private final class Entry implements Runnable {
+    private final TimedTask task;
+    private long deadline;
+    private Entry prev;
+    private Entry next;
+    private Entry nextExpired;
+
+    private volatile Bucket bucket;
+
+    private Entry(final TimedTask task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      Bucket current;
+      while ((current = bucket) != null) {
+        synchronized (current) {
+          if (bucket == current) {
+            current.unlink(this);
+            scheduledCount.decrementAndGet();
+            break;
+          }
+        }
+      }
+
+      if (current != null) {
+        task.runExitHandler();
+      }
+    }
+  }
+
+  private class SchedulerThread extends Thread {
+    private volatile boolean running = false;
+
+    private SchedulerThread() {
+      super("TimerWheelScheduler");
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      while (running) {
+        try {
+          while (running) {
+            final long currentTick = currentTimeMillis() / tickMillis;
+
+            // after a long sleep, one revolution visits every bucket at the latest tick it may have due tasks for.
+            long tick = Math.max(processedTick, currentTick - wheel.length);
+            while (running && tick < currentTick) {
+              expire(++tick);
+            }
+
+            // from here on, any task scheduled before the next occupied tick moves the wakeup forward and unparks us.
+            wakeupTick.set(Long.MAX_VALUE);
+            final long next = nextOccupiedTick(currentTick);
+
+            long wakeup;
+            while (next < (wakeup = wakeupTick.get()) && !wakeupTick.compareAndSet(wakeup, next)) {
+            }
+
+            if ((wakeup = wakeupTick.get()) == Long.MAX_VALUE) {
+              LockSupport.park(this);
+            }
+            else {
+              LockSupport.parkUntil(this, wakeup * tickMillis);
+            }
+          }
+        }
+        catch (InterruptedException e) {
+          // just fall through.
+        }
+        catch (Throwable t) {
+          t.printStackTrace();
+        }
+      }
+    }
+
+    @Override
+    public void start() {
+      running = true;
+      super.start();
+    }
+
+    public void requestStop() {
+      running = false;
+      interrupt();
+    }
+  }
+}
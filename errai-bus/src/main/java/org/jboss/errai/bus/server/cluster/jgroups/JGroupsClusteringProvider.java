@@ -47,6 +47,7 @@ import org.jboss.errai.bus.server.service.ErraiServiceConfigurator;
 import org.jboss.errai.bus.server.util.SecureHashUtil;
 import org.jboss.errai.common.client.protocols.Resources;
 import org.jboss.errai.marshalling.client.protocols.ErraiProtocol;
+import org.jboss.errai.marshalling.server.protocol.ErraiBinaryProtocol;
 import org.jgroups.Address;
 import org.jgroups.JChannel;
 import org.jgroups.ReceiverAdapter;
@@ -64,6 +65,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
 
   private final JChannel jchannel;
   private final ServerMessageBus serverMessageBus;
+  private final boolean binaryWireFormat;
 
   final Cache<String, Address> sessionToNodeCache;
 
@@ -76,6 +78,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
                                     final ErraiServiceConfigurator config,
                                     final ErraiService erraiService) {
     this.serverMessageBus = messageBus;
+    this.binaryWireFormat = !"json".equalsIgnoreCase(JGroupsConfigAttribs.JGROUPS_WIRE_FORMAT.get(config));
 
     try {
       jchannel = new JChannel(JGroupsConfigAttribs.JGROUPS_PROTOCOL_STACK.get(config));
@@ -158,7 +161,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
               .set(ClusterParts.SessId, sessionIdRequested);
 
           try {
-            jchannel.send(jgroupsMessage.getSrc(), ErraiProtocol.encodePayload(replyMsg.getParts()));
+            jchannel.send(createJGroupsMessage(jgroupsMessage.getSrc(), replyMsg));
           }
           catch (Exception e) {
             e.printStackTrace();
@@ -182,7 +185,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
           final Message dMessage = createForwardMessageFor(deferredMessage, messageId);
 
           try {
-            jchannel.send(jgroupsMessage.getSrc(), ErraiProtocol.encodePayload(dMessage.getParts()));
+            jchannel.send(createJGroupsMessage(jgroupsMessage.getSrc(), dMessage));
           }
           catch (Exception e) {
             e.printStackTrace();
@@ -201,7 +204,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
         final Message whoMessage = createWhoHandlesMessage(sessionId, subject, messageId);
 
         try {
-          jchannel.send(getJGroupsMessage(whoMessage));
+          jchannel.send(createJGroupsMessage(null, whoMessage));
         }
         catch (Exception e) {
           e.printStackTrace();
@@ -211,8 +214,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
       }
 
       case MessageForward: {
-        final String payload = message.get(String.class, Payload);
-        final Message forwardMessage = MessageFactory.createCommandMessage(IntrabusQueueSession.INSTANCE, payload);
+        final Message forwardMessage = getForwardedMessage(message.getParts().get(Payload.name()));
         forwardMessage.setFlag(RoutingFlag.FromPeer);
 
         final String sessId = message.get(String.class, SessId);
@@ -233,7 +235,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
             final Message invalidRoute = createInvalidRouteMessage(sessId, forwardMessage.getSubject(), messageId);
 
             try {
-              jchannel.send(jgroupsMessage.getSrc(), ErraiProtocol.encodePayload(invalidRoute.getParts()));
+              jchannel.send(createJGroupsMessage(jgroupsMessage.getSrc(), invalidRoute));
             }
             catch (Exception e2) {
               e2.printStackTrace();
@@ -256,7 +258,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
     if (knownAddress != null) {
       final Message forwardMessage = createForwardMessageFor(serverMessageBus.getDeadLetterMessage(messageId), messageId);
       try {
-        jchannel.send(knownAddress, ErraiProtocol.encodePayload(forwardMessage.getParts()));
+        jchannel.send(createJGroupsMessage(knownAddress, forwardMessage));
       }
       catch (Exception e) {
         e.printStackTrace();
@@ -265,7 +267,7 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
     else {
       final Message whoHandlesMessage = createWhoHandlesMessage(sessionId, subject, messageId);
       try {
-        jchannel.send(getJGroupsMessage(whoHandlesMessage));
+        jchannel.send(createJGroupsMessage(null, whoHandlesMessage));
       }
       catch (Exception e) {
         e.printStackTrace();
@@ -277,7 +279,8 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
     final Message forward = CommandMessage.create()
         .set(ToSubject, CLUSTER_SERVICE)
         .set(CommandType, ClusterCommands.MessageForward.name())
-        .set(Payload, ErraiProtocol.encodePayload(message.getParts()))
+        .set(Payload, binaryWireFormat
+            ? ErraiBinaryProtocol.encodePayload(message.getParts()) : ErraiProtocol.encodePayload(message.getParts()))
         .set(BusId, busId);
 
     if (message.hasPart(SessionID)) {
@@ -317,18 +320,39 @@ public class JGroupsClusteringProvider extends ReceiverAdapter implements Cluste
   @Override
   public void clusterTransmitGlobal(final Message message) {
     try {
-      jchannel.send(getJGroupsMessage(createForwardMessageFor(message, null)));
+      jchannel.send(createJGroupsMessage(null, createForwardMessageFor(message, null)));
     }
     catch (Exception e) {
       e.printStackTrace();
     }
   }
 
+  /**
+   * Decodes a message received from another node, in either of the wire formats.
+   */
   public static Message getErraiMessage(final org.jgroups.Message message) {
+    final byte[] buffer = message.getRawBuffer();
+    if (buffer != null && ErraiBinaryProtocol.isBinaryPayload(buffer, message.getOffset(), message.getLength())) {
+      return MessageFactory.createCommandMessage(IntrabusQueueSession.INSTANCE,
+          ErraiBinaryProtocol.decodePayload(buffer, message.getOffset(), message.getLength()));
+    }
     return MessageFactory.createCommandMessage(IntrabusQueueSession.INSTANCE, String.valueOf(message.getObject()));
   }
 
-  private static org.jgroups.Message getJGroupsMessage(final Message message) {
-    return new org.jgroups.Message(null, null, ErraiProtocol.encodePayload(message.getParts()));
+  private static Message getForwardedMessage(final Object payload) {
+    if (payload instanceof byte[]) {
+      return MessageFactory.createCommandMessage(IntrabusQueueSession.INSTANCE,
+          ErraiBinaryProtocol.decodePayload((byte[]) payload));
+    }
+    return MessageFactory.createCommandMessage(IntrabusQueueSession.INSTANCE, String.valueOf(payload));
+  }
+
+  private org.jgroups.Message createJGroupsMessage(final Address destination, final Message message) {
+    if (binaryWireFormat) {
+      return new org.jgroups.Message(destination, null, ErraiBinaryProtocol.encodePayload(message.getParts()));
+    }
+    else {
+      return new org.jgroups.Message(destination, null, ErraiProtocol.encodePayload(message.getParts()));
+    }
   }
 }
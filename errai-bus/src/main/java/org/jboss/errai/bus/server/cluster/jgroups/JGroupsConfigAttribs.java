@@ -23,7 +23,13 @@ import org.jgroups.JChannel;
  * @author Mike Brock
  */
 public enum JGroupsConfigAttribs {
-  JGROUPS_PROTOCOL_STACK("errai.jgroups.protocol_stack", JChannel.DEFAULT_PROTOCOL_STACK);
+  JGROUPS_PROTOCOL_STACK("errai.jgroups.protocol_stack", JChannel.DEFAULT_PROTOCOL_STACK),
+
+  /**
+   * The encoding of the messages sent to other nodes: <tt>binary</tt> (the default), or <tt>json</tt> for clusters
+   * which still include nodes that can only read JSON. Both encodings are always accepted from other nodes.
+   */
+  JGROUPS_WIRE_FORMAT("errai.jgroups.wire_format", "binary");
 
   protected final String attributeName;
   protected final String defaultValue;
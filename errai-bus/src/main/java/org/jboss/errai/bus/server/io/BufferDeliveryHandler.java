@@ -18,7 +18,6 @@ package org.jboss.errai.bus.server.io;
 
 import org.jboss.errai.bus.client.api.messaging.Message;
 import org.jboss.errai.bus.server.api.MessageQueue;
-import org.jboss.errai.bus.server.io.buffers.Buffer;
 import org.jboss.errai.bus.server.io.buffers.BufferColor;
 import org.jboss.errai.bus.server.io.buffers.BufferOverflowException;
 import org.jboss.errai.bus.server.util.MarkedByteWriteAdapter;
@@ -27,6 +26,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This implementation of {@link MessageDeliveryHandler} facilitates the buffering of all inbound message
@@ -34,7 +35,7 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Mike Brock
  */
-public class BufferDeliveryHandler implements MessageDeliveryHandler, Buffered, Cleanable {
+public class BufferDeliveryHandler implements MessageDeliveryHandler, Buffered, Cleanable, Pageable {
   private static Logger log = LoggerFactory.getLogger(BufferDeliveryHandler.class);
   private static final BufferDeliveryHandler singleton = new BufferDeliveryHandler();
 
@@ -42,16 +43,16 @@ public class BufferDeliveryHandler implements MessageDeliveryHandler, Buffered,
     return singleton;
   }
 
+  private final AtomicLong responseCount = new AtomicLong();
+  private final AtomicLong responseMessageCount = new AtomicLong();
+
   private BufferDeliveryHandler() {
   }
 
   @Override
   public boolean deliver(final MessageQueue queue, final Message message) throws IOException {
     try {
-      final Buffer buffer = queue.getBuffer();
-      final BufferColor bufferColor = queue.getBufferColor();
-
-      BufferHelper.encodeAndWrite(buffer, bufferColor, message);
+      BufferHelper.encodeAndWrite(queue, message);
     }
     finally {
       queue.incrementMessageCount();
@@ -68,63 +69,136 @@ public class BufferDeliveryHandler implements MessageDeliveryHandler, Buffered,
 
   @Override
   public void clean(final MessageQueue queue) {
-    //   discardPageData(queue);
+    PageUtil.discardPageData(queue);
   }
 
+  @Override
+  public boolean pageOut(final MessageQueue queue) {
+    return PageUtil.pageWaitingToDisk(queue);
+  }
+
+  @Override
+  public void discardPageData(final MessageQueue queue) {
+    PageUtil.discardPageData(queue);
+  }
 
   @Override
   public boolean copyFromBuffer(final MessageQueue queue,
                                 final ByteWriteAdapter toAdapter) throws IOException {
+    return copyFromBuffer(false, null, 0, 0, 0, queue, toAdapter);
+  }
 
+  @Override
+  public boolean copyFromBuffer(TimeUnit timeUnit, int timeout, MessageQueue queue, ByteWriteAdapter toAdapter)
+      throws IOException {
+    return copyFromBuffer(true, timeUnit, timeout, 0, 0, queue, toAdapter);
+  }
 
-    final MarkedByteWriteAdapter markedOutputStream = new MarkedByteWriteAdapter(toAdapter);
-
-    try {
-      queue.getBuffer().read(markedOutputStream, queue.getBufferColor(), new MultiMessageFilter());
-
-      markedOutputStream.flush();
+  @Override
+  public boolean copyFromBuffer(final TimeUnit timeUnit,
+                                final int timeout,
+                                final int lingerMillis,
+                                final int lingerBytes,
+                                final MessageQueue queue,
+                                final ByteWriteAdapter toAdapter) throws IOException {
+    return copyFromBuffer(true, timeUnit, timeout, lingerMillis, lingerBytes, queue, toAdapter);
+  }
 
-      if (markedOutputStream.dataWasWritten() && markedOutputStream.getBytesWritten() > 2) {
-        queue.resetMessageCount();
-        return true;
-      }
+  /**
+   * Copies the data paged out for the queue, if any, and the data waiting in the buffer into one multi-message
+   * payload. The color lock is held throughout, so that no data can be paged out in between. If <tt>wait</tt> is
+   * false, nothing is copied while another thread is reading the queue.
+   */
+  private boolean copyFromBuffer(final boolean wait,
+                                 final TimeUnit timeUnit,
+                                 final int timeout,
+                                 final int lingerMillis,
+                                 final int lingerBytes,
+                                 final MessageQueue queue,
+                                 final ByteWriteAdapter toAdapter) throws IOException {
+    final BufferColor bufferColor = queue.getBufferColor();
+    final ReentrantLock lock = bufferColor.getLock();
+    if (wait) {
+      lock.lock();
     }
-    catch (BufferOverflowException e) {
-      queue.getBufferColor().getSequence().set(queue.getBuffer().getHeadSequence());
-      log.warn("buffer data was evicted for session " + queue.getSession().getSessionId()
-          + " due to overflow condition. (consider increasing buffer size with errai.bus.buffer_size "
-          + "in ErraiService.properties)");
+    else if (!lock.tryLock()) {
+      return false;
     }
 
-    return false;
-  }
-
-  @Override
-  public boolean copyFromBuffer(TimeUnit timeUnit, int timeout, MessageQueue queue, ByteWriteAdapter toAdapter)
-      throws IOException {
     final MarkedByteWriteAdapter markedOutputStream = new MarkedByteWriteAdapter(toAdapter);
+    final LingeringMessageFilter filter = new LingeringMessageFilter();
 
     try {
-      queue.getBuffer().readWait(timeUnit, timeout, markedOutputStream, queue.getBufferColor(),
-          new MultiMessageFilter());
+      filter.before(markedOutputStream);
+
+      // paged out data is older than anything still in the buffer, and there is no need to wait if there is some.
+      if (PageUtil.readInPageFile(queue, markedOutputStream, filter) || !wait) {
+        queue.getBuffer().read(markedOutputStream, bufferColor, filter);
+      }
+      else {
+        queue.getBuffer().readWait(timeUnit, timeout, markedOutputStream, bufferColor, filter);
+      }
 
+      if (filter.getMessageCount() > 0 && lingerMillis > 0) {
+        // keep the response open for messages sent right after the first ones, so they don't need a poll of their own.
+        final long lingerUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        long remaining;
+        while (markedOutputStream.getBytesWritten() < lingerBytes
+            && (remaining = lingerUntil - System.nanoTime()) > 0) {
+          queue.getBuffer().readWait(TimeUnit.NANOSECONDS, remaining, markedOutputStream, bufferColor, filter);
+        }
+      }
+
+      filter.finish(markedOutputStream);
       markedOutputStream.flush();
 
       if (markedOutputStream.dataWasWritten() && markedOutputStream.getBytesWritten() > 2) {
         queue.resetMessageCount();
+        recordResponse(filter);
         return true;
       }
     }
     catch (BufferOverflowException e) {
-      queue.getBufferColor().getSequence().set(queue.getBuffer().getHeadSequence());
+      bufferColor.getSequence().set(queue.getBuffer().getHeadSequence());
       log.warn("buffer data was evicted for session " + queue.getSession().getSessionId()
           + " due to overflow condition. (consider increasing buffer size with errai.bus.buffer_size "
           + "in ErraiService.properties)");
     }
     catch (InterruptedException e) {
-      e.printStackTrace();
+      log.debug("interrupted while waiting for data for session " + queue.getSession().getSessionId(), e);
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      lock.unlock();
     }
 
     return false;
   }
+
+  private void recordResponse(final MultiMessageFilter filter) {
+    responseCount.incrementAndGet();
+    responseMessageCount.addAndGet(filter.getMessageCount());
+  }
+
+  /**
+   * Returns the number of polls which were answered with at least one message since the bus started.
+   */
+  public long getResponseCount() {
+    return responseCount.get();
+  }
+
+  /**
+   * Returns the total number of messages written in the responses counted by {@link #getResponseCount()}.
+   */
+  public long getResponseMessageCount() {
+    return responseMessageCount.get();
+  }
+
+  /**
+   * Returns the average number of messages delivered per poll response, or 0 if no messages were delivered yet.
+   */
+  public double getMessagesPerResponse() {
+    final long responses = responseCount.get();
+    return responses == 0 ? 0 : (double) responseMessageCount.get() / responses;
+  }
 }
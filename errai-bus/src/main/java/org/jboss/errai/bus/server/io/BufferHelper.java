@@ -16,13 +16,13 @@
 
 package org.jboss.errai.bus.server.io;
 
-import static org.jboss.errai.marshalling.server.protocol.ErraiProtocolServer.encodePayloadToByteArrayInputStream;
+import static org.jboss.errai.marshalling.server.protocol.ErraiProtocolServer.encodePayloadToByteArray;
 
 import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.bus.server.api.MessageQueue;
 import org.jboss.errai.bus.server.io.buffers.Buffer;
 import org.jboss.errai.bus.server.io.buffers.BufferColor;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 /**
@@ -32,10 +32,89 @@ public final class BufferHelper {
   private BufferHelper() {
   }
 
+  private static final ThreadLocal<EncodedMessage> encodedMessage = new ThreadLocal<EncodedMessage>();
+
+  /**
+   * Retains the encoded payloads of the specified message for every subsequent call to
+   * {@link #encode(Message, boolean)} for the same message on the calling thread, until
+   * {@link #clearEncodedMessage()} is called. This is used when a message is fanned out to many queues, so that it is
+   * only marshalled once for each of the formats the queues use.
+   *
+   * @param message
+   *     the message to encode.
+   */
+  public static void encodeOnce(final Message message) {
+    encodedMessage.set(new EncodedMessage(message));
+  }
+
+  /**
+   * Discards the encoded payloads retained by {@link #encodeOnce(Message)} on the calling thread.
+   */
+  public static void clearEncodedMessage() {
+    encodedMessage.remove();
+  }
+
+  /**
+   * Returns the encoded payload for the specified message, in the format understood by every remote bus.
+   */
+  public static byte[] encode(final Message message) {
+    return encode(message, false);
+  }
+
+  /**
+   * Returns the encoded payload for the specified message to be delivered to the specified queue, using type ids
+   * if the remote bus of the queue understands them.
+   */
+  public static byte[] encode(final MessageQueue queue, final Message message) {
+    return encode(message, queue.isTypeDictionaryEnabled());
+  }
+
+  /**
+   * Returns the encoded payload for the specified message, reusing the payload retained by
+   * {@link #encodeOnce(Message)} if there is one.
+   *
+   * @param message
+   *     the message to encode.
+   * @param typeDictionary
+   *     whether or not the types of the encoded objects are written as ids.
+   *
+   * @return the UTF-8 encoded payload.
+   */
+  public static byte[] encode(final Message message, final boolean typeDictionary) {
+    final EncodedMessage encoded = encodedMessage.get();
+    if (encoded != null && encoded.message == message) {
+      return encoded.getPayload(typeDictionary);
+    }
+    return encodePayloadToByteArray(message.getParts(), typeDictionary);
+  }
+
   public static void encodeAndWrite(final Buffer buffer, final BufferColor bufferColor, final Message message)
           throws IOException {
 
-    buffer.write(encodePayloadToByteArrayInputStream(message.getParts()), bufferColor);
+    final byte[] bytes = encode(message);
+    buffer.write(bytes, 0, bytes.length, bufferColor);
+  }
+
+  /**
+   * Encodes the message in the format understood by the remote bus of the specified queue, and writes it to the
+   * buffer of the queue.
+   */
+  public static void encodeAndWrite(final MessageQueue queue, final Message message) throws IOException {
+    final byte[] bytes = encode(queue, message);
+    queue.getBuffer().write(bytes, 0, bytes.length, queue.getBufferColor());
+  }
+
+  /**
+   * Encodes the message once and writes the result to each of the specified buffers. As the buffers may be read by
+   * any queue, the payload is always written in the format understood by every remote bus.
+   */
+  public static void encodeAndWrite(final Buffer[] buffers, final BufferColor bufferColor, final Message message)
+          throws IOException {
+
+    final byte[] bytes = encode(message);
+    for (final Buffer buffer : buffers) {
+      buffer.write(bytes, 0, bytes.length, bufferColor);
+    }
   }
 
   private static final byte[] NOOP_ARRAY = new byte[0];
@@ -43,6 +122,31 @@ public final class BufferHelper {
   public static void encodeAndWriteNoop(final Buffer buffer, final BufferColor bufferColor)
           throws IOException {
 
-    buffer.write(NOOP_ARRAY.length, new ByteArrayInputStream(NOOP_ARRAY), bufferColor);
+    buffer.write(NOOP_ARRAY, 0, NOOP_ARRAY.length, bufferColor);
+  }
+
+  private static class EncodedMessage {
+    private final Message message;
+    private byte[] payload;
+    private byte[] compactPayload;
+
+    private EncodedMessage(final Message message) {
+      this.message = message;
+    }
+
+    private byte[] getPayload(final boolean typeDictionary) {
+      if (typeDictionary) {
+        if (compactPayload == null) {
+          compactPayload = encodePayloadToByteArray(message.getParts(), true);
+        }
+        return compactPayload;
+      }
+      else {
+        if (payload == null) {
+          payload = encodePayloadToByteArray(message.getParts(), false);
+        }
+        return payload;
+      }
+    }
   }
 }
@@ -30,4 +30,12 @@ public interface Buffered {
 
   public boolean copyFromBuffer(TimeUnit timeUnit, int timeout, MessageQueue queue, ByteWriteAdapter toAdapter)
         throws IOException;
+
+  /**
+   * Waits for data like {@link #copyFromBuffer(TimeUnit, int, MessageQueue, ByteWriteAdapter)}, but once the first
+   * messages have been copied, keeps collecting messages into the same payload for up to <tt>lingerMillis</tt>, or
+   * until <tt>lingerBytes</tt> have been copied.
+   */
+  public boolean copyFromBuffer(TimeUnit timeUnit, int timeout, int lingerMillis, int lingerBytes, MessageQueue queue,
+                                ByteWriteAdapter toAdapter) throws IOException;
 }
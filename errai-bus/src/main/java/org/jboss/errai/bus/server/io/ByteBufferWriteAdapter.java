@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ByteWriteAdapter} which writes into a growable {@link ByteBuffer}. The written bytes can be handed to a
+ * channel with {@link #toByteBuffer()} without copying them again.
+ *
+ * @author agent
+ */
+public class ByteBufferWriteAdapter extends AbstractByteWriteAdapter {
+  private ByteBuffer buffer;
+
+  public ByteBufferWriteAdapter() {
+    this(256);
+  }
+
+  public ByteBufferWriteAdapter(final int initialCapacity) {
+    this.buffer = ByteBuffer.allocate(Math.max(initialCapacity, 16));
+  }
+
+  private void ensure(final int extra) {
+    if (buffer.remaining() < extra) {
+      final ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+      buffer.flip();
+      newBuffer.put(buffer);
+      buffer = newBuffer;
+    }
+  }
+
+  @Override
+  public void write(final byte b) throws IOException {
+    ensure(1);
+    buffer.put(b);
+  }
+
+  @Override
+  public void write(final byte[] b) throws IOException {
+    ensure(b.length);
+    buffer.put(b);
+  }
+
+  @Override
+  public void flush() throws IOException {
+  }
+
+  /**
+   * Returns the number of bytes written so far.
+   */
+  public int size() {
+    return buffer.position();
+  }
+
+  /**
+   * Returns a buffer holding the bytes written so far, positioned at the first byte. The returned buffer shares its
+   * content with this adapter, so the adapter must not be written to while it is in use.
+   */
+  public ByteBuffer toByteBuffer() {
+    final ByteBuffer result = buffer.duplicate();
+    result.flip();
+    return result;
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server.io;
+
+import org.jboss.errai.bus.client.api.HasEncoded;
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.bus.server.api.MessageQueue;
+import org.jboss.errai.bus.server.io.buffers.Buffer;
+import org.jboss.errai.bus.server.io.buffers.BufferOverflowException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link MessageDeliveryHandler} for direct channels which coalesces the messages delivered within a short window
+ * into a single write. Messages are first written to the color of the queue in the {@link
+ * org.jboss.errai.bus.server.io.buffers.Buffer}, and the pending messages are read from the buffer and written to the
+ * channel as one frame once the window has passed, or as soon as the pending messages exceed the byte threshold.
+ * <p/>
+ * The pending bytes are taken from the buffer, as the distance between its head and the read sequence of the queue's
+ * color, so that they include the messages broadcast to all queues, which are written to the buffer directly and only
+ * {@link MessageQueue#wake() wake} the queue. The distance is counted in whole segments, and includes the segments of
+ * other colors written in between.
+ * <p/>
+ * While the channel is not writable, the messages stay in the buffer, rather than in the outbound buffer of the
+ * channel. The transport must call {@link MessageQueue#wake()} when the channel becomes writable again. If the
+ * messages pending for an unwritable channel exceed the backlog limit, or the size of the buffer (beyond which they
+ * are overwritten), the channel is closed, so that the client reconnects rather than silently missing messages.
+ *
+ * @author agent
+ */
+public class CoalescingDeliveryHandler implements MessageDeliveryHandler, Wakeable, DirectChannel {
+  private static final Logger log = LoggerFactory.getLogger(CoalescingDeliveryHandler.class);
+
+  private final FlowControlledQueueChannel channel;
+  private final ScheduledExecutorService scheduler;
+  private final int windowMillis;
+  private final int maxBytes;
+  private final long maxBacklogBytes;
+
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  /**
+   * @param channel
+   *     the channel to write to.
+   * @param scheduler
+   *     the scheduler used to flush the pending messages after the window has passed.
+   * @param windowMillis
+   *     the time in milliseconds messages are held back to be coalesced. If zero, every message is written as soon as
+   *     it is delivered.
+   * @param maxBytes
+   *     the number of pending bytes which causes the messages to be written before the window has passed.
+   * @param maxBacklogBytes
+   *     the number of bytes which may be pending for an unwritable channel before it is closed.
+   */
+  public static MessageDeliveryHandler createFor(final FlowControlledQueueChannel channel,
+                                                 final ScheduledExecutorService scheduler,
+                                                 final int windowMillis,
+                                                 final int maxBytes,
+                                                 final long maxBacklogBytes) {
+    return new CoalescingDeliveryHandler(channel, scheduler, windowMillis, maxBytes, maxBacklogBytes);
+  }
+
+  private CoalescingDeliveryHandler(final FlowControlledQueueChannel channel,
+                                    final ScheduledExecutorService scheduler,
+                                    final int windowMillis,
+                                    final int maxBytes,
+                                    final long maxBacklogBytes) {
+    this.channel = channel;
+    this.scheduler = scheduler;
+    this.windowMillis = windowMillis;
+    this.maxBytes = maxBytes;
+    this.maxBacklogBytes = maxBacklogBytes;
+  }
+
+  @Override
+  public boolean deliver(final MessageQueue queue, final Message message) throws IOException {
+    final byte[] bytes;
+    if (message instanceof HasEncoded) {
+      bytes = ((HasEncoded) message).getEncoded().getBytes("UTF-8");
+    }
+    else {
+      bytes = BufferHelper.encode(queue, message);
+    }
+    queue.getBuffer().write(bytes, 0, bytes.length, queue.getBufferColor());
+
+    flushOrSchedule(queue);
+    return true;
+  }
+
+  @Override
+  public void onWake(final MessageQueue queue) throws IOException {
+    flushOrSchedule(queue);
+  }
+
+  @Override
+  public void noop(final MessageQueue queue) throws IOException {
+  }
+
+  @Override
+  public boolean isConnected() {
+    return channel.isConnected();
+  }
+
+  /**
+   * Flushes right away if there is no window, or if the pending messages have reached either threshold, so that a
+   * backlog for an unwritable channel is detected without waiting for the window to pass.
+   */
+  private void flushOrSchedule(final MessageQueue queue) throws IOException {
+    if (windowMillis <= 0 || getPendingBytes(queue) >= Math.min(maxBytes, getBacklogLimit(queue))) {
+      flush(queue);
+    }
+    else {
+      scheduleFlush(queue);
+    }
+  }
+
+  /**
+   * Returns the number of bytes between the head of the buffer and the read sequence of the queue's color.
+   */
+  private static long getPendingBytes(final MessageQueue queue) {
+    final Buffer buffer = queue.getBuffer();
+    return (buffer.getHeadSequence() - queue.getBufferColor().getSequence().get()) * buffer.getSegmentSize();
+  }
+
+  private long getBacklogLimit(final MessageQueue queue) {
+    return Math.min(maxBacklogBytes, queue.getBuffer().getBufferSize());
+  }
+
+  private void scheduleFlush(final MessageQueue queue) {
+    if (!flushScheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    scheduler.schedule(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          flush(queue);
+        }
+        catch (Throwable t) {
+          log.warn("failed to flush messages for queue " + queue.getSession().getSessionId(), t);
+        }
+      }
+    }, windowMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Writes all messages pending in the buffer to the channel as one frame, or leaves them in the buffer if the
+   * channel is not writable.
+   */
+  private synchronized void flush(final MessageQueue queue) throws IOException {
+    flushScheduled.set(false);
+
+    if (!channel.isConnected()) {
+      return;
+    }
+
+    final long pending = getPendingBytes(queue);
+    if (!channel.isWritable()) {
+      if (pending > getBacklogLimit(queue)) {
+        log.info("closing channel " + channel.getId() + " of session " + queue.getSession().getSessionId()
+            + ": " + pending + " bytes are pending for a client which is not reading them"
+            + " (limit is errai.bus.web_socket_max_backlog_bytes)");
+        channel.close();
+      }
+      return;
+    }
+
+    // the separators added by the filter are not counted, so leave some room for them.
+    final ByteBufferWriteAdapter adapter = new ByteBufferWriteAdapter((int) Math.min(pending + pending / 8 + 64,
+        maxBacklogBytes));
+    try {
+      queue.getBuffer().read(adapter, queue.getBufferColor(), new MultiMessageFilter());
+    }
+    catch (BufferOverflowException e) {
+      // messages have been overwritten before they could be written to the channel: make the client reconnect,
+      // rather than carrying on as if nothing was missed.
+      queue.getBufferColor().getSequence().set(queue.getBuffer().getHeadSequence());
+      log.warn("closing channel " + channel.getId() + " of session " + queue.getSession().getSessionId()
+          + ": buffer data was evicted due to overflow condition. (consider increasing buffer size with "
+          + "errai.bus.buffer_size in ErraiService.properties)");
+      channel.close();
+      return;
+    }
+
+    // an empty read is written as "[]"
+    if (adapter.size() > 2) {
+      channel.write(adapter.toByteBuffer());
+    }
+  }
+}
@@ -16,15 +16,15 @@
 
 package org.jboss.errai.bus.server.io;
 
+import org.jboss.errai.bus.client.api.HasEncoded;
 import org.jboss.errai.bus.client.api.messaging.Message;
-import org.jboss.errai.bus.client.util.BusToolsCli;
 import org.jboss.errai.bus.server.api.MessageQueue;
 import org.jboss.errai.bus.server.util.LocalContext;
-import org.jboss.errai.marshalling.server.util.UnwrappedByteArrayOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * @author Mike Brock
@@ -44,7 +44,17 @@ public class DirectDeliveryHandler implements MessageDeliveryHandler, Wakeable,
   @Override
   public boolean deliver(final MessageQueue queue, final Message message) throws IOException {
     try {
-      directSocketChannel.write("[" + BusToolsCli.encodeMessage(message) + "]");
+      final byte[] encoded;
+      if (message instanceof HasEncoded) {
+        encoded = ((HasEncoded) message).getEncoded().getBytes("UTF-8");
+      }
+      else {
+        encoded = BufferHelper.encode(queue, message);
+      }
+
+      final ByteBuffer data = ByteBuffer.allocate(encoded.length + 2);
+      data.put((byte) '[').put(encoded).put((byte) ']').flip();
+      directSocketChannel.write(data);
       return true;
     }
     catch (Throwable e) {
@@ -58,11 +68,10 @@ public class DirectDeliveryHandler implements MessageDeliveryHandler, Wakeable,
 
   @Override
   public void onWake(MessageQueue queue) throws IOException {
-    UnwrappedByteArrayOutputStream outputStream = new UnwrappedByteArrayOutputStream();
-    ByteWriteAdapter adapter = new OutputStreamWriteAdapter(outputStream);
+    final ByteBufferWriteAdapter adapter = new ByteBufferWriteAdapter();
     queue.getBuffer().read(adapter, queue.getBufferColor(), new MultiMessageFilter());
 
-    directSocketChannel.write(new String(outputStream.toByteArray(), 0, outputStream.size()));
+    directSocketChannel.write(adapter.toByteBuffer());
   }
 
   @Override
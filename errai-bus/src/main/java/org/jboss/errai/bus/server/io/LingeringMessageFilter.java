@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server.io;
+
+import java.io.IOException;
+
+/**
+ * A {@link MultiMessageFilter} which can be passed to several consecutive reads of the same buffer color, and joins
+ * the messages of all of them into one multi-message payload. The opening '<tt>[</tt>' is only written by the first
+ * read, and the payload must be completed with {@link #finish(ByteWriteAdapter)} after the last one.
+ *
+ * @author agent
+ */
+public class LingeringMessageFilter extends MultiMessageFilter {
+  private boolean started;
+
+  @Override
+  public void before(final ByteWriteAdapter outstream) throws IOException {
+    if (!started) {
+      started = true;
+      super.before(outstream);
+    }
+  }
+
+  @Override
+  public void after(final ByteWriteAdapter outstream) throws IOException {
+  }
+
+  /**
+   * Completes the payload. Must be called once, after the last read.
+   */
+  public void finish(final ByteWriteAdapter outstream) throws IOException {
+    if (!started) {
+      super.before(outstream);
+    }
+    super.after(outstream);
+  }
+}
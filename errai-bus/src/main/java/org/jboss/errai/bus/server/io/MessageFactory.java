@@ -24,8 +24,8 @@ import org.jboss.errai.marshalling.client.api.json.EJArray;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
 import org.jboss.errai.marshalling.client.marshallers.ErraiProtocolEnvelopeMarshaller;
 import org.jboss.errai.marshalling.server.DecodingSession;
+import org.jboss.errai.marshalling.server.JSONByteDecoder;
 import org.jboss.errai.marshalling.server.JSONDecoder;
-import org.jboss.errai.marshalling.server.JSONStreamDecoder;
 import org.jboss.errai.marshalling.server.MappingContextSingleton;
 
 import javax.servlet.http.HttpServletRequest;
@@ -77,8 +77,7 @@ public class MessageFactory {
   public static Message createCommandMessage(QueueSession session, String json) {
     if (json.length() == 0) return null;
 
-    Message msg = createWithPartsFromRawMap(ErraiProtocolEnvelopeMarshaller.INSTANCE.demarshall(JSONDecoder.decode(json),
-        new DecodingSession(MappingContextSingleton.get())))
+    Message msg = createWithPartsFromRawMap(getParts(JSONDecoder.decode(json)))
             .setResource("Session", session)
             .setResource("SessionID", session.getSessionId());
 
@@ -88,8 +87,25 @@ public class MessageFactory {
   }
 
 
+  /**
+   * Creates the command message from the decoded parts of a message received from a remote bus.
+   *
+   * @param session - the queue session in which the message exists
+   * @param parts   - the decoded parts of the message
+   * @return the message constructed from the parts
+   */
+  public static Message createCommandMessage(QueueSession session, Map<String, Object> parts) {
+    Message msg = createWithParts(parts)
+            .setResource("Session", session)
+            .setResource("SessionID", session.getSessionId());
+
+    msg.setFlag(RoutingFlag.FromRemote);
+
+    return msg;
+  }
+
   public static List<Message> createCommandMessage(QueueSession session, HttpServletRequest request) throws IOException {
-    EJValue value = JSONStreamDecoder.decode(request.getInputStream());
+    EJValue value = JSONByteDecoder.decode(request.getInputStream());
     if (value.isObject() != null) {
       return Collections.singletonList(from(getParts(value), session, request));
     }
@@ -111,7 +127,7 @@ public class MessageFactory {
 
 
   public static List<Message> createCommandMessage(QueueSession session, InputStream inputStream) throws IOException {
-    EJValue value = JSONStreamDecoder.decode(inputStream);
+    EJValue value = JSONByteDecoder.decode(inputStream);
     if (value.isObject() != null) {
       return Collections.singletonList(from(getParts(value), session, null));
     }
@@ -148,8 +164,13 @@ public class MessageFactory {
 
 
   private static Map getParts(EJValue value) {
-    return ErraiProtocolEnvelopeMarshaller.INSTANCE.demarshall(value,
-            new DecodingSession(MappingContextSingleton.get()));
+    final DecodingSession decodingSession = DecodingSession.acquire(MappingContextSingleton.get());
+    try {
+      return ErraiProtocolEnvelopeMarshaller.INSTANCE.demarshall(value, decodingSession);
+    }
+    finally {
+      decodingSession.release();
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -87,4 +87,11 @@ public class MultiMessageFilter implements BufferFilter {
     }
     outstream.write(']');
   }
+
+  /**
+   * Returns the number of complete messages which passed through this filter.
+   */
+  public int getMessageCount() {
+    return seg;
+  }
 }
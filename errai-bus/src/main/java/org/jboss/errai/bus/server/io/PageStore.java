@@ -0,0 +1,351 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.server.io;
+
+import org.jboss.errai.bus.server.io.buffers.BufferFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A disk-backed store for the data of idle message queues. Data is kept in memory-mapped spill files which are
+ * divided into fixed size segments. Each paged queue owns a list of segments which is recorded in an in-memory
+ * index, and the segments are returned to the free pool as soon as the data is read back in or discarded.
+ * <p/>
+ * Spill files are created lazily as more space is needed. Segments are allocated from the lowest free one, so the
+ * data gathers in the first files, and a file is unmapped and deleted as soon as none of its segments are in use, so
+ * that a burst of paging doesn't hold on to disk and address space once the data has been read back in. All remaining
+ * spill files are deleted when the store is {@link #close() closed}, or otherwise when the VM exits.
+ * <p/>
+ * The store does not serialize access to the data of an individual key. Callers must ensure that reads, writes and
+ * discards for the same key do not happen concurrently (see {@link PageUtil}, which uses the queue's page lock).
+ *
+ * @author agent
+ */
+public final class PageStore {
+  private static final int SEGMENT_SIZE = 1024 * 4;                      /* 4 Kilobytes */
+  private static final int SEGMENTS_PER_FILE = 4096;                     /* 4096 x 4kb = 16 Megabytes per file */
+  private static final int FILE_SIZE = SEGMENT_SIZE * SEGMENTS_PER_FILE;
+
+  private static final PageStore instance
+      = new PageStore(new File(System.getProperty("java.io.tmpdir"), "queuecache"));
+
+  private final File directory;
+
+  /**
+   * The spill files by their position in the segment space. A slot is null when its file has been deleted, until it
+   * is needed again. Modified only while holding <tt>this</tt>.
+   */
+  private final List<SpillFile> spillFiles = new CopyOnWriteArrayList<SpillFile>();
+  private final Map<String, PageIndex> index = new ConcurrentHashMap<String, PageIndex>();
+
+  /**
+   * The allocation map of all segments across all spill files. Guarded by <tt>this</tt>.
+   */
+  private final BitSet allocated = new BitSet();
+
+  /**
+   * The lowest segment which may be free. Guarded by <tt>this</tt>.
+   */
+  private int freeHint = 0;
+
+  public PageStore(final File directory) {
+    this.directory = directory;
+  }
+
+  public static PageStore getInstance() {
+    return instance;
+  }
+
+  /**
+   * Appends the specified data to the data stored for the specified key.
+   *
+   * @param key
+   *     the key to store the data under.
+   * @param bytes
+   *     the byte array containing the data.
+   * @param offset
+   *     the offset in the array to start writing from.
+   * @param length
+   *     the number of bytes to write.
+   *
+   * @throws IOException
+   *     thrown if a new spill file could not be created.
+   */
+  public void write(final String key, final byte[] bytes, final int offset, final int length) throws IOException {
+    PageIndex pageIndex = index.get(key);
+    if (pageIndex == null) {
+      index.put(key, pageIndex = new PageIndex());
+    }
+
+    int written = 0;
+    while (written < length) {
+      final int segmentOffset = pageIndex.length % SEGMENT_SIZE;
+      if (segmentOffset == 0) {
+        pageIndex.add(allocateSegment());
+      }
+
+      final int toWrite = Math.min(SEGMENT_SIZE - segmentOffset, length - written);
+      final ByteBuffer target = getSegment(pageIndex.segments[pageIndex.segmentCount - 1], segmentOffset);
+      target.put(bytes, offset + written, toWrite);
+
+      written += toWrite;
+      pageIndex.length += toWrite;
+    }
+  }
+
+  /**
+   * Reads all the data stored for the specified key into the provided {@link ByteWriteAdapter} and releases the
+   * space it occupied.
+   *
+   * @param key
+   *     the key the data is stored under.
+   * @param outputStream
+   *     the adapter to write the data to.
+   * @param callback
+   *     an optional {@link BufferFilter} each byte is passed through. Null can be passed if no filter is needed.
+   *
+   * @return true if there was any data stored for the key.
+   *
+   * @throws IOException
+   *     thrown if the data could not be written to the adapter.
+   */
+  public boolean read(final String key, final ByteWriteAdapter outputStream, final BufferFilter callback)
+      throws IOException {
+    final PageIndex pageIndex = index.remove(key);
+    if (pageIndex == null) {
+      return false;
+    }
+
+    try {
+      final byte[] chunk = new byte[SEGMENT_SIZE];
+      int remaining = pageIndex.length;
+
+      for (int i = 0; i < pageIndex.segmentCount; i++) {
+        final int toRead = Math.min(SEGMENT_SIZE, remaining);
+        getSegment(pageIndex.segments[i], 0).get(chunk, 0, toRead);
+
+        if (callback != null) {
+          for (int j = 0; j < toRead; j++) {
+            outputStream.write(callback.each(chunk[j], outputStream));
+          }
+        }
+        else if (toRead == SEGMENT_SIZE) {
+          outputStream.write(chunk);
+        }
+        else {
+          for (int j = 0; j < toRead; j++) {
+            outputStream.write(chunk[j]);
+          }
+        }
+
+        remaining -= toRead;
+      }
+      return true;
+    }
+    finally {
+      release(pageIndex);
+    }
+  }
+
+  /**
+   * Discards any data stored for the specified key and releases the space it occupied.
+   *
+   * @param key
+   *     the key the data is stored under.
+   */
+  public void discard(final String key) {
+    final PageIndex pageIndex = index.remove(key);
+    if (pageIndex != null) {
+      release(pageIndex);
+    }
+  }
+
+  /**
+   * Returns true if there is any data stored for the specified key.
+   */
+  public boolean hasData(final String key) {
+    return index.containsKey(key);
+  }
+
+  /**
+   * Returns the number of bytes stored for the specified key.
+   */
+  public int getStoredBytes(final String key) {
+    final PageIndex pageIndex = index.get(key);
+    return pageIndex == null ? 0 : pageIndex.length;
+  }
+
+  /**
+   * Returns the total number of segments currently allocated across all spill files.
+   */
+  public synchronized int getAllocatedSegments() {
+    return allocated.cardinality();
+  }
+
+  /**
+   * Returns the number of spill files currently in use by this store.
+   */
+  public int getSpillFileCount() {
+    int count = 0;
+    for (final SpillFile spillFile : spillFiles) {
+      if (spillFile != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Discards all the data in this store and deletes its spill files. The store may be used again afterwards. The
+   * files are not unmapped explicitly, as a reader may still be finishing with them: their mappings are released once
+   * they have been garbage collected.
+   */
+  public synchronized void close() {
+    index.clear();
+    allocated.clear();
+    freeHint = 0;
+
+    for (final SpillFile spillFile : spillFiles) {
+      if (spillFile != null) {
+        spillFile.file.delete();
+      }
+    }
+    spillFiles.clear();
+  }
+
+  private ByteBuffer getSegment(final int segment, final int offset) {
+    final ByteBuffer segmentBuffer = spillFiles.get(segment / SEGMENTS_PER_FILE).buffer.duplicate();
+    segmentBuffer.position(((segment % SEGMENTS_PER_FILE) * SEGMENT_SIZE) + offset);
+    return segmentBuffer;
+  }
+
+  private synchronized int allocateSegment() throws IOException {
+    final int segment = allocated.nextClearBit(freeHint);
+    final int file = segment / SEGMENTS_PER_FILE;
+    if (file == spillFiles.size()) {
+      spillFiles.add(createSpillFile());
+    }
+    else if (spillFiles.get(file) == null) {
+      spillFiles.set(file, createSpillFile());
+    }
+    allocated.set(segment);
+    freeHint = segment + 1;
+    return segment;
+  }
+
+  private synchronized void release(final PageIndex pageIndex) {
+    for (int i = 0; i < pageIndex.segmentCount; i++) {
+      final int segment = pageIndex.segments[i];
+      allocated.clear(segment);
+      if (segment < freeHint) {
+        freeHint = segment;
+      }
+    }
+
+    // delete the files which are no longer in use. no one can be accessing them, as none of their segments belong
+    // to any key.
+    for (int file = 0; file < spillFiles.size(); file++) {
+      final SpillFile spillFile = spillFiles.get(file);
+      if (spillFile != null) {
+        final int next = allocated.nextSetBit(file * SEGMENTS_PER_FILE);
+        if (next == -1 || next >= (file + 1) * SEGMENTS_PER_FILE) {
+          spillFiles.set(file, null);
+          spillFile.unmapAndDelete();
+        }
+      }
+    }
+    while (!spillFiles.isEmpty() && spillFiles.get(spillFiles.size() - 1) == null) {
+      spillFiles.remove(spillFiles.size() - 1);
+    }
+  }
+
+  private SpillFile createSpillFile() throws IOException {
+    directory.mkdirs();
+
+    final File file = File.createTempFile("errai-pagestore", ".dat", directory);
+    file.deleteOnExit();
+
+    final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    try {
+      randomAccessFile.setLength(FILE_SIZE);
+      return new SpillFile(file, randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE));
+    }
+    finally {
+      // the mapping remains valid after the channel is closed.
+      randomAccessFile.close();
+    }
+  }
+
+  private static class SpillFile {
+    private final File file;
+    private final MappedByteBuffer buffer;
+
+    private SpillFile(final File file, final MappedByteBuffer buffer) {
+      this.file = file;
+      this.buffer = buffer;
+    }
+
+    /**
+     * Unmaps and deletes the file. If the mapping can't be released explicitly on this VM, it is released once the
+     * buffer has been garbage collected, and the file is deleted when the VM exits if it can't be deleted while it is
+     * still mapped.
+     */
+    private void unmapAndDelete() {
+      try {
+        final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        final Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      }
+      catch (Exception e) {
+        // not supported by this VM.
+      }
+      file.delete();
+    }
+  }
+
+  /**
+   * The segments owned by a single key, in the order the data was written.
+   */
+  private static class PageIndex {
+    private int[] segments = new int[4];
+    private int segmentCount;
+    private int length;
+
+    private void add(final int segment) {
+      if (segmentCount == segments.length) {
+        final int[] newSegments = new int[segments.length * 2];
+        System.arraycopy(segments, 0, newSegments, 0, segmentCount);
+        segments = newSegments;
+      }
+      segments[segmentCount++] = segment;
+    }
+  }
+}
@@ -16,22 +16,18 @@
 
 package org.jboss.errai.bus.server.io;
 
-import static java.lang.System.nanoTime;
-
 import org.jboss.errai.bus.server.api.MessageQueue;
+import org.jboss.errai.bus.server.io.buffers.BufferColor;
 import org.jboss.errai.bus.server.io.buffers.BufferFilter;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * Utility methods for paging the data of idle message queues out of the bus buffer and into the {@link PageStore}.
+ *
  * @author Mike Brock
  */
 public final class PageUtil {
@@ -39,90 +35,99 @@ public final class PageUtil {
   }
 
   private static final long DOWNGRADE_THRESHOLD = Boolean.getBoolean("org.jboss.errai.debugmode") ?
-      TimeUnit.SECONDS.toNanos(1600) : TimeUnit.SECONDS.toNanos(10);
+      TimeUnit.SECONDS.toMillis(1600) : TimeUnit.SECONDS.toMillis(10);
 
-  private static final String tempDir = System.getProperty("java.io.tmpdir");
+  private static final int PAGE_READ_SIZE = 1024 * 8;
 
-  public static String getPageFileName(final MessageQueue queue) {
-    return tempDir + "/queuecache/" + queue.getSession().getSessionId().replaceAll("\\-", "_");
-  }
-
-  public static File getOrCreatePageFile(final MessageQueue queue) throws IOException {
-    final File pageFile = new File(getPageFileName(queue));
-    if (!pageFile.exists()) {
-      pageFile.getParentFile().mkdirs();
-      pageFile.createNewFile();
-      pageFile.deleteOnExit();
-    }
-    return pageFile;
+  /**
+   * Returns the key the data of the specified queue is paged under. A queue which replaces another one for the same
+   * session (when a client reconnects) is allocated from the same buffer, so it has a different color as long as its
+   * predecessor is still around.
+   */
+  private static String getPageKey(final MessageQueue queue) {
+    return queue.getSession().getSessionId() + ":" + queue.getBufferColor().getColor();
   }
 
   public static void writeToPageFile(final MessageQueue queue, final InputStream inputStream, final boolean append) {
+    synchronized (queue.getPageLock()) {
+      try {
+        final PageStore store = PageStore.getInstance();
+        final String key = getPageKey(queue);
 
-    try {
-      final OutputStream outputStream
-          = new BufferedOutputStream(new FileOutputStream(getOrCreatePageFile(queue), append));
-
-      int read;
-      while ((read = inputStream.read()) != -1) outputStream.write(read);
-
-      outputStream.flush();
-      outputStream.close();
+        if (!append) {
+          store.discard(key);
+        }
 
-    }
-    catch (IOException e) {
-      throw new RuntimeException("paging error", e);
+        final byte[] buf = new byte[PAGE_READ_SIZE];
+        int read;
+        while ((read = inputStream.read(buf)) != -1) {
+          store.write(key, buf, 0, read);
+        }
+      }
+      catch (IOException e) {
+        throw new RuntimeException("paging error", e);
+      }
     }
   }
 
+  /**
+   * Moves the data waiting in the buffer for the specified queue into the {@link PageStore}. Nothing is paged out
+   * while a reader is waiting for the queue's data, as the reader could otherwise be handed newer data before the
+   * data which was paged out.
+   *
+   * @return true if any data was paged out.
+   */
   public static boolean pageWaitingToDisk(final MessageQueue queue) {
-    synchronized (queue.getPageLock()) {
-      try {
-        final boolean alreadyPaged = queue.isPaged();
-
-        final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(getOrCreatePageFile(queue), alreadyPaged));
-        final ByteWriteAdapter writeAdapter = new OutputStreamWriteAdapter(outputStream);
+    final BufferColor bufferColor = queue.getBufferColor();
+    final ReentrantLock lock = bufferColor.getLock();
+    if (!lock.tryLock()) {
+      // a reader is busy with the queue.
+      return false;
+    }
 
-        queue.getBuffer().read(writeAdapter, queue.getBufferColor());
-        outputStream.flush();
-        outputStream.close();
+    try {
+      if (bufferColor.hasWaitingReaders()) {
+        return false;
+      }
 
-        queue.setPaged(true);
+      synchronized (queue.getPageLock()) {
+        final PageStoreWriteAdapter writeAdapter = new PageStoreWriteAdapter(getPageKey(queue));
+        queue.getBuffer().read(writeAdapter, bufferColor);
+        writeAdapter.flush();
 
-        return alreadyPaged;
-      }
-      catch (IOException e) {
-        throw new RuntimeException("paging error", e);
+        if (writeAdapter.written > 0) {
+          queue.setPaged(true);
+          return true;
+        }
+        return false;
       }
     }
+    catch (IOException e) {
+      throw new RuntimeException("paging error", e);
+    }
+    finally {
+      lock.unlock();
+    }
   }
 
-  public static void readInPageFile(final MessageQueue queue,
-                                    final ByteWriteAdapter outputStream,
-                                    final BufferFilter callback) {
+  /**
+   * Reads the data paged out for the specified queue through the specified filter, and releases it from the
+   * {@link PageStore}. The filter's {@link BufferFilter#before before} and {@link BufferFilter#after after} callbacks
+   * are not called, so that the paged data can be joined with the data still in the buffer. Callers must hold the
+   * lock of the queue's buffer color, so that nothing is paged out between the two.
+   *
+   * @return true if any paged data was read.
+   */
+  public static boolean readInPageFile(final MessageQueue queue,
+                                       final ByteWriteAdapter outputStream,
+                                       final BufferFilter callback) {
     synchronized (queue.getPageLock()) {
       try {
         if (queue.isPaged()) {
-          final File pageFile = new File(getPageFileName(queue));
-          if (!pageFile.exists()) {
-            queue.setPaged(false);
-            return;
-          }
-
-          final InputStream inputStream = new BufferedInputStream(new FileInputStream(pageFile));
-
-          callback.before(outputStream);
-
-          int read;
-          while ((read = inputStream.read()) != -1) {
-            outputStream.write(callback.each(read, outputStream));
-          }
-          inputStream.close();
-
-          callback.after(outputStream);
-
           queue.setPaged(false);
+          return PageStore.getInstance().read(getPageKey(queue), outputStream, callback);
         }
+        return false;
       }
       catch (Exception e) {
         throw new RuntimeException("paging error", e);
@@ -131,22 +136,59 @@ public final class PageUtil {
   }
 
   public static void discardPageData(final MessageQueue queue) {
-    if (queue.isPaged()) {
-      File pageFile = new File(getPageFileName(queue));
-      if (pageFile.exists()) {
-        pageFile.delete();
+    synchronized (queue.getPageLock()) {
+      if (queue.isPaged()) {
+        PageStore.getInstance().discard(getPageKey(queue));
+        queue.setPaged(false);
       }
     }
   }
 
+  /**
+   * Returns the time (in milliseconds) a queue must have been idle for, before its waiting data is paged out.
+   */
+  public static long getPageOutThreshold() {
+    return DOWNGRADE_THRESHOLD;
+  }
+
   public static boolean pageIfStraddling(final MessageQueue queue) {
     if (queue.getDeliveryHandler() instanceof Pageable) {
 
-      if (((nanoTime() - queue.getLastTransmissionTime()) > DOWNGRADE_THRESHOLD)) {
-        ((Pageable) queue.getDeliveryHandler()).pageOut(queue);
-        return true;
+      if (((System.currentTimeMillis() - queue.getLastTransmissionTime()) > DOWNGRADE_THRESHOLD)) {
+        return ((Pageable) queue.getDeliveryHandler()).pageOut(queue);
       }
     }
     return false;
   }
+
+  /**
+   * Writes to the {@link PageStore} in chunks, so the data read from the buffer is not collected in memory first.
+   */
+  private static class PageStoreWriteAdapter extends AbstractByteWriteAdapter {
+    private final String key;
+    private final byte[] chunk = new byte[PAGE_READ_SIZE];
+    private int size;
+    private int written;
+
+    private PageStoreWriteAdapter(final String key) {
+      this.key = key;
+    }
+
+    @Override
+    public void write(final byte b) throws IOException {
+      if (size == chunk.length) {
+        flush();
+      }
+      chunk[size++] = b;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (size > 0) {
+        PageStore.getInstance().write(key, chunk, 0, size);
+        written += size;
+        size = 0;
+      }
+    }
+  }
 }
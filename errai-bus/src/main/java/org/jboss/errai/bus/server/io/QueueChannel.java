@@ -17,6 +17,7 @@
 package org.jboss.errai.bus.server.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * @author Mike Brock
@@ -24,5 +25,12 @@ import java.io.IOException;
 public interface QueueChannel {
   public boolean isConnected();
   public void write(String data) throws IOException;
+
+  /**
+   * Writes the UTF-8 encoded data between the position and the limit of the specified buffer as one message. The
+   * channel may retain the buffer until the write has completed, so the caller must not modify it afterwards.
+   */
+  public void write(ByteBuffer data) throws IOException;
+
   public String getId();
 }
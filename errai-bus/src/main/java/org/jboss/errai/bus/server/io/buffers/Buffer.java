@@ -21,6 +21,7 @@ import org.jboss.errai.bus.server.io.ByteWriteAdapter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -31,6 +32,10 @@ public interface Buffer {
 
   public void write(int writeSize, InputStream inputStream, BufferColor bufferColor) throws IOException;
 
+  public void write(byte[] bytes, int offset, int length, BufferColor bufferColor) throws IOException;
+
+  public void write(ByteBuffer byteBuffer, BufferColor bufferColor) throws IOException;
+
   public boolean read(ByteWriteAdapter outputStream, BufferColor bufferColor) throws IOException;
 
   public boolean read(ByteWriteAdapter outputStream, BufferColor bufferColor, BufferFilter callback) throws IOException;
@@ -16,6 +16,7 @@
 
 package org.jboss.errai.bus.server.io.buffers;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
@@ -51,6 +52,8 @@ public class BufferColor {
    */
   final Condition dataWaiting = lock.newCondition();
 
+  private final AtomicBoolean released = new AtomicBoolean();
+
   public short getColor() {
     return color;
   }
@@ -66,6 +69,13 @@ public class BufferColor {
     dataWaiting.signal();
   }
 
+  /**
+   * Returns true if any thread is waiting for data of this color. The caller must hold the lock of this color.
+   */
+  public boolean hasWaitingReaders() {
+    return lock.hasWaiters(dataWaiting);
+  }
+
   /**
    * Return an instance to the lock for this color.
    *
@@ -82,26 +92,20 @@ public class BufferColor {
   }
 
   /**
-   * Return a new unique BufferColor.
+   * Return a new BufferColor from the global color space. Colors from the global color space are not tracked, so
+   * they will repeat once the short range has been used up.
    *
-   * @return a new unique BufferColor
+   * @return a new BufferColor
    *
    * @see #getNewColorFromHead(TransmissionBuffer)
    */
   public static BufferColor getNewColor() {
-    short val = (short) bufferColorCounter.incrementAndGet();
-
-    // in a long-running system, do not allow it to recycle over the global
-    // color.
-    if (val == Short.MIN_VALUE) {
-      val = (short) bufferColorCounter.incrementAndGet();
-    }
-
-    return new BufferColor(val);
+    return new BufferColor(nextColor(bufferColorCounter));
   }
 
   /**
-   * Returns a new unique BufferColor set to the head sequence of the specified TransmissionBuffer.
+   * Returns a new BufferColor set to the head sequence of the specified TransmissionBuffer. The color is allocated
+   * from the color space of the specified buffer, so it is only unique with respect to that buffer.
    *
    * @param buffer
    *     the buffer instance to obtain the head sequence from.
@@ -109,11 +113,37 @@ public class BufferColor {
    * @return a new unique BufferColor instance.
    */
   public static BufferColor getNewColorFromHead(final TransmissionBuffer buffer) {
-    final BufferColor color = getNewColor();
+    final BufferColor color = new BufferColor(buffer.colorSpace.allocate());
     color.sequence.set(buffer.getHeadSequence());
     return color;
   }
 
+  /**
+   * Returns this color to the color space of the specified buffer, which it must have been allocated from with
+   * {@link #getNewColorFromHead(TransmissionBuffer)}. The color must no longer be written to. Releasing a color more
+   * than once has no effect.
+   *
+   * @param buffer
+   *     the buffer this color was allocated from.
+   */
+  public void release(final TransmissionBuffer buffer) {
+    if (released.compareAndSet(false, true)) {
+      buffer.colorSpace.release(color);
+    }
+  }
+
+  private static short nextColor(final AtomicInteger counter) {
+    short val = (short) counter.incrementAndGet();
+
+    // in a long-running system, do not allow it to recycle over the global
+    // or the void color.
+    while (val == Short.MIN_VALUE || val == TransmissionBuffer.VOID_COLOR) {
+      val = (short) counter.incrementAndGet();
+    }
+
+    return val;
+  }
+
   /**
    * Returns the all colors BufferColor which creates buffer data visible to all colors.
    *
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server.io.buffers;
+
+import java.util.BitSet;
+
+/**
+ * The colors allocated from one {@link TransmissionBuffer}. Colors are handed out in ascending order, wrapping around
+ * after the whole short range has been used, and a color which is still in use is skipped. A released color is
+ * therefore only handed out again once the allocation has come around to it again, long after any write still in
+ * flight for its previous owner has landed.
+ *
+ * @author agent
+ */
+final class ColorSpace {
+  private static final int COLORS = 1 << 16;
+
+  private final BitSet inUse = new BitSet(COLORS);
+  private int counter;
+
+  synchronized short allocate() {
+    for (int i = 0; i < COLORS; i++) {
+      final short val = (short) ++counter;
+
+      // do not hand out the global or the void color.
+      if (val == Short.MIN_VALUE || val == TransmissionBuffer.VOID_COLOR) {
+        continue;
+      }
+
+      if (!inUse.get(val & 0xFFFF)) {
+        inUse.set(val & 0xFFFF);
+        return val;
+      }
+    }
+    throw new IllegalStateException("all buffer colors are in use");
+  }
+
+  synchronized void release(final short color) {
+    inUse.clear(color & 0xFFFF);
+  }
+}
@@ -33,6 +33,10 @@ import java.util.concurrent.locks.ReentrantLock;
  * colors refer to the unique attribute that separates one topic of data from another. Global data, which is visible
  * to all topics may also be written to this buffer.
  * </p>
+ * Writers do not take any locks. Space is claimed by atomically advancing the write sequence, the chunk is filled
+ * outside of any lock, and is then published by advancing the head sequence in claim order. Readers only ever see
+ * chunks up to the head sequence, and therefore never see partially written data.
+ * </p>
  * Given the ring-buffer design, data is never de-allocated from the buffer when it is no longer needed. Instead,
  * it is assumed that old data will be consumed from the buffer before that space in the buffer is reclaimed.
  * <p/>
@@ -55,6 +59,13 @@ public class TransmissionBuffer implements Buffer {
 
   private static final int SEGMENT_HEADER_SIZE = 4;                      /* to accommodate a 32-bit integer  */
 
+  private static final int COMMIT_SPIN_TRIES = 100;                      /* busy spins before yielding on commit */
+
+  /**
+   * The color assigned to segments whose write failed part way through. No reader ever matches this color.
+   */
+  static final short VOID_COLOR = Short.MIN_VALUE + 1;
+
   /**
    * The main buffer where the data is stored
    */
@@ -100,7 +111,16 @@ public class TransmissionBuffer implements Buffer {
   };
 
   /**
-   * The visible head sequence number seen by the readers.
+   * The colors allocated for this buffer.
+   *
+   * @see BufferColor#getNewColorFromHead(TransmissionBuffer)
+   * @see BufferColor#release(TransmissionBuffer)
+   */
+  final ColorSpace colorSpace = new ColorSpace();
+
+  /**
+   * The visible head sequence number seen by the readers. This is the commit cursor: it is only ever advanced by the
+   * writer which claimed the segments directly following it.
    */
   private volatile long headSequence = STARTING_SEQUENCE;
 
@@ -188,7 +208,9 @@ public class TransmissionBuffer implements Buffer {
 
   /**
    * Writes from an {@link InputStream} into the buffer using the specified {@param writeSize} to allocate space
-   * in the buffer.
+   * in the buffer. The data is read from the stream before any space is claimed, so that a stream which blocks
+   * doesn't hold up the writers which claim space after this one (see {@link #commit(long, int, short)}). Nothing is
+   * written if the stream ends before <tt>writeSize</tt> bytes have been read.
    *
    * @param writeSize
    *     the size in bytes to be allocated.
@@ -198,6 +220,7 @@ public class TransmissionBuffer implements Buffer {
    *     the color of the data to be inserted.
    *
    * @throws IOException
+   *     if the stream fails or ends before <tt>writeSize</tt> bytes have been read.
    */
   @Override
   public void write(final int writeSize,
@@ -208,43 +231,196 @@ public class TransmissionBuffer implements Buffer {
       throw new IOException("write size larger than buffer can fit");
     }
 
-    final ReentrantLock lock = bufferColor.lock;
-    lock.lock();
-    try {
-      final int allocSize = ((writeSize + SEGMENT_HEADER_SIZE) / segmentSize) + 1;
-      final long writeHead = writeSequenceNumber.getAndAdd(allocSize);
-      final int seq = (int) writeHead % segments;
+    final byte[] bytes = new byte[writeSize];
+    int read = 0;
+    while (read < writeSize) {
+      final int n = inputStream.read(bytes, read, writeSize - read);
+      if (n == -1) {
+        throw new IOException("stream ended after " + read + " of " + writeSize + " bytes");
+      }
+      read += n;
+    }
+
+    write(bytes, 0, writeSize, bufferColor);
+  }
+
+  /**
+   * Writes the specified region of a byte array into the buffer. Unlike the <tt>InputStream</tt> based writes, the
+   * data is transferred with at most two bulk copies (two only if the write wraps around the end of the buffer).
+   *
+   * @param bytes
+   *     the byte array containing the data to be written.
+   * @param offset
+   *     the offset in the array to start writing from.
+   * @param length
+   *     the number of bytes to write.
+   * @param bufferColor
+   *     the color of the data to be inserted.
+   *
+   * @throws IOException
+   */
+  @Override
+  public void write(final byte[] bytes,
+                    final int offset,
+                    final int length,
+                    final BufferColor bufferColor) throws IOException {
 
-      int writeCursor = seq * segmentSize;
+    if (length > bufferSize) {
+      throw new IOException("write size larger than buffer can fit");
+    }
 
-      // write the chunk size header for the data we're about to write
-      writeChunkSize(writeCursor, writeSize);
+    final int allocSize = getAllocationSize(length);
+    final long writeHead = writeSequenceNumber.getAndAdd(allocSize);
 
-      final int end = (writeCursor += SEGMENT_HEADER_SIZE) + writeSize;
-      final int initialRead = end > bufferSize ? bufferSize : end;
+    boolean written = false;
+    try {
+      final int writeCursor = writeChunkHeader(writeHead, length);
+      final int initialWrite = Math.min(length, bufferSize - writeCursor);
 
-      /*
-      * Allocate the segments to the this color
-      */
-      final short color = bufferColor.color;
-      for (int i = 0; i < allocSize; i++) {
-        segmentMap[((seq + i) % segments)] = color;
-      }
+      final ByteBuffer target = _buffer.duplicate();
+      target.position(writeCursor);
+      target.put(bytes, offset, initialWrite);
 
-      for (; writeCursor < initialRead; writeCursor++) {
-        _buffer.put(writeCursor, (byte) inputStream.read());
+      if (initialWrite < length) {
+        target.position(0);
+        target.put(bytes, offset + initialWrite, length - initialWrite);
       }
 
-      if (writeCursor < end) {
-        for (int i = 0; i < end - bufferSize; i++) {
-          _buffer.put(i, (byte) inputStream.read());
-        }
+      written = true;
+    }
+    finally {
+      commit(writeHead, allocSize, written ? bufferColor.color : VOID_COLOR);
+      wake(bufferColor);
+    }
+  }
+
+  /**
+   * Writes the remaining bytes of the specified {@link ByteBuffer} into the buffer using bulk copies. The position
+   * of the source buffer is advanced to its limit.
+   *
+   * @param byteBuffer
+   *     the buffer containing the data to be written.
+   * @param bufferColor
+   *     the color of the data to be inserted.
+   *
+   * @throws IOException
+   */
+  @Override
+  public void write(final ByteBuffer byteBuffer, final BufferColor bufferColor) throws IOException {
+    final int length = byteBuffer.remaining();
+
+    if (length > bufferSize) {
+      throw new IOException("write size larger than buffer can fit");
+    }
+
+    final int allocSize = getAllocationSize(length);
+    final long writeHead = writeSequenceNumber.getAndAdd(allocSize);
+
+    boolean written = false;
+    try {
+      final int writeCursor = writeChunkHeader(writeHead, length);
+      final int initialWrite = Math.min(length, bufferSize - writeCursor);
+
+      final ByteBuffer target = _buffer.duplicate();
+      final int sourceLimit = byteBuffer.limit();
+
+      target.position(writeCursor);
+      byteBuffer.limit(byteBuffer.position() + initialWrite);
+      target.put(byteBuffer);
+      byteBuffer.limit(sourceLimit);
+
+      if (initialWrite < length) {
+        target.position(0);
+        target.put(byteBuffer);
       }
 
-      headSequence = writeHead + allocSize;
+      written = true;
     }
     finally {
+      commit(writeHead, allocSize, written ? bufferColor.color : VOID_COLOR);
+      wake(bufferColor);
+    }
+  }
+
+  /**
+   * Returns the number of segments needed to store a chunk of the specified size, including the chunk header.
+   *
+   * @param writeSize
+   *     the size of the data in bytes.
+   *
+   * @return the number of segments to allocate.
+   */
+  private int getAllocationSize(final int writeSize) {
+    return ((writeSize + SEGMENT_HEADER_SIZE) / segmentSize) + 1;
+  }
+
+  /**
+   * Writes the chunk size header into the first segment claimed at {@param writeHead}.
+   *
+   * @param writeHead
+   *     the first sequence claimed by this write.
+   * @param writeSize
+   *     the size of the data in bytes.
+   *
+   * @return the position in the buffer where the data should be written.
+   */
+  private int writeChunkHeader(final long writeHead, final int writeSize) {
+    final int writeCursor = ((int) writeHead % segments) * segmentSize;
+
+    writeChunkSize(writeCursor, writeSize);
+
+    return writeCursor + SEGMENT_HEADER_SIZE;
+  }
+
+  /**
+   * Assigns the claimed segments to the specified color and publishes them to the readers. Chunks are published
+   * strictly in the order they were claimed: a writer waits until every chunk claimed before its own has been
+   * committed before it moves the head. This guarantees that the head never moves backwards and that readers never
+   * observe a chunk which is still being written. A writer must therefore never block between claiming its segments
+   * and committing them, which is why all writes copy from data that is already in memory.
+   *
+   * @param writeHead
+   *     the first sequence claimed by this write.
+   * @param allocSize
+   *     the number of segments claimed.
+   * @param color
+   *     the color to assign to the segments.
+   */
+  private void commit(final long writeHead, final int allocSize, final short color) {
+    final int seq = (int) writeHead % segments;
+    for (int i = 0; i < allocSize; i++) {
+      segmentMap[((seq + i) % segments)] = color;
+    }
+
+    int spins = 0;
+    while (headSequence != writeHead) {
+      if (++spins > COMMIT_SPIN_TRIES) {
+        Thread.yield();
+      }
+    }
+
+    headSequence = writeHead + allocSize;
+  }
+
+  /**
+   * Wakes up any readers waiting on the specified color. The color lock is only held long enough to signal the
+   * condition. Readers never wait on the all-buffers color (they are woken explicitly by the bus), so global writes
+   * never touch a lock at all.
+   *
+   * @param bufferColor
+   *     the color that was written to.
+   */
+  private static void wake(final BufferColor bufferColor) {
+    if (bufferColor == BufferColor.getAllBuffersColor()) {
+      return;
+    }
+
+    final ReentrantLock lock = bufferColor.lock;
+    lock.lock();
+    try {
       bufferColor.wake();
+    }
+    finally {
       lock.unlock();
     }
   }
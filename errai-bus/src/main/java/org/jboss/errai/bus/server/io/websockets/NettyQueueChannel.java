@@ -16,14 +16,17 @@
 
 package org.jboss.errai.bus.server.io.websockets;
 
+import io.netty.buffer.ChannelBuffers;
 import io.netty.channel.Channel;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
-import org.jboss.errai.bus.server.io.QueueChannel;
+import org.jboss.errai.bus.server.io.FlowControlledQueueChannel;
+
+import java.nio.ByteBuffer;
 
 /**
  * @author Mike Brock
  */
-public class NettyQueueChannel implements QueueChannel {
+public class NettyQueueChannel implements FlowControlledQueueChannel {
   final Channel channel;
 
   public NettyQueueChannel(Channel channel) {
@@ -40,6 +43,22 @@ public class NettyQueueChannel implements QueueChannel {
     channel.write(new TextWebSocketFrame(data));
   }
 
+  @Override
+  public void write(ByteBuffer data) {
+    // wrapping the buffer doesn't copy it.
+    channel.write(new TextWebSocketFrame(ChannelBuffers.wrappedBuffer(data)));
+  }
+
+  @Override
+  public boolean isWritable() {
+    return channel.isWritable();
+  }
+
+  @Override
+  public void close() {
+    channel.close();
+  }
+
   @Override
   public String getId() {
     return String.valueOf(channel.getId());
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server.io.websockets;
+
+import io.netty.buffer.ChannelBuffer;
+import io.netty.buffer.ChannelBuffers;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelStateEvent;
+import io.netty.channel.Channels;
+import io.netty.channel.MessageEvent;
+import io.netty.channel.SimpleChannelHandler;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Implements the permessage-deflate web socket extension (RFC 7692) for one channel. The first offer of the extension
+ * in the handshake request whose parameters can be honoured is accepted, and the handshake response passing through
+ * this handler is amended accordingly. As the compressor always uses a 32K window, offers limiting the server's
+ * window (<tt>server_max_window_bits</tt> below 15) are declined, as are offers with unknown, duplicate or invalid
+ * parameters.
+ * <p/>
+ * Text messages of at least the threshold size are compressed on their own, as the server doesn't take over its
+ * compression context between messages (<tt>server_no_context_takeover</tt>). The decompression context is kept for
+ * the lifetime of the channel, so clients may take over theirs. A message which inflates to more than the maximum
+ * payload length closes the channel with status 1009 (message too big).
+ * <p/>
+ * This handler must be placed after the HTTP codecs, so that it sees the handshake and the frames before they are
+ * encoded and after they are decoded.
+ *
+ * @author agent
+ */
+public class PerMessageDeflateHandler extends SimpleChannelHandler {
+  public static final String EXTENSION_NAME = "permessage-deflate";
+
+  private static final String EXTENSIONS_HEADER = "Sec-WebSocket-Extensions";
+  private static final String VERSION_HEADER = "Sec-WebSocket-Version";
+  private static final String RESPONSE_EXTENSION = EXTENSION_NAME + "; server_no_context_takeover";
+
+  private static final int RSV1 = 4;
+  private static final int MESSAGE_TOO_BIG = 1009;
+  private static final int MAX_WINDOW_BITS = 15;
+  private static final int MIN_WINDOW_BITS = 8;
+  private static final byte[] EMPTY_BLOCK_TAIL = new byte[]{0, 0, (byte) 0xff, (byte) 0xff};
+
+  private final int threshold;
+  private final int maxPayloadLength;
+  private final byte[] chunk = new byte[4096];
+
+  private volatile boolean offered;
+  private volatile boolean negotiated;
+
+  private Deflater deflater;
+  private Inflater inflater;
+
+  /**
+   * @param threshold
+   *     the size in bytes from which outgoing text messages are compressed.
+   * @param maxPayloadLength
+   *     the maximum size in bytes of an incoming message once inflated.
+   */
+  public PerMessageDeflateHandler(final int threshold, final int maxPayloadLength) {
+    this.threshold = threshold;
+    this.maxPayloadLength = maxPayloadLength;
+  }
+
+  @Override
+  public void messageReceived(final ChannelHandlerContext ctx, final MessageEvent e) throws Exception {
+    final Object msg = e.getMessage();
+    if (msg instanceof HttpRequest) {
+      offered = offersExtension((HttpRequest) msg);
+    }
+    else if (negotiated && msg instanceof TextWebSocketFrame && (((TextWebSocketFrame) msg).getRsv() & RSV1) != 0) {
+      final TextWebSocketFrame frame = (TextWebSocketFrame) msg;
+      if (!frame.isFinalFragment()) {
+        throw new UnsupportedOperationException("fragmented compressed messages are not supported");
+      }
+      final ChannelBuffer inflated = inflate(frame.getBinaryData());
+      if (inflated == null) {
+        ctx.getChannel().write(new CloseWebSocketFrame(MESSAGE_TOO_BIG,
+            "message inflates to more than " + maxPayloadLength + " bytes"))
+            .addListener(ChannelFutureListener.CLOSE);
+        return;
+      }
+      Channels.fireMessageReceived(ctx, new TextWebSocketFrame(true, 0, inflated), e.getRemoteAddress());
+      return;
+    }
+
+    super.messageReceived(ctx, e);
+  }
+
+  @Override
+  public void writeRequested(final ChannelHandlerContext ctx, final MessageEvent e) throws Exception {
+    final Object msg = e.getMessage();
+    if (offered && msg instanceof HttpResponse && ((HttpResponse) msg).getStatus().getCode() == 101) {
+      ((HttpResponse) msg).setHeader(EXTENSIONS_HEADER, RESPONSE_EXTENSION);
+      offered = false;
+      negotiated = true;
+    }
+    else if (negotiated && msg instanceof TextWebSocketFrame) {
+      final TextWebSocketFrame frame = (TextWebSocketFrame) msg;
+      if (frame.isFinalFragment() && frame.getRsv() == 0 && frame.getBinaryData().readableBytes() >= threshold) {
+        Channels.write(ctx, e.getFuture(), new TextWebSocketFrame(true, RSV1, deflate(frame.getBinaryData())),
+            e.getRemoteAddress());
+        return;
+      }
+    }
+
+    super.writeRequested(ctx, e);
+  }
+
+  @Override
+  public void channelClosed(final ChannelHandlerContext ctx, final ChannelStateEvent e) throws Exception {
+    synchronized (this) {
+      if (deflater != null) {
+        deflater.end();
+        deflater = null;
+      }
+      if (inflater != null) {
+        inflater.end();
+        inflater = null;
+      }
+    }
+    super.channelClosed(ctx, e);
+  }
+
+  /**
+   * Returns true if the request is a handshake for a protocol version supporting extensions which offers this
+   * extension with parameters that can be honoured.
+   */
+  private static boolean offersExtension(final HttpRequest request) {
+    final String extensions = request.getHeader(EXTENSIONS_HEADER);
+    return extensions != null && request.getHeader(VERSION_HEADER) != null && acceptsOffer(extensions);
+  }
+
+  /**
+   * Returns true if the specified <tt>Sec-WebSocket-Extensions</tt> header contains an offer of this extension which
+   * can be accepted with the response <tt>permessage-deflate; server_no_context_takeover</tt>. Offers which can't be
+   * honoured are declined, and the next offer is considered (see RFC 7692, 5 and 7.1).
+   */
+  public static boolean acceptsOffer(final String extensions) {
+    for (final String extension : extensions.split(",")) {
+      final String[] parts = extension.split(";");
+      if (EXTENSION_NAME.equalsIgnoreCase(parts[0].trim()) && acceptsParameters(parts)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean acceptsParameters(final String[] parts) {
+    final Set<String> seen = new HashSet<String>();
+    for (int i = 1; i < parts.length; i++) {
+      final String parameter = parts[i].trim();
+      final int eq = parameter.indexOf('=');
+      final String name = (eq == -1 ? parameter : parameter.substring(0, eq)).trim().toLowerCase();
+      String value = eq == -1 ? null : parameter.substring(eq + 1).trim();
+      if (value != null && value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+        value = value.substring(1, value.length() - 1);
+      }
+
+      if (!seen.add(name)) {
+        return false;
+      }
+
+      if ("server_no_context_takeover".equals(name) || "client_no_context_takeover".equals(name)) {
+        if (value != null) {
+          return false;
+        }
+      }
+      else if ("server_max_window_bits".equals(name)) {
+        // the compressor can't be limited to a smaller window.
+        if (parseWindowBits(value) != MAX_WINDOW_BITS) {
+          return false;
+        }
+      }
+      else if ("client_max_window_bits".equals(name)) {
+        // the decompressor takes any window, so the client's window is not limited in the response.
+        if (value != null && parseWindowBits(value) == -1) {
+          return false;
+        }
+      }
+      else {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the value of a window bits parameter, or -1 if it is missing or invalid.
+   */
+  private static int parseWindowBits(final String value) {
+    if (value == null || value.length() == 0 || value.length() > 2 || value.charAt(0) == '0') {
+      return -1;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (!Character.isDigit(value.charAt(i))) {
+        return -1;
+      }
+    }
+    final int bits = Integer.parseInt(value);
+    return bits >= MIN_WINDOW_BITS && bits <= MAX_WINDOW_BITS ? bits : -1;
+  }
+
+  private synchronized ChannelBuffer deflate(final ChannelBuffer data) {
+    if (deflater == null) {
+      deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    }
+
+    final byte[] input = new byte[data.readableBytes()];
+    data.getBytes(data.readerIndex(), input);
+
+    deflater.reset();
+    deflater.setInput(input);
+    deflater.finish();
+
+    final ChannelBuffer output = ChannelBuffers.dynamicBuffer(input.length / 2 + 16);
+    while (!deflater.finished()) {
+      output.writeBytes(chunk, 0, deflater.deflate(chunk));
+    }
+
+    // the message ends with a final block rather than with an empty stored block, so what is left of the empty
+    // block after removing its tail (as the extension requires) is a single zero byte. see RFC 7692, 7.2.3.3.
+    output.writeByte(0);
+    return output;
+  }
+
+  /**
+   * Returns the inflated message, or null if it inflates to more than the maximum payload length.
+   */
+  private synchronized ChannelBuffer inflate(final ChannelBuffer data) throws IOException {
+    if (inflater == null) {
+      inflater = new Inflater(true);
+    }
+
+    final int length = data.readableBytes();
+    final byte[] input = new byte[length + EMPTY_BLOCK_TAIL.length];
+    data.getBytes(data.readerIndex(), input, 0, length);
+    System.arraycopy(EMPTY_BLOCK_TAIL, 0, input, length, EMPTY_BLOCK_TAIL.length);
+
+    inflater.setInput(input);
+
+    final ChannelBuffer output = ChannelBuffers.dynamicBuffer(Math.min(length * 3, maxPayloadLength));
+    try {
+      int read;
+      while ((read = inflater.inflate(chunk)) > 0) {
+        if (output.readableBytes() + read > maxPayloadLength) {
+          return null;
+        }
+        output.writeBytes(chunk, 0, read);
+      }
+    }
+    catch (DataFormatException e) {
+      throw new IOException("malformed compressed message", e);
+    }
+
+    // a client that doesn't take over its context may end its messages with a final block.
+    if (inflater.finished()) {
+      inflater.reset();
+    }
+    return output;
+  }
+}
@@ -26,6 +26,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelStateEvent;
 import io.netty.channel.ExceptionEvent;
 import io.netty.channel.MessageEvent;
 import io.netty.channel.SimpleChannelUpstreamHandler;
@@ -45,15 +46,16 @@ import org.jboss.errai.bus.client.api.messaging.Message;
 import org.jboss.errai.bus.client.api.QueueSession;
 import org.jboss.errai.bus.client.protocols.BusCommand;
 import org.jboss.errai.bus.server.api.MessageQueue;
-import org.jboss.errai.bus.server.io.DirectDeliveryHandler;
+import org.jboss.errai.bus.server.io.CoalescingDeliveryHandler;
 import org.jboss.errai.bus.server.io.MessageFactory;
+import org.jboss.errai.bus.server.service.ErraiConfigAttribs;
 import org.jboss.errai.bus.server.service.ErraiService;
 import org.jboss.errai.bus.server.util.LocalContext;
 import org.jboss.errai.common.client.protocols.MessageParts;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
 import org.jboss.errai.marshalling.client.api.json.EJString;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
-import org.jboss.errai.marshalling.server.JSONDecoder;
+import org.jboss.errai.marshalling.server.JSONByteDecoder;
 
 import javax.servlet.AsyncContext;
 import javax.servlet.DispatcherType;
@@ -79,6 +81,8 @@ import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * The working prototype ErraiBus Websocket Server.
@@ -94,8 +98,19 @@ public class WebSocketServerHandler extends SimpleChannelUpstreamHandler {
   private WebSocketServerHandshaker handshaker = null;
   private ErraiService svc;
 
+  private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor();
+  private final int coalesceWindowMillis;
+  private final int coalesceMaxBytes;
+  private final long maxBacklogBytes;
+  private final boolean allowExtensions;
+
   public WebSocketServerHandler(final ErraiService bus) {
     this.svc = bus;
+    this.coalesceWindowMillis = ErraiConfigAttribs.WEB_SOCKET_COALESCE_WINDOW_MS.getInt(bus.getConfiguration());
+    this.coalesceMaxBytes = ErraiConfigAttribs.WEB_SOCKET_COALESCE_MAX_BYTES.getInt(bus.getConfiguration());
+    this.maxBacklogBytes = ErraiConfigAttribs.WEB_SOCKET_MAX_BACKLOG_BYTES.getInt(bus.getConfiguration());
+    // permessage-deflate sets a reserved bit on compressed frames.
+    this.allowExtensions = ErraiConfigAttribs.ENABLE_COMPRESSION.getBoolean(bus.getConfiguration());
   }
 
   @Override
@@ -118,7 +133,7 @@ public class WebSocketServerHandler extends SimpleChannelUpstreamHandler {
 
     // Handshake
     final WebSocketServerHandshakerFactory wsFactory = new WebSocketServerHandshakerFactory(
-        this.getWebSocketLocation(req), null, false);
+        this.getWebSocketLocation(req), null, allowExtensions);
     this.handshaker = wsFactory.newHandshaker(req);
     if (this.handshaker == null) {
       wsFactory.sendUnsupportedWebSocketVersionResponse(ctx.getChannel());
@@ -145,7 +160,8 @@ public class WebSocketServerHandler extends SimpleChannelUpstreamHandler {
           .getName()));
     }
 
-    @SuppressWarnings("unchecked") final EJValue val = JSONDecoder.decode(((TextWebSocketFrame) frame).getText());
+    // parse the frame's UTF-8 payload in place, rather than decoding it to a String first.
+    final EJValue val = JSONByteDecoder.decode(frame.getBinaryData().toByteBuffer());
 
     final QueueSession session;
 
@@ -182,7 +198,8 @@ public class WebSocketServerHandler extends SimpleChannelUpstreamHandler {
               WEBSOCKET_ACTIVE.equals(localContext.getAttribute(String.class, SESSION_ATTR_WS_STATUS))) {
 
             final MessageQueue queueBySession = svc.getBus().getQueueBySession(sessionKey);
-            queueBySession.setDeliveryHandler(DirectDeliveryHandler.createFor(new NettyQueueChannel(ctx.getChannel())));
+            queueBySession.setDeliveryHandler(CoalescingDeliveryHandler.createFor(new NettyQueueChannel(ctx.getChannel()),
+                flushScheduler, coalesceWindowMillis, coalesceMaxBytes, maxBacklogBytes));
 
             // open the channel
             activeChannels.put(ctx.getChannel(), session);
@@ -262,6 +279,19 @@ public class WebSocketServerHandler extends SimpleChannelUpstreamHandler {
     }
   }
 
+  @Override
+  public void channelInterestChanged(final ChannelHandlerContext ctx, final ChannelStateEvent e) throws Exception {
+    // the messages held back while the client wasn't reading are in the buffer. write them now.
+    final QueueSession session = activeChannels.get(ctx.getChannel());
+    if (session != null && ctx.getChannel().isWritable()) {
+      final MessageQueue queue = svc.getBus().getQueue(session);
+      if (queue != null) {
+        queue.wake();
+      }
+    }
+    super.channelInterestChanged(ctx, e);
+  }
+
   @Override
   public void exceptionCaught(final ChannelHandlerContext ctx, final ExceptionEvent e) throws Exception {
     //noinspection ThrowableResultOfMethodCallIgnored
@@ -298,6 +328,7 @@ public class WebSocketServerHandler extends SimpleChannelUpstreamHandler {
     for (final Channel channel : activeChannels.keySet()) {
       channel.close();
     }
+    flushScheduler.shutdownNow();
   }
 
   private static class SyntheticHttpServletRequest implements HttpServletRequest {
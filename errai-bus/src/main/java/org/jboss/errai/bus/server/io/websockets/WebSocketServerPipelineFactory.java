@@ -23,12 +23,18 @@ import io.netty.channel.ChannelPipelineFactory;
 import io.netty.handler.codec.http.HttpChunkAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import org.jboss.errai.bus.server.service.ErraiConfigAttribs;
 import org.jboss.errai.bus.server.service.ErraiService;
 
 /**
  * @author Mike Brock
  */
 public class WebSocketServerPipelineFactory implements ChannelPipelineFactory {
+  /**
+   * The maximum size of a request, which also bounds the size a compressed message may inflate to.
+   */
+  private static final int MAX_CONTENT_LENGTH = 65536;
+
   private ErraiService svc;
   private WebSocketServerHandler webSocketServerHandler;
 
@@ -41,8 +47,13 @@ public class WebSocketServerPipelineFactory implements ChannelPipelineFactory {
     // Create a default pipeline implementation.
     ChannelPipeline pipeline = pipeline();
     pipeline.addLast("decoder", new HttpRequestDecoder());
-    pipeline.addLast("aggregator", new HttpChunkAggregator(65536));
+    pipeline.addLast("aggregator", new HttpChunkAggregator(MAX_CONTENT_LENGTH));
     pipeline.addLast("encoder", new HttpResponseEncoder());
+    if (ErraiConfigAttribs.ENABLE_COMPRESSION.getBoolean(svc.getConfiguration())) {
+      pipeline.addLast("deflate",
+          new PerMessageDeflateHandler(ErraiConfigAttribs.COMPRESSION_THRESHOLD.getInt(svc.getConfiguration()),
+              MAX_CONTENT_LENGTH));
+    }
     pipeline.addLast("handler", webSocketServerHandler);
     return pipeline;
   }
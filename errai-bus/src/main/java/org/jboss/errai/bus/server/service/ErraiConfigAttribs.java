@@ -64,17 +64,87 @@ public enum ErraiConfigAttribs {
    */
   BUS_BUFFER_ALLOCATION_MODE("errai.bus.buffer_allocation_mode", "direct"),
 
+  /**
+   * The number of independent buffers (shards) the bus distributes message queues across. Each shard has its own
+   * color space and head sequence, and sessions are assigned to a shard by hashing their session id. The buffer
+   * size (see {@link #BUS_BUFFER_SIZE} and {@link #BUS_BUFFER_SEGMENT_COUNT}) is divided evenly between the shards.
+   * Sharding is recommended for deployments with a very large number of concurrent sessions.
+   * <p/>
+   * Default value: 1
+   */
+  BUS_BUFFER_SHARD_COUNT("errai.bus.buffer_shard_count", "1"),
+
   HOSTED_MODE_TESTING("errai.hosted_mode_testing", "false"),
   DO_LONG_POLL("org.jboss.errai.bus.do_long_poll", "true"),
   LONG_POLL_TIMEOUT("errai.bus.long_poll_timeout", "45000"),
 
+  /**
+   * The time in milliseconds a long poll waits for further messages after the first message for it arrived, so that
+   * they are delivered in the same response. Only clients advertising the capability are made to wait. A value of 0
+   * disables lingering.
+   * <p/>
+   * Default value: 0
+   */
+  LONG_POLL_LINGER_MS("errai.bus.long_poll_linger_ms", "0"),
+
+  /**
+   * The size in bytes of the messages collected for a lingering long poll at which the response is sent without
+   * waiting for the rest of {@link #LONG_POLL_LINGER_MS}.
+   * <p/>
+   * Default value: 8192
+   */
+  LONG_POLL_LINGER_BYTES("errai.bus.long_poll_linger_bytes", "8192"),
+
   ENABLE_SSE_SUPPORT("errai.bus.enable_sse_support", "true"),
   SSE_TIMEOUT("errai.bus.servlet_sse_timeout", "45000"),
 
+  /**
+   * Whether or not messages are compressed on their way to the client. Long poll responses are gzip encoded if the
+   * client accepts it, and the web socket server negotiates the permessage-deflate extension.
+   * <p/>
+   * Default value: true
+   */
+  ENABLE_COMPRESSION("errai.bus.enable_compression", "true"),
+
+  /**
+   * The size in bytes a response or a web socket message must reach to be compressed. Compressing smaller payloads
+   * usually costs more time than it saves.
+   * <p/>
+   * Default value: 1024
+   */
+  COMPRESSION_THRESHOLD("errai.bus.compression_threshold", "1024"),
+
   ENABLE_WEB_SOCKET_SERVER("errai.bus.enable_web_socket_server", "false"),
   WEB_SOCKET_URL("errai.bus.web_socket_url", "/websocket.bus"),
   WEB_SOCKET_PORT("errai.bus.web_socket_port", "8085"),
 
+  /**
+   * The time in milliseconds messages for a web socket client are held back, so that the messages delivered within
+   * this window are written to the client in a single frame. A value of 0 writes every message as soon as it is
+   * delivered.
+   * <p/>
+   * Default value: 5
+   */
+  WEB_SOCKET_COALESCE_WINDOW_MS("errai.bus.web_socket_coalesce_window_ms", "5"),
+
+  /**
+   * The number of bytes pending for a web socket client which causes them to be written before the coalescing window
+   * has passed (see {@link #WEB_SOCKET_COALESCE_WINDOW_MS}).
+   * <p/>
+   * Default value: 16384
+   */
+  WEB_SOCKET_COALESCE_MAX_BYTES("errai.bus.web_socket_coalesce_max_bytes", "16384"),
+
+  /**
+   * The number of bytes which may be pending for a web socket client that isn't reading them fast enough. Messages
+   * for such a client are kept in the bus buffer rather than on the heap, and are counted in whole buffer segments,
+   * including the messages broadcast to all clients. A client exceeding this limit (or the size of the buffer, if it is
+   * smaller) is disconnected, and falls back to receiving the messages in the buffer over HTTP.
+   * <p/>
+   * Default value: 1048576
+   */
+  WEB_SOCKET_MAX_BACKLOG_BYTES("errai.bus.web_socket_max_backlog_bytes", "1048576"),
+
   WEBSOCKET_SERVLET_ENABLED("errai.bus.websocket.servlet.enabled", "false"),
   WEBSOCKET_SERVLET_CONTEXT_PATH("errai.bus.websocket.servlet.path", "in.erraiBusWebSocket"),
 
@@ -18,6 +18,8 @@ package org.jboss.errai.bus.server.servlet;
 
 import org.jboss.errai.bus.client.protocols.BusCommand;
 import org.jboss.errai.bus.server.api.SessionProvider;
+import org.jboss.errai.bus.server.io.ByteWriteAdapter;
+import org.jboss.errai.bus.server.io.OutputStreamWriteAdapter;
 import org.jboss.errai.bus.server.service.ErraiConfigAttribs;
 import org.jboss.errai.bus.server.service.ErraiService;
 import org.jboss.errai.bus.server.service.ErraiServiceConfigurator;
@@ -55,7 +57,11 @@ public abstract class AbstractErraiServlet extends HttpServlet {
 
   private boolean longPollingEnabled;
   private int longPollTimeout;
+  private int longPollLingerMs;
+  private int longPollLingerBytes;
   private int sseTimeout;
+  private boolean compressionEnabled;
+  private int compressionThreshold;
 
   private void configureSettings() {
     final ErraiServiceConfigurator config = service.getConfiguration();
@@ -63,7 +69,11 @@ public abstract class AbstractErraiServlet extends HttpServlet {
     final boolean hostedModeTesting = ErraiConfigAttribs.HOSTED_MODE_TESTING.getBoolean(config);
     longPollingEnabled = !hostedModeTesting && ErraiConfigAttribs.DO_LONG_POLL.getBoolean(config);
     longPollTimeout = ErraiConfigAttribs.LONG_POLL_TIMEOUT.getInt(config);
+    longPollLingerMs = ErraiConfigAttribs.LONG_POLL_LINGER_MS.getInt(config);
+    longPollLingerBytes = ErraiConfigAttribs.LONG_POLL_LINGER_BYTES.getInt(config);
     sseTimeout = ErraiConfigAttribs.SSE_TIMEOUT.getInt(config);
+    compressionEnabled = ErraiConfigAttribs.ENABLE_COMPRESSION.getBoolean(config);
+    compressionThreshold = ErraiConfigAttribs.COMPRESSION_THRESHOLD.getInt(config);
   }
 
   public static ConnectionPhase getConnectionPhase(final HttpServletRequest request) {
@@ -129,6 +139,21 @@ public abstract class AbstractErraiServlet extends HttpServlet {
 
   }
 
+  /**
+   * Returns the adapter to write the messages of a poll response with. The response is gzip encoded if it is large
+   * enough and the client accepts it. The adapter must be flushed once all messages are written.
+   */
+  protected ByteWriteAdapter getResponseWriteAdapter(final HttpServletRequest request,
+                                                     final HttpServletResponse response) throws IOException {
+    if (compressionEnabled) {
+      response.addHeader("Vary", "Accept-Encoding");
+      if (GzipResponseWriteAdapter.acceptsGzip(request.getHeader("Accept-Encoding"))) {
+        return new GzipResponseWriteAdapter(response, compressionThreshold);
+      }
+    }
+    return new OutputStreamWriteAdapter(response.getOutputStream());
+  }
+
   protected void writeExceptionToOutputStream(
       final HttpServletResponse httpServletResponse,
       final Throwable t) throws IOException {
@@ -176,6 +201,14 @@ public abstract class AbstractErraiServlet extends HttpServlet {
     return longPollTimeout;
   }
 
+  protected final int getLongPollLingerMs() {
+    return longPollLingerMs;
+  }
+
+  protected final int getLongPollLingerBytes() {
+    return longPollLingerBytes;
+  }
+
   protected final int getSSETimeout() {
     return sseTimeout;
   }
@@ -188,6 +221,15 @@ public abstract class AbstractErraiServlet extends HttpServlet {
     return longPollingEnabled && "1".equals(request.getParameter("wait"));
   }
 
+  /**
+   * Returns true if the response to the specified long poll should wait for further messages once the first ones are
+   * available. The client asks for this if the server advertised
+   * {@link org.jboss.errai.bus.client.api.base.Capabilities#LongPollLinger}.
+   */
+  protected boolean shouldLinger(final HttpServletRequest request) {
+    return longPollingEnabled && longPollLingerMs > 0 && "1".equals(request.getParameter("linger"));
+  }
+
   protected boolean isSSERequest(final HttpServletRequest request) {
     return request.getParameter("sse") != null;
   }
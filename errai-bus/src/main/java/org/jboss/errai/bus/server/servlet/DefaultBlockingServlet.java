@@ -35,6 +35,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.jboss.errai.bus.client.api.QueueSession;
 import org.jboss.errai.bus.server.QueueUnavailableException;
 import org.jboss.errai.bus.server.api.MessageQueue;
+import org.jboss.errai.bus.server.io.ByteWriteAdapter;
 import org.jboss.errai.bus.server.io.OutputStreamWriteAdapter;
 
 /**
@@ -183,11 +184,21 @@ public class DefaultBlockingServlet extends AbstractErraiServlet implements Filt
         }
       }
       else if (wait) {
-        queue.poll(TimeUnit.MILLISECONDS, getLongPollTimeout(), new OutputStreamWriteAdapter(outputStream));
+        final ByteWriteAdapter writer = getResponseWriteAdapter(httpServletRequest, httpServletResponse);
+        if (shouldLinger(httpServletRequest)) {
+          queue.poll(TimeUnit.MILLISECONDS, getLongPollTimeout(), getLongPollLingerMs(), getLongPollLingerBytes(),
+              writer);
+        }
+        else {
+          queue.poll(TimeUnit.MILLISECONDS, getLongPollTimeout(), writer);
+        }
+        writer.flush();
         outputStream.close();
       }
       else {
-        queue.poll(new OutputStreamWriteAdapter(outputStream));
+        final ByteWriteAdapter writer = getResponseWriteAdapter(httpServletRequest, httpServletResponse);
+        queue.poll(writer);
+        writer.flush();
         outputStream.close();
       }
     }
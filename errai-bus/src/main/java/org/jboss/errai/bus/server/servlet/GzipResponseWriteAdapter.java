@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server.servlet;
+
+import org.jboss.errai.bus.server.io.AbstractByteWriteAdapter;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A {@link org.jboss.errai.bus.server.io.ByteWriteAdapter} writing one response body, which is gzip encoded if it
+ * reaches the threshold size. Up to the threshold, the written bytes are held back, so that the
+ * <tt>Content-Encoding</tt> header can still be set when the threshold is reached. A body which is flushed before it
+ * reaches the threshold is written as is.
+ * <p/>
+ * Flushing a gzip encoded body completes it, so nothing may be written to the adapter afterwards. The compressor is
+ * reused by the responses written on the same thread, so a body must be flushed by the thread which wrote it before
+ * that thread writes another one.
+ *
+ * @author agent
+ */
+public class GzipResponseWriteAdapter extends AbstractByteWriteAdapter {
+  private static final byte[] GZIP_HEADER = new byte[]{0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, -1};
+
+  private static final ThreadLocal<Deflater> deflaters = new ThreadLocal<Deflater>() {
+    @Override
+    protected Deflater initialValue() {
+      return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    }
+  };
+
+  private final HttpServletResponse response;
+  private final byte[] pending;
+  private int pendingCount;
+
+  private OutputStream out;
+  private Deflater deflater;
+  private CRC32 crc;
+  private long totalIn;
+  private byte[] chunk;
+
+  public GzipResponseWriteAdapter(final HttpServletResponse response, final int threshold) {
+    this.response = response;
+    this.pending = new byte[Math.max(threshold, 1)];
+  }
+
+  /**
+   * Returns true if the request accepts a gzip encoded response.
+   */
+  public static boolean acceptsGzip(final String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+
+    for (final String coding : acceptEncoding.split(",")) {
+      final int paramStart = coding.indexOf(';');
+      final String name = (paramStart == -1 ? coding : coding.substring(0, paramStart)).trim();
+      if ("gzip".equalsIgnoreCase(name)) {
+        return paramStart == -1 || getQuality(coding.substring(paramStart + 1)) > 0;
+      }
+    }
+    return false;
+  }
+
+  private static double getQuality(final String params) {
+    for (final String param : params.split(";")) {
+      final String trimmed = param.trim();
+      if (trimmed.startsWith("q=")) {
+        try {
+          return Double.parseDouble(trimmed.substring(2));
+        }
+        catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  @Override
+  public void write(final byte b) throws IOException {
+    if (deflater != null) {
+      pending[pendingCount++] = b;
+      if (pendingCount == pending.length) {
+        deflatePending(false);
+      }
+    }
+    else if (out != null) {
+      out.write(b);
+    }
+    else {
+      pending[pendingCount++] = b;
+      if (pendingCount == pending.length) {
+        startGzip();
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (deflater != null) {
+      deflatePending(true);
+      writeTrailer();
+      deflater = null;
+      out.flush();
+    }
+    else if (out != null) {
+      out.flush();
+    }
+    else if (pendingCount > 0) {
+      out = response.getOutputStream();
+      out.write(pending, 0, pendingCount);
+      pendingCount = 0;
+      out.flush();
+    }
+  }
+
+  private void startGzip() throws IOException {
+    response.setHeader("Content-Encoding", "gzip");
+
+    out = response.getOutputStream();
+    out.write(GZIP_HEADER);
+
+    deflater = deflaters.get();
+    deflater.reset();
+    crc = new CRC32();
+    chunk = new byte[4096];
+
+    deflatePending(false);
+  }
+
+  private void deflatePending(final boolean finish) throws IOException {
+    crc.update(pending, 0, pendingCount);
+    totalIn += pendingCount;
+
+    deflater.setInput(pending, 0, pendingCount);
+    if (finish) {
+      deflater.finish();
+      while (!deflater.finished()) {
+        out.write(chunk, 0, deflater.deflate(chunk));
+      }
+    }
+    else {
+      while (!deflater.needsInput()) {
+        out.write(chunk, 0, deflater.deflate(chunk));
+      }
+    }
+    pendingCount = 0;
+  }
+
+  private void writeTrailer() throws IOException {
+    writeIntLE(crc.getValue());
+    writeIntLE(totalIn);
+  }
+
+  private void writeIntLE(final long value) throws IOException {
+    out.write((int) value & 0xFF);
+    out.write((int) (value >> 8) & 0xFF);
+    out.write((int) (value >> 16) & 0xFF);
+    out.write((int) (value >> 24) & 0xFF);
+  }
+}
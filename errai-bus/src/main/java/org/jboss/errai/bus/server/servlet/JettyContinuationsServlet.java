@@ -22,7 +22,7 @@ import org.jboss.errai.bus.client.api.QueueSession;
 import org.jboss.errai.bus.server.QueueUnavailableException;
 import org.jboss.errai.bus.server.api.MessageQueue;
 import org.jboss.errai.bus.server.api.QueueActivationCallback;
-import org.jboss.errai.bus.server.io.OutputStreamWriteAdapter;
+import org.jboss.errai.bus.server.io.ByteWriteAdapter;
 import org.mortbay.jetty.RetryRequest;
 import org.mortbay.util.ajax.Continuation;
 import org.mortbay.util.ajax.ContinuationSupport;
@@ -127,7 +127,7 @@ public class JettyContinuationsServlet extends AbstractErraiServlet {
         }
       }
 
-      pollQueue(queue, stream, httpServletResponse);
+      pollQueue(queue, getResponseWriteAdapter(httpServletRequest, httpServletResponse), httpServletResponse);
     }
     catch (RetryRequest r) {
       /**
@@ -157,7 +157,7 @@ public class JettyContinuationsServlet extends AbstractErraiServlet {
     }
   }
 
-  private static boolean pollQueue(MessageQueue queue, OutputStream stream,
+  private static boolean pollQueue(MessageQueue queue, ByteWriteAdapter writer,
                                    HttpServletResponse httpServletResponse) throws IOException {
     if (queue == null) return false;
     queue.heartBeat();
@@ -166,7 +166,9 @@ public class JettyContinuationsServlet extends AbstractErraiServlet {
     httpServletResponse.setHeader("Pragma", "no-cache");
     httpServletResponse.setHeader("Expires", "-1");
     httpServletResponse.setContentType("application/json");
-    return queue.poll(new OutputStreamWriteAdapter(stream));
+    final boolean messagesWritten = queue.poll(writer);
+    writer.flush();
+    return messagesWritten;
   }
 
   private static class JettyQueueActivationCallback implements QueueActivationCallback {
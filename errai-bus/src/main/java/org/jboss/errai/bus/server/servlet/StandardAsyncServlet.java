@@ -20,6 +20,7 @@ import static org.jboss.errai.bus.server.io.MessageFactory.createCommandMessage;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.AsyncContext;
 import javax.servlet.AsyncEvent;
@@ -32,7 +33,7 @@ import org.jboss.errai.bus.client.api.QueueSession;
 import org.jboss.errai.bus.server.QueueUnavailableException;
 import org.jboss.errai.bus.server.api.MessageQueue;
 import org.jboss.errai.bus.server.api.QueueActivationCallback;
-import org.jboss.errai.bus.server.io.OutputStreamWriteAdapter;
+import org.jboss.errai.bus.server.io.ByteWriteAdapter;
 import org.slf4j.Logger;
 
 /**
@@ -66,11 +67,11 @@ public class StandardAsyncServlet extends AbstractErraiServlet {
 
     queue.heartBeat();
 
-    final OutputStreamWriteAdapter writer;
+    final ByteWriteAdapter writer;
     final AsyncContext asyncContext = request.startAsync();
     asyncContext.setTimeout(60000);
     queue.setTimeout(65000);
-    writer = new OutputStreamWriteAdapter(asyncContext.getResponse().getOutputStream());
+    writer = getResponseWriteAdapter(request, (HttpServletResponse) asyncContext.getResponse());
 
     asyncContext.addListener(new AsyncListener() {
         @Override
@@ -99,16 +100,23 @@ public class StandardAsyncServlet extends AbstractErraiServlet {
     synchronized (queue.getActivationLock()) {
       if (queue.messagesWaiting()) {
         queue.poll(writer);
+        writer.flush();
         asyncContext.complete();
         return;
       }
 
-      queue.setActivationCallback(new QueueActivationCallback() {
+      final boolean linger = shouldLinger(request);
+      final Runnable delivery = new Runnable() {
         @Override
-        public void activate(final MessageQueue queue) {
+        public void run() {
           try {
-            queue.poll(writer);
-            queue.setActivationCallback(null);
+            if (linger) {
+              queue.poll(TimeUnit.MILLISECONDS, 0, getLongPollLingerMs(), getLongPollLingerBytes(), writer);
+            }
+            else {
+              queue.poll(writer);
+              queue.setActivationCallback(null);
+            }
 
             queue.heartBeat();
             writer.flush();
@@ -129,6 +137,20 @@ public class StandardAsyncServlet extends AbstractErraiServlet {
             asyncContext.complete();
           }
         }
+      };
+
+      queue.setActivationCallback(new QueueActivationCallback() {
+        @Override
+        public void activate(final MessageQueue queue) {
+          if (linger) {
+            // don't hold up the sender while waiting for further messages.
+            queue.setActivationCallback(null);
+            asyncContext.start(delivery);
+          }
+          else {
+            delivery.run();
+          }
+        }
       });
       writer.flush();
     }
@@ -153,7 +175,9 @@ public class StandardAsyncServlet extends AbstractErraiServlet {
           doGet(request, response);
         }
         else {
-          queue.poll(new OutputStreamWriteAdapter(response.getOutputStream()));
+          final ByteWriteAdapter writer = getResponseWriteAdapter(request, response);
+          queue.poll(writer);
+          writer.flush();
         }
       }
     }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import junit.framework.TestCase;
+
+import org.jboss.errai.bus.client.api.HasEncoded;
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.bus.server.api.MessageQueue;
+import org.jboss.errai.bus.server.io.CoalescingDeliveryHandler;
+import org.jboss.errai.bus.server.io.FlowControlledQueueChannel;
+import org.jboss.errai.bus.server.io.buffers.BufferColor;
+import org.jboss.errai.bus.server.io.buffers.TransmissionBuffer;
+
+/**
+ * @author agent
+ */
+public class CoalescingDeliveryHandlerTests extends TestCase {
+  // small segments, so that the pending bytes (counted in segments) follow the size of the messages closely.
+  private final TransmissionBuffer buffer = TransmissionBuffer.create(16, 1024);
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private final MockChannel channel = new MockChannel();
+
+  @Override
+  protected void tearDown() throws Exception {
+    scheduler.shutdownNow();
+  }
+
+  private MessageQueue newQueue(final int windowMillis, final int maxBytes, final long maxBacklogBytes) {
+    final MessageQueue queue = new MessageQueueImpl(buffer, MockQueueSessionFactory.newSession(), 30);
+    queue.setDeliveryHandler(CoalescingDeliveryHandler.createFor(channel, scheduler, windowMillis, maxBytes,
+        maxBacklogBytes));
+    return queue;
+  }
+
+  public void testMessagesWithinWindowAreCoalesced() throws Exception {
+    final MessageQueue queue = newQueue(100, 4096, 4096);
+
+    queue.offer(encodedMessage("{\"a\":1}"));
+    queue.offer(encodedMessage("{\"b\":2}"));
+    queue.offer(encodedMessage("{\"c\":3}"));
+    assertTrue(channel.frames.isEmpty());
+
+    Thread.sleep(500);
+    assertEquals(1, channel.frames.size());
+    assertEquals("[{\"a\":1},{\"b\":2},{\"c\":3}]", channel.frames.get(0));
+  }
+
+  public void testByteThresholdFlushesBeforeWindow() throws Exception {
+    final MessageQueue queue = newQueue(60000, 20, 4096);
+
+    queue.offer(encodedMessage("{\"a\":1}"));
+    assertTrue(channel.frames.isEmpty());
+
+    queue.offer(encodedMessage("{\"b\":2}"));
+    assertEquals(1, channel.frames.size());
+    assertEquals("[{\"a\":1},{\"b\":2}]", channel.frames.get(0));
+  }
+
+  public void testUnwritableChannelKeepsMessagesInBuffer() throws Exception {
+    final MessageQueue queue = newQueue(0, 4096, 4096);
+    channel.writable = false;
+
+    queue.offer(encodedMessage("{\"a\":1}"));
+    queue.offer(encodedMessage("{\"b\":2}"));
+    assertTrue(channel.frames.isEmpty());
+    assertFalse(channel.closed);
+
+    channel.writable = true;
+    queue.wake();
+    assertEquals(1, channel.frames.size());
+    assertEquals("[{\"a\":1},{\"b\":2}]", channel.frames.get(0));
+  }
+
+  public void testBacklogLimitClosesChannel() throws Exception {
+    final MessageQueue queue = newQueue(0, 4096, 16);
+    channel.writable = false;
+
+    queue.offer(encodedMessage("{\"a\":1}"));
+    assertFalse(channel.closed);
+
+    queue.offer(encodedMessage("{\"b\":\"a message exceeding the backlog\"}"));
+    assertTrue(channel.closed);
+    assertTrue(channel.frames.isEmpty());
+  }
+
+  public void testBroadcastBacklogClosesChannel() throws Exception {
+    final MessageQueue queue = newQueue(60000, 4096, 64);
+    channel.writable = false;
+
+    final byte[] bytes = "{\"broadcast\":1}".getBytes("UTF-8");
+    buffer.write(bytes, 0, bytes.length, BufferColor.getAllBuffersColor());
+    queue.wake();
+    assertFalse(channel.closed);
+
+    for (int i = 0; i < 10 && !channel.closed; i++) {
+      buffer.write(bytes, 0, bytes.length, BufferColor.getAllBuffersColor());
+      queue.wake();
+    }
+    assertTrue("the channel of a client not reading broadcasts was not closed", channel.closed);
+    assertTrue(channel.frames.isEmpty());
+  }
+
+  private static Message encodedMessage(final String encoded) {
+    return (Message) Proxy.newProxyInstance(CoalescingDeliveryHandlerTests.class.getClassLoader(),
+        new Class[] { Message.class, HasEncoded.class }, new InvocationHandler() {
+          @Override
+          public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if ("getEncoded".equals(method.getName())) {
+              return encoded;
+            }
+            throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  private static class MockChannel implements FlowControlledQueueChannel {
+    private final List<String> frames = new CopyOnWriteArrayList<String>();
+    private volatile boolean writable = true;
+    private volatile boolean closed;
+
+    @Override
+    public boolean isWritable() {
+      return writable;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public boolean isConnected() {
+      return !closed;
+    }
+
+    @Override
+    public void write(final String data) {
+      frames.add(data);
+    }
+
+    @Override
+    public void write(final ByteBuffer data) {
+      frames.add(Charset.forName("UTF-8").decode(data).toString());
+    }
+
+    @Override
+    public String getId() {
+      return "mock";
+    }
+  }
+}
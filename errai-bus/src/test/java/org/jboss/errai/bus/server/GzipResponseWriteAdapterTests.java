@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.TestCase;
+
+import org.jboss.errai.bus.server.servlet.GzipResponseWriteAdapter;
+
+/**
+ * @author agent
+ */
+public class GzipResponseWriteAdapterTests extends TestCase {
+  private final Map<String, String> headers = new HashMap<String, String>();
+  private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+  private final HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(
+      getClass().getClassLoader(), new Class[] { HttpServletResponse.class }, new InvocationHandler() {
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+          if ("setHeader".equals(method.getName())) {
+            headers.put((String) args[0], (String) args[1]);
+            return null;
+          }
+          else if ("getOutputStream".equals(method.getName())) {
+            return new ServletOutputStream() {
+              @Override
+              public void write(final int b) throws IOException {
+                body.write(b);
+              }
+            };
+          }
+          throw new UnsupportedOperationException(method.getName());
+        }
+      });
+
+  private static byte[] payload(final int size) {
+    final StringBuilder sb = new StringBuilder(size + 32);
+    for (int i = 0; sb.length() < size; i++) {
+      sb.append("{\"ToSubject\":\"Foo\",\"Value\":").append(i).append('}');
+    }
+    return sb.substring(0, size).getBytes();
+  }
+
+  public void testSmallResponseIsNotCompressed() throws Exception {
+    final GzipResponseWriteAdapter writer = new GzipResponseWriteAdapter(response, 1024);
+    final byte[] payload = payload(1023);
+
+    // flushing before anything is written doesn't commit the response.
+    writer.flush();
+    writer.write(payload);
+    writer.flush();
+
+    assertNull(headers.get("Content-Encoding"));
+    assertEquals(new String(payload), body.toString());
+  }
+
+  public void testLargeResponseIsCompressed() throws Exception {
+    final GzipResponseWriteAdapter writer = new GzipResponseWriteAdapter(response, 1024);
+    final byte[] payload = payload(100000);
+
+    for (final byte b : payload) {
+      writer.write(b);
+    }
+    writer.flush();
+
+    assertEquals("gzip", headers.get("Content-Encoding"));
+    assertTrue(body.size() < payload.length);
+
+    final GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()));
+    final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+    final byte[] buf = new byte[1024];
+    int read;
+    while ((read = inputStream.read(buf)) != -1) {
+      decompressed.write(buf, 0, read);
+    }
+    assertEquals(new String(payload), decompressed.toString());
+  }
+
+  public void testAcceptsGzip() {
+    assertTrue(GzipResponseWriteAdapter.acceptsGzip("gzip, deflate"));
+    assertTrue(GzipResponseWriteAdapter.acceptsGzip("deflate, GZIP;q=0.5"));
+    assertFalse(GzipResponseWriteAdapter.acceptsGzip(null));
+    assertFalse(GzipResponseWriteAdapter.acceptsGzip("deflate"));
+    assertFalse(GzipResponseWriteAdapter.acceptsGzip("gzip;q=0"));
+  }
+}
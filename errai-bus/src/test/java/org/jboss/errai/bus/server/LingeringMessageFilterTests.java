@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server;
+
+import junit.framework.TestCase;
+import org.jboss.errai.bus.server.io.LingeringMessageFilter;
+import org.jboss.errai.bus.server.io.OutputStreamWriteAdapter;
+import org.jboss.errai.bus.server.io.buffers.BufferColor;
+import org.jboss.errai.bus.server.io.buffers.TransmissionBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent
+ */
+public class LingeringMessageFilterTests extends TestCase {
+  private static void write(final TransmissionBuffer buffer, final BufferColor color, final String s)
+      throws IOException {
+    final byte[] bytes = s.getBytes();
+    buffer.write(bytes, 0, bytes.length, color);
+  }
+
+  public void testReadsAreJoinedIntoOnePayload() throws Exception {
+    final TransmissionBuffer buffer = TransmissionBuffer.createDirect();
+    final BufferColor color = BufferColor.getNewColor();
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final OutputStreamWriteAdapter adapter = new OutputStreamWriteAdapter(outputStream);
+    final LingeringMessageFilter filter = new LingeringMessageFilter();
+
+    write(buffer, color, "{\"a\":1}");
+    write(buffer, color, "{\"b\":\"}\"}");
+    buffer.readWait(TimeUnit.MILLISECONDS, 0, adapter, color, filter);
+
+    write(buffer, color, "{\"c\":{\"d\":3}}");
+    buffer.readWait(TimeUnit.MILLISECONDS, 0, adapter, color, filter);
+
+    // nothing more arrives before the linger time is up.
+    buffer.readWait(TimeUnit.MILLISECONDS, 1, adapter, color, filter);
+
+    filter.finish(adapter);
+
+    assertEquals("[{\"a\":1},{\"b\":\"}\"},{\"c\":{\"d\":3}}]", new String(outputStream.toByteArray()));
+    assertEquals(3, filter.getMessageCount());
+  }
+
+  public void testEmptyPayload() throws Exception {
+    final TransmissionBuffer buffer = TransmissionBuffer.createDirect();
+    final BufferColor color = BufferColor.getNewColor();
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final OutputStreamWriteAdapter adapter = new OutputStreamWriteAdapter(outputStream);
+    final LingeringMessageFilter filter = new LingeringMessageFilter();
+
+    buffer.readWait(TimeUnit.MILLISECONDS, 0, adapter, color, filter);
+    filter.finish(adapter);
+
+    assertEquals("[]", new String(outputStream.toByteArray()));
+    assertEquals(0, filter.getMessageCount());
+  }
+}
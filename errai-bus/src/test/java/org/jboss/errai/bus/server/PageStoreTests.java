@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.server;
+
+import junit.framework.TestCase;
+import org.jboss.errai.bus.server.api.MessageQueue;
+import org.jboss.errai.bus.server.io.MultiMessageFilter;
+import org.jboss.errai.bus.server.io.OutputStreamWriteAdapter;
+import org.jboss.errai.bus.server.io.PageStore;
+import org.jboss.errai.bus.server.io.PageUtil;
+import org.jboss.errai.bus.server.io.buffers.TransmissionBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author agent
+ */
+public class PageStoreTests extends TestCase {
+  private File directory;
+  private PageStore store;
+
+  @Override
+  protected void tearDown() throws Exception {
+    if (store != null) {
+      store.close();
+    }
+    if (directory != null) {
+      directory.delete();
+    }
+  }
+
+  private PageStore createStore() {
+    directory = new File(System.getProperty("java.io.tmpdir"), "queuecache-" + System.nanoTime());
+    return store = new PageStore(directory);
+  }
+
+  private int countSpillFiles() {
+    final File[] files = directory.listFiles();
+    return files == null ? 0 : files.length;
+  }
+
+  public void testWriteAndReadBack() throws IOException {
+    final PageStore store = createStore();
+
+    final byte[] bytes = "{\"foo\":\"bar\"}".getBytes();
+    store.write("a", bytes, 0, bytes.length);
+    store.write("a", bytes, 0, bytes.length);
+
+    assertTrue(store.hasData("a"));
+    assertEquals(bytes.length * 2, store.getStoredBytes("a"));
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    assertTrue(store.read("a", new OutputStreamWriteAdapter(outputStream), null));
+
+    assertEquals("{\"foo\":\"bar\"}{\"foo\":\"bar\"}", new String(outputStream.toByteArray()));
+    assertFalse(store.hasData("a"));
+    assertEquals(0, store.getAllocatedSegments());
+  }
+
+  public void testReadThroughFilter() throws IOException {
+    final PageStore store = createStore();
+
+    final byte[] bytes = "{\"foo\":\"bar\"}".getBytes();
+    store.write("a", bytes, 0, bytes.length);
+    store.write("a", bytes, 0, bytes.length);
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final OutputStreamWriteAdapter adapter = new OutputStreamWriteAdapter(outputStream);
+    final MultiMessageFilter filter = new MultiMessageFilter();
+
+    filter.before(adapter);
+    store.read("a", adapter, filter);
+    filter.after(adapter);
+
+    assertEquals("[{\"foo\":\"bar\"},{\"foo\":\"bar\"}]", new String(outputStream.toByteArray()));
+  }
+
+  public void testQueueIsPagedOutAndReadBack() throws IOException {
+    final TransmissionBuffer buffer = TransmissionBuffer.create(1024, 16);
+    final MessageQueue queue = new MessageQueueImpl(buffer, MockQueueSessionFactory.newSession(), 30);
+
+    write(queue, "{\"a\":1}");
+    write(queue, "{\"b\":2}");
+
+    assertTrue(PageUtil.pageWaitingToDisk(queue));
+    assertTrue(queue.isPaged());
+
+    // nothing left to page out.
+    assertFalse(PageUtil.pageWaitingToDisk(queue));
+
+    write(queue, "{\"c\":3}");
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    assertTrue(queue.poll(new OutputStreamWriteAdapter(outputStream)));
+
+    assertEquals("[{\"a\":1},{\"b\":2},{\"c\":3}]", new String(outputStream.toByteArray()));
+    assertFalse(queue.isPaged());
+  }
+
+  public void testQueueIsNotPagedOutWhileAReaderIsWaiting() throws Exception {
+    final TransmissionBuffer buffer = TransmissionBuffer.create(1024, 16);
+    final MessageQueue queue = new MessageQueueImpl(buffer, MockQueueSessionFactory.newSession(), 30);
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final Thread reader = new Thread() {
+      @Override
+      public void run() {
+        try {
+          queue.poll(TimeUnit.SECONDS, 10, new OutputStreamWriteAdapter(outputStream));
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    reader.start();
+
+    final ReentrantLock lock = queue.getBufferColor().getLock();
+    boolean waiting = false;
+    for (int i = 0; i < 500 && !waiting; i++) {
+      Thread.sleep(10);
+      lock.lock();
+      try {
+        waiting = queue.getBufferColor().hasWaitingReaders();
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+    assertTrue(waiting);
+
+    assertFalse(PageUtil.pageWaitingToDisk(queue));
+    assertFalse(queue.isPaged());
+
+    write(queue, "{\"a\":1}");
+    reader.join(5000);
+
+    assertEquals("[{\"a\":1}]", new String(outputStream.toByteArray()));
+  }
+
+  private static void write(final MessageQueue queue, final String message) throws IOException {
+    final byte[] bytes = message.getBytes();
+    queue.getBuffer().write(bytes, 0, bytes.length, queue.getBufferColor());
+  }
+
+  public void testLargeInterleavedWritesAcrossSpillFiles() throws IOException {
+    final PageStore store = createStore();
+
+    final String giant = TransmissionBufferTests.createGiantString();
+    final byte[] bytes = giant.getBytes();
+
+    // enough data to require more than one spill file.
+    final int writes = ((16 * 1024 * 1024) / bytes.length) + 10;
+    for (int i = 0; i < writes; i++) {
+      store.write(i % 2 == 0 ? "even" : "odd", bytes, 0, bytes.length);
+    }
+
+    assertTrue(store.getSpillFileCount() > 1);
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    store.read("odd", new OutputStreamWriteAdapter(outputStream), null);
+
+    final String odd = new String(outputStream.toByteArray());
+    assertEquals(giant.length() * (writes / 2), odd.length());
+    assertEquals(giant, odd.substring(0, giant.length()));
+    assertEquals(giant, odd.substring(odd.length() - giant.length()));
+  }
+
+  public void testDiscardReclaimsSpace() throws IOException {
+    final PageStore store = createStore();
+
+    final byte[] bytes = TransmissionBufferTests.createGiantString().getBytes();
+    store.write("a", bytes, 0, bytes.length);
+    final int allocated = store.getAllocatedSegments();
+    assertTrue(allocated > 0);
+
+    store.discard("a");
+    assertFalse(store.hasData("a"));
+    assertEquals(0, store.getAllocatedSegments());
+
+    store.write("b", bytes, 0, bytes.length);
+    assertEquals(allocated, store.getAllocatedSegments());
+    assertEquals(1, store.getSpillFileCount());
+  }
+
+  public void testDrainedSpillFilesAreDeleted() throws IOException {
+    final PageStore store = createStore();
+
+    final byte[] bytes = TransmissionBufferTests.createGiantString().getBytes();
+    final int writes = ((16 * 1024 * 1024) / bytes.length) + 10;
+    for (int i = 0; i < writes; i++) {
+      store.write("a", bytes, 0, bytes.length);
+    }
+    store.write("b", bytes, 0, bytes.length);
+
+    assertEquals(2, store.getSpillFileCount());
+    assertEquals(2, countSpillFiles());
+
+    // "b" lives at the end of the second file.
+    store.read("a", new OutputStreamWriteAdapter(new ByteArrayOutputStream()), null);
+    assertEquals(1, store.getSpillFileCount());
+    assertEquals(1, countSpillFiles());
+
+    store.discard("b");
+    assertEquals(0, store.getSpillFileCount());
+    assertEquals(0, countSpillFiles());
+
+    // the store is still usable.
+    store.write("c", bytes, 0, bytes.length);
+    assertEquals(1, store.getSpillFileCount());
+    assertEquals(bytes.length, store.getStoredBytes("c"));
+  }
+
+  public void testCloseDeletesSpillFiles() throws IOException {
+    final PageStore store = createStore();
+
+    final byte[] bytes = TransmissionBufferTests.createGiantString().getBytes();
+    store.write("a", bytes, 0, bytes.length);
+    assertEquals(1, countSpillFiles());
+
+    store.close();
+    assertEquals(0, countSpillFiles());
+    assertEquals(0, store.getSpillFileCount());
+    assertFalse(store.hasData("a"));
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.Deflater;
+
+import io.netty.buffer.ChannelBuffers;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelEvent;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.MessageEvent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import junit.framework.TestCase;
+
+import org.jboss.errai.bus.server.io.websockets.PerMessageDeflateHandler;
+
+/**
+ * @author agent
+ */
+public class PerMessageDeflateHandlerTests extends TestCase {
+  private static final int MAX_PAYLOAD_LENGTH = 1024;
+
+  private final List<Object> upstream = new CopyOnWriteArrayList<Object>();
+  private final List<Object> written = new CopyOnWriteArrayList<Object>();
+  private final List<Object> listeners = new CopyOnWriteArrayList<Object>();
+
+  private final ChannelFuture future = proxy(ChannelFuture.class, new InvocationHandler() {
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      if ("addListener".equals(method.getName())) {
+        listeners.add(args[0]);
+        return null;
+      }
+      throw new UnsupportedOperationException(method.getName());
+    }
+  });
+
+  private final Channel channel = proxy(Channel.class, new InvocationHandler() {
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      if ("write".equals(method.getName())) {
+        written.add(args[0]);
+        return future;
+      }
+      throw new UnsupportedOperationException(method.getName());
+    }
+  });
+
+  private final ChannelHandlerContext ctx = proxy(ChannelHandlerContext.class, new InvocationHandler() {
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      if ("getChannel".equals(method.getName())) {
+        return channel;
+      }
+      else if ("sendUpstream".equals(method.getName()) || "sendDownstream".equals(method.getName())) {
+        upstream.add(((MessageEvent) args[0]).getMessage());
+        return null;
+      }
+      throw new UnsupportedOperationException(method.getName());
+    }
+  });
+
+  public void testPlainOfferIsAccepted() {
+    assertTrue(PerMessageDeflateHandler.acceptsOffer("permessage-deflate"));
+    assertTrue(PerMessageDeflateHandler.acceptsOffer("permessage-deflate; client_max_window_bits"));
+    assertTrue(PerMessageDeflateHandler.acceptsOffer(
+        "permessage-deflate; server_no_context_takeover; client_max_window_bits=10"));
+    assertTrue(PerMessageDeflateHandler.acceptsOffer("permessage-deflate; server_max_window_bits=\"15\""));
+  }
+
+  public void testOfferLimitingServerWindowIsDeclined() {
+    assertFalse(PerMessageDeflateHandler.acceptsOffer("permessage-deflate; server_max_window_bits=10"));
+    assertFalse(PerMessageDeflateHandler.acceptsOffer("permessage-deflate; server_max_window_bits"));
+
+    // the next offer is considered instead.
+    assertTrue(PerMessageDeflateHandler.acceptsOffer(
+        "permessage-deflate; server_max_window_bits=10, permessage-deflate; client_max_window_bits"));
+  }
+
+  public void testOfferWithUnknownOrInvalidParametersIsDeclined() {
+    assertFalse(PerMessageDeflateHandler.acceptsOffer("permessage-deflate; foo"));
+    assertFalse(PerMessageDeflateHandler.acceptsOffer("permessage-deflate; foo=1"));
+    assertFalse(PerMessageDeflateHandler.acceptsOffer(
+        "permessage-deflate; server_no_context_takeover; server_no_context_takeover"));
+    assertFalse(PerMessageDeflateHandler.acceptsOffer("permessage-deflate; client_max_window_bits=7"));
+    assertFalse(PerMessageDeflateHandler.acceptsOffer("permessage-deflate; client_no_context_takeover=1"));
+    assertFalse(PerMessageDeflateHandler.acceptsOffer("x-webkit-deflate-frame"));
+  }
+
+  public void testDeclinedOfferIsNotNegotiated() throws Exception {
+    final PerMessageDeflateHandler handler = new PerMessageDeflateHandler(0, MAX_PAYLOAD_LENGTH);
+    assertNull(handshake(handler, "permessage-deflate; server_max_window_bits=9"));
+  }
+
+  public void testCompressedMessageIsInflated() throws Exception {
+    final PerMessageDeflateHandler handler = new PerMessageDeflateHandler(0, MAX_PAYLOAD_LENGTH);
+    assertEquals("permessage-deflate; server_no_context_takeover", handshake(handler, "permessage-deflate"));
+
+    handler.messageReceived(ctx, event(new TextWebSocketFrame(true, 4, ChannelBuffers.wrappedBuffer(
+        deflate(new byte[MAX_PAYLOAD_LENGTH])))));
+
+    assertTrue(written.isEmpty());
+    assertEquals(1, upstream.size());
+    assertEquals(MAX_PAYLOAD_LENGTH, ((TextWebSocketFrame) upstream.get(0)).getBinaryData().readableBytes());
+  }
+
+  public void testOversizedMessageClosesChannel() throws Exception {
+    final PerMessageDeflateHandler handler = new PerMessageDeflateHandler(0, MAX_PAYLOAD_LENGTH);
+    assertNotNull(handshake(handler, "permessage-deflate"));
+
+    // a few hundred bytes which inflate to a megabyte.
+    handler.messageReceived(ctx, event(new TextWebSocketFrame(true, 4, ChannelBuffers.wrappedBuffer(
+        deflate(new byte[1024 * 1024])))));
+
+    assertTrue("the oversized message was passed on", upstream.isEmpty());
+    assertEquals(1, written.size());
+    assertEquals(1009, ((CloseWebSocketFrame) written.get(0)).getStatusCode());
+    assertEquals(1, listeners.size());
+  }
+
+  /**
+   * Passes a handshake offering the specified extensions through the handler, and returns the extensions of the
+   * response.
+   */
+  private String handshake(final PerMessageDeflateHandler handler, final String extensions) throws Exception {
+    final HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+    request.setHeader("Sec-WebSocket-Version", "13");
+    request.setHeader("Sec-WebSocket-Extensions", extensions);
+    handler.messageReceived(ctx, event(request));
+
+    final HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.SWITCHING_PROTOCOLS);
+    handler.writeRequested(ctx, event(response));
+    upstream.clear();
+
+    return response.getHeader("Sec-WebSocket-Extensions");
+  }
+
+  private static byte[] deflate(final byte[] data) {
+    final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+    deflater.setInput(data);
+    deflater.finish();
+
+    final byte[] buf = new byte[data.length + 64];
+    final int length = deflater.deflate(buf);
+    deflater.end();
+
+    final byte[] compressed = new byte[length];
+    System.arraycopy(buf, 0, compressed, 0, length);
+    return compressed;
+  }
+
+  private MessageEvent event(final Object message) {
+    return proxy(MessageEvent.class, new InvocationHandler() {
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if ("getMessage".equals(method.getName())) {
+          return message;
+        }
+        else if ("getChannel".equals(method.getName())) {
+          return channel;
+        }
+        else if ("getFuture".equals(method.getName())) {
+          return future;
+        }
+        else if ("getRemoteAddress".equals(method.getName())) {
+          return null;
+        }
+        throw new UnsupportedOperationException(method.getName());
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(PerMessageDeflateHandlerTests.class.getClassLoader(), new Class[] { type },
+        handler);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.server;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.jboss.errai.bus.server.api.MessageQueue;
+import org.jboss.errai.bus.server.io.PageUtil;
+import org.jboss.errai.bus.server.io.buffers.TransmissionBuffer;
+
+/**
+ * @author agent
+ */
+public class QueueExpiryIndexTests extends TestCase {
+  private final TransmissionBuffer buffer = TransmissionBuffer.create(1024, 16);
+
+  private MessageQueue newQueue(final int timeoutSecs) {
+    return new MessageQueueImpl(buffer, MockQueueSessionFactory.newSession(), timeoutSecs);
+  }
+
+  public void testOnlyDueQueuesArePolled() {
+    final QueueExpiryIndex index = new QueueExpiryIndex();
+    final MessageQueue early = newQueue(30);
+    final MessageQueue late = newQueue(30);
+
+    index.schedule(early, 10000);
+    index.schedule(late, 20000);
+
+    assertTrue(index.pollDue(5000).isEmpty());
+
+    final List<MessageQueue> due = index.pollDue(10000);
+    assertEquals(1, due.size());
+    assertSame(early, due.get(0));
+
+    // polled queues are still known to the index until rescheduled or removed.
+    assertEquals(2, index.size());
+    assertTrue(index.pollDue(15000).isEmpty());
+
+    final List<MessageQueue> dueLater = index.pollDue(25000);
+    assertEquals(1, dueLater.size());
+    assertSame(late, dueLater.get(0));
+  }
+
+  public void testScheduleMovesQueue() {
+    final QueueExpiryIndex index = new QueueExpiryIndex();
+    final MessageQueue queue = newQueue(30);
+
+    index.schedule(queue, 10000);
+    index.schedule(queue, 30000);
+
+    assertEquals(1, index.size());
+    assertTrue(index.pollDue(20000).isEmpty());
+    assertEquals(1, index.pollDue(30000).size());
+  }
+
+  public void testRescheduleAfterRemoveHasNoEffect() {
+    final QueueExpiryIndex index = new QueueExpiryIndex();
+    final MessageQueue queue = newQueue(30);
+
+    index.schedule(queue, 10000);
+    assertEquals(1, index.pollDue(10000).size());
+
+    index.remove(queue);
+    assertFalse(index.reschedule(queue, 20000));
+    assertEquals(0, index.size());
+    assertTrue(index.pollDue(30000).isEmpty());
+  }
+
+  public void testNextCheckTime() {
+    final MessageQueue queue = newQueue(30);
+    final long lastActivity = queue.getLastTransmissionTime();
+
+    // an active queue is first checked when it could be paged out.
+    assertEquals(lastActivity + PageUtil.getPageOutThreshold(),
+        QueueExpiryIndex.getNextCheckTime(queue, lastActivity));
+
+    // once paged out, it is next checked when it times out.
+    queue.setPaged(true);
+    assertEquals(lastActivity + 30000, QueueExpiryIndex.getNextCheckTime(queue, lastActivity));
+
+    // a queue that has already been checked for its current idle period is checked again later.
+    final long muchLater = lastActivity + 60000;
+    assertTrue(QueueExpiryIndex.getNextCheckTime(queue, muchLater) > muchLater);
+  }
+}
@@ -33,7 +33,9 @@ import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -80,6 +82,246 @@ public class TransmissionBufferTests extends TestCase {
     }
   }
 
+  public void testBulkWriteAndRead() throws IOException {
+    final TransmissionBuffer buffer = TransmissionBuffer.createDirect();
+
+    final byte[] bytes = "XXThis is a testXX".getBytes();
+
+    final BufferColor colorA = BufferColor.getNewColor();
+
+    buffer.write(bytes, 2, bytes.length - 4, colorA);
+
+    final ByteArrayOutputStream bOutputStream = new ByteArrayOutputStream();
+    buffer.read(new OutputStreamWriteAdapter(bOutputStream), colorA);
+
+    assertEquals("This is a test", new String(bOutputStream.toByteArray()));
+  }
+
+  public void testByteBufferWriteAndRead() throws IOException {
+    final TransmissionBuffer buffer = TransmissionBuffer.create();
+
+    final ByteBuffer byteBuffer = ByteBuffer.wrap("XXThis is a testXX".getBytes());
+    byteBuffer.position(2);
+    byteBuffer.limit(byteBuffer.limit() - 2);
+
+    final BufferColor colorA = BufferColor.getNewColor();
+
+    buffer.write(byteBuffer, colorA);
+
+    assertEquals(0, byteBuffer.remaining());
+
+    final ByteArrayOutputStream bOutputStream = new ByteArrayOutputStream();
+    buffer.read(new OutputStreamWriteAdapter(bOutputStream), colorA);
+
+    assertEquals("This is a test", new String(bOutputStream.toByteArray()));
+  }
+
+  public void testBulkWriteWrapsAroundBuffer() throws IOException {
+    final TransmissionBuffer buffer = TransmissionBuffer.create(10, 7);
+
+    final BufferColor color = BufferColor.getNewColor();
+
+    final String s = "12345789012345";
+
+    for (int i = 0; i < 100000; i++) {
+      final byte[] bytes = (s + i).getBytes();
+      buffer.write(bytes, 0, bytes.length, color);
+
+      final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+      buffer.write(byteBuffer, color);
+
+      final ByteArrayOutputStream bOutputStream = new ByteArrayOutputStream();
+      buffer.read(new OutputStreamWriteAdapter(bOutputStream), color);
+
+      assertEquals(s + i + s + i, new String(bOutputStream.toByteArray()));
+    }
+  }
+
+  public void testBulkWriteMatchesStreamWrite() throws IOException {
+    final TransmissionBuffer streamBuffer = TransmissionBuffer.create(32, 64);
+    final TransmissionBuffer bulkBuffer = TransmissionBuffer.create(32, 64);
+    final BufferColor streamColor = BufferColor.getNewColorFromHead(streamBuffer);
+    final BufferColor bulkColor = BufferColor.getNewColorFromHead(bulkBuffer);
+
+    final Random random = new Random(2026);
+
+    // sizes below, at and above the segment size, and writes that wrap around the end of the buffer.
+    for (int i = 0; i < 200; i++) {
+      final byte[] bytes = new byte[random.nextInt(300)];
+      random.nextBytes(bytes);
+
+      streamBuffer.write(bytes.length, new ByteArrayInputStream(bytes), streamColor);
+      bulkBuffer.write(bytes, 0, bytes.length, bulkColor);
+
+      assertEquals(streamBuffer.getHeadSequence(), bulkBuffer.getHeadSequence());
+      assertEquals(streamBuffer.getHeadPositionBytes(), bulkBuffer.getHeadPositionBytes());
+
+      final ByteArrayOutputStream streamOut = new ByteArrayOutputStream();
+      final ByteArrayOutputStream bulkOut = new ByteArrayOutputStream();
+      assertTrue(streamBuffer.read(new OutputStreamWriteAdapter(streamOut), streamColor));
+      assertTrue(bulkBuffer.read(new OutputStreamWriteAdapter(bulkOut), bulkColor));
+
+      assertTrue(Arrays.equals(bytes, streamOut.toByteArray()));
+      assertTrue(Arrays.equals(bytes, bulkOut.toByteArray()));
+    }
+  }
+
+  public void testConcurrentWritersPublishCompleteChunksInOrder() throws Exception {
+    final int writerCount = 16;
+    final int writesPerWriter = 1000;
+
+    final TransmissionBuffer buffer = TransmissionBuffer.create(32, writerCount * writesPerWriter * 2);
+    final BufferColor globalColor = BufferColor.getAllBuffersColor();
+    final BufferColor red = BufferColor.getNewColorFromHead(buffer);
+
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    final Thread[] writers = new Thread[writerCount];
+    final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+
+    for (int i = 0; i < writers.length; i++) {
+      final int writerId = i;
+      writers[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            startLatch.await();
+            for (int w = 0; w < writesPerWriter; w++) {
+              final byte[] bytes = ("<" + writerId + ":" + w + ">").getBytes();
+              if (w % 2 == 0) {
+                buffer.write(bytes, 0, bytes.length, globalColor);
+              }
+              else {
+                buffer.write(bytes, 0, bytes.length, red);
+              }
+            }
+          }
+          catch (Throwable t) {
+            errors.add(t);
+          }
+        }
+      };
+      writers[i].start();
+    }
+
+    startLatch.countDown();
+
+    final ByteArrayOutputStream bOutputStream = new ByteArrayOutputStream();
+    final OutputStreamWriteAdapter adapter = new OutputStreamWriteAdapter(bOutputStream);
+
+    long lastHead = buffer.getHeadSequence();
+    for (final Thread writer : writers) {
+      while (writer.isAlive()) {
+        final long head = buffer.getHeadSequence();
+        assertTrue("head sequence moved backwards", head >= lastHead);
+        lastHead = head;
+        buffer.read(adapter, red);
+      }
+    }
+    buffer.read(adapter, red);
+
+    assertTrue(errors.toString(), errors.isEmpty());
+
+    final String output = new String(bOutputStream.toByteArray());
+    final Map<Integer, Integer> lastSeenPerWriter = new HashMap<Integer, Integer>();
+    int chunks = 0;
+    for (final String chunk : output.substring(1, output.length() - 1).split("><")) {
+      final String[] parts = chunk.split(":");
+      final Integer writerId = Integer.valueOf(parts[0]);
+      final int seq = Integer.parseInt(parts[1]);
+
+      final Integer last = lastSeenPerWriter.get(writerId);
+      assertTrue("writes from a single writer out of order", last == null || last < seq);
+      lastSeenPerWriter.put(writerId, seq);
+      chunks++;
+    }
+
+    assertEquals(writerCount * writesPerWriter, chunks);
+  }
+
+  public void testBlockedStreamWriteDoesNotStallOtherWriters() throws Exception {
+    final TransmissionBuffer buffer = TransmissionBuffer.create(32, 64);
+    final BufferColor color = BufferColor.getNewColorFromHead(buffer);
+
+    final CountDownLatch streamEntered = new CountDownLatch(1);
+    final CountDownLatch releaseStream = new CountDownLatch(1);
+    final InputStream blockingStream = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        streamEntered.countDown();
+        try {
+          releaseStream.await();
+        }
+        catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+        return 'x';
+      }
+    };
+
+    final Thread blockedWriter = new Thread() {
+      @Override
+      public void run() {
+        try {
+          buffer.write(4, blockingStream, color);
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    blockedWriter.start();
+    assertTrue(streamEntered.await(5, TimeUnit.SECONDS));
+
+    final CountDownLatch written = new CountDownLatch(1);
+    final Thread writer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          final byte[] bytes = "foo".getBytes();
+          buffer.write(bytes, 0, bytes.length, color);
+          written.countDown();
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    writer.start();
+
+    try {
+      assertTrue("write stalled behind a blocked stream", written.await(5, TimeUnit.SECONDS));
+
+      final ByteArrayOutputStream bOutputStream = new ByteArrayOutputStream();
+      buffer.read(new OutputStreamWriteAdapter(bOutputStream), color);
+      assertEquals("foo", new String(bOutputStream.toByteArray()));
+    }
+    finally {
+      releaseStream.countDown();
+      blockedWriter.join();
+      writer.join();
+    }
+  }
+
+  public void testShortStreamWriteFails() throws IOException {
+    final TransmissionBuffer buffer = TransmissionBuffer.create(32, 64);
+    final BufferColor color = BufferColor.getNewColorFromHead(buffer);
+
+    try {
+      buffer.write(10, new ByteArrayInputStream("short".getBytes()), color);
+      fail("a stream which ends early should not be written");
+    }
+    catch (IOException e) {
+      // expected
+    }
+
+    final byte[] bytes = "foo".getBytes();
+    buffer.write(bytes, 0, bytes.length, color);
+
+    final ByteArrayOutputStream bOutputStream = new ByteArrayOutputStream();
+    buffer.read(new OutputStreamWriteAdapter(bOutputStream), color);
+    assertEquals("foo", new String(bOutputStream.toByteArray()));
+  }
+
   public void testBufferCycle() throws IOException {
     final TransmissionBuffer buffer = TransmissionBuffer.create(10, 10);
 
@@ -87,7 +329,6 @@ public class TransmissionBufferTests extends TestCase {
 
     final String s = "12345789012345";
 
-    final long start = System.currentTimeMillis();
     for (int i = 0; i < 1000000; i++) {
       final ByteArrayInputStream bInputStream = new ByteArrayInputStream(s.getBytes());
       final ByteArrayOutputStream bOutputStream = new ByteArrayOutputStream();
@@ -97,7 +338,6 @@ public class TransmissionBufferTests extends TestCase {
 
       assertEquals(s, new String(bOutputStream.toByteArray()));
     }
-    System.out.println(System.currentTimeMillis() - start);
   }
 
 
@@ -114,7 +354,6 @@ public class TransmissionBufferTests extends TestCase {
     final String stringC = "IJKLMNOP";
 
 
-    final long start = System.currentTimeMillis();
     for (int i = 0; i < 1000000; i++) {
       ByteArrayInputStream bInputStream = new ByteArrayInputStream(stringA.getBytes());
       buffer.write(stringA.length(), bInputStream, colorA);
@@ -139,7 +378,6 @@ public class TransmissionBufferTests extends TestCase {
       assertEquals(stringC, new String(bOutputStream.toByteArray()));
 
     }
-    System.out.println(System.currentTimeMillis() - start);
   }
 
   final static int COLOR_COUNT = 1;
@@ -605,7 +843,6 @@ public class TransmissionBufferTests extends TestCase {
     final String stringC = "IJKLMNOP";
 
 
-    final long start = System.currentTimeMillis();
     for (int i = 0; i < 1000000; i++) {
       ByteArrayInputStream bInputStream = new ByteArrayInputStream(stringA.getBytes());
       buffer.write(stringA.length(), bInputStream, colorA);
@@ -625,7 +862,6 @@ public class TransmissionBufferTests extends TestCase {
       assertEquals(stringB + stringC, new String(bOutputStream.toByteArray()));
 
     }
-    System.out.println(System.currentTimeMillis() - start);
   }
 
   public void testBufferColorCyclesAroundCorrectly() throws IOException {
@@ -639,6 +875,48 @@ public class TransmissionBufferTests extends TestCase {
     }
   }
 
+  public void testEachBufferHasItsOwnColorSpace() throws IOException {
+    final TransmissionBuffer bufferA = TransmissionBuffer.create(10, 10);
+    final TransmissionBuffer bufferB = TransmissionBuffer.create(10, 10);
+
+    final BufferColor colorA = BufferColor.getNewColorFromHead(bufferA);
+    final BufferColor colorB = BufferColor.getNewColorFromHead(bufferB);
+    assertEquals(colorA.getColor(), colorB.getColor());
+
+    final byte[] bytesA = "AAAA".getBytes();
+    final byte[] bytesB = "BBBB".getBytes();
+    bufferA.write(bytesA, 0, bytesA.length, colorA);
+    bufferB.write(bytesB, 0, bytesB.length, colorB);
+
+    ByteArrayOutputStream bOutputStream = new ByteArrayOutputStream();
+    bufferA.read(new OutputStreamWriteAdapter(bOutputStream), colorA);
+    assertEquals("AAAA", new String(bOutputStream.toByteArray()));
+
+    bOutputStream = new ByteArrayOutputStream();
+    bufferB.read(new OutputStreamWriteAdapter(bOutputStream), colorB);
+    assertEquals("BBBB", new String(bOutputStream.toByteArray()));
+  }
+
+  public void testColorsInUseAreNotHandedOutAgain() {
+    final TransmissionBuffer buffer = TransmissionBuffer.create(10, 10);
+
+    final BufferColor live = BufferColor.getNewColorFromHead(buffer);
+    final Set<Short> seen = new HashSet<Short>();
+    seen.add(live.getColor());
+
+    // allocate and release enough colors to wrap around the color space more than once.
+    final int loopMax = Short.MAX_VALUE * 4;
+    for (int i = 0; i < loopMax; i++) {
+      final BufferColor color = BufferColor.getNewColorFromHead(buffer);
+      assertTrue("a color in use was handed out again", color.getColor() != live.getColor());
+      seen.add(color.getColor());
+      color.release(buffer);
+    }
+
+    // the released colors were recycled.
+    assertEquals(Short.MAX_VALUE * 2, seen.size());
+  }
+
   public static String createGiantString() {
     final int size = TransmissionBuffer.DEFAULT_SEGMENT_SIZE * 3;
     final StringBuilder sb = new StringBuilder(size + 10);
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.errai.bus.server;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+import org.jboss.errai.bus.client.api.base.CommandMessage;
+import org.jboss.errai.bus.client.api.base.MessageDeliveryFailure;
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.bus.client.api.messaging.MessageCallback;
+import org.jboss.errai.bus.server.mock.MockErraiService;
+import org.jboss.errai.bus.server.mock.MockErraiServiceConfigurator;
+import org.jboss.errai.bus.server.mock.MockServerMessageBus;
+import org.jboss.errai.common.client.api.ErrorCallback;
+
+/**
+ * @author agent
+ */
+public class WorkStealingDispatcherTests extends TestCase {
+  private WorkStealingDispatcher dispatcher;
+
+  @Override
+  protected void tearDown() throws Exception {
+    if (dispatcher != null) {
+      dispatcher.stop();
+    }
+  }
+
+  private WorkStealingDispatcher createDispatcher(final MessageCallback callback, final String... properties) {
+    final MockErraiServiceConfigurator cfg = new MockErraiServiceConfigurator();
+    for (int i = 0; i < properties.length; i += 2) {
+      cfg.setProperty(properties[i], properties[i + 1]);
+    }
+    return dispatcher = new WorkStealingDispatcher(new MockErraiService(MockServerMessageBus.create(callback), cfg));
+  }
+
+  private static Message message(final String subject, final int seq) {
+    return CommandMessage.create().toSubject(subject).set("Seq", seq);
+  }
+
+  public void testEveryMessageIsDelivered() throws Exception {
+    final int count = 10000;
+    final CountDownLatch latch = new CountDownLatch(count);
+
+    createDispatcher(new MessageCallback() {
+      @Override
+      public void callback(final Message message) {
+        latch.countDown();
+      }
+    }, "errai.async.thread_pool_size", "4", "errai.async.delivery.queue_size", String.valueOf(count));
+
+    for (int i = 0; i < count; i++) {
+      dispatcher.dispatch(message("Subject" + (i % 10), i));
+    }
+
+    assertTrue("not all messages were delivered", latch.await(10, TimeUnit.SECONDS));
+  }
+
+  public void testSubjectAffinityPreservesOrder() throws Exception {
+    final int subjects = 8;
+    final int perSubject = 2000;
+    final CountDownLatch latch = new CountDownLatch(subjects * perSubject);
+    final Map<String, Integer> lastSeen = Collections.synchronizedMap(new HashMap<String, Integer>());
+    final AtomicInteger outOfOrder = new AtomicInteger();
+
+    createDispatcher(new MessageCallback() {
+      @Override
+      public void callback(final Message message) {
+        final int seq = message.get(Integer.class, "Seq");
+        final Integer last = lastSeen.put(message.getSubject(), seq);
+        if (last != null && last > seq) {
+          outOfOrder.incrementAndGet();
+        }
+        latch.countDown();
+      }
+    }, "errai.async.thread_pool_size", "4", "errai.async.delivery.queue_size", String.valueOf(subjects * perSubject),
+        WorkStealingDispatcher.CONFIG_ASYNC_AFFINITY, "subject");
+
+    for (int i = 0; i < perSubject; i++) {
+      for (int s = 0; s < subjects; s++) {
+        dispatcher.dispatch(message("Subject" + s, i));
+      }
+    }
+
+    assertTrue("not all messages were delivered", latch.await(10, TimeUnit.SECONDS));
+    assertEquals("messages for a subject were delivered out of order", 0, outOfOrder.get());
+  }
+
+  public void testIdleWorkerStealsFromBusyWorker() throws Exception {
+    final int count = 100;
+    final CountDownLatch blocking = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch latch = new CountDownLatch(count);
+
+    createDispatcher(new MessageCallback() {
+      @Override
+      public void callback(final Message message) {
+        if ("Blocking".equals(message.getSubject())) {
+          blocking.countDown();
+          try {
+            release.await();
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        else {
+          latch.countDown();
+        }
+      }
+    }, "errai.async.thread_pool_size", "2", "errai.async.delivery.queue_size", String.valueOf(count));
+
+    try {
+      dispatcher.dispatch(message("Blocking", 0));
+      assertTrue(blocking.await(5, TimeUnit.SECONDS));
+
+      // half of these are queued for the blocked worker: the other one has to steal them.
+      for (int i = 0; i < count; i++) {
+        dispatcher.dispatch(message("Subject", i));
+      }
+
+      assertTrue("messages queued for the busy worker were not stolen", latch.await(5, TimeUnit.SECONDS));
+    }
+    finally {
+      release.countDown();
+    }
+  }
+
+  public void testFullQueuesRejectMessages() throws Exception {
+    final CountDownLatch blocking = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+    createDispatcher(new MessageCallback() {
+      @Override
+      public void callback(final Message message) {
+        blocking.countDown();
+        try {
+          release.await();
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }, "errai.async.thread_pool_size", "1", "errai.async.delivery.queue_size", "1");
+
+    try {
+      dispatcher.dispatch(message("Subject", 0));
+      assertTrue(blocking.await(5, TimeUnit.SECONDS));
+
+      dispatcher.dispatch(message("Subject", 1));
+      dispatcher.dispatch(message("Subject", 2).errorsCall(new ErrorCallback<Message>() {
+        @Override
+        public boolean error(final Message message, final Throwable throwable) {
+          failure.set(throwable);
+          return false;
+        }
+      }));
+
+      assertTrue(failure.get() instanceof MessageDeliveryFailure);
+    }
+    finally {
+      release.countDown();
+    }
+  }
+}
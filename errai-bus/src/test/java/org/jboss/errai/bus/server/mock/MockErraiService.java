@@ -29,6 +29,18 @@ import java.util.Collection;
  * @author Mike Brock
  */
 public class MockErraiService<S> implements ErraiService<S> {
+  private final ServerMessageBus bus;
+  private final ErraiServiceConfigurator configuration;
+
+  public MockErraiService() {
+    this(null, null);
+  }
+
+  public MockErraiService(ServerMessageBus bus, ErraiServiceConfigurator configuration) {
+    this.bus = bus;
+    this.configuration = configuration;
+  }
+
   @Override
   public void store(Message message) {
   }
@@ -39,12 +51,12 @@ public class MockErraiService<S> implements ErraiService<S> {
 
   @Override
   public ServerMessageBus getBus() {
-    return null;
+    return bus;
   }
 
   @Override
   public ErraiServiceConfigurator getConfiguration() {
-    return null;
+    return configuration;
   }
 
   @Override
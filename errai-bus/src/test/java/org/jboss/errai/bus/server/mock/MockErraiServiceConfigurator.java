@@ -22,12 +22,15 @@ import org.jboss.errai.common.metadata.MetaDataScanner;
 import org.jboss.errai.common.metadata.ScannerSingleton;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * @author Mike Brock
  */
 public class MockErraiServiceConfigurator implements ErraiServiceConfigurator {
+  private final Map<String, String> properties = new HashMap<String, String>();
+
   @Override
   public MetaDataScanner getMetaDataScanner() {
     return ScannerSingleton.getOrCreateInstance();
@@ -45,25 +48,26 @@ public class MockErraiServiceConfigurator implements ErraiServiceConfigurator {
 
   @Override
   public boolean hasProperty(String key) {
-    return false;
+    return properties.containsKey(key);
   }
 
   @Override
   public String getProperty(String key) {
-    return null;
+    return properties.get(key);
   }
 
   @Override
   public boolean getBooleanProperty(String key) {
-    return false;
+    return Boolean.parseBoolean(properties.get(key));
   }
 
   @Override
   public Integer getIntProperty(String key) {
-    return null;
+    return properties.containsKey(key) ? Integer.valueOf(properties.get(key)) : null;
   }
 
   @Override
   public void setProperty(String key, String value) {
+    properties.put(key, value);
   }
 }
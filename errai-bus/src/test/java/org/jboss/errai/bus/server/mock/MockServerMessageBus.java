@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.server.mock;
+
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.bus.client.api.messaging.MessageCallback;
+import org.jboss.errai.bus.server.api.ServerMessageBus;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Creates a {@link ServerMessageBus} which hands every message sent through it to a callback, and does nothing
+ * otherwise.
+ *
+ * @author agent
+ */
+public class MockServerMessageBus {
+  private MockServerMessageBus() {
+  }
+
+  public static ServerMessageBus create(final MessageCallback callback) {
+    return (ServerMessageBus) Proxy.newProxyInstance(ServerMessageBus.class.getClassLoader(),
+        new Class[]{ServerMessageBus.class}, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().startsWith("send") && args != null && args.length == 1 && args[0] instanceof Message) {
+          callback.callback((Message) args[0]);
+          return null;
+        }
+        else if (method.getDeclaringClass() == Object.class) {
+          return method.invoke(this, args);
+        }
+        else if (method.getReturnType() == boolean.class) {
+          return false;
+        }
+        else if (method.getReturnType() == int.class) {
+          return 0;
+        }
+        return null;
+      }
+    });
+  }
+}
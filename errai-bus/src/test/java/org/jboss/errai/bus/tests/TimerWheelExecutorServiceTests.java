@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.bus.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.jboss.errai.bus.server.async.scheduling.PooledExecutorService;
+import org.jboss.errai.bus.server.async.scheduling.TimerWheelExecutorService;
+import org.jboss.errai.common.client.api.tasks.AsyncTask;
+import org.jboss.errai.common.client.util.TimeUnit;
+
+/**
+ * @author agent
+ */
+public class TimerWheelExecutorServiceTests extends TestCase {
+  public void testDelayedTaskRunsNoEarlierThanScheduled() throws Exception {
+    final TimerWheelExecutorService svc = new TimerWheelExecutorService(100);
+    svc.start();
+
+    try {
+      final CountDownLatch latch = new CountDownLatch(1);
+      final long[] ranAt = new long[1];
+
+      final long start = System.currentTimeMillis();
+      svc.schedule(new Runnable() {
+        @Override
+        public void run() {
+          ranAt[0] = System.currentTimeMillis();
+          latch.countDown();
+        }
+      }, TimeUnit.MILLISECONDS, 200);
+
+      assertTrue("task did not run", latch.await(5, java.util.concurrent.TimeUnit.SECONDS));
+      assertTrue("task ran early", ranAt[0] - start >= 200);
+      assertEquals(0, svc.getScheduledTaskCount());
+    }
+    finally {
+      svc.requestStop();
+    }
+  }
+
+  public void testDelayedTaskBeyondOneRevolution() throws Exception {
+    // a wheel of 8 x 5ms ticks turns every 40ms.
+    final TimerWheelExecutorService svc
+        = new TimerWheelExecutorService(100, PooledExecutorService.SaturationPolicy.CallerRuns, 5, 8);
+    svc.start();
+
+    try {
+      final CountDownLatch latch = new CountDownLatch(1);
+      final long[] ranAt = new long[1];
+
+      final long start = System.currentTimeMillis();
+      svc.schedule(new Runnable() {
+        @Override
+        public void run() {
+          ranAt[0] = System.currentTimeMillis();
+          latch.countDown();
+        }
+      }, TimeUnit.MILLISECONDS, 250);
+
+      assertTrue("task did not run", latch.await(5, java.util.concurrent.TimeUnit.SECONDS));
+      assertTrue("task ran early", ranAt[0] - start >= 250);
+    }
+    finally {
+      svc.requestStop();
+    }
+  }
+
+  public void testRepeatingTask() throws Exception {
+    final TimerWheelExecutorService svc = new TimerWheelExecutorService(100);
+    svc.start();
+
+    try {
+      final CountDownLatch latch = new CountDownLatch(5);
+      final AsyncTask task = svc.scheduleRepeating(new Runnable() {
+        @Override
+        public void run() {
+          latch.countDown();
+        }
+      }, TimeUnit.MILLISECONDS, 0, 20);
+
+      assertTrue("task did not repeat", latch.await(5, java.util.concurrent.TimeUnit.SECONDS));
+      task.cancel(false);
+    }
+    finally {
+      svc.requestStop();
+    }
+  }
+
+  public void testIdleWheelParksUntilTaskIsScheduled() throws Exception {
+    final TimerWheelExecutorService svc = new TimerWheelExecutorService(100);
+    svc.start();
+
+    try {
+      Thread.sleep(100);
+
+      // with nothing scheduled, the scheduler thread waits without a timeout instead of ticking.
+      for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+        if ("TimerWheelScheduler".equals(thread.getName()) && thread.isAlive()) {
+          assertEquals(Thread.State.WAITING, thread.getState());
+        }
+      }
+
+      final CountDownLatch latch = new CountDownLatch(1);
+      final long[] ranAt = new long[1];
+
+      final long start = System.currentTimeMillis();
+      svc.schedule(new Runnable() {
+        @Override
+        public void run() {
+          ranAt[0] = System.currentTimeMillis();
+          latch.countDown();
+        }
+      }, TimeUnit.MILLISECONDS, 50);
+
+      assertTrue("task did not run", latch.await(5, java.util.concurrent.TimeUnit.SECONDS));
+      assertTrue("task ran early", ranAt[0] - start >= 50);
+      assertTrue("task ran late", ranAt[0] - start < 1000);
+    }
+    finally {
+      svc.requestStop();
+    }
+  }
+
+  public void testCancelRemovesTask() throws Exception {
+    final TimerWheelExecutorService svc
+        = new TimerWheelExecutorService(100, PooledExecutorService.SaturationPolicy.CallerRuns, 5, 8);
+    svc.start();
+
+    try {
+      final AtomicInteger runs = new AtomicInteger();
+
+      final AsyncTask task = svc.schedule(new Runnable() {
+        @Override
+        public void run() {
+          runs.incrementAndGet();
+        }
+      }, TimeUnit.MILLISECONDS, 100);
+
+      assertEquals(1, svc.getScheduledTaskCount());
+
+      task.cancel(true);
+      assertTrue(task.isCancelled());
+      assertEquals(0, svc.getScheduledTaskCount());
+
+      Thread.sleep(300);
+      assertEquals(0, runs.get());
+    }
+    finally {
+      svc.requestStop();
+    }
+  }
+
+  public void testTasksRunWithinOneTickOfDeadlineInDeadlineOrder() throws Exception {
+    final long tickMillis = 50;
+    final TimerWheelExecutorService svc
+        = new TimerWheelExecutorService(100, PooledExecutorService.SaturationPolicy.CallerRuns, tickMillis, 8);
+    svc.start();
+
+    try {
+      // deadlines two ticks apart, up to more than two revolutions of the wheel, scheduled out of order.
+      final int[] delays = {500, 100, 900, 300, 1000, 200, 700, 400, 800, 600};
+      final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+      final long[] ranAt = new long[delays.length];
+      final CountDownLatch latch = new CountDownLatch(delays.length);
+
+      final long start = System.currentTimeMillis();
+      for (int i = 0; i < delays.length; i++) {
+        final int index = i;
+        svc.schedule(new Runnable() {
+          @Override
+          public void run() {
+            ranAt[index] = System.currentTimeMillis();
+            order.add(delays[index]);
+            latch.countDown();
+          }
+        }, TimeUnit.MILLISECONDS, delays[i]);
+      }
+
+      assertTrue("tasks did not run", latch.await(5, java.util.concurrent.TimeUnit.SECONDS));
+
+      for (int i = 0; i < delays.length; i++) {
+        final long late = ranAt[i] - start - delays[i];
+        assertTrue("task due after " + delays[i] + "ms ran early", late >= 0);
+        assertTrue("task due after " + delays[i] + "ms ran " + late + "ms late", late <= tickMillis);
+      }
+
+      final List<Integer> expected = new ArrayList<Integer>();
+      for (final int delay : delays) {
+        expected.add(delay);
+      }
+      Collections.sort(expected);
+      assertEquals(expected, order);
+    }
+    finally {
+      svc.requestStop();
+    }
+  }
+}
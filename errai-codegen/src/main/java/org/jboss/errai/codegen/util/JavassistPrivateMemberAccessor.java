@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.codegen.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.errai.codegen.DefParameters;
+import org.jboss.errai.codegen.Modifier;
+import org.jboss.errai.codegen.Parameter;
+import org.jboss.errai.codegen.builder.BlockBuilder;
+import org.jboss.errai.codegen.builder.CatchBlockBuilder;
+import org.jboss.errai.codegen.builder.ClassStructureBuilder;
+import org.jboss.errai.codegen.builder.ContextualStatementBuilder;
+import org.jboss.errai.codegen.meta.MetaClass;
+import org.jboss.errai.codegen.meta.MetaClassFactory;
+import org.jboss.errai.codegen.meta.MetaConstructor;
+import org.jboss.errai.codegen.meta.MetaField;
+import org.jboss.errai.codegen.meta.MetaMethod;
+import org.jboss.errai.common.server.util.MemberAccessors;
+import org.jboss.errai.common.server.util.MemberAccessors.ConstructorAccessor;
+import org.jboss.errai.common.server.util.MemberAccessors.FieldAccessor;
+import org.jboss.errai.common.server.util.MemberAccessors.MethodAccessor;
+
+/**
+ * Generates private member accessors which go through the {@link MemberAccessors} of the member, created once and
+ * kept in a static field of the generated class. Unlike the {@link ReflectionPrivateMemberAccessor}, package-private
+ * and protected members are then read, written and invoked by a generated class rather than through reflection.
+ * Private members still fall back to reflection.
+ *
+ * @author agent
+ */
+public class JavassistPrivateMemberAccessor implements PrivateMemberAccessor {
+  public static final String TYPE = "javassist";
+
+  private static String initCachedAccessor(final ClassStructureBuilder<?> classBuilder,
+                                           final String fieldName,
+                                           final Class<?> accessorType,
+                                           final ContextualStatementBuilder initializer) {
+
+    if (classBuilder.getClassDefinition().getField(fieldName) == null) {
+      classBuilder.privateField(fieldName, accessorType).modifiers(Modifier.Static)
+          .initializesWith(initializer).finish();
+    }
+    return fieldName;
+  }
+
+  public static String initCachedField(final ClassStructureBuilder<?> classBuilder, final MetaField f) {
+    return initCachedAccessor(classBuilder, PrivateAccessUtil.getPrivateFieldInjectorName(f) + "_acc",
+        FieldAccessor.class, Stmt.invokeStatic(MemberAccessors.class, "forField", f.getDeclaringClass(), f.getName()));
+  }
+
+  public static String initCachedMethod(final ClassStructureBuilder<?> classBuilder, final MetaMethod m) {
+    return initCachedAccessor(classBuilder, PrivateAccessUtil.getPrivateMethodName(m) + "_acc",
+        MethodAccessor.class, Stmt.invokeStatic(MemberAccessors.class, "forMethod",
+            m.getDeclaringClass(), m.getName(), MetaClassFactory.asClassArray(m.getParameters())));
+  }
+
+  public static String initCachedMethod(final ClassStructureBuilder<?> classBuilder, final MetaConstructor c) {
+    return initCachedAccessor(classBuilder, PrivateAccessUtil.getPrivateMethodName(c) + "_acc",
+        ConstructorAccessor.class, Stmt.invokeStatic(MemberAccessors.class, "forConstructor",
+            c.getDeclaringClass(), MetaClassFactory.asClassArray(c.getParameters())));
+  }
+
+  @Override
+  public void createWritableField(final MetaClass type,
+                                  final ClassStructureBuilder<?> classBuilder,
+                                  final MetaField field,
+                                  final Modifier[] modifiers) {
+
+    final String cachedAccessor = initCachedField(classBuilder, field);
+
+    final List<Parameter> parameters = new ArrayList<Parameter>();
+    if (!field.isStatic()) {
+      parameters.add(Parameter.of(field.getDeclaringClass().getErased(), "instance"));
+    }
+    parameters.add(Parameter.of(field.getType(), "value"));
+
+    classBuilder.privateMethod(void.class, PrivateAccessUtil.getPrivateFieldInjectorName(field))
+        .parameters(DefParameters.fromParameters(parameters))
+        .modifiers(modifiers)
+        .body()
+        ._(Stmt.loadVariable(cachedAccessor)
+            .invoke("set", field.isStatic() ? null : Refs.get("instance"), Refs.get("value")))
+        .finish();
+  }
+
+  @Override
+  public void createReadableField(final MetaClass type,
+                                  final ClassStructureBuilder<?> classBuilder,
+                                  final MetaField field,
+                                  final Modifier[] modifiers) {
+
+    final String cachedAccessor = initCachedField(classBuilder, field);
+
+    final List<Parameter> parameters = new ArrayList<Parameter>();
+    if (!field.isStatic()) {
+      parameters.add(Parameter.of(field.getDeclaringClass().getErased(), "instance"));
+    }
+
+    classBuilder.privateMethod(field.getType().getErased(), PrivateAccessUtil.getPrivateFieldInjectorName(field))
+        .parameters(DefParameters.fromParameters(parameters))
+        .modifiers(modifiers)
+        .body()
+        ._(Stmt.castTo(field.getType().getErased().asBoxed(), Stmt.loadVariable(cachedAccessor)
+            .invoke("get", field.isStatic() ? null : Refs.get("instance"))).returnValue())
+        .finish();
+  }
+
+  @Override
+  public void makeMethodAccessible(final ClassStructureBuilder<?> classBuilder,
+                                   final MetaMethod method,
+                                   final Modifier[] modifiers) {
+
+    final List<Parameter> wrapperDefParms = new ArrayList<Parameter>();
+
+    if (!method.isStatic()) {
+      wrapperDefParms.add(Parameter.of(method.getDeclaringClass().getErased(), "instance"));
+    }
+
+    final List<Parameter> methodDefParms = DefParameters.from(method).getParameters();
+    wrapperDefParms.addAll(methodDefParms);
+
+    final String cachedAccessor = initCachedMethod(classBuilder, method);
+
+    final BlockBuilder<? extends ClassStructureBuilder> body
+        = classBuilder.publicMethod(method.getReturnType(),
+        PrivateAccessUtil.getPrivateMethodName(method))
+        .parameters(DefParameters.fromParameters(wrapperDefParms))
+        .modifiers(modifiers)
+        .body();
+
+    final BlockBuilder<CatchBlockBuilder> tryBuilder = Stmt.try_();
+
+    final ContextualStatementBuilder statementBuilder = Stmt.loadVariable(cachedAccessor)
+        .invoke("invoke", method.isStatic() ? null : Refs.get("instance"), arguments(methodDefParms));
+
+    if (method.getReturnType().isVoid()) {
+      tryBuilder._(statementBuilder);
+    }
+    else {
+      tryBuilder._(Stmt.castTo(method.getReturnType().asBoxed(), statementBuilder).returnValue());
+    }
+
+    body._(tryBuilder
+        .finish()
+        .catch_(Throwable.class, "e")
+        ._(Stmt.loadVariable("e").invoke("printStackTrace"))
+        ._(Stmt.throw_(RuntimeException.class, Refs.get("e")))
+        .finish())
+        .finish();
+  }
+
+  @Override
+  public void makeConstructorAccessible(final ClassStructureBuilder<?> classBuilder,
+                                        final MetaConstructor constructor) {
+
+    final DefParameters methodDefParms = DefParameters.from(constructor);
+    final String cachedAccessor = initCachedMethod(classBuilder, constructor);
+
+    final BlockBuilder<? extends ClassStructureBuilder> body = classBuilder.publicMethod(constructor.getReturnType(),
+        PrivateAccessUtil.getPrivateMethodName(constructor))
+        .parameters(methodDefParms)
+        .modifiers(Modifier.Static)
+        .body();
+
+    body._(Stmt.try_()
+        ._(Stmt.nestedCall(Stmt.castTo(constructor.getReturnType(), Stmt.loadVariable(cachedAccessor)
+            .invoke("newInstance", arguments(methodDefParms.getParameters())))).returnValue())
+        .finish()
+        .catch_(Throwable.class, "e")
+        ._(Stmt.loadVariable("e").invoke("printStackTrace"))
+        ._(Stmt.throw_(RuntimeException.class, Refs.get("e")))
+        .finish())
+        .finish();
+  }
+
+  private static Object arguments(final List<Parameter> parameters) {
+    final Object[] args = new Object[parameters.size()];
+
+    int i = 0;
+    for (final Parameter p : parameters) {
+      args[i++] = Refs.get(p.getName());
+    }
+    return Stmt.newArray(Object.class).initialize(args);
+  }
+}
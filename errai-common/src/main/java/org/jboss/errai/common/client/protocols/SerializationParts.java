@@ -23,6 +23,8 @@ public class SerializationParts {
   public static final String INSTANTIATE_ONLY = "^InstantiateOnly";
   public static final String NUMERIC_VALUE = "^NumVal";
   public static final String QUALIFIED_VALUE = "^Value";
+  public static final String TYPE_TABLE = "^TypeTable";
+  public static final String ELEMENT_TYPE = "^ElementType";
 
  // public static final String VALUE = "Value";
 
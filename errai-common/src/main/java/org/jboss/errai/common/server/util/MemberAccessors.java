@@ -0,0 +1,408 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.common.server.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates accessors which read and write fields, and invoke methods and constructors, through classes generated with
+ * javassist rather than through reflection.
+ * <p/>
+ * An accessor class is defined in the package and class loader of the class declaring the member, which gives it
+ * access to public, protected and package-private members. Reflective accessors, with the member made accessible
+ * once, are returned instead for private and final members, for members whose declaring class or signature uses a
+ * private class or a package-private class of another package, for classes of the bootstrap class loader or of the
+ * <tt>java</tt> packages, and whenever the class loader does not see the accessor interfaces or refuses to define the
+ * class (for instance on a JVM which does not open <tt>ClassLoader.defineClass</tt>).
+ * <p/>
+ * Each call defines a new class, so accessors are meant to be created once per member and kept by the caller.
+ *
+ * @author agent
+ */
+public final class MemberAccessors {
+  private static final Logger log = LoggerFactory.getLogger(MemberAccessors.class);
+
+  private static final String CLASS_NAME_SUFFIX = "$$ErraiAccessor$";
+  private static final AtomicInteger classCounter = new AtomicInteger();
+
+  private MemberAccessors() {
+  }
+
+  /**
+   * Reads and writes a field. The instance is ignored for static fields.
+   */
+  public interface FieldAccessor {
+    public Object get(Object instance);
+
+    public void set(Object instance, Object value);
+  }
+
+  /**
+   * Invokes a method. The instance is ignored for static methods. Exceptions thrown by the method are thrown as they
+   * are, rather than wrapped in an {@link InvocationTargetException}.
+   */
+  public interface MethodAccessor {
+    public Object invoke(Object instance, Object[] args) throws Exception;
+  }
+
+  /**
+   * Invokes a constructor. Exceptions thrown by the constructor are thrown as they are, rather than wrapped in an
+   * {@link InvocationTargetException}.
+   */
+  public interface ConstructorAccessor {
+    public Object newInstance(Object[] args) throws Exception;
+  }
+
+  public static FieldAccessor forField(final Class<?> cls, final String name) {
+    try {
+      return forField(cls.getDeclaredField(name));
+    }
+    catch (NoSuchFieldException e) {
+      throw new RuntimeException("no field " + name + " in " + cls.getName(), e);
+    }
+  }
+
+  public static FieldAccessor forField(final Field field) {
+    final Class<?> declaringClass = field.getDeclaringClass();
+
+    if (!Modifier.isFinal(field.getModifiers())
+        && canGenerate(FieldAccessor.class, field, new Class<?>[]{field.getType()})) {
+
+      final String target = Modifier.isStatic(field.getModifiers())
+          ? typeName(declaringClass) : "((" + typeName(declaringClass) + ") $1)";
+
+      final FieldAccessor accessor = (FieldAccessor) generate(FieldAccessor.class, field,
+          "public Object get(Object instance) { return "
+              + box(field.getType(), target + "." + field.getName()) + "; }",
+          "public void set(Object instance, Object value) { "
+              + target + "." + field.getName() + " = " + unbox(field.getType(), "$2") + "; }");
+
+      if (accessor != null) {
+        return accessor;
+      }
+    }
+
+    field.setAccessible(true);
+    return new ReflectiveFieldAccessor(field);
+  }
+
+  public static MethodAccessor forMethod(final Class<?> cls, final String name, final Class<?>[] parameterTypes) {
+    try {
+      return forMethod(cls.getDeclaredMethod(name, parameterTypes));
+    }
+    catch (NoSuchMethodException e) {
+      throw new RuntimeException("no method " + name + " in " + cls.getName(), e);
+    }
+  }
+
+  public static MethodAccessor forMethod(final Method method) {
+    final Class<?> declaringClass = method.getDeclaringClass();
+    final Class<?>[] parameterTypes = method.getParameterTypes();
+
+    if (canGenerate(MethodAccessor.class, method, parameterTypes)) {
+      final String target = Modifier.isStatic(method.getModifiers())
+          ? typeName(declaringClass) : "((" + typeName(declaringClass) + ") $1)";
+      final String call = target + "." + method.getName() + "(" + arguments(parameterTypes, "$2") + ")";
+
+      final MethodAccessor accessor = (MethodAccessor) generate(MethodAccessor.class, method,
+          "public Object invoke(Object instance, Object[] args) throws Exception { "
+              + (method.getReturnType() == void.class
+              ? call + "; return null; }"
+              : "return " + box(method.getReturnType(), call) + "; }"));
+
+      if (accessor != null) {
+        return accessor;
+      }
+    }
+
+    method.setAccessible(true);
+    return new ReflectiveMethodAccessor(method);
+  }
+
+  public static ConstructorAccessor forConstructor(final Class<?> cls, final Class<?>[] parameterTypes) {
+    try {
+      return forConstructor(cls.getDeclaredConstructor(parameterTypes));
+    }
+    catch (NoSuchMethodException e) {
+      throw new RuntimeException("no constructor in " + cls.getName(), e);
+    }
+  }
+
+  public static ConstructorAccessor forConstructor(final Constructor<?> constructor) {
+    final Class<?> declaringClass = constructor.getDeclaringClass();
+    final Class<?>[] parameterTypes = constructor.getParameterTypes();
+
+    // inner classes take their enclosing instance as a hidden parameter, which cannot be passed in source.
+    final boolean innerClass = declaringClass.getEnclosingClass() != null
+        && !Modifier.isStatic(declaringClass.getModifiers());
+
+    if (!innerClass && !Modifier.isAbstract(declaringClass.getModifiers())
+        && canGenerate(ConstructorAccessor.class, constructor, parameterTypes)) {
+
+      final ConstructorAccessor accessor = (ConstructorAccessor) generate(ConstructorAccessor.class, constructor,
+          "public Object newInstance(Object[] args) throws Exception { return new "
+              + typeName(declaringClass) + "(" + arguments(parameterTypes, "$1") + "); }");
+
+      if (accessor != null) {
+        return accessor;
+      }
+    }
+
+    constructor.setAccessible(true);
+    return new ReflectiveConstructorAccessor(constructor);
+  }
+
+  /**
+   * Returns true if the specified accessor was generated, or false if it uses reflection.
+   */
+  public static boolean isGenerated(final Object accessor) {
+    return accessor.getClass().getName().contains(CLASS_NAME_SUFFIX);
+  }
+
+  private static boolean canGenerate(final Class<?> accessorType, final Member member, final Class<?>[] types) {
+    final Class<?> declaringClass = member.getDeclaringClass();
+    final ClassLoader loader = declaringClass.getClassLoader();
+
+    if (loader == null || declaringClass.getName().startsWith("java.")
+        || Modifier.isPrivate(member.getModifiers()) || !isAccessible(declaringClass, declaringClass)) {
+      return false;
+    }
+
+    for (final Class<?> type : types) {
+      if (!isAccessible(type, declaringClass)) {
+        return false;
+      }
+    }
+
+    try {
+      return Class.forName(accessorType.getName(), false, loader) == accessorType;
+    }
+    catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns true if a class in the package and class loader of <tt>from</tt> can refer to the specified type.
+   */
+  private static boolean isAccessible(final Class<?> type, final Class<?> from) {
+    Class<?> cls = type;
+    while (cls.isArray()) {
+      cls = cls.getComponentType();
+    }
+
+    for (; cls != null && !cls.isPrimitive(); cls = cls.getEnclosingClass()) {
+      final int modifiers = cls.getModifiers();
+
+      if (Modifier.isPrivate(modifiers)) {
+        return false;
+      }
+      if (!Modifier.isPublic(modifiers)
+          && (cls.getClassLoader() != from.getClassLoader() || !packageName(cls).equals(packageName(from)))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Object generate(final Class<?> accessorType, final Member member, final String... methods) {
+    final Class<?> declaringClass = member.getDeclaringClass();
+    final ClassLoader loader = declaringClass.getClassLoader();
+
+    final ClassPool pool = new ClassPool(true);
+    pool.insertClassPath(new LoaderClassPath(loader));
+
+    final CtClass ctClass
+        = pool.makeClass(declaringClass.getName() + CLASS_NAME_SUFFIX + classCounter.incrementAndGet());
+    try {
+      ctClass.addInterface(pool.get(accessorType.getName()));
+      ctClass.addConstructor(CtNewConstructor.defaultConstructor(ctClass));
+      for (final String method : methods) {
+        ctClass.addMethod(CtNewMethod.make(method, ctClass));
+      }
+
+      return ctClass.toClass(loader, declaringClass.getProtectionDomain()).newInstance();
+    }
+    catch (Exception e) {
+      log.debug("could not generate an accessor for " + member + ", using reflection", e);
+      return null;
+    }
+    catch (LinkageError e) {
+      log.debug("could not generate an accessor for " + member + ", using reflection", e);
+      return null;
+    }
+    finally {
+      ctClass.detach();
+    }
+  }
+
+  private static String arguments(final Class<?>[] parameterTypes, final String array) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(unbox(parameterTypes[i], array + "[" + i + "]"));
+    }
+    return sb.toString();
+  }
+
+  private static String box(final Class<?> type, final String expression) {
+    if (!type.isPrimitive()) {
+      return expression;
+    }
+    return wrapperType(type).getName() + ".valueOf(" + expression + ")";
+  }
+
+  private static String unbox(final Class<?> type, final String expression) {
+    if (!type.isPrimitive()) {
+      return "(" + typeName(type) + ") " + expression;
+    }
+    return "((" + wrapperType(type).getName() + ") " + expression + ")." + type.getName() + "Value()";
+  }
+
+  private static Class<?> wrapperType(final Class<?> type) {
+    if (type == int.class) {
+      return Integer.class;
+    }
+    else if (type == long.class) {
+      return Long.class;
+    }
+    else if (type == boolean.class) {
+      return Boolean.class;
+    }
+    else if (type == double.class) {
+      return Double.class;
+    }
+    else if (type == float.class) {
+      return Float.class;
+    }
+    else if (type == short.class) {
+      return Short.class;
+    }
+    else if (type == byte.class) {
+      return Byte.class;
+    }
+    else if (type == char.class) {
+      return Character.class;
+    }
+    throw new IllegalArgumentException("not a primitive type: " + type);
+  }
+
+  private static String typeName(final Class<?> type) {
+    if (type.isArray()) {
+      return typeName(type.getComponentType()) + "[]";
+    }
+    return type.getName();
+  }
+
+  private static String packageName(final Class<?> cls) {
+    final String name = cls.getName();
+    final int lastDot = name.lastIndexOf('.');
+    return lastDot == -1 ? "" : name.substring(0, lastDot);
+  }
+
+  private static Exception rethrow(final InvocationTargetException e) {
+    final Throwable cause = e.getCause();
+    if (cause instanceof Exception) {
+      return (Exception) cause;
+    }
+    else if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return e;
+  }
+
+  private static final class ReflectiveFieldAccessor implements FieldAccessor {
+    private final Field field;
+
+    private ReflectiveFieldAccessor(final Field field) {
+      this.field = field;
+    }
+
+    @Override
+    public Object get(final Object instance) {
+      try {
+        return field.get(instance);
+      }
+      catch (IllegalAccessException e) {
+        throw new RuntimeException("could not read field: " + field, e);
+      }
+    }
+
+    @Override
+    public void set(final Object instance, final Object value) {
+      try {
+        field.set(instance, value);
+      }
+      catch (IllegalAccessException e) {
+        throw new RuntimeException("could not write field: " + field, e);
+      }
+    }
+  }
+
+  private static final class ReflectiveMethodAccessor implements MethodAccessor {
+    private final Method method;
+
+    private ReflectiveMethodAccessor(final Method method) {
+      this.method = method;
+    }
+
+    @Override
+    public Object invoke(final Object instance, final Object[] args) throws Exception {
+      try {
+        return method.invoke(instance, args);
+      }
+      catch (InvocationTargetException e) {
+        throw rethrow(e);
+      }
+    }
+  }
+
+  private static final class ReflectiveConstructorAccessor implements ConstructorAccessor {
+    private final Constructor<?> constructor;
+
+    private ReflectiveConstructorAccessor(final Constructor<?> constructor) {
+      this.constructor = constructor;
+    }
+
+    @Override
+    public Object newInstance(final Object[] args) throws Exception {
+      try {
+        return constructor.newInstance(args);
+      }
+      catch (InvocationTargetException e) {
+        throw rethrow(e);
+      }
+    }
+  }
+}
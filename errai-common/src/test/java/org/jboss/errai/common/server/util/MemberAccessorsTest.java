@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.common.server.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.jboss.errai.common.server.util.MemberAccessors.ConstructorAccessor;
+import org.jboss.errai.common.server.util.MemberAccessors.FieldAccessor;
+import org.jboss.errai.common.server.util.MemberAccessors.MethodAccessor;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MemberAccessors}.
+ *
+ * @author agent
+ */
+public class MemberAccessorsTest {
+
+  public static class Entity {
+    static String label = "entity";
+
+    int count;
+    long[] values;
+    String name;
+    private Entity parent;
+    final char code = 'e';
+
+    public Entity() {
+    }
+
+    Entity(final String name, final int count) {
+      this.name = name;
+      this.count = count;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setName(final String name) {
+      this.name = name;
+    }
+
+    static Entity create(final String name) {
+      return new Entity(name, -1);
+    }
+
+    void fail(final String message) throws IOException {
+      throw new IOException(message);
+    }
+  }
+
+  @Test
+  public void testGeneratedFieldAccessors() {
+    final Entity entity = new Entity("a", 1);
+
+    final FieldAccessor count = MemberAccessors.forField(Entity.class, "count");
+    assertTrue(MemberAccessors.isGenerated(count));
+    assertEquals(1, count.get(entity));
+    count.set(entity, 42);
+    assertEquals(42, entity.count);
+
+    final FieldAccessor values = MemberAccessors.forField(Entity.class, "values");
+    assertTrue(MemberAccessors.isGenerated(values));
+    final long[] array = {1, 2, 3};
+    values.set(entity, array);
+    assertSame(array, values.get(entity));
+
+    final FieldAccessor name = MemberAccessors.forField(Entity.class, "name");
+    name.set(entity, null);
+    assertNull(name.get(entity));
+
+    final FieldAccessor label = MemberAccessors.forField(Entity.class, "label");
+    assertTrue(MemberAccessors.isGenerated(label));
+    assertEquals("entity", label.get(null));
+  }
+
+  @Test
+  public void testPrivateAndFinalFieldsUseReflection() {
+    final Entity entity = new Entity();
+    final Entity parent = new Entity();
+
+    final FieldAccessor parentField = MemberAccessors.forField(Entity.class, "parent");
+    assertFalse(MemberAccessors.isGenerated(parentField));
+    parentField.set(entity, parent);
+    assertSame(parent, parentField.get(entity));
+
+    final FieldAccessor code = MemberAccessors.forField(Entity.class, "code");
+    assertFalse(MemberAccessors.isGenerated(code));
+    assertEquals('e', code.get(entity));
+  }
+
+  @Test
+  public void testGeneratedMethodAccessors() throws Exception {
+    final Entity entity = new Entity("a", 7);
+
+    final MethodAccessor getCount = MemberAccessors.forMethod(Entity.class, "getCount", new Class[0]);
+    assertTrue(MemberAccessors.isGenerated(getCount));
+    assertEquals(7, getCount.invoke(entity, new Object[0]));
+
+    final MethodAccessor setName = MemberAccessors.forMethod(Entity.class, "setName", new Class[]{String.class});
+    assertNull(setName.invoke(entity, new Object[]{"b"}));
+    assertEquals("b", entity.name);
+
+    final MethodAccessor create = MemberAccessors.forMethod(Entity.class, "create", new Class[]{String.class});
+    assertTrue(MemberAccessors.isGenerated(create));
+    assertEquals("c", ((Entity) create.invoke(null, new Object[]{"c"})).name);
+  }
+
+  @Test
+  public void testMethodExceptionsAreNotWrapped() throws Exception {
+    final MethodAccessor fail = MemberAccessors.forMethod(Entity.class, "fail", new Class[]{String.class});
+    try {
+      fail.invoke(new Entity(), new Object[]{"boom"});
+      fail("expected an IOException");
+    }
+    catch (IOException e) {
+      assertEquals("boom", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGeneratedConstructorAccessor() throws Exception {
+    final ConstructorAccessor constructor
+        = MemberAccessors.forConstructor(Entity.class, new Class[]{String.class, int.class});
+    assertTrue(MemberAccessors.isGenerated(constructor));
+
+    final Entity entity = (Entity) constructor.newInstance(new Object[]{"d", 3});
+    assertEquals("d", entity.name);
+    assertEquals(3, entity.count);
+  }
+
+  @Test
+  public void testJavaClassesUseReflection() throws Exception {
+    final MethodAccessor toCharArray = MemberAccessors.forMethod(String.class, "toCharArray", new Class[0]);
+    assertFalse(MemberAccessors.isGenerated(toCharArray));
+    assertArrayEquals(new char[]{'a', 'b'}, (char[]) toCharArray.invoke("ab", new Object[0]));
+  }
+}
@@ -7,7 +7,8 @@ import java.util.Map;
  */
 public enum CommonConfigAttribs {
   LAZY_LOAD_BUILTIN_MARSHALLERS("errai.marshalling.lazy_load_builtin_marshallers", "true"),
-  MAKE_DEFAULT_ARRAY_MARSHALLERS("errai.marshalling.make_default_array_marshallers", "false");
+  MAKE_DEFAULT_ARRAY_MARSHALLERS("errai.marshalling.make_default_array_marshallers", "false"),
+  ENCODED_VALUE_CACHE_SIZE("errai.marshalling.encoded_value_cache_size", "1024");
 
   protected final String attributeName;
   protected final String defaultValue;
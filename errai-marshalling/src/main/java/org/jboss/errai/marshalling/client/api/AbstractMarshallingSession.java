@@ -16,25 +16,52 @@
 
 package org.jboss.errai.marshalling.client.api;
 
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.Map;
 
 import org.jboss.errai.common.client.api.Assert;
+import org.jboss.errai.marshalling.client.api.json.EJNumber;
+import org.jboss.errai.marshalling.client.api.json.EJString;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
 import org.jboss.errai.marshalling.client.util.MarshallUtil;
 
 /**
+ * Base class of the marshalling sessions. Object ids are kept in primitive tables: the objects encoded by the session
+ * are kept in an identity table keyed by the object, and the objects recorded by id are kept in an array indexed by
+ * the id, as long as the id is a small positive number (which all ids assigned by a session are). The tables are only
+ * allocated when first needed, and are kept by {@link #reset()}, so that a session which is reused for many payloads
+ * doesn't allocate anything for its bookkeeping once it has warmed up.
+ *
  * @author Mike Brock
  */
 public abstract class AbstractMarshallingSession implements MarshallingSession {
+  /**
+   * Ids up to this value are kept in the array of objects by id; any other ids are kept in a map.
+   */
+  private static final int MAX_INDEXED_ID = 1 << 16;
+
+  /**
+   * Tables larger than this are not retained by {@link #reset()}, so that one very large payload doesn't pin them.
+   */
+  private static final int MAX_RETAINED_TABLE = 4096;
+
   private final MappingContext context;
 
-  private final Map<Object, Integer> objects = new IdentityHashMap<Object, Integer>();
-  private final Map<String, Object> objectMap = new HashMap<String, Object>();
+  // the identity table of the encoded objects: open addressing with linear probing.
+  private Object[] refs;
+  private int[] refIds;
+  private int refCount;
+
+  private Object[] objectsById;
+  private int maxId;
+  private Map<String, Object> objectMap;
+  private String[] idStrings;
+
   private String assumedElementType = null;
   private String assumedMapKeyType = null;
   private String assumedMapValueType = null;
+  private TypeDictionary typeDictionary = null;
 
   protected AbstractMarshallingSession(final MappingContext context) {
     this.context = Assert.notNull(context);
@@ -79,40 +106,259 @@ public abstract class AbstractMarshallingSession implements MarshallingSession {
     return context;
   }
 
+  /**
+   * Returns the type dictionary of this session, or null if types are written as class names.
+   */
+  public TypeDictionary getTypeDictionary() {
+    return typeDictionary;
+  }
+
+  public void setTypeDictionary(final TypeDictionary typeDictionary) {
+    this.typeDictionary = typeDictionary;
+  }
+
+  /**
+   * Appends the {@link org.jboss.errai.common.client.protocols.SerializationParts#ENCODED_TYPE} value for the
+   * specified type: the quoted class name, or its numeric id if the session has a {@link TypeDictionary}.
+   *
+   * @param out
+   *          the buffer to append to.
+   * @param fqcn
+   *          fully qualified class name of the type being marshalled.
+   */
+  public void appendEncodedType(final StringBuilder out, final String fqcn) {
+    if (typeDictionary == null) {
+      out.append('"').append(fqcn).append('"');
+    }
+    else {
+      out.append(typeDictionary.getId(fqcn));
+    }
+  }
+
+  /**
+   * Returns the class name for an encoded
+   * {@link org.jboss.errai.common.client.protocols.SerializationParts#ENCODED_TYPE} value, which is either a class
+   * name or an id in the session's {@link TypeDictionary}. Returns null if the value is neither.
+   */
+  public String getEncodedType(final EJValue encodedType) {
+    if (encodedType == null || encodedType.isNull()) {
+      return null;
+    }
+
+    final EJString name = encodedType.isString();
+    if (name != null) {
+      return name.stringValue();
+    }
+
+    final EJNumber id = encodedType.isNumber();
+    if (id != null) {
+      if (typeDictionary == null) {
+        throw new RuntimeException("encountered type id " + id.intValue() + " in a payload without a type table");
+      }
+      return typeDictionary.getType(id.intValue());
+    }
+
+    return null;
+  }
+
   @Override
   public boolean hasObject(final String hashCode) {
-    return objectMap.containsKey(hashCode);
+    final int id = parseId(hashCode);
+    if (id > 0 && id <= MAX_INDEXED_ID) {
+      return objectsById != null && id < objectsById.length && objectsById[id] != null;
+    }
+    return objectMap != null && objectMap.containsKey(hashCode);
   }
 
   @Override
   public boolean hasObject(final Object reference) {
-    return reference != null && objects.containsKey(reference);
+    return reference != null && refCount != 0 && indexOf(reference) >= 0;
   }
 
   @Override
   public <T> T getObject(final Class<T> type, final String hashCode) {
-    return (T) objectMap.get(hashCode);
+    final int id = parseId(hashCode);
+    if (id > 0 && id <= MAX_INDEXED_ID) {
+      return objectsById != null && id < objectsById.length ? (T) objectsById[id] : null;
+    }
+    return objectMap != null ? (T) objectMap.get(hashCode) : null;
   }
 
   @Override
   public <T> T recordObject(final String hashCode, final T instance) {
     if ("-1".equals(hashCode)) return instance;
 
-    objectMap.put(hashCode, instance);
+    final int id = parseId(hashCode);
+    if (id > 0 && id <= MAX_INDEXED_ID) {
+      recordObject(id, instance);
+    }
+    else {
+      if (objectMap == null) {
+        objectMap = new HashMap<String, Object>();
+      }
+      objectMap.put(hashCode, instance);
+    }
 
     return instance;
   }
 
   @Override
   public String getObject(final Object reference) {
-    Integer i = objects.get(reference);
+    int id;
+    final int index = refCount != 0 ? indexOf(reference) : -1;
 
-    if (i == null) {
-      objects.put(reference, (i = objects.size() + 1));
-      recordObject(i.toString(), reference);
+    if (index >= 0) {
+      id = refIds[index];
+    }
+    else {
+      id = ++refCount;
+      addRef(reference, id);
+      recordObject(id, reference);
+    }
+
+    return idToString(id);
+  }
+
+  /**
+   * Clears all objects, the type dictionary and the assumed types of this session, so it can be used for another
+   * payload.
+   */
+  public void reset() {
+    if (refs != null) {
+      if (refs.length > MAX_RETAINED_TABLE) {
+        refs = null;
+        refIds = null;
+      }
+      else if (refCount != 0) {
+        Arrays.fill(refs, null);
+      }
+    }
+    refCount = 0;
+
+    if (objectsById != null) {
+      if (objectsById.length > MAX_RETAINED_TABLE) {
+        objectsById = null;
+      }
+      else if (maxId != 0) {
+        Arrays.fill(objectsById, 0, maxId + 1, null);
+      }
     }
+    maxId = 0;
 
-    return i.toString();
+    objectMap = null;
+    typeDictionary = null;
+    resetAssumedTypes();
+  }
+
+  private void recordObject(final int id, final Object instance) {
+    if (id > MAX_INDEXED_ID) {
+      if (objectMap == null) {
+        objectMap = new HashMap<String, Object>();
+      }
+      objectMap.put(String.valueOf(id), instance);
+      return;
+    }
+
+    if (objectsById == null) {
+      objectsById = new Object[Math.max(16, id + 1)];
+    }
+    else if (id >= objectsById.length) {
+      final Object[] newObjects = new Object[Math.max(objectsById.length * 2, id + 1)];
+      System.arraycopy(objectsById, 0, newObjects, 0, objectsById.length);
+      objectsById = newObjects;
+    }
+
+    objectsById[id] = instance;
+    if (id > maxId) {
+      maxId = id;
+    }
+  }
+
+  private int indexOf(final Object reference) {
+    final int mask = refs.length - 1;
+    int i = System.identityHashCode(reference) & mask;
+    Object ref;
+    while ((ref = refs[i]) != null) {
+      if (ref == reference) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void addRef(final Object reference, final int id) {
+    if (refs == null) {
+      refs = new Object[32];
+      refIds = new int[32];
+    }
+    else if (refCount * 2 > refs.length) {
+      final Object[] oldRefs = refs;
+      final int[] oldIds = refIds;
+      refs = new Object[oldRefs.length * 2];
+      refIds = new int[oldRefs.length * 2];
+      for (int i = 0; i < oldRefs.length; i++) {
+        if (oldRefs[i] != null) {
+          insertRef(oldRefs[i], oldIds[i]);
+        }
+      }
+    }
+    insertRef(reference, id);
+  }
+
+  private void insertRef(final Object reference, final int id) {
+    final int mask = refs.length - 1;
+    int i = System.identityHashCode(reference) & mask;
+    while (refs[i] != null) {
+      i = (i + 1) & mask;
+    }
+    refs[i] = reference;
+    refIds[i] = id;
+  }
+
+  private String idToString(final int id) {
+    if (id > MAX_RETAINED_TABLE) {
+      return String.valueOf(id);
+    }
+
+    if (idStrings == null || id >= idStrings.length) {
+      final String[] newStrings = new String[Math.min(MAX_RETAINED_TABLE + 1, Math.max(64, id * 2))];
+      if (idStrings != null) {
+        System.arraycopy(idStrings, 0, newStrings, 0, idStrings.length);
+      }
+      idStrings = newStrings;
+    }
+
+    String s = idStrings[id];
+    if (s == null) {
+      idStrings[id] = s = String.valueOf(id);
+    }
+    return s;
+  }
+
+  /**
+   * Returns the value of an id written as a positive decimal number (as the ids assigned by a session are), or -1 for
+   * any other id.
+   */
+  private static int parseId(final String hashCode) {
+    if (hashCode == null) {
+      return -1;
+    }
+
+    final int length = hashCode.length();
+    if (length == 0 || length > 9 || hashCode.charAt(0) == '0') {
+      return -1;
+    }
+
+    int id = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = hashCode.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      id = id * 10 + (c - '0');
+    }
+    return id;
   }
 
   @Override
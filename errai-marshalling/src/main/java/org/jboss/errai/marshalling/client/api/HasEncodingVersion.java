@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.errai.marshalling.client.api;
+
+/**
+ * Implemented by mutable {@link org.jboss.errai.marshalling.client.api.annotations.CacheEncoded} types, to invalidate
+ * their cached encoding whenever their state changes.
+ *
+ * @author agent
+ */
+public interface HasEncodingVersion {
+
+  /**
+   * Returns the version of the state of this object. The version must change whenever any state which is marshalled
+   * changes.
+   */
+  public long getEncodingVersion();
+}
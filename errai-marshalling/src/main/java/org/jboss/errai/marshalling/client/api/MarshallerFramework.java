@@ -111,7 +111,7 @@ public class MarshallerFramework implements EntryPoint {
       if (((EJValue) o).isObject() != null) {
         final EJObject jsonObject = ((EJValue) o).isObject();
         if (jsonObject.containsKey(SerializationParts.ENCODED_TYPE)) {
-          return jsonObject.get(SerializationParts.ENCODED_TYPE).isString().stringValue();
+          return getEncodedType(jsonObject.get(SerializationParts.ENCODED_TYPE));
         }
         else {
           return Map.class.getName();
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.client.api;
+
+/**
+ * A marshaller which can write its JSON representation straight into a buffer supplied by the caller, rather than
+ * returning it as a String. Marshallers of containers and beans use this to write nested values into their own output
+ * without first materializing every value as an intermediate String.
+ * <p/>
+ * Callers should not test for this interface themselves, but use
+ * {@link org.jboss.errai.marshalling.client.util.MarshallUtil#marshallTo(StringBuilder, Marshaller, Object,
+ * MarshallingSession)}, which falls back to {@link #marshall(Object, MarshallingSession)} for marshallers that don't
+ * support streaming.
+ *
+ * @author agent
+ */
+public interface StreamingMarshaller<T> extends Marshaller<T> {
+
+  /**
+   * Appends the JSON representation of the specified object to the specified buffer. The output must be identical to
+   * the String returned by {@link #marshall(Object, MarshallingSession)}.
+   *
+   * @param o
+   *     the object to marshall. May be null.
+   * @param ctx
+   *     the marshalling session.
+   * @param out
+   *     the buffer to append to.
+   */
+  void marshall(T o, MarshallingSession ctx, StringBuilder out);
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.client.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.errai.marshalling.client.api.json.EJArray;
+
+/**
+ * A table of the types written to a single payload. When an encoding session has a dictionary, objects carry the
+ * numeric id of their type in place of the fully qualified class name, and the table itself is written once, as the
+ * {@link org.jboss.errai.common.client.protocols.SerializationParts#TYPE_TABLE} of the enclosing envelope. Ids are
+ * assigned in the order types are first written, so the table is only complete once the payload has been marshalled.
+ *
+ * @author agent
+ */
+public class TypeDictionary {
+  private final Map<String, Integer> ids = new HashMap<String, Integer>();
+  private final List<String> types = new ArrayList<String>();
+
+  /**
+   * Returns the id of the specified type, adding it to the dictionary if it isn't in it yet.
+   */
+  public int getId(final String fqcn) {
+    Integer id = ids.get(fqcn);
+    if (id == null) {
+      ids.put(fqcn, id = types.size());
+      types.add(fqcn);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the type with the specified id.
+   *
+   * @throws IllegalArgumentException
+   *           if there is no type with this id.
+   */
+  public String getType(final int id) {
+    if (id < 0 || id >= types.size()) {
+      throw new IllegalArgumentException("unknown type id: " + id);
+    }
+    return types.get(id);
+  }
+
+  public List<String> getTypes() {
+    return Collections.unmodifiableList(types);
+  }
+
+  public boolean isEmpty() {
+    return types.isEmpty();
+  }
+
+  /**
+   * Writes the table as a JSON array of class names, in id order.
+   */
+  public void writeTable(final StringBuilder out) {
+    out.append('[');
+    for (int i = 0; i < types.size(); i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      out.append('"').append(types.get(i)).append('"');
+    }
+    out.append(']');
+  }
+
+  /**
+   * Reads a table written by {@link #writeTable(StringBuilder)}.
+   */
+  public static TypeDictionary readTable(final EJArray table) {
+    final TypeDictionary dictionary = new TypeDictionary();
+    for (int i = 0; i < table.size(); i++) {
+      dictionary.getId(table.get(i).isString().stringValue());
+    }
+    return dictionary;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.errai.marshalling.client.api.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Portable types annotated with this have their JSON encoding cached by the server when they are sent as a part of
+ * a message, so that an object which is published repeatedly (for instance, to many sessions or subjects) is only
+ * marshalled once. The cache is keyed by the identity of the object, so an annotated type should either be
+ * immutable, or implement {@link org.jboss.errai.marshalling.client.api.HasEncodingVersion} to tell the cache when
+ * its state has changed.
+ * <p/>
+ * The cached encoding is self-contained: objects it shares with other parts of the same message are not encoded as
+ * references to each other.
+ *
+ * @author agent
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CacheEncoded {
+}
@@ -17,15 +17,16 @@
 package org.jboss.errai.marshalling.client.marshallers;
 
 import org.jboss.errai.common.client.protocols.SerializationParts;
-import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.StreamingMarshaller;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.client.util.MarshallUtil;
 
 /**
  * @author Mike Brock
  */
-public abstract class AbstractBackReferencingMarshaller<C> implements Marshaller<C> {
+public abstract class AbstractBackReferencingMarshaller<C> implements StreamingMarshaller<C> {
 
   @Override
   public final String marshall(final C o, final MarshallingSession ctx) {
@@ -36,25 +37,44 @@ public abstract class AbstractBackReferencingMarshaller<C> implements Marshaller
     return marshall(o, o.getClass().getName(), ctx);
   }
 
+  @Override
+  public final void marshall(final C o, final MarshallingSession ctx, final StringBuilder out) {
+    if (o == null) {
+      out.append("null");
+      return;
+    }
+
+    marshall(o, o.getClass().getName(), ctx, out);
+  }
+
   public final String marshall(final C o, final String encodedType, final MarshallingSession ctx) {
     if (o == null) {
       return "null";
     }
 
+    final StringBuilder buf = new StringBuilder();
+    marshall(o, encodedType, ctx, buf);
+    return buf.toString();
+  }
+
+  public final void marshall(final C o, final String encodedType, final MarshallingSession ctx,
+                             final StringBuilder out) {
+    if (o == null) {
+      out.append("null");
+      return;
+    }
+
     final boolean isNew = !ctx.hasObject(o);
     final String objId = ctx.getObject(o);
 
-    final StringBuilder buf = new StringBuilder("{\"").append(SerializationParts.ENCODED_TYPE).append("\":\"")
-            .append(encodedType).append("\",\"").append(SerializationParts.OBJECT_ID).append("\":\"")
-            .append(objId).append("\"");
+    out.append("{\"").append(SerializationParts.ENCODED_TYPE).append("\":");
+    MarshallUtil.appendEncodedType(out, encodedType, ctx);
+    out.append(",\"").append(SerializationParts.OBJECT_ID).append("\":\"").append(objId).append("\"");
 
-    if (!isNew) {
-      return buf.append("}").toString();
-    }
-    else {
-      doMarshall(buf.append(",\"").append(SerializationParts.QUALIFIED_VALUE).append("\":"), o, ctx);
-      return buf.append("}").toString();
+    if (isNew) {
+      doMarshall(out.append(",\"").append(SerializationParts.QUALIFIED_VALUE).append("\":"), o, ctx);
     }
+    out.append("}");
   }
 
   public abstract void doMarshall(StringBuilder buf, C o, MarshallingSession ctx);
@@ -25,6 +25,7 @@ import org.jboss.errai.marshalling.client.api.json.EJArray;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
 import org.jboss.errai.marshalling.client.util.EncDecUtil;
+import org.jboss.errai.marshalling.client.util.PrimitiveArrays;
 
 /**
  * @author Mike Brock
@@ -34,7 +35,15 @@ public abstract class AbstractCollectionMarshaller<C extends Collection> extends
 
   @Override
   public void doMarshall(final StringBuilder buf, final C o, final MarshallingSession ctx) {
-    EncDecUtil.arrayMarshall(buf, o, ctx);
+    final String elementType = PrimitiveArrays.getCompactElementType(o);
+    if (elementType != null) {
+      // a collection of one boxed primitive type is written as a plain array, followed by the element type.
+      PrimitiveArrays.marshallCompact(buf, o);
+      buf.append(",\"").append(SerializationParts.ELEMENT_TYPE).append("\":\"").append(elementType).append('"');
+    }
+    else {
+      EncDecUtil.arrayMarshall(buf, o, ctx);
+    }
   }
 
   @Override
@@ -44,6 +53,9 @@ public abstract class AbstractCollectionMarshaller<C extends Collection> extends
     final EJObject obj = o.isObject();
 
     if (obj != null) {
+      if (obj.containsKey(SerializationParts.ELEMENT_TYPE)) {
+        ctx.setAssumedElementType(obj.get(SerializationParts.ELEMENT_TYPE).isString().stringValue());
+      }
       final EJValue val = obj.get(SerializationParts.QUALIFIED_VALUE);
       return doDemarshall(val.isArray(), ctx);
     }
@@ -72,6 +84,10 @@ public abstract class AbstractCollectionMarshaller<C extends Collection> extends
             type = assumedElementType;
           }
         }
+        else if (PrimitiveArrays.isCompactElementType(assumedElementType)) {
+          // elements of compactly encoded collections are plain values.
+          type = assumedElementType;
+        }
 
         if (type == null) {
           type = ctx.determineTypeFor(null, elem);
@@ -20,9 +20,14 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.jboss.errai.common.client.protocols.MessageParts;
+import org.jboss.errai.common.client.protocols.SerializationParts;
 import org.jboss.errai.marshalling.client.Marshalling;
+import org.jboss.errai.marshalling.client.api.AbstractMarshallingSession;
+import org.jboss.errai.marshalling.client.api.EncodedValueCache;
 import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.StreamingMarshaller;
+import org.jboss.errai.marshalling.client.api.TypeDictionary;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
 import org.jboss.errai.marshalling.client.util.MarshallUtil;
@@ -31,9 +36,18 @@ import org.jboss.errai.marshalling.client.util.MarshallUtil;
  * @author Mike Brock
  * @author Christian Sadilek <csadilek@redhat.com>
  */
-public class ErraiProtocolEnvelopeMarshaller implements Marshaller<Map<String, Object>> {
+public class ErraiProtocolEnvelopeMarshaller implements StreamingMarshaller<Map<String, Object>> {
   public static final ErraiProtocolEnvelopeMarshaller INSTANCE = new ErraiProtocolEnvelopeMarshaller();
 
+  private static EncodedValueCache encodedValueCache;
+
+  /**
+   * Sets the cache which provides the encodings of cacheable part values, or null for none.
+   */
+  public static void setEncodedValueCache(final EncodedValueCache cache) {
+    encodedValueCache = cache;
+  }
+
   @Override
   public Map<String, Object> demarshall(final EJValue o, final MarshallingSession ctx) {
     return doDemarshall(new HashMap<String, Object>(), o, ctx);
@@ -43,9 +57,10 @@ public class ErraiProtocolEnvelopeMarshaller implements Marshaller<Map<String, O
                                              final EJValue o,
                                              final MarshallingSession ctx) {
     final EJObject jsonObject = o.isObject();
+    readTypeTable(jsonObject, ctx);
 
     for (final String key : jsonObject.keySet()) {
-      if (MessageParts.SessionID.name().equals(key))
+      if (MessageParts.SessionID.name().equals(key) || SerializationParts.TYPE_TABLE.equals(key))
         continue;
       final EJValue v = jsonObject.get(key);
       if (!v.isNull()) {
@@ -71,7 +86,12 @@ public class ErraiProtocolEnvelopeMarshaller implements Marshaller<Map<String, O
   @Override
   public String marshall(final Map<String, Object> o, final MarshallingSession ctx) {
     final StringBuilder buf = new StringBuilder();
+    marshall(o, ctx, buf);
+    return buf.toString();
+  }
 
+  @Override
+  public void marshall(final Map<String, Object> o, final MarshallingSession ctx, final StringBuilder buf) {
     buf.append("{");
     Object key, val;
     int i = 0;
@@ -93,6 +113,14 @@ public class ErraiProtocolEnvelopeMarshaller implements Marshaller<Map<String, O
         buf.append("null");
       }
       else {
+        if (encodedValueCache != null) {
+          final String encoded = encodedValueCache.getEncoded(val);
+          if (encoded != null) {
+            buf.append(encoded);
+            continue;
+          }
+        }
+
         if (Marshalling.needsQualification(val)) {
           valueMarshaller = MarshallUtil.getQualifiedNumberMarshaller(val);
         }
@@ -100,11 +128,39 @@ public class ErraiProtocolEnvelopeMarshaller implements Marshaller<Map<String, O
           valueMarshaller = MarshallUtil.getMarshaller(val, ctx);
         }
         
-        buf.append(valueMarshaller.marshall(MarshallUtil.maybeUnwrap(val), ctx));
+        MarshallUtil.marshallTo(buf, valueMarshaller, MarshallUtil.maybeUnwrap(val), ctx);
       }
     }
 
-    return buf.append("}").toString();
+    writeTypeTable(buf, ctx, i > 0);
+    buf.append("}");
+  }
+
+  /**
+   * Appends the type table of the session, if it has a {@link TypeDictionary} and any types were written. The table
+   * has to be the last member of the envelope, as it's only complete once all the parts have been marshalled.
+   */
+  static void writeTypeTable(final StringBuilder buf, final MarshallingSession ctx, final boolean hasParts) {
+    final TypeDictionary dictionary = ctx instanceof AbstractMarshallingSession
+        ? ((AbstractMarshallingSession) ctx).getTypeDictionary() : null;
+    if (dictionary != null && !dictionary.isEmpty()) {
+      if (hasParts) {
+        buf.append(",");
+      }
+      buf.append("\"").append(SerializationParts.TYPE_TABLE).append("\":");
+      dictionary.writeTable(buf);
+    }
+  }
+
+  /**
+   * Sets up the session to resolve type ids against the type table of the envelope, if it has one. Sessions which
+   * don't support a {@link TypeDictionary} are left as they are, and fail on the first type id they encounter.
+   */
+  static void readTypeTable(final EJObject jsonObject, final MarshallingSession ctx) {
+    if (ctx instanceof AbstractMarshallingSession && jsonObject.containsKey(SerializationParts.TYPE_TABLE)) {
+      ((AbstractMarshallingSession) ctx)
+          .setTypeDictionary(TypeDictionary.readTable(jsonObject.get(SerializationParts.TYPE_TABLE).isArray()));
+    }
   }
 
   @Override
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.jboss.errai.common.client.api.WrappedPortable;
+import org.jboss.errai.common.client.protocols.SerializationParts;
 import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
@@ -45,7 +46,12 @@ public class ErraiProtocolEnvelopeNoAutoMarshaller implements Marshaller<Map<Str
     if (jsonObject == null)
       return null;
 
+    ErraiProtocolEnvelopeMarshaller.readTypeTable(jsonObject, ctx);
+
     for (final String key : jsonObject.keySet()) {
+      if (SerializationParts.TYPE_TABLE.equals(key))
+        continue;
+
       final EJValue v = jsonObject.get(key);
       if (!v.isNull()) {
         final String type = ctx.determineTypeFor(null, v);
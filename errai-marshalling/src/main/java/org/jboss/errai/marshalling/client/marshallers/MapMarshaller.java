@@ -27,6 +27,7 @@ import org.jboss.errai.common.client.protocols.SerializationParts;
 import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
 import org.jboss.errai.marshalling.client.api.ParserFactory;
+import org.jboss.errai.marshalling.client.api.StreamingMarshaller;
 import org.jboss.errai.marshalling.client.api.annotations.AlwaysQualify;
 import org.jboss.errai.marshalling.client.api.annotations.ClientMarshaller;
 import org.jboss.errai.marshalling.client.api.annotations.ImplementationAliases;
@@ -43,7 +44,7 @@ import org.jboss.errai.marshalling.client.util.MarshallUtil;
 @ServerMarshaller(Map.class)
 @AlwaysQualify
 @ImplementationAliases({AbstractMap.class, HashMap.class})
-public class MapMarshaller<T extends Map<Object, Object>> implements Marshaller<T> {
+public class MapMarshaller<T extends Map<Object, Object>> implements StreamingMarshaller<T> {
   public static final MapMarshaller INSTANCE = new MapMarshaller();
 
   @Override
@@ -152,6 +153,12 @@ public class MapMarshaller<T extends Map<Object, Object>> implements Marshaller<
   @Override
   public String marshall(final T o, final MarshallingSession ctx) {
     final StringBuilder buf = new StringBuilder();
+    marshall(o, ctx, buf);
+    return buf.toString();
+  }
+
+  @Override
+  public void marshall(final T o, final MarshallingSession ctx, final StringBuilder buf) {
     buf.append("{");
     int i = 0;
     for (final Map.Entry<Object, Object> entry : o.entrySet()) {
@@ -193,10 +200,10 @@ public class MapMarshaller<T extends Map<Object, Object>> implements Marshaller<
         else {
           valueMarshaller = MarshallUtil.getMarshaller(entry.getValue(), ctx);
         }
-        buf.append(valueMarshaller.marshall(MarshallUtil.maybeUnwrap(entry.getValue()), ctx));
+        MarshallUtil.marshallTo(buf, valueMarshaller, MarshallUtil.maybeUnwrap(entry.getValue()), ctx);
       }
     }
 
-    return buf.append("}").toString();
+    buf.append("}");
   }
 }
\ No newline at end of file
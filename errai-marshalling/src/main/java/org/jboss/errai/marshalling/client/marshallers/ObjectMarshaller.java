@@ -18,6 +18,7 @@ package org.jboss.errai.marshalling.client.marshallers;
 
 import org.jboss.errai.common.client.protocols.SerializationParts;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.StreamingMarshaller;
 import org.jboss.errai.marshalling.client.api.annotations.ClientMarshaller;
 import org.jboss.errai.marshalling.client.api.annotations.ServerMarshaller;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
@@ -35,7 +36,7 @@ import java.util.List;
  */
 @ClientMarshaller(Object.class)
 @ServerMarshaller(Object.class)
-public class ObjectMarshaller extends AbstractNullableMarshaller<Object> {
+public class ObjectMarshaller extends AbstractNullableMarshaller<Object> implements StreamingMarshaller<Object> {
   @Override
   public Object[] getEmptyArray() {
     return new Object[0];
@@ -48,11 +49,7 @@ public class ObjectMarshaller extends AbstractNullableMarshaller<Object> {
 
     if (o.isObject() != null) {
       final EJObject jsObject = o.isObject();
-      final EJValue ejEncType = jsObject.get(SerializationParts.ENCODED_TYPE);
-      String encodedType = null;
-      if (!ejEncType.isNull() && ejEncType.isString() != null) {
-        encodedType = ejEncType.isString().stringValue();
-      }
+      final String encodedType = MarshallUtil.getEncodedType(jsObject.get(SerializationParts.ENCODED_TYPE), ctx);
 
       if (encodedType == null) {
         if (targetType == null) {
@@ -106,14 +103,27 @@ public class ObjectMarshaller extends AbstractNullableMarshaller<Object> {
 
   @Override
   public String doNotNullMarshall(final Object o, final MarshallingSession ctx) {
+    final StringBuilder buf = new StringBuilder();
+    marshall(o, ctx, buf);
+    return buf.toString();
+  }
+
+  @Override
+  public void marshall(final Object o, final MarshallingSession ctx, final StringBuilder out) {
+    if (o == null) {
+      out.append("null");
+      return;
+    }
+
     if ((o instanceof Number && !o.getClass().getName().startsWith("java.math.Big")) || o instanceof Boolean) {
-      return NumbersUtils.qualifiedNumericEncoding(o);
+      out.append(NumbersUtils.qualifiedNumericEncoding(o));
+      return;
     }
 
     if (MarshallUtil.getMarshaller(o, ctx) == null) {
       throw new RuntimeException("marshalled type is unknown to the marshalling framework: " + o.getClass().getName());
     }
 
-    return MarshallUtil.getMarshaller(o, ctx).marshall(o, ctx);
+    MarshallUtil.marshallTo(out, MarshallUtil.getMarshaller(o, ctx), o, ctx);
   }
 }
@@ -20,8 +20,10 @@ import org.jboss.errai.common.client.protocols.SerializationParts;
 import org.jboss.errai.common.client.util.Base64Util;
 import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.StreamingMarshaller;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.client.util.MarshallUtil;
 
 /**
  * Used to wrap marshallers annotated with {@link org.jboss.errai.marshalling.client.api.annotations.AlwaysQualify}
@@ -29,7 +31,7 @@ import org.jboss.errai.marshalling.client.api.json.EJValue;
  * @author Mike Brock
  * @author Christian Sadilek <csadilek@redhat.com>
  */
-public class QualifyingMarshallerWrapper<T> extends AbstractNullableMarshaller<T> {
+public class QualifyingMarshallerWrapper<T> extends AbstractNullableMarshaller<T> implements StreamingMarshaller<T> {
   private final Marshaller<T> delegate;
   private final Class<T> type;
 
@@ -78,19 +80,28 @@ public class QualifyingMarshallerWrapper<T> extends AbstractNullableMarshaller<T
 
   @Override
   public String doNotNullMarshall(final T o, final MarshallingSession ctx) {
+    final StringBuilder buf = new StringBuilder();
+    marshall(o, ctx, buf);
+    return buf.toString();
+  }
+
+  @Override
+  public void marshall(final T o, final MarshallingSession ctx, final StringBuilder out) {
+    if (o == null) {
+      out.append("null");
+      return;
+    }
+
     final boolean isNew = !ctx.hasObject(o);
 
-    final StringBuilder buf = new StringBuilder("{\"").append(SerializationParts.ENCODED_TYPE).append("\":\"")
-            .append(o.getClass().getName()).append("\",\"").append(SerializationParts.OBJECT_ID).append("\":\"")
-            .append(ctx.getObject(o)).append("\"");
+    out.append("{\"").append(SerializationParts.ENCODED_TYPE).append("\":");
+    MarshallUtil.appendEncodedType(out, o.getClass().getName(), ctx);
+    out.append(",\"").append(SerializationParts.OBJECT_ID).append("\":\"").append(ctx.getObject(o)).append("\"");
 
-    if (!isNew) {
-      return buf.append("}").toString();
-    }
-    else {
-      return buf.append(",\"").append(SerializationParts.QUALIFIED_VALUE).append("\":").append(
-          delegate.marshall(o, ctx))
-              .append("}").toString();
+    if (isNew) {
+      out.append(",\"").append(SerializationParts.QUALIFIED_VALUE).append("\":");
+      MarshallUtil.marshallTo(out, delegate, o, ctx);
     }
+    out.append("}");
   }
 }
@@ -17,6 +17,9 @@
 package org.jboss.errai.marshalling.client.protocols;
 
 import org.jboss.errai.marshalling.client.MarshallingSessionProviderFactory;
+import org.jboss.errai.marshalling.client.api.AbstractMarshallingSession;
+import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.TypeDictionary;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
 import org.jboss.errai.marshalling.client.marshallers.ErraiProtocolEnvelopeMarshaller;
 
@@ -40,6 +43,49 @@ public class ErraiProtocol {
     return protocolMarshaller.marshall(message, MarshallingSessionProviderFactory.getEncoding());
   }
 
+  /**
+   * Encode a standard Errai Protocol payload of the key-value pairs to be sent across the wire, appending the JSON to
+   * the specified buffer.
+   *
+   * @param out     The buffer to append the encoded JSON to.
+   * @param message A map of the key-value pairs to be encoded.
+   */
+  public static void encodePayload(final StringBuilder out, final Map<String, Object> message) {
+    protocolMarshaller.marshall(message, MarshallingSessionProviderFactory.getEncoding(), out);
+  }
+
+  /**
+   * Encode a standard Errai Protocol payload, optionally writing the types of the encoded objects as ids into a
+   * type table carried by the payload (see {@link TypeDictionary}). Type ids may only be used if the receiving bus
+   * has advertised that it understands them.
+   *
+   * @param message        A map of the key-value pairs to be encoded.
+   * @param typeDictionary Whether or not to write the types of the encoded objects as ids.
+   * @return The encoded JSON
+   */
+  public static String encodePayload(final Map<String, Object> message, final boolean typeDictionary) {
+    final StringBuilder out = new StringBuilder();
+    encodePayload(out, message, typeDictionary);
+    return out.toString();
+  }
+
+  /**
+   * Encode a standard Errai Protocol payload, optionally writing the types of the encoded objects as ids, appending
+   * the JSON to the specified buffer.
+   *
+   * @param out            The buffer to append the encoded JSON to.
+   * @param message        A map of the key-value pairs to be encoded.
+   * @param typeDictionary Whether or not to write the types of the encoded objects as ids.
+   */
+  public static void encodePayload(final StringBuilder out, final Map<String, Object> message,
+                                   final boolean typeDictionary) {
+    final MarshallingSession session = MarshallingSessionProviderFactory.getEncoding();
+    if (typeDictionary && session instanceof AbstractMarshallingSession) {
+      ((AbstractMarshallingSession) session).setTypeDictionary(new TypeDictionary());
+    }
+    protocolMarshaller.marshall(message, session, out);
+  }
+
   /**
    * Decode a standard Errai Protocol payload to a Map of key value pairs.
    *
@@ -18,8 +18,10 @@ package org.jboss.errai.marshalling.client.util;
 
 import org.jboss.errai.common.client.api.WrappedPortable;
 import org.jboss.errai.common.client.protocols.SerializationParts;
+import org.jboss.errai.marshalling.client.api.AbstractMarshallingSession;
 import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.StreamingMarshaller;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
 import org.jboss.errai.marshalling.client.marshallers.FallbackExceptionMarshaller;
@@ -52,6 +54,63 @@ public class MarshallUtil {
     };
   }
 
+  /**
+   * Appends the JSON representation of the specified object to the specified buffer. Marshallers which implement
+   * {@link StreamingMarshaller} write into the buffer directly; for all others, the String returned by the marshaller
+   * is appended.
+   *
+   * @param out
+   *     the buffer to append to.
+   * @param marshaller
+   *     the marshaller to use.
+   * @param o
+   *     the object to marshall. May be null.
+   * @param ctx
+   *     the marshalling session.
+   */
+  @SuppressWarnings("unchecked")
+  public static void marshallTo(final StringBuilder out, final Marshaller marshaller, final Object o,
+                                final MarshallingSession ctx) {
+    if (marshaller instanceof StreamingMarshaller) {
+      ((StreamingMarshaller) marshaller).marshall(o, ctx, out);
+    }
+    else {
+      out.append(marshaller.marshall(o, ctx));
+    }
+  }
+
+  /**
+   * Appends the {@link SerializationParts#ENCODED_TYPE} value for the specified type: its id if the session writes
+   * types through a {@link org.jboss.errai.marshalling.client.api.TypeDictionary}, or the quoted class name otherwise.
+   */
+  public static void appendEncodedType(final StringBuilder out, final String fqcn, final MarshallingSession ctx) {
+    if (ctx instanceof AbstractMarshallingSession) {
+      ((AbstractMarshallingSession) ctx).appendEncodedType(out, fqcn);
+    }
+    else {
+      out.append('"').append(fqcn).append('"');
+    }
+  }
+
+  /**
+   * Returns the class name for an encoded {@link SerializationParts#ENCODED_TYPE} value, resolving type ids against
+   * the {@link org.jboss.errai.marshalling.client.api.TypeDictionary} of the session. Returns null if the value is
+   * neither a class name nor an id.
+   */
+  public static String getEncodedType(final EJValue encodedType, final MarshallingSession ctx) {
+    if (ctx instanceof AbstractMarshallingSession) {
+      return ((AbstractMarshallingSession) ctx).getEncodedType(encodedType);
+    }
+    if (encodedType == null || encodedType.isNull()) {
+      return null;
+    }
+    if (encodedType.isNumber() != null) {
+      throw new RuntimeException("encountered type id " + encodedType.isNumber().intValue()
+          + " in a session without a type dictionary");
+    }
+    return encodedType.isString() != null ? encodedType.isString().stringValue() : null;
+  }
+
   public static String jsonStringEscape(final String s) {
     final StringBuilder sb = new StringBuilder(s.length());
     for (int i = 0; i < s.length(); i++) {
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.client.util;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.jboss.errai.common.client.protocols.SerializationParts;
+import org.jboss.errai.marshalling.client.api.json.EJArray;
+import org.jboss.errai.marshalling.client.api.json.EJObject;
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+
+/**
+ * Compact encoding of primitive arrays and of collections holding only one boxed primitive type. Elements are written
+ * as plain JSON values without per-element type qualification: numbers as numbers, except for longs (which a
+ * JavaScript number can't represent exactly) and non-finite floating point values, which are written as strings, and
+ * chars as one character strings. The decoders also accept the qualified element encoding of earlier versions.
+ * <p/>
+ * The methods for each primitive type have distinct names, so that generated marshallers can call them without
+ * relying on overload resolution.
+ *
+ * @author agent
+ */
+public class PrimitiveArrays {
+  private PrimitiveArrays() {
+  }
+
+  public static String marshallInts(final int[] a) {
+    final StringBuilder sb = new StringBuilder(a.length * 4 + 2).append('[');
+    for (int i = 0; i < a.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(a[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  public static String marshallLongs(final long[] a) {
+    final StringBuilder sb = new StringBuilder(a.length * 8 + 2).append('[');
+    for (int i = 0; i < a.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append('"').append(a[i]).append('"');
+    }
+    return sb.append(']').toString();
+  }
+
+  public static String marshallDoubles(final double[] a) {
+    final StringBuilder sb = new StringBuilder(a.length * 8 + 2).append('[');
+    for (int i = 0; i < a.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      appendDouble(sb, a[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  public static String marshallFloats(final float[] a) {
+    final StringBuilder sb = new StringBuilder(a.length * 8 + 2).append('[');
+    for (int i = 0; i < a.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      appendFloat(sb, a[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  public static String marshallShorts(final short[] a) {
+    final StringBuilder sb = new StringBuilder(a.length * 4 + 2).append('[');
+    for (int i = 0; i < a.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(a[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  public static String marshallBytes(final byte[] a) {
+    final StringBuilder sb = new StringBuilder(a.length * 4 + 2).append('[');
+    for (int i = 0; i < a.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(a[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  public static String marshallChars(final char[] a) {
+    final StringBuilder sb = new StringBuilder(a.length * 4 + 2).append('[');
+    for (int i = 0; i < a.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      appendChar(sb, a[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  public static String marshallBooleans(final boolean[] a) {
+    final StringBuilder sb = new StringBuilder(a.length * 6 + 2).append('[');
+    for (int i = 0; i < a.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(a[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  public static int[] demarshallInts(final EJArray a) {
+    final int[] result = new int[a.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = unqualify(a.get(i)).isNumber().intValue();
+    }
+    return result;
+  }
+
+  public static long[] demarshallLongs(final EJArray a) {
+    final long[] result = new long[a.size()];
+    for (int i = 0; i < result.length; i++) {
+      final EJValue v = unqualify(a.get(i));
+      if (v.isString() != null) {
+        result[i] = Long.parseLong(v.isString().stringValue());
+      }
+      else {
+        result[i] = (long) v.isNumber().doubleValue();
+      }
+    }
+    return result;
+  }
+
+  public static double[] demarshallDoubles(final EJArray a) {
+    final double[] result = new double[a.size()];
+    for (int i = 0; i < result.length; i++) {
+      final EJValue v = unqualify(a.get(i));
+      if (v.isString() != null) {
+        result[i] = Double.parseDouble(v.isString().stringValue());
+      }
+      else {
+        result[i] = v.isNumber().doubleValue();
+      }
+    }
+    return result;
+  }
+
+  public static float[] demarshallFloats(final EJArray a) {
+    final float[] result = new float[a.size()];
+    for (int i = 0; i < result.length; i++) {
+      final EJValue v = unqualify(a.get(i));
+      if (v.isString() != null) {
+        result[i] = Float.parseFloat(v.isString().stringValue());
+      }
+      else {
+        result[i] = v.isNumber().floatValue();
+      }
+    }
+    return result;
+  }
+
+  public static short[] demarshallShorts(final EJArray a) {
+    final short[] result = new short[a.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = unqualify(a.get(i)).isNumber().shortValue();
+    }
+    return result;
+  }
+
+  public static byte[] demarshallBytes(final EJArray a) {
+    final byte[] result = new byte[a.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = unqualify(a.get(i)).isNumber().byteValue();
+    }
+    return result;
+  }
+
+  public static char[] demarshallChars(final EJArray a) {
+    final char[] result = new char[a.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = unqualify(a.get(i)).isString().stringValue().charAt(0);
+    }
+    return result;
+  }
+
+  public static boolean[] demarshallBooleans(final EJArray a) {
+    final boolean[] result = new boolean[a.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = unqualify(a.get(i)).isBoolean().booleanValue();
+    }
+    return result;
+  }
+
+  /**
+   * Marshalls a one-dimensional array of any primitive type.
+   */
+  public static String marshall(final Object array) {
+    if (array instanceof int[]) {
+      return marshallInts((int[]) array);
+    }
+    else if (array instanceof long[]) {
+      return marshallLongs((long[]) array);
+    }
+    else if (array instanceof double[]) {
+      return marshallDoubles((double[]) array);
+    }
+    else if (array instanceof float[]) {
+      return marshallFloats((float[]) array);
+    }
+    else if (array instanceof short[]) {
+      return marshallShorts((short[]) array);
+    }
+    else if (array instanceof byte[]) {
+      return marshallBytes((byte[]) array);
+    }
+    else if (array instanceof char[]) {
+      return marshallChars((char[]) array);
+    }
+    else if (array instanceof boolean[]) {
+      return marshallBooleans((boolean[]) array);
+    }
+    throw new IllegalArgumentException("not a primitive array: " + array);
+  }
+
+  /**
+   * Demarshalls a one-dimensional array of the specified primitive type.
+   */
+  public static Object demarshall(final Class<?> componentType, final EJArray a) {
+    if (componentType == int.class) {
+      return demarshallInts(a);
+    }
+    else if (componentType == long.class) {
+      return demarshallLongs(a);
+    }
+    else if (componentType == double.class) {
+      return demarshallDoubles(a);
+    }
+    else if (componentType == float.class) {
+      return demarshallFloats(a);
+    }
+    else if (componentType == short.class) {
+      return demarshallShorts(a);
+    }
+    else if (componentType == byte.class) {
+      return demarshallBytes(a);
+    }
+    else if (componentType == char.class) {
+      return demarshallChars(a);
+    }
+    else if (componentType == boolean.class) {
+      return demarshallBooleans(a);
+    }
+    throw new IllegalArgumentException("not a primitive type: " + componentType);
+  }
+
+  /**
+   * Returns the name of the boxed primitive type shared by all elements of the specified collection, or null if the
+   * collection is empty, holds a null, or holds any other type.
+   */
+  public static String getCompactElementType(final Collection<?> collection) {
+    final Iterator<?> iter = collection.iterator();
+    if (!iter.hasNext()) {
+      return null;
+    }
+
+    final Object first = iter.next();
+    if (first == null || !isCompactElementType(first.getClass().getName())) {
+      return null;
+    }
+
+    final Class<?> type = first.getClass();
+    while (iter.hasNext()) {
+      final Object elem = iter.next();
+      if (elem == null || elem.getClass() != type) {
+        return null;
+      }
+    }
+    return type.getName();
+  }
+
+  public static boolean isCompactElementType(final String fqcn) {
+    return "java.lang.Integer".equals(fqcn)
+        || "java.lang.Long".equals(fqcn)
+        || "java.lang.Double".equals(fqcn)
+        || "java.lang.Float".equals(fqcn)
+        || "java.lang.Short".equals(fqcn)
+        || "java.lang.Byte".equals(fqcn)
+        || "java.lang.Character".equals(fqcn)
+        || "java.lang.Boolean".equals(fqcn);
+  }
+
+  /**
+   * Writes the elements of a collection for which {@link #getCompactElementType(Collection)} returned a type.
+   */
+  public static void marshallCompact(final StringBuilder sb, final Collection<?> collection) {
+    sb.append('[');
+    int i = 0;
+    for (final Object elem : collection) {
+      if (i++ > 0) {
+        sb.append(',');
+      }
+
+      if (elem instanceof Long) {
+        sb.append('"').append(elem).append('"');
+      }
+      else if (elem instanceof Double) {
+        appendDouble(sb, (Double) elem);
+      }
+      else if (elem instanceof Float) {
+        appendFloat(sb, (Float) elem);
+      }
+      else if (elem instanceof Character) {
+        appendChar(sb, (Character) elem);
+      }
+      else {
+        sb.append(elem);
+      }
+    }
+    sb.append(']');
+  }
+
+  private static void appendDouble(final StringBuilder sb, final double d) {
+    if (Double.isNaN(d) || Double.isInfinite(d)) {
+      sb.append('"').append(d).append('"');
+    }
+    else {
+      sb.append(d);
+    }
+  }
+
+  private static void appendFloat(final StringBuilder sb, final float f) {
+    if (Float.isNaN(f) || Float.isInfinite(f)) {
+      sb.append('"').append(f).append('"');
+    }
+    else {
+      sb.append(f);
+    }
+  }
+
+  private static void appendChar(final StringBuilder sb, final char c) {
+    sb.append('"');
+    MarshallUtil.jsonStringEscape(sb, c);
+    sb.append('"');
+  }
+
+  /**
+   * Returns the plain value of an element written with the qualified numeric encoding, or the element itself.
+   */
+  private static EJValue unqualify(final EJValue v) {
+    final EJObject obj = v.isObject();
+    if (obj != null) {
+      return obj.get(SerializationParts.NUMERIC_VALUE);
+    }
+    return v;
+  }
+}
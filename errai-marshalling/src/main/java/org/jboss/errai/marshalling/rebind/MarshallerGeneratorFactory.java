@@ -62,6 +62,7 @@ import org.jboss.errai.marshalling.client.api.annotations.AlwaysQualify;
 import org.jboss.errai.marshalling.client.api.json.EJArray;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
 import org.jboss.errai.marshalling.client.marshallers.QualifyingMarshallerWrapper;
+import org.jboss.errai.marshalling.client.util.PrimitiveArrays;
 import org.jboss.errai.marshalling.rebind.api.ArrayMarshallerCallback;
 import org.jboss.errai.marshalling.rebind.api.GeneratorMappingContext;
 import org.jboss.errai.marshalling.rebind.api.GeneratorMappingContextFactory;
@@ -511,6 +512,11 @@ public class MarshallerGeneratorFactory {
                                    final ClassStructureBuilder<?> classBuilder,
                                    final BlockBuilder<?> initMethod) {
 
+    if (dim == 1 && toMap.isPrimitive()) {
+      primitiveArrayCode(toMap, classBuilder);
+      return;
+    }
+
     final Object[] dimParms = new Object[dim];
     dimParms[0] = Stmt.loadVariable("a0").invoke("size");
 
@@ -590,6 +596,26 @@ public class MarshallerGeneratorFactory {
     }
   }
 
+  /**
+   * The innermost dimension of a primitive array is marshalled by {@link PrimitiveArrays}, as a plain JSON array
+   * without boxing or qualifying its elements.
+   */
+  private static void primitiveArrayCode(final MetaClass toMap, final ClassStructureBuilder<?> classBuilder) {
+    // int -> Ints, double -> Doubles, etc.
+    final String primitive = toMap.getFullyQualifiedName();
+    final String suffix = Character.toUpperCase(primitive.charAt(0)) + primitive.substring(1) + "s";
+
+    classBuilder.privateMethod(toMap.asArrayOf(1), "_demarshall1")
+        .parameters(EJArray.class, MarshallingSession.class).body()
+        .append(Stmt.invokeStatic(PrimitiveArrays.class, "demarshall" + suffix, loadVariable("a0")).returnValue())
+        .finish();
+
+    classBuilder.privateMethod(String.class, "_marshall1")
+        .parameters(toMap.asArrayOf(1), MarshallingSession.class).body()
+        .append(Stmt.invokeStatic(PrimitiveArrays.class, "marshall" + suffix, loadVariable("a0")).returnValue())
+        .finish();
+  }
+
   public boolean reachable(final MetaClass cls) {
     if (reachableTypes.isEmpty())
       return true;
@@ -45,18 +45,21 @@ import org.jboss.errai.codegen.util.Bool;
 import org.jboss.errai.codegen.util.GenUtil;
 import org.jboss.errai.codegen.util.If;
 import org.jboss.errai.codegen.util.Implementations;
+import org.jboss.errai.codegen.util.JavassistPrivateMemberAccessor;
 import org.jboss.errai.codegen.util.PrivateAccessUtil;
 import org.jboss.errai.codegen.util.Refs;
 import org.jboss.errai.codegen.util.Stmt;
 import org.jboss.errai.common.client.protocols.SerializationParts;
 import org.jboss.errai.marshalling.client.api.GeneratedMarshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.StreamingMarshaller;
 import org.jboss.errai.marshalling.client.api.exceptions.InvalidMappingException;
 import org.jboss.errai.marshalling.client.api.exceptions.MarshallingException;
 import org.jboss.errai.marshalling.client.api.exceptions.NoAvailableMarshallerException;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
 import org.jboss.errai.marshalling.client.marshallers.ObjectMarshaller;
+import org.jboss.errai.marshalling.client.util.MarshallUtil;
 import org.jboss.errai.marshalling.rebind.MarshallerGeneratorFactory;
 import org.jboss.errai.marshalling.rebind.api.GeneratorMappingContext;
 import org.jboss.errai.marshalling.rebind.api.MappingStrategy;
@@ -77,6 +80,11 @@ import org.jboss.errai.marshalling.rebind.util.MarshallingGenUtil;
  * @author Jonathan Fuerth <jfuerth@redhat.com>
  */
 public class DefaultJavaMappingStrategy implements MappingStrategy {
+  static {
+    PrivateAccessUtil.registerPrivateMemberAccessor(JavassistPrivateMemberAccessor.TYPE,
+        new JavassistPrivateMemberAccessor());
+  }
+
   private final GeneratorMappingContext context;
   private final MetaClass toMap;
   private final boolean gwtTarget;
@@ -114,7 +122,8 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
         BlockBuilder<?> initMethod = null;
         if (!gwtTarget)
           classStructureBuilder = staticOption.staticClass().implementsInterface(
-              parameterizedAs(GeneratedMarshaller.class, typeParametersOf(toMap))).body();
+              parameterizedAs(GeneratedMarshaller.class, typeParametersOf(toMap)))
+              .implementsInterface(parameterizedAs(StreamingMarshaller.class, typeParametersOf(toMap))).body();
         else {
           classStructureBuilder = staticOption.implementsInterface(
               parameterizedAs(GeneratedMarshaller.class, typeParametersOf(toMap))).body();
@@ -231,7 +240,7 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
                                 .toArray(new Object[constructorParameters.size()]))));
               }
               else {
-                PrivateAccessUtil.addPrivateAccessStubs(gwtTarget ? "jsni" : "reflection", classStructureBuilder,
+                PrivateAccessUtil.addPrivateAccessStubs(getPrivateAccessorType(), classStructureBuilder,
                     constructor);
                 builder.append(Stmt.declareVariable(toMap).named("entity")
                     .initializeWith(
@@ -332,7 +341,7 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
               }
               else {
                 if (!context.isExposed(field, classStructureBuilder.getClassDefinition().getName())) {
-                  PrivateAccessUtil.addPrivateAccessStubs(gwtTarget ? "jsni" : "reflection", classStructureBuilder,
+                  PrivateAccessUtil.addPrivateAccessStubs(getPrivateAccessorType(), classStructureBuilder,
                       field);
                   context.markExposed(field, classStructureBuilder.getClassDefinition().getName());
                 }
@@ -369,13 +378,35 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
          * MARSHAL METHOD
          * 
          */
-        final BlockBuilder<?> marshallMethodBlock = classStructureBuilder.publicMethod(String.class, "marshall",
-            Parameter.of(toMap, "a0"), Parameter.of(MarshallingSession.class, "a1"));
+        if (gwtTarget) {
+          final BlockBuilder<?> marshallMethodBlock = classStructureBuilder.publicMethod(String.class, "marshall",
+              Parameter.of(toMap, "a0"), Parameter.of(MarshallingSession.class, "a1"));
 
-        marshallMethodBlock.append(Stmt.loadVariable("this").invoke("lazyInit"));
-        marshallToJSON(marshallMethodBlock, toMap, mappingDefinition, classStructureBuilder, initMethod);
+          marshallMethodBlock.append(Stmt.loadVariable("this").invoke("lazyInit"));
+          marshallToJSON(marshallMethodBlock, toMap, mappingDefinition, classStructureBuilder, initMethod);
 
-        marshallMethodBlock.finish();
+          marshallMethodBlock.finish();
+        }
+        else {
+          // server marshallers write nested objects straight into the caller's buffer.
+          final BlockBuilder<?> streamingMethodBlock = classStructureBuilder.publicMethod(void.class, "marshall",
+              Parameter.of(toMap, "a0"), Parameter.of(MarshallingSession.class, "a1"),
+              Parameter.of(StringBuilder.class, "json"));
+
+          streamingMethodBlock.append(Stmt.loadVariable("this").invoke("lazyInit"));
+          marshallToJSON(streamingMethodBlock, toMap, mappingDefinition, classStructureBuilder, initMethod,
+              JsonSink.Appended);
+
+          streamingMethodBlock.finish();
+
+          classStructureBuilder.publicMethod(String.class, "marshall",
+              Parameter.of(toMap, "a0"), Parameter.of(MarshallingSession.class, "a1"))
+              .append(Stmt.declareFinalVariable("json", StringBuilder.class, Stmt.newObject(StringBuilder.class)))
+              .append(Stmt.loadVariable("this").invoke("marshall", loadVariable("a0"), loadVariable("a1"),
+                  loadVariable("json")))
+              .append(Stmt.loadVariable("json").invoke("toString").returnValue())
+              .finish();
+        }
 
         if (initMethod != null) {
           initMethod.finish();
@@ -469,64 +500,87 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
     return bufSize;
   }
 
+  /**
+   * Where a generated marshall method writes its JSON to.
+   */
+  private enum JsonSink {
+    /**
+     * A buffer of the method's own, which is returned as a String. Nested values are marshalled to Strings as well.
+     */
+    Returned,
+
+    /**
+     * The <tt>json</tt> parameter of a streaming marshall method. Nested values are appended to it as well.
+     */
+    Appended
+  }
+
   public void marshallToJSON(final BlockBuilder<?> builder,
                              final MetaClass toType,
                              final MappingDefinition definition,
                              final ClassStructureBuilder classStructureBuilder,
                              final BlockBuilder<?> initMethod) {
+    marshallToJSON(builder, toType, definition, classStructureBuilder, initMethod, JsonSink.Returned);
+  }
+
+  private void marshallToJSON(final BlockBuilder<?> builder,
+                              final MetaClass toType,
+                              final MappingDefinition definition,
+                              final ClassStructureBuilder classStructureBuilder,
+                              final BlockBuilder<?> initMethod,
+                              final JsonSink sink) {
 
     if (!context.canMarshal(toType.getFullyQualifiedName())) {
       throw new NoAvailableMarshallerException(toType.getName());
     }
 
-    builder.append(
-        If.isNull(loadVariable("a0"))
-            .append(Stmt.load("null").returnValue()).finish()
-        );
-
-    final int bufSize = calcBufferSize(new ArrayList<MappingDefinition>(), definition);
+    if (sink == JsonSink.Returned) {
+      builder.append(
+          If.isNull(loadVariable("a0"))
+              .append(Stmt.load("null").returnValue()).finish()
+          );
 
-    if (toMap.isEnum()) {
+      final int bufSize = calcBufferSize(new ArrayList<MappingDefinition>(), definition);
+      builder.append(Stmt.declareFinalVariable("json", StringBuilder.class,
+          Stmt.newObject(StringBuilder.class, bufSize)));
+    }
+    else {
       builder.append(
-          Stmt.declareFinalVariable(
-              "json",
-              StringBuilder.class,
-              Stmt.newObject(StringBuilder.class)
-              )
+          If.isNull(loadVariable("a0"))
+              .append(Stmt.loadVariable("json").invoke("append", "null"))
+              .append(Stmt.returnVoid()).finish()
           );
+    }
+
+    if (toMap.isEnum()) {
       final ContextualStatementBuilder csb = Stmt.loadVariable("json");
       marshallEnum(csb, Stmt.loadVariable("a0"), toMap);
-      builder.append(csb.invoke("toString").returnValue());
+      builder.append(finish(csb, sink));
       return;
     }
 
     builder.append(Stmt.declareFinalVariable("ref", boolean.class,
         Stmt.loadVariable("a1").invoke("hasObject", Refs.get("a0"))));
 
-    builder.append(
-        Stmt.declareFinalVariable(
-            "json",
-            StringBuilder.class,
-            Stmt.newObject(StringBuilder.class,
-                "{" + keyValue(SerializationParts.ENCODED_TYPE, string(toType.getFullyQualifiedName())) + ",\"" +
-                    SerializationParts.OBJECT_ID + "\"")
-            )
-        );
+    builder.append(Stmt.loadVariable("json").invoke("append", "{" + keyValue(SerializationParts.ENCODED_TYPE, "")));
+
+    builder.append(Stmt.invokeStatic(MarshallUtil.class, "appendEncodedType", Stmt.loadVariable("json"),
+        toType.getFullyQualifiedName(), Stmt.loadVariable("a1")));
 
     builder.append(Stmt.loadVariable("json")
-        .invoke("append", ":\"")
+        .invoke("append", "," + keyValue(SerializationParts.OBJECT_ID, "\""))
         .invoke("append", loadVariable("a1").invoke("getObject", Stmt.loadVariable("a0")))
         .invoke("append", "\"")
         );
 
-    builder.append(
-        If.cond(loadVariable("ref"))
-            .append(Stmt.loadVariable("json").invoke("append", "}").invoke("toString").returnValue())
-            .finish());
-
-    boolean hasEncoded = false;
+    final BlockBuilder<ElseBlockBuilder> ifRef = If.cond(loadVariable("ref"));
+    ifRef.append(finish(Stmt.loadVariable("json").invoke("append", "}"), sink));
+    if (sink == JsonSink.Appended) {
+      ifRef.append(Stmt.returnVoid());
+    }
+    builder.append(ifRef.finish());
 
-    ContextualStatementBuilder appendChain = null;
+    ContextualStatementBuilder appendChain = Stmt.loadVariable("json");
 
     int i = 0;
     for (final MemberMapping mapping : definition.getMemberMappings()) {
@@ -538,14 +592,6 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
       MarshallingGenUtil.ensureMarshallerFieldCreated(classStructureBuilder, toMap, mapping.getType()
             .asBoxed(), lazyInitMethod);
 
-      if (!hasEncoded) {
-        appendChain = Stmt.loadVariable("json").invoke("append", ",");
-        hasEncoded = true;
-      }
-      else if (i > 0) {
-        appendChain.invoke("append", ",");
-      }
-
       final MetaClass targetType = GenUtil.getPrimitiveWrapper(mapping.getType());
 
       final MetaClass compType =
@@ -560,37 +606,55 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
       if (targetType.isArray()) {
         valueStatement = context.getArrayMarshallerCallback().marshal(targetType, valueStatement);
       }
-      appendChain.invoke("append", "\"" + mapping.getKey() + "\":");
+      appendChain.invoke("append", ",\"" + mapping.getKey() + "\":");
 
+      final String marshallerVar = MarshallingGenUtil.getVarName(targetType);
       if (targetType.isEnum()) {
         marshallEnum(appendChain, valueStatement, targetType);
       }
-      else {
+      else if (sink == JsonSink.Returned) {
         appendChain.invoke("append",
-            loadVariable(MarshallingGenUtil.getVarName(targetType))
-                .invoke("marshall", valueStatement, loadVariable("a1")));
+            loadVariable(marshallerVar).invoke("marshall", valueStatement, loadVariable("a1")));
+      }
+      else {
+        // the chain must end here, so that the nested value is written after the key.
+        builder.append(appendChain);
+        builder.append(Stmt.invokeStatic(MarshallUtil.class, "marshallTo", loadVariable("json"),
+            loadVariable(marshallerVar), valueStatement, loadVariable("a1")));
+        appendChain = Stmt.loadVariable("json");
       }
 
       i++;
     }
 
     if (i == 0) {
-      if (appendChain == null) {
-        appendChain = Stmt.loadVariable("json");
-      }
-
       appendChain.invoke("append", ",\"" + SerializationParts.INSTANTIATE_ONLY + "\":true");
     }
 
-    builder.append(appendChain.invoke("append", "}").invoke("toString").returnValue());
+    builder.append(finish(appendChain.invoke("append", "}"), sink));
   }
 
-  private static String keyValue(final String key, final String value) {
-    return "\"" + key + "\":" + value + "";
+  /**
+   * Ends a chain of appends to the <tt>json</tt> buffer: by returning the buffer as a String if it is the method's
+   * own, or as it is otherwise.
+   */
+  private static Statement finish(final ContextualStatementBuilder appendChain, final JsonSink sink) {
+    if (sink == JsonSink.Returned) {
+      return appendChain.invoke("toString").returnValue();
+    }
+    return appendChain;
+  }
+
+  /**
+   * Server marshallers reach non-public members through generated accessor classes where the JVM allows it, rather
+   * than through reflection on every call.
+   */
+  private String getPrivateAccessorType() {
+    return gwtTarget ? "jsni" : JavassistPrivateMemberAccessor.TYPE;
   }
 
-  private static String string(final String value) {
-    return "\"" + value + "\"";
+  private static String keyValue(final String key, final String value) {
+    return "\"" + key + "\":" + value + "";
   }
 
   public Statement valueAccessorFor(final MetaClassMember member, ClassStructureBuilder<?> classStructureBuilder) {
@@ -605,7 +669,7 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
         }
         else {
           if (!context.isExposed(field, classStructureBuilder.getClassDefinition().getName())) {
-            PrivateAccessUtil.addPrivateAccessStubs(gwtTarget ? "jsni" : "reflection", classStructureBuilder, field);
+            PrivateAccessUtil.addPrivateAccessStubs(getPrivateAccessorType(), classStructureBuilder, field);
             context.markExposed(field, classStructureBuilder.getClassDefinition().getName());
           }
 
@@ -622,7 +686,7 @@ public class DefaultJavaMappingStrategy implements MappingStrategy {
       final MetaMethod method = (MetaMethod) member;
       if (!method.isPublic()) {
         if (!context.isExposed(method, classStructureBuilder.getClassDefinition().getName())) {
-          PrivateAccessUtil.addPrivateAccessStubs(gwtTarget ? "jsni" : "reflection", classStructureBuilder, method);
+          PrivateAccessUtil.addPrivateAccessStubs(getPrivateAccessorType(), classStructureBuilder, method);
           context.markExposed(method, classStructureBuilder.getClassDefinition().getName());
         }
 
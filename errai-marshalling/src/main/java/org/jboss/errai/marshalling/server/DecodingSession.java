@@ -13,10 +13,43 @@ import org.jboss.errai.marshalling.client.api.json.EJValue;
  */
 public class DecodingSession extends AbstractMarshallingSession {
 
+  private static final ThreadLocal<DecodingSession> pooled = new ThreadLocal<DecodingSession>();
+
+  private boolean inUse;
+
   public DecodingSession(final ServerMappingContext context) {
     super(context);
   }
 
+  /**
+   * Returns the decoding session of the calling thread, reset and ready for use, or a new session if the thread's
+   * session is already in use (when payloads are decoded re-entrantly). The session must be handed back with
+   * {@link #release()} once the payload has been decoded, and must not be used after that.
+   */
+  public static DecodingSession acquire(final ServerMappingContext context) {
+    DecodingSession session = pooled.get();
+    if (session == null || session.getMappingContext() != context) {
+      session = new DecodingSession(context);
+      pooled.set(session);
+    }
+    else if (session.inUse) {
+      return new DecodingSession(context);
+    }
+
+    session.inUse = true;
+    return session;
+  }
+
+  /**
+   * Resets this session and returns it to the calling thread's pool, if it came from it.
+   */
+  public void release() {
+    if (inUse) {
+      reset();
+      inUse = false;
+    }
+  }
+
   @Override
   public String determineTypeFor(final String formatType, final Object o) {
     final EJValue jsonValue = (EJValue) o;
@@ -24,7 +57,7 @@ public class DecodingSession extends AbstractMarshallingSession {
     if (jsonValue.isObject() != null) {
       final EJObject jsonObject = jsonValue.isObject();
       if (jsonObject.containsKey(SerializationParts.ENCODED_TYPE)) {
-        return jsonObject.get(SerializationParts.ENCODED_TYPE).isString().stringValue();
+        return getEncodedType(jsonObject.get(SerializationParts.ENCODED_TYPE));
       }
       else {
         return Map.class.getName();
@@ -26,10 +26,43 @@ import org.jboss.errai.marshalling.client.api.AbstractMarshallingSession;
  */
 public class EncodingSession extends AbstractMarshallingSession {
   
+  private static final ThreadLocal<EncodingSession> pooled = new ThreadLocal<EncodingSession>();
+
+  private boolean inUse;
+
   public EncodingSession(final ServerMappingContext context) {
     super(context);
   }
 
+  /**
+   * Returns the encoding session of the calling thread, reset and ready for use, or a new session if the thread's
+   * session is already in use (when payloads are encoded re-entrantly). The session must be handed back with
+   * {@link #release()} once the payload has been encoded, and must not be used after that.
+   */
+  public static EncodingSession acquire(final ServerMappingContext context) {
+    EncodingSession session = pooled.get();
+    if (session == null || session.getMappingContext() != context) {
+      session = new EncodingSession(context);
+      pooled.set(session);
+    }
+    else if (session.inUse) {
+      return new EncodingSession(context);
+    }
+
+    session.inUse = true;
+    return session;
+  }
+
+  /**
+   * Resets this session and returns it to the calling thread's pool, if it came from it.
+   */
+  public void release() {
+    if (inUse) {
+      reset();
+      inUse = false;
+    }
+  }
+
   @Override
   public String determineTypeFor(final String formatType, final Object o) {
     if (o == null) return null;
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.server;
+
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.ARRAY;
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.ESCAPED;
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.FALSE;
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.NULL;
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.NUMBER;
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.OBJECT;
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.STRING;
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.TRUE;
+import static org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape.WORD;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.server.json.impl.ErraiJSONTape;
+
+/**
+ * A JSON parser which works directly on UTF-8 encoded bytes. Rather than building maps and lists, the parser only
+ * records where each value starts and ends in the input (see {@link ErraiJSONTape}). Strings and numbers are decoded
+ * when they are read, so the values a demarshaller never looks at are never decoded at all.
+ * <p/>
+ * The parser accepts the same input as the {@link JSONStreamDecoder}, including single-quoted strings and unquoted
+ * words, which are read as strings. The returned values keep a reference to the input, so the input must not be
+ * modified while they are in use.
+ *
+ * @author agent
+ */
+public class JSONByteDecoder {
+  private final byte[] input;
+  private final int end;
+  private int pos;
+
+  private int[] nodes;
+  private int nodeCount;
+
+  private int[] containers = new int[16];
+  private int depth;
+
+  private JSONByteDecoder(final byte[] input, final int offset, final int length) {
+    this.input = input;
+    this.pos = offset;
+    this.end = offset + length;
+
+    // roughly one node for every 8 bytes of a typical bus payload.
+    this.nodes = new int[Math.max(16, length / 8) * 3];
+  }
+
+  public static EJValue decode(final byte[] input) {
+    return decode(input, 0, input.length);
+  }
+
+  public static EJValue decode(final byte[] input, final int offset, final int length) {
+    return new JSONByteDecoder(input, offset, length).parse().getRoot();
+  }
+
+  /**
+   * Decodes the remaining bytes of the specified buffer, without changing its position. Heap buffers are parsed in
+   * place; the contents of direct buffers are copied first.
+   */
+  public static EJValue decode(final ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return decode(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    else {
+      final byte[] bytes = new byte[buffer.remaining()];
+      buffer.duplicate().get(bytes);
+      return decode(bytes);
+    }
+  }
+
+  /**
+   * Reads the specified stream to the end, and decodes its contents.
+   */
+  public static EJValue decode(final InputStream inStream) throws IOException {
+    byte[] bytes = new byte[1024 * 8];
+    int length = 0;
+    int read;
+    while ((read = inStream.read(bytes, length, bytes.length - length)) != -1) {
+      length += read;
+      if (length == bytes.length) {
+        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+      }
+    }
+    return decode(bytes, 0, length);
+  }
+
+  private ErraiJSONTape parse() {
+    while (pos < end) {
+      final int c = input[pos];
+      switch (c) {
+        case '{':
+          open(OBJECT);
+          break;
+
+        case '[':
+          open(ARRAY);
+          break;
+
+        case '}':
+          close(OBJECT);
+          break;
+
+        case ']':
+          close(ARRAY);
+          break;
+
+        case '"':
+        case '\'':
+          readString((byte) c);
+          break;
+
+        case '-':
+        case '.':
+        case '0':
+        case '1':
+        case '2':
+        case '3':
+        case '4':
+        case '5':
+        case '6':
+        case '7':
+        case '8':
+        case '9':
+          readNumber();
+          break;
+
+        default:
+          if (isWordPart(c)) {
+            readWord();
+          }
+          else {
+            // whitespace and separators: nesting and the alternation of keys and values are all we need to know.
+            pos++;
+            continue;
+          }
+      }
+
+      if (depth == 0) {
+        break;
+      }
+    }
+
+    if (depth != 0) {
+      throw new RuntimeException("unexpected end of JSON input: " + depth + " unclosed object(s) or array(s)");
+    }
+
+    return new ErraiJSONTape(input, nodes, nodeCount);
+  }
+
+  private void open(final int type) {
+    if (depth == containers.length) {
+      containers = Arrays.copyOf(containers, depth * 2);
+    }
+    containers[depth++] = addNode(type, pos, 0);
+    pos++;
+  }
+
+  private void close(final int type) {
+    if (depth == 0) {
+      throw new RuntimeException("unexpected '" + (char) input[pos] + "' at offset " + pos);
+    }
+
+    final int container = containers[--depth];
+    if ((nodes[container * 3]) != type) {
+      throw new RuntimeException("mismatched '" + (char) input[pos] + "' at offset " + pos);
+    }
+    nodes[container * 3 + 2] = nodeCount;
+    pos++;
+  }
+
+  private void readString(final byte term) {
+    final int start = ++pos;
+    int flags = 0;
+
+    while (pos < end) {
+      final byte c = input[pos];
+      if (c == term) {
+        addNode(STRING | flags, start, pos);
+        pos++;
+        return;
+      }
+      else if (c == '\\') {
+        flags = ESCAPED;
+        pos += 2;
+      }
+      else {
+        pos++;
+      }
+    }
+
+    throw new RuntimeException("unterminated string literal");
+  }
+
+  /**
+   * Scans a numeric literal. Only the syntax is checked here: the value is parsed when it is read.
+   */
+  private void readNumber() {
+    final int start = pos;
+    if (input[pos] == '-') {
+      pos++;
+    }
+
+    final int intStart = pos;
+    skipDigits();
+    if (pos == intStart) {
+      throw new NumberFormatException("The numeric literal at offset " + start
+          + " is malformed (expected '-' or a digit)");
+    }
+
+    if (pos < end && input[pos] == '.') {
+      pos++;
+      skipDigits();
+    }
+
+    if (pos < end && (input[pos] == 'e' || input[pos] == 'E')) {
+      pos++;
+      if (pos < end && (input[pos] == '+' || input[pos] == '-')) {
+        pos++;
+      }
+      final int expStart = pos;
+      skipDigits();
+      if (pos == expStart) {
+        throw new NumberFormatException("The numeric literal at offset " + start
+            + " is malformed (can't end with e or E)");
+      }
+    }
+
+    addNode(NUMBER, start, pos);
+  }
+
+  private void skipDigits() {
+    while (pos < end && input[pos] >= '0' && input[pos] <= '9') {
+      pos++;
+    }
+  }
+
+  private void readWord() {
+    final int start = pos++;
+    while (pos < end && isWordPart(input[pos])) {
+      pos++;
+    }
+
+    final int length = pos - start;
+    if (length == 4 && matches(start, "null")) {
+      addNode(NULL, start, pos);
+    }
+    else if (length == 4 && matches(start, "true")) {
+      addNode(TRUE, start, pos);
+    }
+    else if (length == 5 && matches(start, "false")) {
+      addNode(FALSE, start, pos);
+    }
+    else {
+      addNode(WORD, start, pos);
+    }
+  }
+
+  private boolean matches(final int start, final String keyword) {
+    for (int i = 0; i < keyword.length(); i++) {
+      if (input[start + i] != keyword.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int addNode(final int type, final int start, final int endOrNext) {
+    if ((nodeCount + 1) * 3 > nodes.length) {
+      nodes = Arrays.copyOf(nodes, nodes.length * 2);
+    }
+
+    final int index = nodeCount * 3;
+    nodes[index] = type;
+    nodes[index + 1] = start;
+    nodes[index + 2] = endOrNext;
+    return nodeCount++;
+  }
+
+  /**
+   * Returns true if the byte can be part of an unquoted word: an ASCII letter, digit, '_' or '$', or any byte of a
+   * multi-byte UTF-8 sequence.
+   */
+  private static boolean isWordPart(final int c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '$' || c < 0;
+  }
+}
@@ -20,6 +20,7 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 import org.jboss.errai.codegen.meta.MetaClass;
 import org.jboss.errai.codegen.meta.MetaClassFactory;
+import org.jboss.errai.config.rebind.CommonConfigAttribs;
 import org.jboss.errai.config.util.ClassScanner;
 import org.jboss.errai.marshalling.client.MarshallingSessionProviderFactory;
 import org.jboss.errai.marshalling.client.api.Marshaller;
@@ -30,6 +31,7 @@ import org.jboss.errai.marshalling.client.api.ParserFactory;
 import org.jboss.errai.marshalling.client.api.annotations.AlwaysQualify;
 import org.jboss.errai.marshalling.client.api.exceptions.MarshallingException;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.client.marshallers.ErraiProtocolEnvelopeMarshaller;
 import org.jboss.errai.marshalling.client.marshallers.ObjectMarshaller;
 import org.jboss.errai.marshalling.client.marshallers.QualifyingMarshallerWrapper;
 import org.jboss.errai.marshalling.client.protocols.MarshallingSessionProvider;
@@ -88,6 +90,11 @@ public class MappingContextSingleton {
     }
 
     context = sContext;
+
+    final int encodedValueCacheSize = CommonConfigAttribs.ENCODED_VALUE_CACHE_SIZE.getInt();
+    if (encodedValueCacheSize > 0) {
+      ErraiProtocolEnvelopeMarshaller.setEncodedValueCache(new ServerEncodedValueCache(context, encodedValueCacheSize));
+    }
   }
 
   private static void dynamicMarshallingWarning() {
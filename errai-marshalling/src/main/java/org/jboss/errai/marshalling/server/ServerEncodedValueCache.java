@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.errai.marshalling.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.errai.marshalling.client.api.EncodedValueCache;
+import org.jboss.errai.marshalling.client.api.HasEncodingVersion;
+import org.jboss.errai.marshalling.client.api.Marshaller;
+import org.jboss.errai.marshalling.client.api.annotations.CacheEncoded;
+import org.jboss.errai.marshalling.client.util.MarshallUtil;
+
+/**
+ * A bounded, least recently used cache of the encodings of {@link CacheEncoded} objects, keyed by the identity (and
+ * the {@link HasEncodingVersion encoding version}, if any) of the object.
+ * <p/>
+ * Each value is encoded in its own marshalling session, with object ids that are unique to that encoding. This keeps
+ * the cached encoding valid in any envelope it is spliced into: its ids can't collide with the ids of the other parts
+ * of the envelope.
+ *
+ * @author agent
+ */
+public class ServerEncodedValueCache implements EncodedValueCache {
+  private static final AtomicLong encodingCounter = new AtomicLong();
+
+  private final ServerMappingContext context;
+  private final ConcurrentMap<Class<?>, Boolean> cacheableTypes = new ConcurrentHashMap<Class<?>, Boolean>();
+  private final Map<IdentityKey, Encoding> cache;
+
+  public ServerEncodedValueCache(final ServerMappingContext context, final int maxSize) {
+    this.context = context;
+    this.cache = new LinkedHashMap<IdentityKey, Encoding>(Math.min(maxSize, 1024), 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<IdentityKey, Encoding> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  @Override
+  public String getEncoded(final Object value) {
+    if (!isCacheable(value.getClass())) {
+      return null;
+    }
+
+    final long version = value instanceof HasEncodingVersion ? ((HasEncodingVersion) value).getEncodingVersion() : 0;
+    final IdentityKey key = new IdentityKey(value);
+
+    synchronized (cache) {
+      final Encoding encoding = cache.get(key);
+      if (encoding != null && encoding.version == version) {
+        return encoding.json;
+      }
+    }
+
+    // encoded outside of the lock: two threads may both encode a new value, but only one encoding is kept.
+    final String json = encode(value);
+    synchronized (cache) {
+      cache.put(key, new Encoding(version, json));
+    }
+    return json;
+  }
+
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  private boolean isCacheable(final Class<?> type) {
+    Boolean cacheable = cacheableTypes.get(type);
+    if (cacheable == null) {
+      cacheableTypes.put(type, cacheable = type.isAnnotationPresent(CacheEncoded.class));
+    }
+    return cacheable;
+  }
+
+  private String encode(final Object value) {
+    final EncodingSession session = new PrefixedEncodingSession(context, "c" + encodingCounter.incrementAndGet() + ".");
+    final Marshaller<Object> marshaller = MarshallUtil.getMarshaller(value, session);
+    final StringBuilder out = new StringBuilder(256);
+    MarshallUtil.marshallTo(out, marshaller, MarshallUtil.maybeUnwrap(value), session);
+    return out.toString();
+  }
+
+  /**
+   * An encoding session which prefixes all object ids it assigns.
+   */
+  private static class PrefixedEncodingSession extends EncodingSession {
+    private final String prefix;
+
+    private PrefixedEncodingSession(final ServerMappingContext context, final String prefix) {
+      super(context);
+      this.prefix = prefix;
+    }
+
+    @Override
+    public String getObject(final Object reference) {
+      return prefix + super.getObject(reference);
+    }
+  }
+
+  private static class IdentityKey {
+    private final Object value;
+
+    private IdentityKey(final Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof IdentityKey && ((IdentityKey) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(value);
+    }
+  }
+
+  private static class Encoding {
+    private final long version;
+    private final String json;
+
+    private Encoding(final long version, final String json) {
+      this.version = version;
+      this.json = json;
+    }
+  }
+}
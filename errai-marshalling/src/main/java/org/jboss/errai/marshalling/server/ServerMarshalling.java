@@ -30,7 +30,7 @@ public abstract class ServerMarshalling extends Marshalling {
   @SuppressWarnings("unchecked")
   public static <T> T fromJSON(final InputStream inputStream, final Class<T> type) throws IOException {
     final MarshallingSession session = MarshallingSessionProviderFactory.getDecoding();
-    return (T) session.getMarshallerInstance(type.getName()).demarshall(JSONStreamDecoder.decode(inputStream), session);
+    return (T) session.getMarshallerInstance(type.getName()).demarshall(JSONByteDecoder.decode(inputStream), session);
   }
 
   public static Object fromJSON(final InputStream inputStream) throws IOException {
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.server.json.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+
+/**
+ * The structure of a parsed JSON document, recorded as a flat array of nodes that point back into the UTF-8 encoded
+ * input. Nothing is decoded up front: strings and numbers are only decoded from the input when they are read through
+ * the {@link EJValue}s handed out by {@link #getRoot()}.
+ * <p/>
+ * Every node takes three slots in the node array: its type, and two values depending on the type. For strings,
+ * numbers and words, these are the start and end offsets of the token in the input (excluding the quotes of a
+ * string). For objects and arrays, the second value is the index of the first node following the container, so that
+ * a whole container can be skipped in one step. The members of an object are stored as alternating key and value
+ * nodes.
+ *
+ * @author agent
+ * @see org.jboss.errai.marshalling.server.JSONByteDecoder
+ */
+public final class ErraiJSONTape {
+  public static final int OBJECT = 1;
+  public static final int ARRAY = 2;
+  public static final int STRING = 3;
+  public static final int NUMBER = 4;
+  public static final int TRUE = 5;
+  public static final int FALSE = 6;
+  public static final int NULL = 7;
+
+  /**
+   * An unquoted token which isn't a keyword. These are read as strings.
+   */
+  public static final int WORD = 8;
+
+  /**
+   * Flags a string which contains escape sequences.
+   */
+  public static final int ESCAPED = 0x10;
+
+  private static final int TYPE_MASK = 0x0F;
+
+  private static final EJValue NULL_VALUE = new ErraiJSONValue(null);
+
+  private final byte[] input;
+  private final int[] nodes;
+  private final int nodeCount;
+
+  public ErraiJSONTape(final byte[] input, final int[] nodes, final int nodeCount) {
+    this.input = input;
+    this.nodes = nodes;
+    this.nodeCount = nodeCount;
+  }
+
+  /**
+   * Returns the value of the outermost node, or a null value if the document is empty.
+   */
+  public EJValue getRoot() {
+    return getValue(nodeCount == 0 ? -1 : 0);
+  }
+
+  EJValue getValue(final int node) {
+    if (node < 0) {
+      return NULL_VALUE;
+    }
+    return new ErraiJSONTapeValue(this, node);
+  }
+
+  int getType(final int node) {
+    return nodes[node * 3] & TYPE_MASK;
+  }
+
+  /**
+   * Returns the index of the first node following the specified node, skipping over the contents of containers.
+   */
+  int getNext(final int node) {
+    switch (getType(node)) {
+      case OBJECT:
+      case ARRAY:
+        return nodes[node * 3 + 2];
+      default:
+        return node + 1;
+    }
+  }
+
+  String getString(final int node) {
+    final int start = nodes[node * 3 + 1];
+    final int end = nodes[node * 3 + 2];
+    return decodeString(input, start, end, (nodes[node * 3] & ESCAPED) != 0);
+  }
+
+  double getNumber(final int node) {
+    final int start = nodes[node * 3 + 1];
+    final int end = nodes[node * 3 + 2];
+
+    // most numbers on the wire are small integers: avoid creating a String for those.
+    int i = start;
+    final boolean negative = i < end && input[i] == '-';
+    if (negative) {
+      i++;
+    }
+    if (i < end && end - i <= 15) {
+      long value = 0;
+      for (; i < end; i++) {
+        final int digit = input[i] - '0';
+        if (digit < 0 || digit > 9) {
+          break;
+        }
+        value = value * 10 + digit;
+      }
+      if (i == end) {
+        return negative ? -(double) value : value;
+      }
+    }
+
+    final char[] chars = new char[end - start];
+    for (int j = 0; j < chars.length; j++) {
+      chars[j] = (char) input[start + j];
+    }
+    return Double.parseDouble(new String(chars));
+  }
+
+  /**
+   * Materializes the specified node as the plain Java objects {@link org.jboss.errai.marshalling.server.JSONStreamDecoder}
+   * would produce: maps, lists, strings, doubles and booleans.
+   */
+  Object getRawValue(final int node) {
+    if (node < 0) {
+      return null;
+    }
+
+    switch (getType(node)) {
+      case OBJECT: {
+        final Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+        final int end = getNext(node);
+        int key = node + 1;
+        while (key < end) {
+          final int value = getNext(key);
+          map.put(getRawValue(key), value < end ? getRawValue(value) : null);
+          key = value < end ? getNext(value) : end;
+        }
+        return map;
+      }
+      case ARRAY: {
+        final List<Object> list = new ArrayList<Object>();
+        final int end = getNext(node);
+        for (int element = node + 1; element < end; element = getNext(element)) {
+          list.add(getRawValue(element));
+        }
+        return list;
+      }
+      case STRING:
+      case WORD:
+        return getString(node);
+      case NUMBER:
+        return getNumber(node);
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      default:
+        return null;
+    }
+  }
+
+  private static String decodeString(final byte[] input, final int start, final int end, final boolean escaped) {
+    // decoding never yields more chars than there are bytes.
+    final char[] out = new char[end - start];
+    int length = 0;
+
+    int i = start;
+    while (i < end) {
+      final int b = input[i] & 0xFF;
+      if (b < 0x80) {
+        if (b == '\\' && escaped) {
+          if (i + 1 >= end) {
+            throw new RuntimeException("illegal escape sequence at end of string");
+          }
+          final char c = (char) input[i + 1];
+          i += 2;
+          switch (c) {
+            case '\\':
+            case '/':
+            case '\'':
+            case '"':
+              out[length++] = c;
+              break;
+            case 'b':
+              out[length++] = '\b';
+              break;
+            case 'f':
+              out[length++] = '\f';
+              break;
+            case 't':
+              out[length++] = '\t';
+              break;
+            case 'r':
+              out[length++] = '\r';
+              break;
+            case 'n':
+              out[length++] = '\n';
+              break;
+            case 'u':
+              if (i + 4 > end) {
+                throw new RuntimeException("illegal unicode escape sequence: expected 4 hex characters after \\u");
+              }
+              int value = 0;
+              for (int j = 0; j < 4; j++) {
+                final int digit = Character.digit((char) input[i + j], 16);
+                if (digit < 0) {
+                  throw new RuntimeException("illegal unicode escape sequence: expected 4 hex characters after \\u");
+                }
+                value = (value << 4) | digit;
+              }
+              out[length++] = (char) value;
+              i += 4;
+              break;
+            default:
+              throw new RuntimeException("illegal escape sequence: " + c);
+          }
+        }
+        else {
+          out[length++] = (char) b;
+          i++;
+        }
+      }
+      else if ((b & 0xE0) == 0xC0 && i + 1 < end) {
+        out[length++] = (char) (((b & 0x1F) << 6) | (input[i + 1] & 0x3F));
+        i += 2;
+      }
+      else if ((b & 0xF0) == 0xE0 && i + 2 < end) {
+        out[length++] = (char) (((b & 0x0F) << 12) | ((input[i + 1] & 0x3F) << 6) | (input[i + 2] & 0x3F));
+        i += 3;
+      }
+      else if ((b & 0xF8) == 0xF0 && i + 3 < end) {
+        final int codePoint = ((b & 0x07) << 18) | ((input[i + 1] & 0x3F) << 12) | ((input[i + 2] & 0x3F) << 6)
+            | (input[i + 3] & 0x3F);
+        if (codePoint >= 0x10000 && codePoint <= Character.MAX_CODE_POINT) {
+          length += Character.toChars(codePoint, out, length);
+        }
+        else {
+          out[length++] = '\uFFFD';
+        }
+        i += 4;
+      }
+      else {
+        // malformed input.
+        out[length++] = '\uFFFD';
+        i++;
+      }
+    }
+
+    return new String(out, 0, length);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.server.json.impl;
+
+import org.jboss.errai.marshalling.client.api.json.EJArray;
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+
+/**
+ * An array backed by a node of an {@link ErraiJSONTape}. Elements are only decoded when they are read.
+ *
+ * @author agent
+ */
+public class ErraiJSONTapeArray implements EJArray {
+  private final ErraiJSONTape tape;
+  private final int node;
+
+  private int[] elements;
+
+  ErraiJSONTapeArray(final ErraiJSONTape tape, final int node) {
+    this.tape = tape;
+    this.node = node;
+  }
+
+  private int[] getElements() {
+    if (elements == null) {
+      final int end = tape.getNext(node);
+
+      int count = 0;
+      for (int element = node + 1; element < end; element = tape.getNext(element)) {
+        count++;
+      }
+
+      final int[] array = new int[count];
+      int i = 0;
+      for (int element = node + 1; element < end; element = tape.getNext(element)) {
+        array[i++] = element;
+      }
+      elements = array;
+    }
+    return elements;
+  }
+
+  @Override
+  public int size() {
+    return getElements().length;
+  }
+
+  @Override
+  public EJValue get(final int index) {
+    return tape.getValue(getElements()[index]);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.server.json.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.errai.marshalling.client.api.json.EJObject;
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+
+/**
+ * An object backed by a node of an {@link ErraiJSONTape}. The keys are decoded the first time the object is accessed;
+ * the values are only decoded when they are read.
+ *
+ * @author agent
+ */
+public class ErraiJSONTapeObject implements EJObject {
+  private final ErraiJSONTape tape;
+  private final int node;
+
+  private Map<String, Integer> members;
+
+  ErraiJSONTapeObject(final ErraiJSONTape tape, final int node) {
+    this.tape = tape;
+    this.node = node;
+  }
+
+  private Map<String, Integer> getMembers() {
+    if (members == null) {
+      final Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+      final int end = tape.getNext(node);
+
+      int key = node + 1;
+      while (key < end) {
+        final int value = tape.getNext(key);
+        final Object name = tape.getRawValue(key);
+        if (name != null) {
+          // a key without a value (a malformed object) reads as null.
+          map.put(name.toString(), value < end ? value : -1);
+        }
+        key = value < end ? tape.getNext(value) : end;
+      }
+      members = map;
+    }
+    return members;
+  }
+
+  @Override
+  public EJValue get(final String name) {
+    final Integer value = getMembers().get(name);
+    return tape.getValue(value == null ? -1 : value);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return Collections.unmodifiableSet(getMembers().keySet());
+  }
+
+  @Override
+  public boolean containsKey(final String name) {
+    return getMembers().containsKey(name);
+  }
+
+  @Override
+  public int size() {
+    return getMembers().size();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.server.json.impl;
+
+import org.jboss.errai.marshalling.client.api.json.EJArray;
+import org.jboss.errai.marshalling.client.api.json.EJBoolean;
+import org.jboss.errai.marshalling.client.api.json.EJNumber;
+import org.jboss.errai.marshalling.client.api.json.EJObject;
+import org.jboss.errai.marshalling.client.api.json.EJString;
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+
+/**
+ * A value backed by a node of an {@link ErraiJSONTape}.
+ *
+ * @author agent
+ */
+public class ErraiJSONTapeValue implements EJValue {
+  private final ErraiJSONTape tape;
+  private final int node;
+
+  private EJObject object;
+  private EJArray array;
+
+  ErraiJSONTapeValue(final ErraiJSONTape tape, final int node) {
+    this.tape = tape;
+    this.node = node;
+  }
+
+  @Override
+  public EJArray isArray() {
+    if (array == null && tape.getType(node) == ErraiJSONTape.ARRAY) {
+      array = new ErraiJSONTapeArray(tape, node);
+    }
+    return array;
+  }
+
+  @Override
+  public EJNumber isNumber() {
+    if (tape.getType(node) == ErraiJSONTape.NUMBER) {
+      return new ErraiJSONNumber(tape.getNumber(node));
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isNull() {
+    return tape.getType(node) == ErraiJSONTape.NULL;
+  }
+
+  @Override
+  public EJObject isObject() {
+    if (object == null && tape.getType(node) == ErraiJSONTape.OBJECT) {
+      object = new ErraiJSONTapeObject(tape, node);
+    }
+    return object;
+  }
+
+  @Override
+  public EJBoolean isBoolean() {
+    switch (tape.getType(node)) {
+      case ErraiJSONTape.TRUE:
+        return ErraiJSONBoolean.TRUE;
+      case ErraiJSONTape.FALSE:
+        return ErraiJSONBoolean.FALSE;
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public EJString isString() {
+    switch (tape.getType(node)) {
+      case ErraiJSONTape.STRING:
+      case ErraiJSONTape.WORD:
+        return new ErraiJSONString(tape.getString(node));
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public Object getRawValue() {
+    return tape.getRawValue(node);
+  }
+}
@@ -24,6 +24,7 @@ import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
 import org.jboss.errai.marshalling.client.api.json.EJArray;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.client.util.PrimitiveArrays;
 
 /**
  * @author Mike Brock
@@ -60,6 +61,9 @@ public class DefaultArrayMarshaller implements Marshaller<Object> {
     }
     else {
       final EJArray arr = a0.isArray();
+      if (dimensions == 1 && isPrimitiveArray()) {
+        return PrimitiveArrays.demarshall(arrayType.getOuterComponentType().asClass(), arr);
+      }
 
       final int[] dims = new int[dimensions];
       dims[0] = arr.size();
@@ -86,6 +90,12 @@ public class DefaultArrayMarshaller implements Marshaller<Object> {
         Array.set(arrayInstance, i, outerMarshaller.demarshall(a0.get(i), a1));
       }
     }
+    else if (dim == 1 && isPrimitiveArray()) {
+      for (int i = 0; i < a0.size(); i++) {
+        Array.set(arrayInstance, i,
+                PrimitiveArrays.demarshall(arrayType.getOuterComponentType().asClass(), a0.get(i).isArray()));
+      }
+    }
     else {
       for (int i = 0; i < a0.size(); i++) {
         Array.set(arrayInstance, i, _demarshall(dim - 1,
@@ -98,6 +108,10 @@ public class DefaultArrayMarshaller implements Marshaller<Object> {
   }
 
   private String _marshall(final Object a0, final MarshallingSession a1) {
+    if (a0.getClass().getComponentType().isPrimitive()) {
+      return PrimitiveArrays.marshall(a0);
+    }
+
     final StringBuilder builder = new StringBuilder("[");
 
     final int length = Array.getLength(a0);
@@ -121,6 +135,10 @@ public class DefaultArrayMarshaller implements Marshaller<Object> {
     return builder.append(']').toString();
   }
 
+  private boolean isPrimitiveArray() {
+    return arrayType.getOuterComponentType().isPrimitive();
+  }
+
   @Override
   public Object[] getEmptyArray() {
     return (Object[]) Array.newInstance(arrayType.getOuterComponentType().asClass(), 0);
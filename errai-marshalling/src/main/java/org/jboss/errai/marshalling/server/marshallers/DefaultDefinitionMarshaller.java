@@ -19,8 +19,13 @@ package org.jboss.errai.marshalling.server.marshallers;
 import org.jboss.errai.codegen.meta.MetaField;
 import org.jboss.errai.codegen.meta.MetaMethod;
 import org.jboss.errai.common.client.protocols.SerializationParts;
+import org.jboss.errai.common.server.util.MemberAccessors;
+import org.jboss.errai.common.server.util.MemberAccessors.ConstructorAccessor;
+import org.jboss.errai.common.server.util.MemberAccessors.FieldAccessor;
+import org.jboss.errai.common.server.util.MemberAccessors.MethodAccessor;
 import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.StreamingMarshaller;
 import org.jboss.errai.marshalling.client.api.exceptions.MarshallingException;
 import org.jboss.errai.marshalling.client.api.json.EJObject;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
@@ -38,23 +43,35 @@ import org.jboss.errai.marshalling.server.MappingContextSingleton;
 import org.jboss.errai.marshalling.server.api.ServerMarshaller;
 import org.mvel2.DataConversion;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
+import java.util.List;
 
 /**
+ * A marshaller which reads and writes the mapped members of a {@link MappingDefinition} at runtime. This is used in
+ * place of a generated marshaller when none is available (for instance, in hot-deploy environments).
+ * <p/>
+ * The members of the definition are resolved once, when the marshaller is first used, into {@link MemberAccessors}.
+ * These are generated classes which access the members directly where the member is visible to its own package, and
+ * accessible reflective members otherwise (for instance, for private fields).
+ *
  * @author Mike Brock
  */
-public class DefaultDefinitionMarshaller implements ServerMarshaller<Object> {
+public class DefaultDefinitionMarshaller implements ServerMarshaller<Object>, StreamingMarshaller<Object> {
   static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final Object[] NO_ARGS = new Object[0];
 
   private final MappingDefinition definition;
 
+  private volatile Instantiator instantiator;
+  private volatile MemberReader[] readers;
+  private volatile MemberWriter[] writers;
+
   public DefaultDefinitionMarshaller(final MappingDefinition definition) {
     this.definition = definition;
   }
@@ -69,6 +86,13 @@ public class DefaultDefinitionMarshaller implements ServerMarshaller<Object> {
     }
   }
 
+  private static Object convert(final Object v, final Class<?> type) {
+    if (v == null || type.isInstance(v)) {
+      return v;
+    }
+    return DataConversion.convert(v, type);
+  }
+
   @SuppressWarnings("unchecked")
   //@Override
   private Class<Object> getTypeHandled() {
@@ -115,50 +139,16 @@ public class DefaultDefinitionMarshaller implements ServerMarshaller<Object> {
               return newInstance;
             }
 
-            final InstantiationMapping cMapping = definition.getInstantiationMapping();
-            final Object[] parms = new Object[cMapping.getMappings().length];
-            final Class[] targetTypes = cMapping.getSignature();
-
-            int i = 0;
-            for (final Mapping mapping : cMapping.getMappings()) {
-              final Marshaller<Object> marshaller = ctx.getMarshallerInstance(mapping.getType().getFullyQualifiedName());
-              //noinspection unchecked
-              parms[i] = DataConversion.convert(
-                      marshaller.demarshall(oMap.get(mapping.getKey()), ctx), targetTypes[i++]);
-            }
-
-            if (cMapping instanceof ConstructorMapping) {
-              final Constructor constructor = ((ConstructorMapping) cMapping).getMember().asConstructor();
-              constructor.setAccessible(true);
-              newInstance = constructor.newInstance(parms);
-            }
-            else {
-              newInstance = ((FactoryMapping) cMapping).getMember().asMethod().invoke(null, parms);
-            }
-
+            newInstance = getInstantiator().newInstance(oMap, ctx);
             ctx.recordObject(objID, newInstance);
           }
 
-          for (final MemberMapping mapping : definition.getWritableMemberMappings()) {
-            final EJValue o1 = oMap.get(mapping.getKey());
+          for (final MemberWriter writer : getWriters()) {
+            final EJValue o1 = oMap.get(writer.key);
 
             if (!o1.isNull()) {
-              final Marshaller<Object> marshaller
-                      = ctx.getMarshallerInstance(mapping.getType().getFullyQualifiedName());
-
-              if (mapping.getBindingMember() instanceof MetaField) {
-                final MetaField f = (MetaField) mapping.getBindingMember();
-
-                setProperty(newInstance, f.asField(),
-                        marshaller.demarshall(o1, ctx));
-              }
-              else {
-                final Method m = ((MetaMethod) mapping.getBindingMember()).asMethod();
-
-                m.invoke(newInstance, DataConversion.convert(
-                        marshaller.demarshall(o1, ctx),
-                        m.getParameterTypes()[0]));
-              }
+              final Marshaller<Object> marshaller = ctx.getMarshallerInstance(writer.typeName);
+              writer.write(newInstance, marshaller.demarshall(o1, ctx));
             }
           }
 
@@ -183,22 +173,20 @@ public class DefaultDefinitionMarshaller implements ServerMarshaller<Object> {
 
   @Override
   public String marshall(final Object o, final MarshallingSession ctx) {
-    final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
-    try {
-      marshall(byteArrayOutputStream, o, ctx);
-      return new String(byteArrayOutputStream.toByteArray(), UTF_8);
-    }
-    catch (Exception e) {
-      throw new RuntimeException(e);
-    }
+    final StringBuilder json = new StringBuilder(128);
+    marshall(o, ctx, json);
+    return json.toString();
   }
 
-
   @Override
   public void marshall(final OutputStream outstream, final Object o, final MarshallingSession mSession) throws IOException {
+    outstream.write(marshall(o, mSession).getBytes(UTF_8));
+  }
 
+  @Override
+  public void marshall(final Object o, final MarshallingSession mSession, final StringBuilder out) {
     if (o == null) {
-      outstream.write("null".getBytes(UTF_8));
+      out.append("null");
       return;
     }
 
@@ -208,10 +196,11 @@ public class DefaultDefinitionMarshaller implements ServerMarshaller<Object> {
     if (definition.getMappingClass().isEnum()) {
       final Enum enumer = (Enum) o;
 
-      outstream.write(("{\"" + SerializationParts.ENCODED_TYPE + "\":\""
-              + enumer.getDeclaringClass().getName() + "\""
-              + ",\"" + SerializationParts.ENUM_STRING_VALUE + "\":\"" + enumer.name() + "\"}")
-              .getBytes(UTF_8));
+      out.append("{\"" + SerializationParts.ENCODED_TYPE + "\":\"")
+          .append(enumer.getDeclaringClass().getName())
+          .append("\",\"" + SerializationParts.ENUM_STRING_VALUE + "\":\"")
+          .append(enumer.name())
+          .append("\"}");
 
       return;
     }
@@ -219,61 +208,187 @@ public class DefaultDefinitionMarshaller implements ServerMarshaller<Object> {
     final boolean enc = ctx.hasObject(o);
     final String hash = ctx.getObject(o);
 
+    out.append("{\"" + SerializationParts.ENCODED_TYPE + "\":\"").append(cls.getName())
+        .append("\",\"" + SerializationParts.OBJECT_ID + "\":\"").append(hash);
+
     if (enc) {
       /**
        * If this object is referencing a duplicate object in the graph, we only provide an ID reference.
        */
 
-      outstream.write(("{\"" + SerializationParts.ENCODED_TYPE + "\":\"" + cls.getName()
-              + "\",\"" + SerializationParts.OBJECT_ID + "\":\"" + hash + "\"}").getBytes(UTF_8));
-
+      out.append("\"}");
       return;
     }
 
+    out.append("\",");
+
     int i = 0;
     boolean first = true;
 
-    outstream.write(("{\"" + SerializationParts.ENCODED_TYPE + "\":\"" + cls.getName() + "\",\""
-            + SerializationParts.OBJECT_ID + "\":\"" + hash + "\",").getBytes(UTF_8));
-
-    for (final MemberMapping mapping : definition.getReadableMemberMappings()) {
+    for (final MemberReader reader : getReaders()) {
       if (!first) {
-        outstream.write(',');
+        out.append(',');
       }
 
       i++;
-      final Object v;
+      final Object v = reader.read(o);
+
+      out.append(reader.encodedKey);
+
+      if (v == null) {
+        out.append("null");
+      }
+      else {
+        MarshallUtil.marshallTo(out, reader.getMarshaller(), v, ctx);
+      }
+
+      first = false;
+    }
+
+    if (i == 0) {
+      out.append("\"" + SerializationParts.INSTANTIATE_ONLY + "\":true");
+    }
+
+    out.append('}');
+  }
+
+  private Instantiator getInstantiator() {
+    if (instantiator == null) {
+      instantiator = new Instantiator(definition.getInstantiationMapping());
+    }
+    return instantiator;
+  }
+
+  private MemberReader[] getReaders() {
+    if (readers == null) {
+      final List<MemberMapping> mappings = definition.getReadableMemberMappings();
+      final MemberReader[] r = new MemberReader[mappings.size()];
+      for (int i = 0; i < r.length; i++) {
+        r[i] = new MemberReader(mappings.get(i));
+      }
+      readers = r;
+    }
+    return readers;
+  }
+
+  private MemberWriter[] getWriters() {
+    if (writers == null) {
+      final List<MemberMapping> mappings = definition.getWritableMemberMappings();
+      final MemberWriter[] w = new MemberWriter[mappings.size()];
+      for (int i = 0; i < w.length; i++) {
+        w[i] = new MemberWriter(mappings.get(i));
+      }
+      writers = w;
+    }
+    return writers;
+  }
+
+  public static Class getClassReference(final EJObject oMap) {
+    try {
+      return Thread.currentThread().getContextClassLoader()
+              .loadClass(oMap.get(SerializationParts.ENCODED_TYPE).isString().stringValue());
+    }
+    catch (ClassNotFoundException e) {
+      throw new RuntimeException("could not instantiate class", e);
+    }
+  }
+
+  /**
+   * Creates new instances through the constructor or factory method of an {@link InstantiationMapping}.
+   */
+  private static final class Instantiator {
+    private final String[] keys;
+    private final String[] typeNames;
+    private final Class<?>[] targetTypes;
+    private final ConstructorAccessor constructor;
+    private final MethodAccessor factoryMethod;
+
+    private Instantiator(final InstantiationMapping cMapping) {
+      final Mapping[] mappings = cMapping.getMappings();
+      keys = new String[mappings.length];
+      typeNames = new String[mappings.length];
+      for (int i = 0; i < mappings.length; i++) {
+        keys[i] = mappings[i].getKey();
+        typeNames[i] = mappings[i].getType().getFullyQualifiedName();
+      }
+      targetTypes = cMapping.getSignature();
+
+      if (cMapping instanceof ConstructorMapping) {
+        constructor = MemberAccessors.forConstructor(((ConstructorMapping) cMapping).getMember().asConstructor());
+        factoryMethod = null;
+      }
+      else {
+        constructor = null;
+        factoryMethod = MemberAccessors.forMethod(((FactoryMapping) cMapping).getMember().asMethod());
+      }
+    }
+
+    private Object newInstance(final EJObject oMap, final MarshallingSession ctx) throws Exception {
+      final Object[] parms = new Object[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        final Marshaller<Object> marshaller = ctx.getMarshallerInstance(typeNames[i]);
+        parms[i] = convert(marshaller.demarshall(oMap.get(keys[i]), ctx), targetTypes[i]);
+      }
+
+      if (constructor != null) {
+        return constructor.newInstance(parms);
+      }
+      else {
+        return factoryMethod.invoke(null, parms);
+      }
+    }
+  }
+
+  /**
+   * Reads a member through its field or getter, and marshalls it with the marshaller of the mapped type.
+   */
+  private static final class MemberReader {
+    private final MemberMapping mapping;
+    private final String encodedKey;
+    private final Member member;
+    private final FieldAccessor field;
+    private final MethodAccessor method;
+    private Marshaller<Object> marshaller;
+
+    private MemberReader(final MemberMapping mapping) {
+      this.mapping = mapping;
+      this.encodedKey = "\"" + mapping.getKey() + "\":";
 
       if (mapping.getReadingMember() instanceof MetaField) {
-        final Field field = ((MetaField) mapping.getReadingMember()).asField();
-        field.setAccessible(true);
+        final Field f = ((MetaField) mapping.getReadingMember()).asField();
+        member = f;
+        field = MemberAccessors.forField(f);
+        method = null;
+      }
+      else {
+        final Method m = ((MetaMethod) mapping.getReadingMember()).asMethod();
+        member = m;
+        field = null;
+        method = MemberAccessors.forMethod(m);
+      }
+    }
 
+    private Object read(final Object o) {
+      if (field != null) {
         try {
-          v = field.get(o);
+          return field.get(o);
         }
         catch (Exception e) {
-          throw new RuntimeException("error accessing field: " + field, e);
+          throw new RuntimeException("error accessing field: " + member, e);
         }
       }
       else {
-        final Method method = ((MetaMethod) mapping.getReadingMember()).asMethod();
-        method.setAccessible(true);
-
         try {
-          v = method.invoke(o);
+          return method.invoke(o, NO_ARGS);
         }
         catch (Exception e) {
-          throw new RuntimeException("error calling getter: " + method, e);
+          throw new RuntimeException("error calling getter: " + member, e);
         }
       }
+    }
 
-      outstream.write(("\"" + mapping.getKey() + "\"").getBytes(UTF_8));
-      outstream.write(':');
-
-      if (v == null) {
-        outstream.write("null".getBytes(UTF_8));
-      }
-      else {
+    private Marshaller<Object> getMarshaller() {
+      if (marshaller == null) {
         final DefinitionsFactory definitionsFactory = MappingContextSingleton.get().getDefinitionsFactory();
 
         if (definitionsFactory == null) {
@@ -292,29 +407,56 @@ public class DefaultDefinitionMarshaller implements ServerMarshaller<Object> {
           throw new RuntimeException("no marshaller instance for: " + mapping.getType().getFullyQualifiedName());
         }
 
-        outstream.write(
-                marshallerInstance.marshall(v, ctx)
-                        .getBytes(UTF_8)
-        );
+        marshaller = marshallerInstance;
       }
-
-      first = false;
+      return marshaller;
     }
-
-    if (i == 0) {
-      outstream.write(("\"" + SerializationParts.INSTANTIATE_ONLY + "\":true").getBytes(UTF_8));
-    }
-
-    outstream.write('}');
   }
 
-  public static Class getClassReference(final EJObject oMap) {
-    try {
-      return Thread.currentThread().getContextClassLoader()
-              .loadClass(oMap.get(SerializationParts.ENCODED_TYPE).isString().stringValue());
+  /**
+   * Writes a demarshalled value to a member through its field or setter.
+   */
+  private static final class MemberWriter {
+    private final String key;
+    private final String typeName;
+    private final Member member;
+    private final FieldAccessor field;
+    private final MethodAccessor method;
+    private final Class<?> targetType;
+
+    private MemberWriter(final MemberMapping mapping) {
+      this.key = mapping.getKey();
+      this.typeName = mapping.getType().getFullyQualifiedName();
+
+      if (mapping.getBindingMember() instanceof MetaField) {
+        final Field f = ((MetaField) mapping.getBindingMember()).asField();
+        member = f;
+        field = MemberAccessors.forField(f);
+        method = null;
+        targetType = f.getType();
+      }
+      else {
+        final Method m = ((MetaMethod) mapping.getBindingMember()).asMethod();
+        member = m;
+        field = null;
+        method = MemberAccessors.forMethod(m);
+        targetType = m.getParameterTypes()[0];
+      }
     }
-    catch (ClassNotFoundException e) {
-      throw new RuntimeException("could not instantiate class", e);
+
+    private void write(final Object instance, final Object value) throws Exception {
+      if (field != null) {
+        try {
+          field.set(instance, convert(value, targetType));
+        }
+        catch (Exception e) {
+          throw new RuntimeException("could not set field (inst=" + instance + "; field=" + member
+              + "; val=" + value + ")", e);
+        }
+      }
+      else {
+        method.invoke(instance, new Object[]{convert(value, targetType)});
+      }
     }
   }
 }
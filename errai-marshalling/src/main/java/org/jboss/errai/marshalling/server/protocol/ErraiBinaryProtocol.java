@@ -0,0 +1,356 @@
+/*
+ * Copyright 2026 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.errai.marshalling.server.protocol;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.errai.common.client.protocols.MessageParts;
+import org.jboss.errai.marshalling.client.Marshalling;
+import org.jboss.errai.marshalling.client.api.Marshaller;
+import org.jboss.errai.marshalling.client.api.MarshallingSession;
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.client.util.MarshallUtil;
+import org.jboss.errai.marshalling.server.DecodingSession;
+import org.jboss.errai.marshalling.server.EncodingSession;
+import org.jboss.errai.marshalling.server.JSONByteDecoder;
+import org.jboss.errai.marshalling.server.MappingContextSingleton;
+
+/**
+ * A binary encoding of Errai Protocol payloads, for traffic between servers where no browser needs to read the
+ * payload. Strings, booleans, integers, longs, doubles and byte arrays are written as tagged binary values, which
+ * avoids the cost of escaping and parsing them as JSON text. All other values are written by their JSON marshallers,
+ * and embedded in the payload as UTF-8 JSON. As all values share one marshalling session, references between the
+ * parts of a payload are preserved just as they are in the JSON encoding.
+ * <p/>
+ * A payload starts with a two byte header, which can't be the start of a JSON payload or of a serialized Java object,
+ * so that receivers can tell the encodings apart with {@link #isBinaryPayload(byte[], int, int)}.
+ *
+ * @author agent
+ */
+public class ErraiBinaryProtocol {
+  private static final byte MAGIC = (byte) 0xEB;
+  private static final byte VERSION = 1;
+
+  private static final int NULL = 0;
+  private static final int FALSE = 1;
+  private static final int TRUE = 2;
+  private static final int INT = 3;
+  private static final int LONG = 4;
+  private static final int DOUBLE = 5;
+  private static final int STRING = 6;
+  private static final int BYTES = 7;
+  private static final int MARSHALLED = 8;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private ErraiBinaryProtocol() {
+  }
+
+  /**
+   * Returns true if the specified bytes start with the header of a binary payload.
+   */
+  public static boolean isBinaryPayload(final byte[] input, final int offset, final int length) {
+    return length >= 2 && input[offset] == MAGIC && input[offset + 1] == VERSION;
+  }
+
+  /**
+   * Encode a standard Errai Protocol payload of the key-value pairs to be sent across the wire.
+   *
+   * @param payload A map of the key-value pairs to be encoded.
+   * @return The encoded payload.
+   */
+  public static byte[] encodePayload(final Map<String, Object> payload) {
+    final Output out = new Output(256);
+    final EncodingSession session = EncodingSession.acquire(MappingContextSingleton.get());
+
+    try {
+      out.write(MAGIC);
+      out.write(VERSION);
+
+      int size = payload.size();
+      if (payload.containsKey(MessageParts.SessionID.name())) {
+        size--;
+      }
+      out.writeVarInt(size);
+
+      for (final Map.Entry<String, Object> entry : payload.entrySet()) {
+        if (MessageParts.SessionID.name().equals(entry.getKey()))
+          continue;
+
+        out.writeString(entry.getKey());
+        writeValue(out, entry.getValue(), session);
+      }
+    }
+    finally {
+      session.release();
+    }
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Decode a payload written by {@link #encodePayload(Map)} to a Map of key value pairs.
+   *
+   * @param input  The buffer holding the payload.
+   * @param offset The offset of the payload within the buffer.
+   * @param length The length of the payload.
+   * @return The decoded Map.
+   */
+  public static Map<String, Object> decodePayload(final byte[] input, final int offset, final int length) {
+    if (!isBinaryPayload(input, offset, length)) {
+      throw new RuntimeException("not a binary errai protocol payload");
+    }
+
+    final Input in = new Input(input, offset + 2, offset + length);
+    final DecodingSession session = DecodingSession.acquire(MappingContextSingleton.get());
+
+    try {
+      final int size = in.readVarInt();
+      final Map<String, Object> payload = new LinkedHashMap<String, Object>(size * 2);
+      for (int i = 0; i < size; i++) {
+        final String key = in.readString();
+        payload.put(key, readValue(in, session));
+      }
+      return payload;
+    }
+    finally {
+      session.release();
+    }
+  }
+
+  public static Map<String, Object> decodePayload(final byte[] input) {
+    return decodePayload(input, 0, input.length);
+  }
+
+  private static void writeValue(final Output out, final Object value, final MarshallingSession session) {
+    if (value == null) {
+      out.write(NULL);
+      return;
+    }
+
+    final Class<?> type = value.getClass();
+    if (type == String.class) {
+      out.write(STRING);
+      out.writeString((String) value);
+    }
+    else if (type == Boolean.class) {
+      out.write((Boolean) value ? TRUE : FALSE);
+    }
+    else if (type == Integer.class) {
+      out.write(INT);
+      out.writeVarLong(zigZag((Integer) value));
+    }
+    else if (type == Long.class) {
+      out.write(LONG);
+      out.writeVarLong(zigZag((Long) value));
+    }
+    else if (type == Double.class) {
+      out.write(DOUBLE);
+      out.writeLong(Double.doubleToRawLongBits((Double) value));
+    }
+    else if (type == byte[].class) {
+      final byte[] bytes = (byte[]) value;
+      out.write(BYTES);
+      out.writeVarInt(bytes.length);
+      out.write(bytes, 0, bytes.length);
+    }
+    else {
+      final Marshaller<Object> marshaller;
+      if (Marshalling.needsQualification(value)) {
+        marshaller = MarshallUtil.getQualifiedNumberMarshaller(value);
+      }
+      else {
+        marshaller = MarshallUtil.getMarshaller(value, session);
+      }
+
+      final StringBuilder json = new StringBuilder(128);
+      MarshallUtil.marshallTo(json, marshaller, MarshallUtil.maybeUnwrap(value), session);
+      final byte[] bytes = ErraiProtocolServer.toUTF8(json);
+
+      out.write(MARSHALLED);
+      out.writeVarInt(bytes.length);
+      out.write(bytes, 0, bytes.length);
+    }
+  }
+
+  private static Object readValue(final Input in, final MarshallingSession session) {
+    final int tag = in.read();
+    switch (tag) {
+      case NULL:
+        return null;
+      case FALSE:
+        return Boolean.FALSE;
+      case TRUE:
+        return Boolean.TRUE;
+      case INT:
+        return (int) unZigZag(in.readVarLong());
+      case LONG:
+        return unZigZag(in.readVarLong());
+      case DOUBLE:
+        return Double.longBitsToDouble(in.readLong());
+      case STRING:
+        return in.readString();
+      case BYTES: {
+        final int length = in.readVarInt();
+        return Arrays.copyOfRange(in.input, in.skip(length), in.pos);
+      }
+      case MARSHALLED: {
+        final int length = in.readVarInt();
+        final EJValue value = JSONByteDecoder.decode(in.input, in.skip(length), length);
+        if (value.isNull()) {
+          return null;
+        }
+
+        final String type = session.determineTypeFor(null, value);
+        final Marshaller<Object> marshaller = session.getMarshallerInstance(type);
+        if (marshaller == null) {
+          throw new RuntimeException("no marshaller for: " + type);
+        }
+        return marshaller.demarshall(value, session);
+      }
+      default:
+        throw new RuntimeException("unknown value tag " + tag + " at offset " + (in.pos - 1));
+    }
+  }
+
+  private static long zigZag(final long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static final class Output {
+    private byte[] buf;
+    private int size;
+
+    private Output(final int capacity) {
+      this.buf = new byte[capacity];
+    }
+
+    private void ensure(final int extra) {
+      if (size + extra > buf.length) {
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+      }
+    }
+
+    private void write(final int b) {
+      ensure(1);
+      buf[size++] = (byte) b;
+    }
+
+    private void write(final byte[] bytes, final int offset, final int length) {
+      ensure(length);
+      System.arraycopy(bytes, offset, buf, size, length);
+      size += length;
+    }
+
+    private void writeVarInt(final int value) {
+      writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        buf[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buf[size++] = (byte) value;
+    }
+
+    private void writeLong(final long value) {
+      ensure(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buf[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void writeString(final String value) {
+      final byte[] bytes = ErraiProtocolServer.toUTF8(value);
+      writeVarInt(bytes.length);
+      write(bytes, 0, bytes.length);
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(buf, size);
+    }
+  }
+
+  private static final class Input {
+    private final byte[] input;
+    private final int end;
+    private int pos;
+
+    private Input(final byte[] input, final int offset, final int end) {
+      this.input = input;
+      this.pos = offset;
+      this.end = end;
+    }
+
+    private int read() {
+      if (pos >= end) {
+        throw new RuntimeException("unexpected end of binary errai protocol payload");
+      }
+      return input[pos++] & 0xFF;
+    }
+
+    /**
+     * Skips the specified number of bytes, and returns the offset they started at.
+     */
+    private int skip(final int length) {
+      if (length < 0 || end - pos < length) {
+        throw new RuntimeException("unexpected end of binary errai protocol payload");
+      }
+      final int start = pos;
+      pos += length;
+      return start;
+    }
+
+    private int readVarInt() {
+      return (int) readVarLong();
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final int b = read();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new RuntimeException("malformed variable length integer at offset " + pos);
+    }
+
+    private long readLong() {
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+        value = (value << 8) | read();
+      }
+      return value;
+    }
+
+    private String readString() {
+      final int length = readVarInt();
+      return new String(input, skip(length), length, UTF_8);
+    }
+  }
+}
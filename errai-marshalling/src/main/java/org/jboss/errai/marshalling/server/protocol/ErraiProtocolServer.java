@@ -17,20 +17,134 @@
 package org.jboss.errai.marshalling.server.protocol;
 
 import java.io.ByteArrayInputStream;
-import java.io.UnsupportedEncodingException;
 import java.util.Map;
 
+import org.jboss.errai.marshalling.client.api.TypeDictionary;
+import org.jboss.errai.marshalling.client.marshallers.ErraiProtocolEnvelopeMarshaller;
 import org.jboss.errai.marshalling.client.protocols.ErraiProtocol;
+import org.jboss.errai.marshalling.server.EncodingSession;
+import org.jboss.errai.marshalling.server.MappingContextSingleton;
 
 /**
  * @author Mike Brock
  */
 public class ErraiProtocolServer extends ErraiProtocol{
+  /**
+   * Builders larger than this are not retained between payloads, so that one very large message doesn't pin its
+   * buffer to the thread for good.
+   */
+  private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+  private static final ThreadLocal<StringBuilder> encodingBuffer = new ThreadLocal<StringBuilder>() {
+    @Override
+    protected StringBuilder initialValue() {
+      return new StringBuilder(1024);
+    }
+  };
+
   public static ByteArrayInputStream encodePayloadToByteArrayInputStream(final Map<String, Object> payload) {
+    return new ByteArrayInputStream(encodePayloadToByteArray(payload));
+  }
+
+  /**
+   * Encodes the payload into a buffer owned by the calling thread, and encodes the JSON as UTF-8 directly from that
+   * buffer, so that no intermediate String of the whole payload is created. The marshalling session is also reused
+   * from the calling thread (see {@link EncodingSession#acquire}).
+   */
+  public static byte[] encodePayloadToByteArray(final Map<String, Object> payload) {
+    return encodePayloadToByteArray(payload, false);
+  }
+
+  /**
+   * Encodes the payload as {@link #encodePayloadToByteArray(Map)} does, optionally writing the types of the encoded
+   * objects as ids (see {@link org.jboss.errai.marshalling.client.api.TypeDictionary}).
+   */
+  public static byte[] encodePayloadToByteArray(final Map<String, Object> payload, final boolean typeDictionary) {
+    StringBuilder buf = encodingBuffer.get();
+    if (buf.length() != 0) {
+      // re-entrant use (a marshaller encoding a nested payload): don't clobber the outer payload.
+      buf = new StringBuilder(1024);
+    }
+
+    final EncodingSession session = EncodingSession.acquire(MappingContextSingleton.get());
     try {
-      return new ByteArrayInputStream(encodePayload(payload).getBytes("UTF-8"));
-    } catch (UnsupportedEncodingException e) {
-      throw new AssertionError("UTF-8 appears not to be supported by this JRE, but that's impossible");
+      if (typeDictionary) {
+        session.setTypeDictionary(new TypeDictionary());
+      }
+      ErraiProtocolEnvelopeMarshaller.INSTANCE.marshall(payload, session, buf);
+      return toUTF8(buf);
     }
+    finally {
+      session.release();
+      if (buf.capacity() > MAX_RETAINED_BUFFER) {
+        encodingBuffer.remove();
+      }
+      else {
+        buf.setLength(0);
+      }
+    }
+  }
+
+  static byte[] toUTF8(final CharSequence chars) {
+    final int length = chars.length();
+
+    int size = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = chars.charAt(i);
+      if (c < 0x80) {
+        size++;
+      }
+      else if (c < 0x800) {
+        size += 2;
+      }
+      else if (isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+          size += 4;
+          i++;
+        }
+        else {
+          size++;
+        }
+      }
+      else {
+        size += 3;
+      }
+    }
+
+    final byte[] bytes = new byte[size];
+    int pos = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = chars.charAt(i);
+      if (c < 0x80) {
+        bytes[pos++] = (byte) c;
+      }
+      else if (c < 0x800) {
+        bytes[pos++] = (byte) (0xC0 | (c >> 6));
+        bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+      }
+      else if (isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+          final int cp = Character.toCodePoint(c, chars.charAt(++i));
+          bytes[pos++] = (byte) (0xF0 | (cp >> 18));
+          bytes[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+          bytes[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+          bytes[pos++] = (byte) (0x80 | (cp & 0x3F));
+        }
+        else {
+          // unpaired surrogate: replaced the same way String.getBytes("UTF-8") does.
+          bytes[pos++] = (byte) '?';
+        }
+      }
+      else {
+        bytes[pos++] = (byte) (0xE0 | (c >> 12));
+        bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return bytes;
+  }
+
+  private static boolean isSurrogate(final char c) {
+    return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
   }
 }
@@ -21,16 +21,32 @@ import static org.slf4j.LoggerFactory.getLogger;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.jboss.errai.codegen.meta.MetaClass;
 import org.jboss.errai.codegen.util.ClassChangeUtil;
 import org.jboss.errai.common.metadata.RebindUtils;
+import org.jboss.errai.config.rebind.EnvUtil;
 import org.jboss.errai.marshalling.client.api.MarshallerFactory;
+import org.jboss.errai.marshalling.rebind.DefinitionsFactory;
+import org.jboss.errai.marshalling.rebind.DefinitionsFactorySingleton;
 import org.jboss.errai.marshalling.rebind.MarshallerGeneratorFactory;
 import org.jboss.errai.marshalling.rebind.MarshallerOutputTarget;
 import org.jboss.errai.marshalling.rebind.MarshallersGenerator;
@@ -45,6 +61,18 @@ import org.slf4j.Logger;
 public abstract class ServerMarshallUtil {
   private static Logger log = getLogger("ErraiMarshalling");
 
+  /**
+   * The property specifying the directory of the server marshaller cache.
+   */
+  public static final String MARSHALLER_CACHE_DIR = "errai.marshalling.server_marshaller_cache_dir";
+
+  /**
+   * Part of the cache key, to be changed whenever the generated marshallers change for the same portable types.
+   */
+  private static final String CACHE_FORMAT_VERSION = "errai-marshallers-1";
+
+  private static final boolean nocache = Boolean.getBoolean("errai.devel.nocache");
+
   private static List<String> urlToFile(Enumeration<URL> urls) {
     final ArrayList<String> files = new ArrayList<String>();
     while (urls.hasMoreElements()) {
@@ -111,39 +139,242 @@ public abstract class ServerMarshallUtil {
       log.warn("could not read marshaller classes: " + e);
     }
 
-    final String classStr = MarshallerGeneratorFactory.getFor(null, MarshallerOutputTarget.Java)
-            .generate(packageName, className);
-
-    final File directory =
-            new File(RebindUtils.getTempDirectory()
-                    + "/errai.gen/classes/" + packageName.replaceAll("\\.", "/"));
+    return getCachedMarshallerFactory(packageName, className);
+  }
 
-    final File sourceFile = new File(directory.getAbsolutePath() + File.separator + className + ".java");
+  /**
+   * Returns the server marshaller factory from the on-disk marshaller cache, generating and compiling it into the
+   * cache first if it isn't there yet. The cache is keyed by a hash of the contents of all portable types (see
+   * {@link #getPortableTypesHash()}), so a cached factory is reused across restarts and, if the cache directory is
+   * shared, across nodes, for as long as none of the portable types change.
+   */
+  private static Class<? extends MarshallerFactory> getCachedMarshallerFactory(final String packageName,
+                                                                               final String className) {
+    final long time = System.currentTimeMillis();
+    final String hash = getPortableTypesHash();
+    final File cacheDir = getMarshallerCacheDir();
+    final File entry = new File(cacheDir, hash);
 
     try {
-      if (directory.exists()) {
-        for (File file : directory.listFiles()) {
-          file.delete();
-        }
-
-        directory.delete();
+      final File cachedClass = getClassFile(entry, packageName, className);
+      if (!nocache && cachedClass.exists()) {
+        log.info("using cached marshaller factory " + entry.getAbsolutePath());
+        return ClassChangeUtil.loadClassDefinition(cachedClass.getAbsolutePath(), packageName, className);
       }
 
+      log.info("no cached marshaller factory for portable types " + hash + ", generating ...");
+      warmUpPortableTypes();
+
+      final String classStr = MarshallerGeneratorFactory.getFor(null, MarshallerOutputTarget.Java)
+              .generate(packageName, className);
+
+      // generate into a private directory first, so that other nodes sharing the cache never see a partial entry.
+      final File work = new File(cacheDir, hash + ".tmp" + System.nanoTime());
+      final File directory = new File(work, RebindUtils.packageNameToDirName(packageName));
       directory.mkdirs();
 
+      final File sourceFile = new File(directory, className + ".java");
       final FileOutputStream outputStream = new FileOutputStream(sourceFile);
+      try {
+        outputStream.write(classStr.getBytes("UTF-8"));
+      }
+      finally {
+        outputStream.close();
+      }
 
-      outputStream.write(classStr.getBytes("UTF-8"));
-      outputStream.flush();
-      outputStream.close();
+      final String compiledClassPath = ClassChangeUtil.compileClass(directory.getAbsolutePath(), packageName,
+              className, work.getAbsolutePath());
 
-      String compiledClassPath = ClassChangeUtil.compileClass(directory.getAbsolutePath(), packageName, className,
-              directory.getAbsolutePath());
+      if (compiledClassPath == null) {
+        deleteRecursively(work);
+        throw new RuntimeException("failed to compile the server marshaller factory");
+      }
 
-      return ClassChangeUtil.loadClassDefinition(compiledClassPath, packageName, className);
+      if (nocache || (!entry.exists() && work.renameTo(entry))) {
+        log.info("generated marshaller factory in " + (System.currentTimeMillis() - time) + "ms.");
+        return ClassChangeUtil.loadClassDefinition(nocache ? compiledClassPath : cachedClass.getAbsolutePath(),
+                packageName, className);
+      }
+      else {
+        // another node or process got there first.
+        deleteRecursively(work);
+        return ClassChangeUtil.loadClassDefinition(cachedClass.getAbsolutePath(), packageName, className);
+      }
     }
     catch (IOException e) {
       throw new RuntimeException("failed to generate class ", e);
     }
   }
+
+  private static File getClassFile(final File root, final String packageName, final String className) {
+    return new File(new File(root, RebindUtils.packageNameToDirName(packageName)), className + ".class");
+  }
+
+  /**
+   * Returns the directory of the marshaller cache. This defaults to a directory in the errai cache directory, and can
+   * be set with the {@value #MARSHALLER_CACHE_DIR} property, for instance to a directory shared by all nodes.
+   */
+  public static File getMarshallerCacheDir() {
+    String dir = System.getProperty(MARSHALLER_CACHE_DIR);
+    if (dir == null) {
+      dir = EnvUtil.getEnvironmentConfig().getFrameworkProperties().get(MARSHALLER_CACHE_DIR);
+    }
+
+    final File file = dir == null ? new File(RebindUtils.getErraiCacheDir(), "marshallers") : new File(dir);
+    file.mkdirs();
+    return file;
+  }
+
+  /**
+   * Returns a hash of the names and class file contents of all portable types, and of the mapping aliases. Unlike
+   * {@link RebindUtils#getClasspathHash()}, this does not depend on file dates or on the location of the classpath,
+   * so all nodes deploying the same application compute the same hash.
+   */
+  public static String getPortableTypesHash() {
+    final DefinitionsFactory definitionsFactory = DefinitionsFactorySingleton.get();
+
+    final List<String> types = new ArrayList<String>();
+    for (final MetaClass cls : definitionsFactory.getExposedClasses()) {
+      types.add(cls.getFullyQualifiedName());
+    }
+    Collections.sort(types);
+
+    final List<byte[]> digests = inParallel(types, new Task<String, byte[]>() {
+      @Override
+      public byte[] run(final String type) throws Exception {
+        return hashClassFile(type);
+      }
+    });
+
+    try {
+      final MessageDigest md = MessageDigest.getInstance("SHA-1");
+      md.update(CACHE_FORMAT_VERSION.getBytes("UTF-8"));
+
+      for (int i = 0; i < types.size(); i++) {
+        md.update(types.get(i).getBytes("UTF-8"));
+        md.update((byte) 0);
+        md.update(digests.get(i));
+      }
+
+      final Map<String, String> aliases = new TreeMap<String, String>(definitionsFactory.getMappingAliases());
+      for (final Map.Entry<String, String> alias : aliases.entrySet()) {
+        md.update((alias.getKey() + "=" + alias.getValue()).getBytes("UTF-8"));
+        md.update((byte) 0);
+      }
+
+      return RebindUtils.hashToHexString(md.digest());
+    }
+    catch (Exception e) {
+      throw new RuntimeException("failed to hash portable types", e);
+    }
+  }
+
+  private static byte[] hashClassFile(final String type) throws Exception {
+    final MessageDigest md = MessageDigest.getInstance("SHA-1");
+    final InputStream in = Thread.currentThread().getContextClassLoader()
+            .getResourceAsStream(type.replace('.', '/') + ".class");
+
+    // types without a class file (arrays and primitives) are covered by their name alone.
+    if (in != null) {
+      try {
+        final byte[] buf = new byte[8192];
+        int read;
+        while ((read = in.read(buf)) != -1) {
+          md.update(buf, 0, read);
+        }
+      }
+      finally {
+        in.close();
+      }
+    }
+    return md.digest();
+  }
+
+  /**
+   * Resolves the fields, methods, constructors and annotations of all portable types and their super types in
+   * parallel, ahead of generation. Generating the marshallers then mostly finds these in the meta class caches. The
+   * marshaller code itself is emitted into a single class, and is generated sequentially.
+   */
+  private static void warmUpPortableTypes() {
+    final List<MetaClass> types = new ArrayList<MetaClass>(DefinitionsFactorySingleton.get().getExposedClasses());
+
+    final long time = System.currentTimeMillis();
+    inParallel(types, new Task<MetaClass, Object>() {
+      @Override
+      public Object run(final MetaClass type) {
+        MetaClass cls = type.getOuterComponentType();
+        while (cls != null) {
+          cls.getDeclaredFields();
+          cls.getDeclaredMethods();
+          cls.getDeclaredConstructors();
+          cls.getAnnotations();
+          cls = cls.getSuperClass();
+        }
+        return null;
+      }
+    });
+    log.debug("resolved " + types.size() + " portable types in " + (System.currentTimeMillis() - time) + "ms.");
+  }
+
+  private interface Task<E, T> {
+    T run(E type) throws Exception;
+  }
+
+  /**
+   * Runs the task for each type on a pool with one thread per core, and returns the results in the order of the types.
+   */
+  private static <E, T> List<T> inParallel(final List<E> types, final Task<E, T> task) {
+    final int threads = Math.max(1, Math.min(types.size(), Runtime.getRuntime().availableProcessors()));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger counter = new AtomicInteger();
+
+      @Override
+      public Thread newThread(final Runnable r) {
+        final Thread thread = new Thread(r, "errai-marshaller-gen-" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        return thread;
+      }
+    });
+
+    try {
+      final List<Future<T>> futures = new ArrayList<Future<T>>(types.size());
+      for (final E type : types) {
+        futures.add(executor.submit(new Callable<T>() {
+          @Override
+          public T call() throws Exception {
+            return task.run(type);
+          }
+        }));
+      }
+
+      final List<T> results = new ArrayList<T>(types.size());
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          results.add(futures.get(i).get());
+        }
+        catch (ExecutionException e) {
+          throw new RuntimeException("failed to process portable type: " + types.get(i), e.getCause());
+        }
+      }
+      return results;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("interrupted while processing portable types", e);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void deleteRecursively(final File file) {
+    final File[] children = file.listFiles();
+    if (children != null) {
+      for (final File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    file.delete();
+  }
 }
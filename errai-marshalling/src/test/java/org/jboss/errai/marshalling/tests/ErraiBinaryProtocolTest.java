@@ -0,0 +1,87 @@
+package org.jboss.errai.marshalling.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.errai.common.client.protocols.MessageParts;
+import org.jboss.errai.marshalling.server.protocol.ErraiBinaryProtocol;
+import org.jboss.errai.marshalling.tests.res.shared.Role;
+import org.jboss.errai.marshalling.tests.res.shared.User;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class ErraiBinaryProtocolTest {
+
+  static {
+    System.setProperty("errai.devel.nocache", "true");
+  }
+
+  @Test
+  public void testSimpleValues() {
+    final Map<String, Object> payload = new LinkedHashMap<String, Object>();
+    payload.put("String", "h\u00e9llo \u20ac");
+    payload.put("True", true);
+    payload.put("False", false);
+    payload.put("Int", Integer.MIN_VALUE);
+    payload.put("Long", -42L);
+    payload.put("Double", 3.5d);
+    payload.put("Bytes", new byte[] { 1, 2, -3 });
+    payload.put("Null", null);
+    payload.put(MessageParts.SessionID.name(), "not sent");
+
+    final byte[] encoded = ErraiBinaryProtocol.encodePayload(payload);
+    assertTrue(ErraiBinaryProtocol.isBinaryPayload(encoded, 0, encoded.length));
+
+    final Map<String, Object> decoded = ErraiBinaryProtocol.decodePayload(encoded);
+    assertEquals("h\u00e9llo \u20ac", decoded.get("String"));
+    assertEquals(Boolean.TRUE, decoded.get("True"));
+    assertEquals(Boolean.FALSE, decoded.get("False"));
+    assertEquals(Integer.MIN_VALUE, decoded.get("Int"));
+    assertEquals(-42L, decoded.get("Long"));
+    assertEquals(3.5d, decoded.get("Double"));
+    assertArrayEquals(new byte[] { 1, 2, -3 }, (byte[]) decoded.get("Bytes"));
+    assertTrue(decoded.containsKey("Null"));
+    assertNull(decoded.get("Null"));
+    assertFalse(decoded.containsKey(MessageParts.SessionID.name()));
+  }
+
+  @Test
+  public void testMarshalledValuesShareReferences() {
+    final User user = new User();
+    user.setUserName("foo");
+    user.setRoles(new HashSet<Role>(Arrays.asList(new Role("admin"))));
+
+    final Map<String, Object> payload = new LinkedHashMap<String, Object>();
+    payload.put("User", user);
+    payload.put("Users", new ArrayList<User>(Arrays.asList(user, user)));
+    payload.put("Short", (short) 7);
+
+    final byte[] encoded = ErraiBinaryProtocol.encodePayload(payload);
+    final Map<String, Object> decoded = ErraiBinaryProtocol.decodePayload(encoded);
+
+    assertEquals(user, decoded.get("User"));
+    final List<?> users = (List<?>) decoded.get("Users");
+    assertSame(decoded.get("User"), users.get(0));
+    assertSame(decoded.get("User"), users.get(1));
+    assertEquals((short) 7, decoded.get("Short"));
+  }
+
+  @Test
+  public void testJsonIsNotBinary() throws Exception {
+    final byte[] json = "{\"ToSubject\":\"Foo\"}".getBytes("UTF-8");
+    assertFalse(ErraiBinaryProtocol.isBinaryPayload(json, 0, json.length));
+  }
+}
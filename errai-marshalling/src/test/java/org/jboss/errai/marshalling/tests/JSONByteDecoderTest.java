@@ -0,0 +1,146 @@
+package org.jboss.errai.marshalling.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.errai.marshalling.client.api.json.EJObject;
+import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.server.JSONByteDecoder;
+import org.jboss.errai.marshalling.server.JSONStreamDecoder;
+import org.junit.Test;
+
+/**
+ * Tests for the byte-level JSON decoder. The common cases are covered through {@link JSONDecoderTest}.
+ *
+ * @author agent
+ */
+public class JSONByteDecoderTest {
+
+  private static byte[] utf8(final String s) throws Exception {
+    return s.getBytes("UTF-8");
+  }
+
+  @Test
+  public void testDecodeFromOffset() throws Exception {
+    final byte[] bytes = utf8("xxx{\"a\":[1,2,3]}yyy");
+    final EJValue ejv = JSONByteDecoder.decode(bytes, 3, bytes.length - 6);
+    assertEquals(3, ejv.isObject().get("a").isArray().size());
+    assertEquals(3, ejv.isObject().get("a").isArray().get(2).isNumber().intValue());
+  }
+
+  @Test
+  public void testDecodeByteBufferLeavesPositionUnchanged() throws Exception {
+    final ByteBuffer heap = ByteBuffer.wrap(utf8("--{\"a\":\"b\"}"));
+    heap.position(2);
+    assertEquals("b", JSONByteDecoder.decode(heap).isObject().get("a").isString().stringValue());
+    assertEquals(2, heap.position());
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(16);
+    direct.put(utf8("{\"a\":\"b\"}")).flip();
+    assertEquals("b", JSONByteDecoder.decode(direct).isObject().get("a").isString().stringValue());
+    assertEquals(0, direct.position());
+  }
+
+  @Test
+  public void testDecodeEscapesAndMultiByteCharacters() throws Exception {
+    final EJValue ejv = JSONByteDecoder.decode(utf8("{\"s\":\"a\\\"b\\\\c\\n\\u00e9\u00e9\u20ac\ud834\udd1e\"}"));
+    assertEquals("a\"b\\c\n\u00e9\u00e9\u20ac\ud834\udd1e", ejv.isObject().get("s").isString().stringValue());
+  }
+
+  @Test
+  public void testDecodeSingleQuotedStringsAndWords() throws Exception {
+    final EJObject obj = JSONByteDecoder.decode(utf8("{'a':'it\"s', b: word}")).isObject();
+    assertEquals("it\"s", obj.get("a").isString().stringValue());
+    assertEquals("word", obj.get("b").isString().stringValue());
+  }
+
+  @Test
+  public void testKeysKeepTheirOrder() throws Exception {
+    final EJObject obj = JSONByteDecoder.decode(utf8("{\"z\":1,\"a\":{\"x\":[]},\"m\":null}")).isObject();
+    final Iterator<String> keys = obj.keySet().iterator();
+    assertEquals("z", keys.next());
+    assertEquals("a", keys.next());
+    assertEquals("m", keys.next());
+    assertFalse(keys.hasNext());
+
+    assertTrue(obj.containsKey("m"));
+    assertTrue(obj.get("m").isNull());
+    assertFalse(obj.containsKey("missing"));
+    assertTrue(obj.get("missing").isNull());
+  }
+
+  @Test
+  public void testRawValueMatchesStreamDecoder() throws Exception {
+    final String json = "{\"a\":[1,-2.5,\"x\",true,false,null,{\"b\":{}}],\"c\":\"\\u0041\",\"d\":{\"e\":[[],[1]]}}";
+
+    final Object expected = JSONStreamDecoder.decode(new ByteArrayInputStream(utf8(json))).getRawValue();
+    final Object actual = JSONByteDecoder.decode(new ByteArrayInputStream(utf8(json))).getRawValue();
+
+    assertEquals(expected, actual);
+    assertTrue(actual instanceof Map);
+    assertEquals(Arrays.asList(1.0, -2.5, "x", true, false, null), ((List<?>) ((Map<?, ?>) actual).get("a")).subList(0, 6));
+  }
+
+  @Test
+  public void testDecodeEmptyInput() throws Exception {
+    final EJValue ejv = JSONByteDecoder.decode(utf8("  "));
+    assertNotNull(ejv);
+    assertTrue(ejv.isNull());
+    assertNull(ejv.isObject());
+  }
+
+  @Test
+  public void testDecodeLargeInputFromStream() throws Exception {
+    final StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < 10000; i++) {
+      if (i > 0) {
+        sb.append(",");
+      }
+      sb.append("{\"i\":").append(i).append(",\"s\":\"value").append(i).append("\"}");
+    }
+    sb.append("]");
+
+    final EJValue ejv = JSONByteDecoder.decode(new ByteArrayInputStream(utf8(sb.toString())));
+    assertEquals(10000, ejv.isArray().size());
+    assertEquals(9999, ejv.isArray().get(9999).isObject().get("i").isNumber().intValue());
+    assertEquals("value5000", ejv.isArray().get(5000).isObject().get("s").isString().stringValue());
+  }
+
+  @Test
+  public void testUnbalancedInputIsRejected() throws Exception {
+    try {
+      JSONByteDecoder.decode(utf8("{\"a\":[1,2}"));
+      fail("expected mismatched bracket to be rejected");
+    }
+    catch (RuntimeException e) {
+      // expected
+    }
+
+    try {
+      JSONByteDecoder.decode(utf8("{\"a\":[1,2]"));
+      fail("expected truncated input to be rejected");
+    }
+    catch (RuntimeException e) {
+      // expected
+    }
+
+    try {
+      JSONByteDecoder.decode(utf8("{\"a\":\"b}"));
+      fail("expected unterminated string to be rejected");
+    }
+    catch (RuntimeException e) {
+      // expected
+    }
+  }
+}
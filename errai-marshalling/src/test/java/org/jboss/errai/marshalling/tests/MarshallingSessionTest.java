@@ -0,0 +1,91 @@
+package org.jboss.errai.marshalling.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.errai.marshalling.client.api.TypeDictionary;
+import org.jboss.errai.marshalling.server.DecodingSession;
+import org.jboss.errai.marshalling.server.EncodingSession;
+import org.jboss.errai.marshalling.server.MappingContextSingleton;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class MarshallingSessionTest {
+
+  static {
+    System.setProperty("errai.devel.nocache", "true");
+  }
+
+  @Test
+  public void testObjectIds() {
+    final EncodingSession session = new EncodingSession(MappingContextSingleton.get());
+    final Object a = new Object();
+    final Object b = new Object();
+
+    assertFalse(session.hasObject(a));
+    assertEquals("1", session.getObject(a));
+    assertEquals("2", session.getObject(b));
+    assertEquals("1", session.getObject(a));
+    assertTrue(session.hasObject(a));
+    assertTrue(session.hasObject("2"));
+    assertSame(b, session.getObject(Object.class, "2"));
+
+    for (int i = 0; i < 1000; i++) {
+      session.getObject(new Object());
+    }
+    assertEquals("2", session.getObject(b));
+  }
+
+  @Test
+  public void testRecordedIds() {
+    final DecodingSession session = new DecodingSession(MappingContextSingleton.get());
+    final Object a = new Object();
+    final Object b = new Object();
+    final Object c = new Object();
+
+    session.recordObject("7", a);
+    session.recordObject("100000", b);
+    session.recordObject("x1", c);
+    assertSame(a, session.recordObject("-1", a));
+
+    assertSame(a, session.getObject(Object.class, "7"));
+    assertSame(b, session.getObject(Object.class, "100000"));
+    assertSame(c, session.getObject(Object.class, "x1"));
+    assertFalse(session.hasObject("-1"));
+    assertFalse(session.hasObject("07"));
+    assertNull(session.getObject(Object.class, "8"));
+  }
+
+  @Test
+  public void testAcquiredSessionIsResetAndReused() {
+    final EncodingSession session = EncodingSession.acquire(MappingContextSingleton.get());
+    final Object a = new Object();
+    session.getObject(a);
+    session.setTypeDictionary(new TypeDictionary());
+    session.setAssumedElementType(String.class.getName());
+
+    final EncodingSession nested = EncodingSession.acquire(MappingContextSingleton.get());
+    assertNotSame(session, nested);
+    nested.release();
+    session.release();
+
+    final EncodingSession reused = EncodingSession.acquire(MappingContextSingleton.get());
+    try {
+      assertSame(session, reused);
+      assertFalse(reused.hasObject(a));
+      assertFalse(reused.hasObject("1"));
+      assertNull(reused.getTypeDictionary());
+      assertNull(reused.getAssumedElementType());
+      assertEquals("1", reused.getObject(new Object()));
+    }
+    finally {
+      reused.release();
+    }
+  }
+}
@@ -5,10 +5,13 @@ import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
@@ -17,11 +20,13 @@ import java.util.TreeSet;
 
 import junit.framework.Assert;
 
+import org.jboss.errai.common.client.protocols.SerializationParts;
 import org.jboss.errai.marshalling.client.MarshallingSessionProviderFactory;
 import org.jboss.errai.marshalling.client.api.Marshaller;
 import org.jboss.errai.marshalling.client.api.MarshallingSession;
 import org.jboss.errai.marshalling.client.api.ParserFactory;
 import org.jboss.errai.marshalling.client.api.json.EJValue;
+import org.jboss.errai.marshalling.client.protocols.ErraiProtocol;
 import org.jboss.errai.marshalling.server.MappingContextSingleton;
 import org.jboss.errai.marshalling.server.ServerMarshalling;
 import org.jboss.errai.marshalling.tests.res.EntityWithInheritedTypeVariable;
@@ -32,6 +37,7 @@ import org.jboss.errai.marshalling.tests.res.EnumWithAbstractMethod;
 import org.jboss.errai.marshalling.tests.res.EnumWithState;
 import org.jboss.errai.marshalling.tests.res.ImmutableEnumContainer;
 import org.jboss.errai.marshalling.tests.res.SType;
+import org.jboss.errai.marshalling.tests.res.shared.Quote;
 import org.jboss.errai.marshalling.tests.res.shared.Role;
 import org.jboss.errai.marshalling.tests.res.shared.User;
 import org.junit.Test;
@@ -179,6 +185,45 @@ public class ServerMarshallingTest {
     testEncodeDecode(long[].class, new long[]{1l, 2l, 3l, 4l, 5l, 6l, 7l, 8l, 9l});
   }
 
+  @Test
+  public void testPrimDoubleArray() {
+    testEncodeDecode(double[].class, new double[]{1.5, -2, Double.NaN, Double.NEGATIVE_INFINITY});
+  }
+
+  @Test
+  public void testPrimCharArray() {
+    testEncodeDecode(char[].class, new char[]{'a', '"', '\\', '\n'});
+  }
+
+  @Test
+  public void testPrimArraysAreNotQualified() {
+    final MarshallingSession session = MarshallingSessionProviderFactory.getEncoding();
+    Assert.assertEquals("[1,2,3]",
+        MappingContextSingleton.get().getMarshaller(int[].class.getName()).marshall(new int[]{1, 2, 3}, session));
+    Assert.assertEquals("[\"9007199254740993\"]",
+        MappingContextSingleton.get().getMarshaller(long[].class.getName()).marshall(new long[]{9007199254740993L}, session));
+  }
+
+  @Test
+  public void testNumericListIsCompact() {
+    final List<Integer> list = Arrays.asList(1, 2, 3);
+    final String json = ServerMarshalling.toJSON(list);
+    Assert.assertTrue("expected plain array elements: " + json, json.contains("[1,2,3]"));
+    Assert.assertFalse(json.contains(SerializationParts.NUMERIC_VALUE));
+    Assert.assertEquals(list, ServerMarshalling.fromJSON(json, List.class));
+
+    final Set<Long> set = new HashSet<Long>(Arrays.asList(Long.MAX_VALUE, Long.MIN_VALUE));
+    Assert.assertEquals(set, ServerMarshalling.fromJSON(ServerMarshalling.toJSON(set), Set.class));
+  }
+
+  @Test
+  public void testMixedListIsQualified() {
+    final List<Number> list = Arrays.<Number>asList(1, 2L, 3.0);
+    final String json = ServerMarshalling.toJSON(list);
+    Assert.assertTrue(json.contains(SerializationParts.NUMERIC_VALUE));
+    Assert.assertEquals(list, ServerMarshalling.fromJSON(json, List.class));
+  }
+
 
   @Test
   public void testIntegerMaxValue() {
@@ -440,6 +485,58 @@ public class ServerMarshallingTest {
     testEncodeDecodeDynamic(user);
   }
 
+  @Test
+  public void testPayloadWithTypeDictionary() {
+    List<User> users = new ArrayList<User>();
+    for (int i = 0; i < 10; i++) {
+      User user = new User();
+      user.setUserName("user" + i);
+      user.setRoles(new HashSet<Role>(Collections.singleton(new Role("role" + i))));
+      users.add(user);
+    }
+
+    Map<String, Object> payload = new HashMap<String, Object>();
+    payload.put("Users", users);
+    payload.put("Count", 10L);
+
+    String json = ErraiProtocol.encodePayload(payload, true);
+    Assert.assertEquals("expected the type name to be written once", json.indexOf(User.class.getName()),
+            json.lastIndexOf(User.class.getName()));
+    Assert.assertTrue("expected a shorter payload", json.length() < ErraiProtocol.encodePayload(payload).length());
+
+    Map<String, Object> decoded = ErraiProtocol.decodePayload(ParserFactory.get().parse(json));
+    Assert.assertEquals(users, decoded.get("Users"));
+    Assert.assertEquals(10L, decoded.get("Count"));
+    Assert.assertFalse(decoded.containsKey(SerializationParts.TYPE_TABLE));
+  }
+
+  @Test
+  public void testPayloadWithCachedEncoding() {
+    final Quote quote = new Quote();
+    quote.setSymbol("RHT");
+    quote.setPrice(50.5);
+
+    final User user = new User();
+    user.setUserName("foo");
+
+    final Map<String, Object> payload = new LinkedHashMap<String, Object>();
+    payload.put("User", user);
+    payload.put("Quote", quote);
+
+    final String json = ErraiProtocol.encodePayload(payload);
+    Assert.assertTrue("expected the quote to be encoded with its own object ids",
+            json.matches("(?s).*\"c\\d+\\.1\".*"));
+    Assert.assertEquals(json, ErraiProtocol.encodePayload(payload));
+
+    Map<String, Object> decoded = ErraiProtocol.decodePayload(ParserFactory.get().parse(json));
+    Assert.assertEquals(user, decoded.get("User"));
+    Assert.assertEquals(quote, decoded.get("Quote"));
+
+    quote.setPrice(51.0);
+    decoded = ErraiProtocol.decodePayload(ParserFactory.get().parse(ErraiProtocol.encodePayload(payload)));
+    Assert.assertEquals("expected a new encoding once the version changed", quote, decoded.get("Quote"));
+  }
+
   class ServerRandomProvider implements RandomProvider {
     private final char[] CHARS = {'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q',
             'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '0'};
@@ -0,0 +1,51 @@
+package org.jboss.errai.marshalling.tests.res.shared;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.jboss.errai.marshalling.client.api.HasEncodingVersion;
+import org.jboss.errai.marshalling.client.api.annotations.CacheEncoded;
+
+/**
+ * @author agent
+ */
+@Portable
+@CacheEncoded
+public class Quote implements HasEncodingVersion {
+  private String symbol;
+  private double price;
+  private long version;
+
+  public String getSymbol() {
+    return symbol;
+  }
+
+  public void setSymbol(String symbol) {
+    this.symbol = symbol;
+    version++;
+  }
+
+  public double getPrice() {
+    return price;
+  }
+
+  public void setPrice(double price) {
+    this.price = price;
+    version++;
+  }
+
+  @Override
+  public long getEncodingVersion() {
+    return version;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof Quote)) return false;
+    final Quote quote = (Quote) o;
+    return price == quote.price && (symbol == null ? quote.symbol == null : symbol.equals(quote.symbol));
+  }
+
+  @Override
+  public int hashCode() {
+    return symbol == null ? 0 : symbol.hashCode();
+  }
+}